@@ -302,6 +302,14 @@ public class ConfigNodeConfig {
   private long schemaRegionRatisPeriodicSnapshotInterval = 60 * 60 * 24L; // 24h
   private long dataRegionRatisPeriodicSnapshotInterval = 60 * 60 * 24L; // 24h
 
+  private int configNodeRatisApplyBatchSizeMax = 1;
+  private int schemaRegionRatisApplyBatchSizeMax = 1;
+
+  private boolean configNodeRatisLeaderLeaseEnabled = true;
+  private boolean schemaRegionRatisLeaderLeaseEnabled = true;
+  private double configNodeRatisLeaderLeaseTimeoutRatio = 0.9;
+  private double schemaRegionRatisLeaderLeaseTimeoutRatio = 0.9;
+
   /** The getOrCreatePartitionTable interface will log new created Partition if set true. */
   private boolean isEnablePrintingNewlyCreatedPartition = false;
 
@@ -1198,6 +1206,56 @@ public class ConfigNodeConfig {
     this.dataRegionRatisPeriodicSnapshotInterval = dataRegionRatisPeriodicSnapshotInterval;
   }
 
+  public int getConfigNodeRatisApplyBatchSizeMax() {
+    return configNodeRatisApplyBatchSizeMax;
+  }
+
+  public void setConfigNodeRatisApplyBatchSizeMax(int configNodeRatisApplyBatchSizeMax) {
+    this.configNodeRatisApplyBatchSizeMax = configNodeRatisApplyBatchSizeMax;
+  }
+
+  public int getSchemaRegionRatisApplyBatchSizeMax() {
+    return schemaRegionRatisApplyBatchSizeMax;
+  }
+
+  public void setSchemaRegionRatisApplyBatchSizeMax(int schemaRegionRatisApplyBatchSizeMax) {
+    this.schemaRegionRatisApplyBatchSizeMax = schemaRegionRatisApplyBatchSizeMax;
+  }
+
+  public boolean isConfigNodeRatisLeaderLeaseEnabled() {
+    return configNodeRatisLeaderLeaseEnabled;
+  }
+
+  public void setConfigNodeRatisLeaderLeaseEnabled(boolean configNodeRatisLeaderLeaseEnabled) {
+    this.configNodeRatisLeaderLeaseEnabled = configNodeRatisLeaderLeaseEnabled;
+  }
+
+  public boolean isSchemaRegionRatisLeaderLeaseEnabled() {
+    return schemaRegionRatisLeaderLeaseEnabled;
+  }
+
+  public void setSchemaRegionRatisLeaderLeaseEnabled(boolean schemaRegionRatisLeaderLeaseEnabled) {
+    this.schemaRegionRatisLeaderLeaseEnabled = schemaRegionRatisLeaderLeaseEnabled;
+  }
+
+  public double getConfigNodeRatisLeaderLeaseTimeoutRatio() {
+    return configNodeRatisLeaderLeaseTimeoutRatio;
+  }
+
+  public void setConfigNodeRatisLeaderLeaseTimeoutRatio(
+      double configNodeRatisLeaderLeaseTimeoutRatio) {
+    this.configNodeRatisLeaderLeaseTimeoutRatio = configNodeRatisLeaderLeaseTimeoutRatio;
+  }
+
+  public double getSchemaRegionRatisLeaderLeaseTimeoutRatio() {
+    return schemaRegionRatisLeaderLeaseTimeoutRatio;
+  }
+
+  public void setSchemaRegionRatisLeaderLeaseTimeoutRatio(
+      double schemaRegionRatisLeaderLeaseTimeoutRatio) {
+    this.schemaRegionRatisLeaderLeaseTimeoutRatio = schemaRegionRatisLeaderLeaseTimeoutRatio;
+  }
+
   public TConfigNodeLocation generateLocalConfigNodeLocationWithSpecifiedNodeId(int configNodeId) {
     return new TConfigNodeLocation(
         configNodeId,
@@ -686,6 +686,42 @@ public class ConfigNodeDescriptor {
                 "data_region_ratis_periodic_snapshot_interval",
                 String.valueOf(conf.getDataRegionRatisPeriodicSnapshotInterval()))));
 
+    conf.setConfigNodeRatisApplyBatchSizeMax(
+        Integer.parseInt(
+            properties.getProperty(
+                "config_node_ratis_apply_batch_size_max",
+                String.valueOf(conf.getConfigNodeRatisApplyBatchSizeMax()))));
+
+    conf.setSchemaRegionRatisApplyBatchSizeMax(
+        Integer.parseInt(
+            properties.getProperty(
+                "schema_region_ratis_apply_batch_size_max",
+                String.valueOf(conf.getSchemaRegionRatisApplyBatchSizeMax()))));
+
+    conf.setConfigNodeRatisLeaderLeaseEnabled(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "config_node_ratis_leader_lease_enabled",
+                String.valueOf(conf.isConfigNodeRatisLeaderLeaseEnabled()))));
+
+    conf.setSchemaRegionRatisLeaderLeaseEnabled(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "schema_region_ratis_leader_lease_enabled",
+                String.valueOf(conf.isSchemaRegionRatisLeaderLeaseEnabled()))));
+
+    conf.setConfigNodeRatisLeaderLeaseTimeoutRatio(
+        Double.parseDouble(
+            properties.getProperty(
+                "config_node_ratis_leader_lease_timeout_ratio",
+                String.valueOf(conf.getConfigNodeRatisLeaderLeaseTimeoutRatio()))));
+
+    conf.setSchemaRegionRatisLeaderLeaseTimeoutRatio(
+        Double.parseDouble(
+            properties.getProperty(
+                "schema_region_ratis_leader_lease_timeout_ratio",
+                String.valueOf(conf.getSchemaRegionRatisLeaderLeaseTimeoutRatio()))));
+
     conf.setEnablePrintingNewlyCreatedPartition(
         Boolean.parseBoolean(
             properties.getProperty(
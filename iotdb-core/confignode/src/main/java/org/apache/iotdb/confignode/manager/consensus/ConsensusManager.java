@@ -216,6 +216,8 @@ public class ConsensusManager {
                                       .setRaftLogSizeMaxThreshold(CONF.getConfigNodeRatisLogMax())
                                       .setForceSnapshotInterval(
                                           CONF.getConfigNodeRatisPeriodicSnapshotInterval())
+                                      .setApplyBatchSizeMax(
+                                          CONF.getConfigNodeRatisApplyBatchSizeMax())
                                       .setRetryTimesMax(10)
                                       .setRetryWaitMillis(
                                           COMMON_CONF.getCnConnectionTimeoutInMS() / 10)
@@ -227,6 +229,10 @@ public class ConsensusManager {
                                           TimeDuration.valueOf(
                                               COMMON_CONF.getCnConnectionTimeoutInMS(),
                                               TimeUnit.MILLISECONDS))
+                                      .setLeaderLeaseEnabled(
+                                          CONF.isConfigNodeRatisLeaderLeaseEnabled())
+                                      .setLeaderLeaseTimeoutRatio(
+                                          CONF.getConfigNodeRatisLeaderLeaseTimeoutRatio())
                                       .build())
                               .build())
                       .setStorageDir(CONF.getConsensusDir())
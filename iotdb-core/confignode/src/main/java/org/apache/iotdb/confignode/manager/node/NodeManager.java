@@ -236,6 +236,11 @@ public class NodeManager {
     ratisConfig.setDataRegionPeriodicSnapshotInterval(
         conf.getDataRegionRatisPeriodicSnapshotInterval());
 
+    ratisConfig.setSchemaRegionApplyBatchSizeMax(conf.getSchemaRegionRatisApplyBatchSizeMax());
+    ratisConfig.setSchemaRegionLeaderLeaseEnabled(conf.isSchemaRegionRatisLeaderLeaseEnabled());
+    ratisConfig.setSchemaRegionLeaderLeaseTimeoutRatio(
+        conf.getSchemaRegionRatisLeaderLeaseTimeoutRatio());
+
     dataSet.setRatisConfig(ratisConfig);
   }
 
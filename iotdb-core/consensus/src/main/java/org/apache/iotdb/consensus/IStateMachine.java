@@ -25,11 +25,15 @@ import org.apache.iotdb.consensus.common.DataSet;
 import org.apache.iotdb.consensus.common.Peer;
 import org.apache.iotdb.consensus.common.Utils;
 import org.apache.iotdb.consensus.common.request.IConsensusRequest;
+import org.apache.iotdb.rpc.TSStatusCode;
 
 import javax.annotation.concurrent.ThreadSafe;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 @ThreadSafe
@@ -52,6 +56,29 @@ public interface IStateMachine {
    */
   TSStatus write(IConsensusRequest request);
 
+  /**
+   * apply a batch of deserialized write-requests in order. They are consecutive committed entries
+   * of the consensus log, so statemachine may override it to apply them together. An exception
+   * thrown by one request should be reported as its status, as the requests before it have been
+   * applied.
+   *
+   * @param requests deserialized requests
+   * @return the status of each request
+   */
+  default List<TSStatus> batchWrite(List<IConsensusRequest> requests) {
+    List<TSStatus> results = new ArrayList<>(requests.size());
+    for (IConsensusRequest request : requests) {
+      try {
+        results.add(write(request));
+      } catch (RuntimeException e) {
+        results.add(
+            new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode())
+                .setMessage("internal error. statemachine throws a runtime exception: " + e));
+      }
+    }
+    return results;
+  }
+
   /**
    * deserialize IConsensusRequest.
    *
@@ -129,6 +156,20 @@ public interface IStateMachine {
     return Utils.listAllRegularFilesRecursively(latestSnapshotRootDir);
   }
 
+  /**
+   * given the files of a snapshot being received, ask statemachine to provide the local files that
+   * may be identical to them, so that these files can be linked instead of being transmitted. The
+   * content of each returned file is still verified against the digest of the snapshot file before
+   * linking. By default, no file is reused.
+   *
+   * @param snapshotFiles paths of the snapshot files relative to the snapshot root dir, mapped to
+   *     their sizes
+   * @return the candidate local files, keyed by the paths of the snapshot files
+   */
+  default Map<String, File> getIdenticalLocalFiles(Map<String, Long> snapshotFiles) {
+    return Collections.emptyMap();
+  }
+
   /** An optional API for event notifications. */
   interface EventApi {
     /**
@@ -23,6 +23,8 @@ import org.apache.iotdb.commons.client.property.ClientPoolProperty.DefaultProper
 import org.apache.iotdb.commons.memory.AtomicLongMemoryBlock;
 import org.apache.iotdb.commons.memory.IMemoryBlock;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -251,6 +253,13 @@ public class IoTConsensusConfig {
     private final IMemoryBlock consensusMemoryBlock;
     private final double maxMemoryRatioForQueue;
     private final long regionMigrationSpeedLimitBytesPerSecond;
+    private final boolean enablePipelinedWrite;
+    private final boolean enableFollowerBatchedApply;
+    private final CompressionType logCompressionType;
+    private final int snapshotTransmissionThreadNum;
+    private final boolean enableAdaptiveFlowControl;
+    private final double flowControlSoftLimitRatio;
+    private final long maxAdmissionDelayMs;
 
     private Replication(
         int maxLogEntriesNumPerBatch,
@@ -266,7 +275,14 @@ public class IoTConsensusConfig {
         long checkpointGap,
         IMemoryBlock consensusMemoryBlock,
         double maxMemoryRatioForQueue,
-        long regionMigrationSpeedLimitBytesPerSecond) {
+        long regionMigrationSpeedLimitBytesPerSecond,
+        boolean enablePipelinedWrite,
+        boolean enableFollowerBatchedApply,
+        CompressionType logCompressionType,
+        int snapshotTransmissionThreadNum,
+        boolean enableAdaptiveFlowControl,
+        double flowControlSoftLimitRatio,
+        long maxAdmissionDelayMs) {
       this.maxLogEntriesNumPerBatch = maxLogEntriesNumPerBatch;
       this.maxSizePerBatch = maxSizePerBatch;
       this.maxPendingBatchesNum = maxPendingBatchesNum;
@@ -281,6 +297,13 @@ public class IoTConsensusConfig {
       this.consensusMemoryBlock = consensusMemoryBlock;
       this.maxMemoryRatioForQueue = maxMemoryRatioForQueue;
       this.regionMigrationSpeedLimitBytesPerSecond = regionMigrationSpeedLimitBytesPerSecond;
+      this.enablePipelinedWrite = enablePipelinedWrite;
+      this.enableFollowerBatchedApply = enableFollowerBatchedApply;
+      this.logCompressionType = logCompressionType;
+      this.snapshotTransmissionThreadNum = snapshotTransmissionThreadNum;
+      this.enableAdaptiveFlowControl = enableAdaptiveFlowControl;
+      this.flowControlSoftLimitRatio = flowControlSoftLimitRatio;
+      this.maxAdmissionDelayMs = maxAdmissionDelayMs;
     }
 
     public int getMaxLogEntriesNumPerBatch() {
@@ -339,6 +362,34 @@ public class IoTConsensusConfig {
       return regionMigrationSpeedLimitBytesPerSecond;
     }
 
+    public boolean isEnablePipelinedWrite() {
+      return enablePipelinedWrite;
+    }
+
+    public boolean isEnableFollowerBatchedApply() {
+      return enableFollowerBatchedApply;
+    }
+
+    public CompressionType getLogCompressionType() {
+      return logCompressionType;
+    }
+
+    public int getSnapshotTransmissionThreadNum() {
+      return snapshotTransmissionThreadNum;
+    }
+
+    public boolean isEnableAdaptiveFlowControl() {
+      return enableAdaptiveFlowControl;
+    }
+
+    public double getFlowControlSoftLimitRatio() {
+      return flowControlSoftLimitRatio;
+    }
+
+    public long getMaxAdmissionDelayMs() {
+      return maxAdmissionDelayMs;
+    }
+
     public static Replication.Builder newBuilder() {
       return new Replication.Builder();
     }
@@ -362,6 +413,13 @@ public class IoTConsensusConfig {
               "Consensus-Default", null, Runtime.getRuntime().maxMemory() / 10);
       private double maxMemoryRatioForQueue = 0.6;
       private long regionMigrationSpeedLimitBytesPerSecond = 32 * 1024 * 1024L;
+      private boolean enablePipelinedWrite = false;
+      private boolean enableFollowerBatchedApply = false;
+      private CompressionType logCompressionType = CompressionType.UNCOMPRESSED;
+      private int snapshotTransmissionThreadNum = 4;
+      private boolean enableAdaptiveFlowControl = false;
+      private double flowControlSoftLimitRatio = 0.8;
+      private long maxAdmissionDelayMs = 100;
 
       public Replication.Builder setMaxLogEntriesNumPerBatch(int maxLogEntriesNumPerBatch) {
         this.maxLogEntriesNumPerBatch = maxLogEntriesNumPerBatch;
@@ -436,6 +494,41 @@ public class IoTConsensusConfig {
         return this;
       }
 
+      public Builder setEnablePipelinedWrite(boolean enablePipelinedWrite) {
+        this.enablePipelinedWrite = enablePipelinedWrite;
+        return this;
+      }
+
+      public Builder setEnableFollowerBatchedApply(boolean enableFollowerBatchedApply) {
+        this.enableFollowerBatchedApply = enableFollowerBatchedApply;
+        return this;
+      }
+
+      public Builder setLogCompressionType(CompressionType logCompressionType) {
+        this.logCompressionType = logCompressionType;
+        return this;
+      }
+
+      public Builder setSnapshotTransmissionThreadNum(int snapshotTransmissionThreadNum) {
+        this.snapshotTransmissionThreadNum = snapshotTransmissionThreadNum;
+        return this;
+      }
+
+      public Builder setEnableAdaptiveFlowControl(boolean enableAdaptiveFlowControl) {
+        this.enableAdaptiveFlowControl = enableAdaptiveFlowControl;
+        return this;
+      }
+
+      public Builder setFlowControlSoftLimitRatio(double flowControlSoftLimitRatio) {
+        this.flowControlSoftLimitRatio = flowControlSoftLimitRatio;
+        return this;
+      }
+
+      public Builder setMaxAdmissionDelayMs(long maxAdmissionDelayMs) {
+        this.maxAdmissionDelayMs = maxAdmissionDelayMs;
+        return this;
+      }
+
       public Replication build() {
         return new Replication(
             maxLogEntriesNumPerBatch,
@@ -451,7 +544,14 @@ public class IoTConsensusConfig {
             checkpointGap,
             consensusMemoryBlock,
             maxMemoryRatioForQueue,
-            regionMigrationSpeedLimitBytesPerSecond);
+            regionMigrationSpeedLimitBytesPerSecond,
+            enablePipelinedWrite,
+            enableFollowerBatchedApply,
+            logCompressionType,
+            snapshotTransmissionThreadNum,
+            enableAdaptiveFlowControl,
+            flowControlSoftLimitRatio,
+            maxAdmissionDelayMs);
       }
     }
   }
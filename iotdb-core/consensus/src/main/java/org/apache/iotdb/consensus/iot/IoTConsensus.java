@@ -87,6 +87,7 @@ import java.util.stream.Collectors;
 public class IoTConsensus implements IConsensus {
 
   private static final long READER_UPDATE_INTERVAL_IN_MINUTES = 3;
+  private static final long FLOW_CONTROL_SAMPLE_INTERVAL_IN_MS = 1000;
   private final Logger logger = LoggerFactory.getLogger(IoTConsensus.class);
 
   private final TEndPoint thisNode;
@@ -102,6 +103,7 @@ public class IoTConsensus implements IConsensus {
   private final IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager;
   private final ScheduledExecutorService backgroundTaskService;
   private Future<?> updateReaderFuture;
+  private Future<?> sampleFlowControlFuture;
   private Map<ConsensusGroupId, List<Peer>> correctPeerListBeforeStart = null;
 
   public IoTConsensus(ConsensusConfig config, Registry registry) {
@@ -157,6 +159,15 @@ public class IoTConsensus implements IConsensus {
               READER_UPDATE_INTERVAL_IN_MINUTES,
               TimeUnit.MINUTES);
     }
+    if (sampleFlowControlFuture == null) {
+      sampleFlowControlFuture =
+          ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+              backgroundTaskService,
+              () -> stateMachineMap.values().forEach(impl -> impl.getFlowController().sample()),
+              FLOW_CONTROL_SAMPLE_INTERVAL_IN_MS,
+              FLOW_CONTROL_SAMPLE_INTERVAL_IN_MS,
+              TimeUnit.MILLISECONDS);
+    }
   }
 
   private void initAndRecover() throws IOException {
@@ -213,6 +224,7 @@ public class IoTConsensus implements IConsensus {
   @Override
   public synchronized void stop() {
     Optional.ofNullable(updateReaderFuture).ifPresent(future -> future.cancel(false));
+    Optional.ofNullable(sampleFlowControlFuture).ifPresent(future -> future.cancel(false));
     stateMachineMap.values().parallelStream().forEach(IoTConsensusServerImpl::stop);
     clientManager.close();
     syncClientManager.close();
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot;
+
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+import org.apache.iotdb.consensus.iot.log.ConsensusReqReader;
+import org.apache.iotdb.consensus.iot.logdispatcher.ProgressRateEstimator;
+
+import java.util.OptionalDouble;
+
+/**
+ * Controls the admission of the writes of a region according to how fast its followers catch up.
+ *
+ * <p>The WAL of a region is retained until every follower has synced it, and the writes are blocked
+ * once the WAL reaches the throttle threshold, which makes the write latency jump between zero and
+ * the throttle timeout. This controller estimates the ingest rate of the leader and the sync rate
+ * of each follower. Once the WAL has reached the soft limit and the slowest follower is not
+ * catching up, every write is delayed in proportion to how close the WAL is to the threshold, so
+ * that the ingestion slows down gradually before the hard limit is hit.
+ *
+ * <p>Only the regions of IoTConsensus are controlled, and only their followers report the predicted
+ * catch up time. The regions of PipeConsensus are neither delayed nor predicted: their replication
+ * lag is tracked by {@link org.apache.iotdb.consensus.pipe.metric.PipeConsensusSyncLagManager} as
+ * the progress of the pipe events rather than as WAL search indexes, and their writes are not
+ * throttled by the WAL of the region.
+ *
+ * <p>Note: every region has and only has 1 instance of this class.
+ */
+public class IoTConsensusFlowController {
+
+  private final IoTConsensusServerImpl impl;
+  private final ConsensusReqReader consensusReqReader;
+  private final boolean enabled;
+  private final long walThrottleThreshold;
+  private final double softLimitRatio;
+  private final long maxAdmissionDelayMs;
+  private final ProgressRateEstimator ingestRateEstimator = new ProgressRateEstimator();
+
+  // refreshed in sample() so that the writes do not contend for the LogDispatcher monitor
+  private volatile OptionalDouble minSyncRate = OptionalDouble.empty();
+  private volatile long lastAdmissionDelayMs = 0;
+
+  public IoTConsensusFlowController(
+      IoTConsensusServerImpl impl,
+      ConsensusReqReader consensusReqReader,
+      IoTConsensusConfig.Replication config) {
+    this.impl = impl;
+    this.consensusReqReader = consensusReqReader;
+    this.enabled = config.isEnableAdaptiveFlowControl();
+    this.walThrottleThreshold = config.getWalThrottleThreshold();
+    this.softLimitRatio = config.getFlowControlSoftLimitRatio();
+    this.maxAdmissionDelayMs = config.getMaxAdmissionDelayMs();
+  }
+
+  /** Sample the search index of this region and the sync index of each follower. */
+  public void sample() {
+    long currentTimeInNanos = System.nanoTime();
+    ingestRateEstimator.update(impl.getSearchIndex(), currentTimeInNanos);
+    impl.getLogDispatcher().sampleSyncRates(currentTimeInNanos);
+    minSyncRate = impl.getLogDispatcher().getMinSyncRate();
+  }
+
+  /**
+   * @return how long the next write should be delayed before being admitted, 0 if the adaptive flow
+   *     control is disabled or unnecessary
+   */
+  public long getAdmissionDelayMs() {
+    if (!enabled) {
+      return 0;
+    }
+    double walPressure = (double) consensusReqReader.getTotalSize() / walThrottleThreshold;
+    if (walPressure < softLimitRatio) {
+      lastAdmissionDelayMs = 0;
+      return 0;
+    }
+    lastAdmissionDelayMs =
+        computeAdmissionDelayMs(
+            walPressure, getIngestRate(), minSyncRate, softLimitRatio, maxAdmissionDelayMs);
+    return lastAdmissionDelayMs;
+  }
+
+  static long computeAdmissionDelayMs(
+      double walPressure,
+      double ingestRate,
+      OptionalDouble minSyncRate,
+      double softLimitRatio,
+      long maxAdmissionDelayMs) {
+    if (walPressure < softLimitRatio) {
+      return 0;
+    }
+    // the lag is shrinking, the WAL will be released without slowing down the ingestion
+    if (minSyncRate.isPresent() && minSyncRate.getAsDouble() > ingestRate) {
+      return 0;
+    }
+    if (softLimitRatio >= 1) {
+      return maxAdmissionDelayMs;
+    }
+    double ratio = Math.min(1, (walPressure - softLimitRatio) / (1 - softLimitRatio));
+    return Math.round(maxAdmissionDelayMs * ratio);
+  }
+
+  /**
+   * Predict how long a follower takes to catch up with the leader if both keep their current rate.
+   *
+   * @return the predicted time in ms, 0 if the follower has caught up and -1 if the follower is not
+   *     catching up
+   */
+  public long predictCatchUpTimeInMs(long syncLag, double syncRate) {
+    return predictCatchUpTimeInMs(syncLag, syncRate, getIngestRate());
+  }
+
+  static long predictCatchUpTimeInMs(long syncLag, double syncRate, double ingestRate) {
+    if (syncLag <= 0) {
+      return 0;
+    }
+    double catchUpRate = syncRate - ingestRate;
+    if (catchUpRate <= 0) {
+      return -1;
+    }
+    return (long) Math.ceil(syncLag * 1000 / catchUpRate);
+  }
+
+  public double getIngestRate() {
+    return ingestRateEstimator.getRate();
+  }
+
+  public long getLastAdmissionDelayMs() {
+    return lastAdmissionDelayMs;
+  }
+}
@@ -23,6 +23,8 @@ import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.client.IClientManager;
 import org.apache.iotdb.commons.client.exception.ClientManagerException;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.consensus.ConsensusGroupId;
 import org.apache.iotdb.commons.consensus.index.ComparableConsensusRequest;
 import org.apache.iotdb.commons.consensus.index.impl.IoTProgressIndex;
@@ -45,6 +47,7 @@ import org.apache.iotdb.consensus.iot.log.ConsensusReqReader;
 import org.apache.iotdb.consensus.iot.log.GetConsensusReqReaderPlan;
 import org.apache.iotdb.consensus.iot.logdispatcher.LogDispatcher;
 import org.apache.iotdb.consensus.iot.snapshot.IoTConsensusRateLimiter;
+import org.apache.iotdb.consensus.iot.snapshot.SnapshotFileDigest;
 import org.apache.iotdb.consensus.iot.snapshot.SnapshotFragmentReader;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerReq;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerRes;
@@ -56,8 +59,11 @@ import org.apache.iotdb.consensus.iot.thrift.TInactivatePeerReq;
 import org.apache.iotdb.consensus.iot.thrift.TInactivatePeerRes;
 import org.apache.iotdb.consensus.iot.thrift.TRemoveSyncLogChannelReq;
 import org.apache.iotdb.consensus.iot.thrift.TRemoveSyncLogChannelRes;
+import org.apache.iotdb.consensus.iot.thrift.TReuseSnapshotFilesReq;
+import org.apache.iotdb.consensus.iot.thrift.TReuseSnapshotFilesRes;
 import org.apache.iotdb.consensus.iot.thrift.TSendSnapshotFragmentReq;
 import org.apache.iotdb.consensus.iot.thrift.TSendSnapshotFragmentRes;
+import org.apache.iotdb.consensus.iot.thrift.TSnapshotFile;
 import org.apache.iotdb.consensus.iot.thrift.TTriggerSnapshotLoadReq;
 import org.apache.iotdb.consensus.iot.thrift.TTriggerSnapshotLoadRes;
 import org.apache.iotdb.consensus.iot.thrift.TWaitReleaseAllRegionRelatedResourceReq;
@@ -74,22 +80,33 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -104,18 +121,34 @@ public class IoTConsensusServerImpl {
 
   public static final String SNAPSHOT_DIR_NAME = "snapshot";
   private static final Pattern SNAPSHOT_INDEX_PATTEN = Pattern.compile(".*[^\\d](?=(\\d+))");
+  private static final int SNAPSHOT_FRAGMENT_MAX_RETRY_TIMES = 3;
   private static final PerformanceOverviewMetrics PERFORMANCE_OVERVIEW_METRICS =
       PerformanceOverviewMetrics.getInstance();
   private final Logger logger = LoggerFactory.getLogger(IoTConsensusServerImpl.class);
   private final Peer thisNode;
   private final IStateMachine stateMachine;
   private final ConcurrentHashMap<Integer, SyncLogCacheQueue> cacheQueueMap;
+  // in follower batched apply mode, the synced batches of each source peer are applied by its
+  // dedicated applier thread instead of the rpc threads
+  private final boolean followerBatchedApply;
+  private final ConcurrentHashMap<Integer, SyncLogApplier> syncLogApplierMap;
+  // guarded by syncLogApplierMap, no SyncLogApplier is created once the impl is stopped
+  private boolean syncLogApplierStopped = false;
   private final Lock stateMachineLock = new ReentrantLock();
   private final Condition stateMachineCondition = stateMachineLock.newCondition();
+  // in pipelined write mode, the writes take tickets under stateMachineLock and are applied to the
+  // state machine in the order of the tickets, so that the search indexes in the WAL are ascending
+  private final boolean pipelinedWrite;
+  private long nextWriteTicket = 0;
+  private final Lock writeTurnLock = new ReentrantLock();
+  // each waiting ticket has its own condition, so that only the next write is woken up
+  private final Map<Long, Condition> writeTurnConditions = new HashMap<>();
+  private long currentWriteTurn = 0;
   private final String storageDir;
   private final TreeSet<Peer> configuration;
   private final AtomicLong searchIndex;
   private final LogDispatcher logDispatcher;
+  private final IoTConsensusFlowController flowController;
   private IoTConsensusConfig config;
   private final ConsensusReqReader consensusReqReader;
   private volatile boolean active;
@@ -141,15 +174,20 @@ public class IoTConsensusServerImpl {
     this.thisNode = thisNode;
     this.stateMachine = stateMachine;
     this.cacheQueueMap = new ConcurrentHashMap<>();
+    this.syncLogApplierMap = new ConcurrentHashMap<>();
     this.syncClientManager = syncClientManager;
     this.configuration = configuration;
     this.backgroundTaskService = backgroundTaskService;
     this.config = config;
+    this.pipelinedWrite = config.getReplication().isEnablePipelinedWrite();
+    this.followerBatchedApply = config.getReplication().isEnableFollowerBatchedApply();
     this.consensusGroupId = thisNode.getGroupId().toString();
     this.consensusReqReader =
         (ConsensusReqReader) stateMachine.read(new GetConsensusReqReaderPlan());
     this.searchIndex = new AtomicLong(consensusReqReader.getCurrentSearchIndex());
     this.ioTConsensusServerMetrics = new IoTConsensusServerMetrics(this);
+    this.flowController =
+        new IoTConsensusFlowController(this, consensusReqReader, config.getReplication());
     this.logDispatcher = new LogDispatcher(this, clientManager);
   }
 
@@ -166,6 +204,12 @@ public class IoTConsensusServerImpl {
 
   public void stop() {
     logDispatcher.stop();
+    synchronized (syncLogApplierMap) {
+      // the appliers created before are all in the map now, and no one can be created after this
+      syncLogApplierStopped = true;
+    }
+    syncLogApplierMap.values().forEach(SyncLogApplier::stop);
+    syncLogApplierMap.clear();
     stateMachine.stop();
     MetricService.getInstance().removeMetricSet(this.ioTConsensusServerMetrics);
   }
@@ -175,85 +219,209 @@ public class IoTConsensusServerImpl {
    * performed.
    */
   public TSStatus write(IConsensusRequest request) {
+    delayAdmissionIfNeeded();
+    if (pipelinedWrite) {
+      return pipelinedWrite(request);
+    }
     long consensusWriteStartTime = System.nanoTime();
     stateMachineLock.lock();
+    long getStateMachineLockTime = System.nanoTime();
     try {
-      long getStateMachineLockTime = System.nanoTime();
       // statistic the time of acquiring stateMachine lock
       ioTConsensusServerMetrics.recordGetStateMachineLockTime(
           getStateMachineLockTime - consensusWriteStartTime);
-      if (needBlockWrite()) {
-        logger.info("[Throttle Down] index:{}, safeIndex:{}", getSearchIndex(), getMinSyncIndex());
-        try {
-          boolean timeout =
-              !stateMachineCondition.await(
-                  config.getReplication().getThrottleTimeOutMs(), TimeUnit.MILLISECONDS);
-          if (timeout) {
-            return RpcUtils.getStatus(
-                TSStatusCode.WRITE_PROCESS_REJECT,
-                String.format(
-                    "The write is rejected because the wal directory size has reached the "
-                        + "threshold %d bytes. You may need to adjust the flush policy of the "
-                        + "storage storageengine or the IoTConsensus synchronization parameter",
-                    config.getReplication().getWalThrottleThreshold()));
-          }
-        } catch (InterruptedException e) {
-          logger.error("Failed to throttle down because ", e);
-          Thread.currentThread().interrupt();
-        }
+      TSStatus throttleStatus = throttleIfNeeded();
+      if (throttleStatus != null) {
+        return throttleStatus;
       }
       long writeToStateMachineStartTime = System.nanoTime();
       // statistic the time of checking write block
       ioTConsensusServerMetrics.recordCheckingBeforeWriteTime(
           writeToStateMachineStartTime - getStateMachineLockTime);
-      IndexedConsensusRequest indexedConsensusRequest =
-          buildIndexedConsensusRequestForLocalRequest(request);
-      if (indexedConsensusRequest.getSearchIndex() % 100000 == 0) {
-        logger.info(
-            "DataRegion[{}]: index after build: safeIndex:{}, searchIndex: {}",
-            thisNode.getGroupId(),
-            getMinSyncIndex(),
-            indexedConsensusRequest.getSearchIndex());
-      }
-      IConsensusRequest planNode = stateMachine.deserializeRequest(indexedConsensusRequest);
-      long startWriteTime = System.nanoTime();
-      TSStatus result = stateMachine.write(planNode);
-      PERFORMANCE_OVERVIEW_METRICS.recordEngineCost(System.nanoTime() - startWriteTime);
-
-      long writeToStateMachineEndTime = System.nanoTime();
-      // statistic the time of writing request into stateMachine
-      ioTConsensusServerMetrics.recordWriteStateMachineTime(
-          writeToStateMachineEndTime - writeToStateMachineStartTime);
-      if (result.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-        // The index is used when constructing batch in LogDispatcher. If its value
-        // increases but the corresponding request does not exist or is not put into
-        // the queue, the dispatcher will try to find the request in WAL. This behavior
-        // is not expected and will slow down the preparation speed for batch.
-        // So we need to use the lock to ensure the `offer()` and `incrementAndGet()` are
-        // in one transaction.
-        synchronized (searchIndex) {
-          logDispatcher.offer(indexedConsensusRequest);
-          searchIndex.incrementAndGet();
-        }
-        // statistic the time of offering request into queue
-        ioTConsensusServerMetrics.recordOfferRequestToQueueTime(
-            System.nanoTime() - writeToStateMachineEndTime);
-      } else {
-        logger.debug(
-            "{}: write operation failed. searchIndex: {}. Code: {}",
-            thisNode.getGroupId(),
-            indexedConsensusRequest.getSearchIndex(),
-            result.getCode());
-      }
-      // statistic the time of total write process
-      ioTConsensusServerMetrics.recordConsensusWriteTime(
-          System.nanoTime() - consensusWriteStartTime);
-      return result;
+      return writeToStateMachine(request, consensusWriteStartTime, writeToStateMachineStartTime);
     } finally {
+      ioTConsensusServerMetrics.recordStateMachineLockHoldTime(
+          System.nanoTime() - getStateMachineLockTime);
       stateMachineLock.unlock();
     }
   }
 
+  /**
+   * The state machine lock is only held to check the throttle and to take a ticket, and the write
+   * is applied after the writes of the previous tickets. The state machine writes of a region are
+   * still serialized because the WAL of the region and the log dispatchers reading it require the
+   * search indexes to be ascending, but the waiting writes and the log dispatchers signaling the
+   * throttle no longer contend with the write being applied.
+   */
+  private TSStatus pipelinedWrite(IConsensusRequest request) {
+    long consensusWriteStartTime = System.nanoTime();
+    long ticket;
+    stateMachineLock.lock();
+    long getStateMachineLockTime = System.nanoTime();
+    try {
+      // statistic the time of acquiring stateMachine lock
+      ioTConsensusServerMetrics.recordGetStateMachineLockTime(
+          getStateMachineLockTime - consensusWriteStartTime);
+      TSStatus throttleStatus = throttleIfNeeded();
+      if (throttleStatus != null) {
+        return throttleStatus;
+      }
+      ticket = nextWriteTicket++;
+    } finally {
+      ioTConsensusServerMetrics.recordStateMachineLockHoldTime(
+          System.nanoTime() - getStateMachineLockTime);
+      stateMachineLock.unlock();
+    }
+    long takeTicketTime = System.nanoTime();
+    // statistic the time of checking write block
+    ioTConsensusServerMetrics.recordCheckingBeforeWriteTime(
+        takeTicketTime - getStateMachineLockTime);
+
+    try {
+      waitForWriteTurn(ticket);
+      long writeToStateMachineStartTime = System.nanoTime();
+      // statistic the time of waiting for the writes of the previous tickets
+      ioTConsensusServerMetrics.recordWaitForWriteTurnTime(
+          writeToStateMachineStartTime - takeTicketTime);
+      return writeToStateMachine(request, consensusWriteStartTime, writeToStateMachineStartTime);
+    } finally {
+      finishWriteTurn();
+    }
+  }
+
+  private void waitForWriteTurn(long ticket) {
+    writeTurnLock.lock();
+    try {
+      if (currentWriteTurn == ticket) {
+        return;
+      }
+      Condition writeTurnCondition = writeTurnLock.newCondition();
+      writeTurnConditions.put(ticket, writeTurnCondition);
+      boolean interrupted = false;
+      while (currentWriteTurn != ticket) {
+        try {
+          writeTurnCondition.await();
+        } catch (InterruptedException e) {
+          // the turn can not be skipped, otherwise the following writes are blocked forever
+          interrupted = true;
+        }
+      }
+      writeTurnConditions.remove(ticket);
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    } finally {
+      writeTurnLock.unlock();
+    }
+  }
+
+  private void finishWriteTurn() {
+    writeTurnLock.lock();
+    try {
+      currentWriteTurn++;
+      Condition nextWriteTurnCondition = writeTurnConditions.get(currentWriteTurn);
+      if (nextWriteTurnCondition != null) {
+        nextWriteTurnCondition.signal();
+      }
+    } finally {
+      writeTurnLock.unlock();
+    }
+  }
+
+  /**
+   * Delay the write in proportion to the WAL pressure before the throttle is hit, so that the write
+   * latency rises gradually instead of all the writes being blocked at once. The write is delayed
+   * without the state machine lock, thus the log dispatchers are not blocked.
+   */
+  private void delayAdmissionIfNeeded() {
+    long admissionDelayMs = flowController.getAdmissionDelayMs();
+    if (admissionDelayMs <= 0) {
+      return;
+    }
+    long startTime = System.nanoTime();
+    try {
+      TimeUnit.MILLISECONDS.sleep(admissionDelayMs);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    ioTConsensusServerMetrics.recordAdmissionDelayTime(System.nanoTime() - startTime);
+  }
+
+  /**
+   * Wait while the WAL is too large to be written, must be called with the state machine lock.
+   *
+   * @return the status to reject the write if the throttle is timeout, otherwise null
+   */
+  private TSStatus throttleIfNeeded() {
+    if (needBlockWrite()) {
+      logger.info("[Throttle Down] index:{}, safeIndex:{}", getSearchIndex(), getMinSyncIndex());
+      try {
+        boolean timeout =
+            !stateMachineCondition.await(
+                config.getReplication().getThrottleTimeOutMs(), TimeUnit.MILLISECONDS);
+        if (timeout) {
+          return RpcUtils.getStatus(
+              TSStatusCode.WRITE_PROCESS_REJECT,
+              String.format(
+                  "The write is rejected because the wal directory size has reached the "
+                      + "threshold %d bytes. You may need to adjust the flush policy of the "
+                      + "storage storageengine or the IoTConsensus synchronization parameter",
+                  config.getReplication().getWalThrottleThreshold()));
+        }
+      } catch (InterruptedException e) {
+        logger.error("Failed to throttle down because ", e);
+        Thread.currentThread().interrupt();
+      }
+    }
+    return null;
+  }
+
+  private TSStatus writeToStateMachine(
+      IConsensusRequest request, long consensusWriteStartTime, long writeToStateMachineStartTime) {
+    IndexedConsensusRequest indexedConsensusRequest =
+        buildIndexedConsensusRequestForLocalRequest(request);
+    if (indexedConsensusRequest.getSearchIndex() % 100000 == 0) {
+      logger.info(
+          "DataRegion[{}]: index after build: safeIndex:{}, searchIndex: {}",
+          thisNode.getGroupId(),
+          getMinSyncIndex(),
+          indexedConsensusRequest.getSearchIndex());
+    }
+    IConsensusRequest planNode = stateMachine.deserializeRequest(indexedConsensusRequest);
+    long startWriteTime = System.nanoTime();
+    TSStatus result = stateMachine.write(planNode);
+    PERFORMANCE_OVERVIEW_METRICS.recordEngineCost(System.nanoTime() - startWriteTime);
+
+    long writeToStateMachineEndTime = System.nanoTime();
+    // statistic the time of writing request into stateMachine
+    ioTConsensusServerMetrics.recordWriteStateMachineTime(
+        writeToStateMachineEndTime - writeToStateMachineStartTime);
+    if (result.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      // The index is used when constructing batch in LogDispatcher. If its value
+      // increases but the corresponding request does not exist or is not put into
+      // the queue, the dispatcher will try to find the request in WAL. This behavior
+      // is not expected and will slow down the preparation speed for batch.
+      // So we need to use the lock to ensure the `offer()` and `incrementAndGet()` are
+      // in one transaction.
+      synchronized (searchIndex) {
+        logDispatcher.offer(indexedConsensusRequest);
+        searchIndex.incrementAndGet();
+      }
+      // statistic the time of offering request into queue
+      ioTConsensusServerMetrics.recordOfferRequestToQueueTime(
+          System.nanoTime() - writeToStateMachineEndTime);
+    } else {
+      logger.debug(
+          "{}: write operation failed. searchIndex: {}. Code: {}",
+          thisNode.getGroupId(),
+          indexedConsensusRequest.getSearchIndex(),
+          result.getCode());
+    }
+    // statistic the time of total write process
+    ioTConsensusServerMetrics.recordConsensusWriteTime(System.nanoTime() - consensusWriteStartTime);
+    return result;
+  }
+
   public DataSet read(IConsensusRequest request) {
     return stateMachine.read(request);
   }
@@ -282,7 +450,11 @@ public class IoTConsensusServerImpl {
 
   public void transmitSnapshot(Peer targetPeer) throws ConsensusGroupModifyPeerException {
     File snapshotDir = new File(storageDir, newSnapshotDirName);
-    List<File> snapshotPaths = stateMachine.getSnapshotFiles(snapshotDir);
+    List<File> snapshotPaths = new ArrayList<>(stateMachine.getSnapshotFiles(snapshotDir));
+    Set<String> reusedFilePaths = reuseRemoteSnapshotFiles(targetPeer, snapshotPaths);
+    snapshotPaths.removeIf(file -> reusedFilePaths.contains(file.getAbsolutePath()));
+    // transmit the largest files first, so that the small ones fill up the threads in the end
+    snapshotPaths.sort(Comparator.comparingLong(File::length).reversed());
     AtomicLong snapshotSizeSumAtomic = new AtomicLong();
     StringBuilder allFilesStr = new StringBuilder();
     snapshotPaths.forEach(
@@ -296,61 +468,322 @@ public class IoTConsensusServerImpl {
               .append(humanReadableByteCountSI(fileSize));
         });
     final long snapshotSizeSum = snapshotSizeSumAtomic.get();
-    long transitedSnapshotSizeSum = 0;
-    long transitedFilesNum = 0;
+    AtomicLong transitedSnapshotSizeSum = new AtomicLong();
+    AtomicLong transitedFilesNum = new AtomicLong();
     long startTime = System.nanoTime();
+    int threadNum =
+        Math.max(
+            1,
+            Math.min(
+                config.getReplication().getSnapshotTransmissionThreadNum(), snapshotPaths.size()));
     logger.info(
-        "[SNAPSHOT TRANSMISSION] Start to transmit snapshots ({} files, total size {}) from dir {}",
+        "[SNAPSHOT TRANSMISSION] Start to transmit snapshots ({} files, total size {}) from dir {} with {} threads",
         snapshotPaths.size(),
         humanReadableByteCountSI(snapshotSizeSum),
-        snapshotDir);
+        snapshotDir,
+        threadNum);
     logger.info(
         "[SNAPSHOT TRANSMISSION] All the files below shell be transmitted: {}", allFilesStr);
+    // each thread reuses one fragment buffer for all the files it transmits
+    BlockingQueue<ByteBuffer> fragmentBuffers = new ArrayBlockingQueue<>(threadNum);
+    for (int i = 0; i < threadNum; i++) {
+      fragmentBuffers.add(ByteBuffer.allocate(SnapshotFragmentReader.DEFAULT_FILE_FRAGMENT_SIZE));
+    }
+    ExecutorService transmissionExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            threadNum,
+            ThreadName.IOT_CONSENSUS_SNAPSHOT_TRANSMISSION.getName() + "-" + thisNode.getGroupId());
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (File file : snapshotPaths) {
+        futures.add(
+            transmissionExecutor.submit(
+                () -> {
+                  ByteBuffer fragmentBuffer = fragmentBuffers.take();
+                  try {
+                    transmitSnapshotFile(targetPeer, file, fragmentBuffer);
+                  } finally {
+                    fragmentBuffers.add(fragmentBuffer);
+                  }
+                  long elapsedTimeInMs = (System.nanoTime() - startTime) / 1_000_000;
+                  logger.info(
+                      "[SNAPSHOT TRANSMISSION] The overall progress for dir {}: files {}/{} done, size {}/{} done, time {} passed, throughput {}/s. File {} done.",
+                      newSnapshotDirName,
+                      transitedFilesNum.incrementAndGet(),
+                      snapshotPaths.size(),
+                      humanReadableByteCountSI(transitedSnapshotSizeSum.addAndGet(file.length())),
+                      humanReadableByteCountSI(snapshotSizeSum),
+                      CommonDateTimeUtils.convertMillisecondToDurationStr(elapsedTimeInMs),
+                      humanReadableByteCountSI(
+                          transitedSnapshotSizeSum.get() * 1000 / Math.max(1, elapsedTimeInMs)),
+                      file);
+                  return null;
+                }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      throw new ConsensusGroupModifyPeerException(
+          String.format("[SNAPSHOT TRANSMISSION] Error when send snapshot file to %s", targetPeer),
+          e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ConsensusGroupModifyPeerException(
+          String.format(
+              "[SNAPSHOT TRANSMISSION] Interrupted when send snapshot file to %s", targetPeer),
+          e);
+    } finally {
+      transmissionExecutor.shutdownNow();
+    }
+    long elapsedTimeInMs = (System.nanoTime() - startTime) / 1_000_000;
+    logger.info(
+        "[SNAPSHOT TRANSMISSION] After {}, successfully transmit all snapshots ({}, {}/s) from dir {}",
+        CommonDateTimeUtils.convertMillisecondToDurationStr(elapsedTimeInMs),
+        humanReadableByteCountSI(snapshotSizeSum),
+        humanReadableByteCountSI(snapshotSizeSum * 1000 / Math.max(1, elapsedTimeInMs)),
+        snapshotDir);
+  }
+
+  /**
+   * Send the manifest of the snapshot to the target peer, which links the files it already holds
+   * into the snapshot being received. The manifest is sent in two rounds: the first one only
+   * carries the names and sizes, and the target peer reports the files it may hold. Only these
+   * candidates are digested and sent in the second round, in which the target peer verifies and
+   * links them, so the files that have to be transmitted anyway are never read twice.
+   *
+   * @return the paths of the snapshot files that need not be transmitted
+   */
+  private Set<String> reuseRemoteSnapshotFiles(Peer targetPeer, List<File> snapshotPaths) {
+    List<TSnapshotFile> snapshotFiles = new ArrayList<>(snapshotPaths.size());
+    for (File file : snapshotPaths) {
+      snapshotFiles.add(new TSnapshotFile(file.getAbsolutePath(), file.length()));
+    }
     try (SyncIoTConsensusServiceClient client =
         syncClientManager.borrowClient(targetPeer.getEndpoint())) {
-      for (File file : snapshotPaths) {
-        SnapshotFragmentReader reader =
-            new SnapshotFragmentReader(newSnapshotDirName, file.toPath());
-        try {
-          while (reader.hasNext()) {
-            // TODO: zero copy ?
-            TSendSnapshotFragmentReq req = reader.next().toTSendSnapshotFragmentReq();
-            req.setConsensusGroupId(targetPeer.getGroupId().convertToTConsensusGroupId());
-            ioTConsensusRateLimiter.acquireTransitDataSizeWithRateLimiter(req.getChunkLength());
-            TSendSnapshotFragmentRes res = client.sendSnapshotFragment(req);
-            if (!isSuccess(res.getStatus())) {
-              throw new ConsensusGroupModifyPeerException(
-                  String.format(
-                      "[SNAPSHOT TRANSMISSION] Error when transmitting snapshot fragment to %s",
-                      targetPeer));
+      TReuseSnapshotFilesRes res = requestReuseSnapshotFiles(client, targetPeer, snapshotFiles);
+      if (res == null) {
+        return Collections.emptySet();
+      }
+      Set<String> reusedFilePaths = new HashSet<>();
+      if (res.isSetReusedFilePaths()) {
+        reusedFilePaths.addAll(res.getReusedFilePaths());
+      }
+      List<TSnapshotFile> candidates = digestSnapshotFileCandidates(res, snapshotPaths);
+      if (!candidates.isEmpty()) {
+        res = requestReuseSnapshotFiles(client, targetPeer, candidates);
+        if (res != null && res.isSetReusedFilePaths()) {
+          reusedFilePaths.addAll(res.getReusedFilePaths());
+        }
+      }
+      logger.info(
+          "[SNAPSHOT TRANSMISSION] {} of {} files ({} digested) of dir {} are already held by {}, skip them",
+          reusedFilePaths.size(),
+          snapshotPaths.size(),
+          candidates.size(),
+          newSnapshotDirName,
+          targetPeer);
+      return reusedFilePaths;
+    } catch (ClientManagerException | TException e) {
+      // the target peer may not be able to reuse files, e.g., it runs an older version
+      logger.warn(
+          "[SNAPSHOT TRANSMISSION] Failed to reuse snapshot files on {}, transmit all of them",
+          targetPeer,
+          e);
+    }
+    return Collections.emptySet();
+  }
+
+  /**
+   * @return the response, or null if the target peer fails to reuse the files
+   */
+  private TReuseSnapshotFilesRes requestReuseSnapshotFiles(
+      SyncIoTConsensusServiceClient client, Peer targetPeer, List<TSnapshotFile> snapshotFiles)
+      throws TException {
+    TReuseSnapshotFilesRes res =
+        client.reuseSnapshotFiles(
+            new TReuseSnapshotFilesReq(
+                targetPeer.getGroupId().convertToTConsensusGroupId(),
+                newSnapshotDirName,
+                snapshotFiles));
+    if (isSuccess(res.getStatus())) {
+      return res;
+    }
+    logger.warn(
+        "[SNAPSHOT TRANSMISSION] Failed to reuse snapshot files on {}, transmit them. {}",
+        targetPeer,
+        res.getStatus());
+    return null;
+  }
+
+  /** Digest the snapshot files reported as candidates by the target peer. */
+  private List<TSnapshotFile> digestSnapshotFileCandidates(
+      TReuseSnapshotFilesRes res, List<File> snapshotPaths) {
+    if (!res.isSetCandidateFilePaths() || res.getCandidateFilePaths().isEmpty()) {
+      return Collections.emptyList();
+    }
+    Set<String> candidateFilePaths = new HashSet<>(res.getCandidateFilePaths());
+    List<TSnapshotFile> candidates = new ArrayList<>(candidateFilePaths.size());
+    for (File file : snapshotPaths) {
+      if (!candidateFilePaths.contains(file.getAbsolutePath())) {
+        continue;
+      }
+      try {
+        candidates.add(
+            new TSnapshotFile(file.getAbsolutePath(), file.length())
+                .setFileDigest(SnapshotFileDigest.digest(file.toPath())));
+      } catch (IOException e) {
+        // the file will be transmitted
+        logger.warn("[SNAPSHOT TRANSMISSION] Cannot digest {}, it will be transmitted", file, e);
+      }
+    }
+    return candidates;
+  }
+
+  /**
+   * Transmit one snapshot file fragment by fragment. If a fragment fails, the transmission is
+   * resumed from the last fragment acknowledged by the target peer with a newly borrowed client.
+   */
+  private void transmitSnapshotFile(Peer targetPeer, File file, ByteBuffer fragmentBuffer)
+      throws IOException, ClientManagerException, TException, ConsensusGroupModifyPeerException {
+    SnapshotFragmentReader reader =
+        new SnapshotFragmentReader(newSnapshotDirName, file.toPath(), fragmentBuffer, 0);
+    long acknowledgedOffset = 0;
+    int retryTimes = 0;
+    try {
+      while (true) {
+        reader.seek(acknowledgedOffset);
+        try (SyncIoTConsensusServiceClient client =
+            syncClientManager.borrowClient(targetPeer.getEndpoint())) {
+          try {
+            while (reader.hasNext()) {
+              TSendSnapshotFragmentReq req = reader.next().toTSendSnapshotFragmentReq();
+              req.setConsensusGroupId(targetPeer.getGroupId().convertToTConsensusGroupId());
+              ioTConsensusRateLimiter.acquireTransitDataSizeWithRateLimiter(req.getChunkLength());
+              TSendSnapshotFragmentRes res = client.sendSnapshotFragment(req);
+              if (!isSuccess(res.getStatus())) {
+                throw new ConsensusGroupModifyPeerException(
+                    String.format(
+                        "[SNAPSHOT TRANSMISSION] Error when transmitting snapshot fragment to %s",
+                        targetPeer));
+              }
+              acknowledgedOffset = reader.getTotalReadSize();
             }
+          } catch (TException e) {
+            // the connection may be broken, do not return it to the pool for the retry to borrow
+            client.invalidate();
+            throw e;
+          }
+          return;
+        } catch (ClientManagerException | TException | ConsensusGroupModifyPeerException e) {
+          if (++retryTimes > SNAPSHOT_FRAGMENT_MAX_RETRY_TIMES) {
+            throw e;
           }
-          transitedSnapshotSizeSum += reader.getTotalReadSize();
-          transitedFilesNum++;
+          logger.warn(
+              "[SNAPSHOT TRANSMISSION] Failed to transmit file {} to {}, resume from offset {}/{}, retry {}/{}",
+              file,
+              targetPeer,
+              acknowledgedOffset,
+              reader.getFileSize(),
+              retryTimes,
+              SNAPSHOT_FRAGMENT_MAX_RETRY_TIMES,
+              e);
+        }
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Find the snapshot files without a digest that may be identical to the local files provided by
+   * the state machine. The sender digests only these candidates and asks to reuse them again.
+   *
+   * @param snapshotFiles the snapshot files with their original paths and sizes
+   * @return the original paths of the candidate snapshot files
+   */
+  public List<String> getReusableSnapshotFileCandidates(
+      String snapshotId, List<TSnapshotFile> snapshotFiles) {
+    Map<String, String> originalFilePaths = new HashMap<>();
+    Map<String, Long> targetSnapshotFiles = new HashMap<>();
+    for (TSnapshotFile snapshotFile : snapshotFiles) {
+      if (snapshotFile.isSetFileDigest()) {
+        continue;
+      }
+      String targetFilePath = calculateSnapshotPath(snapshotId, snapshotFile.getFilePath());
+      originalFilePaths.put(targetFilePath, snapshotFile.getFilePath());
+      targetSnapshotFiles.put(targetFilePath, snapshotFile.getFileSize());
+    }
+    if (targetSnapshotFiles.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<String> candidateFilePaths = new ArrayList<>();
+    for (String targetFilePath :
+        stateMachine.getIdenticalLocalFiles(targetSnapshotFiles).keySet()) {
+      candidateFilePaths.add(originalFilePaths.get(targetFilePath));
+    }
+    return candidateFilePaths;
+  }
+
+  /**
+   * Link the local files that are identical to the given snapshot files into the dir of the
+   * snapshot being received. The candidates provided by the state machine are linked only if their
+   * content digest equals the one of the snapshot file. A file that fails to be linked is left to
+   * be transmitted.
+   *
+   * @param snapshotFiles the snapshot files with their original paths, sizes and digests
+   * @return the original paths of the snapshot files that have been linked
+   */
+  public List<String> reuseLocalSnapshotFiles(String snapshotId, List<TSnapshotFile> snapshotFiles)
+      throws ConsensusGroupModifyPeerException {
+    Map<String, TSnapshotFile> originalSnapshotFiles = new HashMap<>();
+    Map<String, Long> targetSnapshotFiles = new HashMap<>();
+    for (TSnapshotFile snapshotFile : snapshotFiles) {
+      if (!snapshotFile.isSetFileDigest()) {
+        continue;
+      }
+      String targetFilePath = calculateSnapshotPath(snapshotId, snapshotFile.getFilePath());
+      originalSnapshotFiles.put(targetFilePath, snapshotFile);
+      targetSnapshotFiles.put(targetFilePath, snapshotFile.getFileSize());
+    }
+    if (targetSnapshotFiles.isEmpty()) {
+      // the first round of the reuse, in which only the candidates are reported
+      return Collections.emptyList();
+    }
+    List<String> reusedFilePaths = new ArrayList<>();
+    for (Map.Entry<String, File> identicalFile :
+        stateMachine.getIdenticalLocalFiles(targetSnapshotFiles).entrySet()) {
+      TSnapshotFile snapshotFile = originalSnapshotFiles.get(identicalFile.getKey());
+      File targetFile = new File(storageDir, identicalFile.getKey());
+      try {
+        if (!SnapshotFileDigest.isIdentical(
+            identicalFile.getValue().toPath(), snapshotFile.getFileDigest())) {
           logger.info(
-              "[SNAPSHOT TRANSMISSION] The overall progress for dir {}: files {}/{} done, size {}/{} done, time {} passed. File {} done.",
-              newSnapshotDirName,
-              transitedFilesNum,
-              snapshotPaths.size(),
-              humanReadableByteCountSI(transitedSnapshotSizeSum),
-              humanReadableByteCountSI(snapshotSizeSum),
-              CommonDateTimeUtils.convertMillisecondToDurationStr(
-                  (System.nanoTime() - startTime) / 1_000_000),
-              file);
-        } finally {
-          reader.close();
+              "{}: the content of {} differs from {}, it will be transmitted",
+              thisNode.getGroupId(),
+              identicalFile.getValue(),
+              snapshotFile.getFilePath());
+          continue;
         }
+        Files.createDirectories(targetFile.getParentFile().toPath());
+        Files.deleteIfExists(targetFile.toPath());
+        Files.createLink(targetFile.toPath(), identicalFile.getValue().toPath());
+        reusedFilePaths.add(snapshotFile.getFilePath());
+      } catch (IOException e) {
+        logger.warn(
+            "Cannot link {} into snapshot {}, it will be transmitted",
+            identicalFile.getValue(),
+            snapshotId,
+            e);
       }
-    } catch (Exception e) {
-      throw new ConsensusGroupModifyPeerException(
-          String.format("[SNAPSHOT TRANSMISSION] Error when send snapshot file to %s", targetPeer),
-          e);
     }
     logger.info(
-        "[SNAPSHOT TRANSMISSION] After {}, successfully transmit all snapshots from dir {}",
-        CommonDateTimeUtils.convertMillisecondToDurationStr(
-            (System.nanoTime() - startTime) / 1_000_000),
-        snapshotDir);
+        "{}: reuse {} of {} files for snapshot {}",
+        thisNode.getGroupId(),
+        reusedFilePaths.size(),
+        targetSnapshotFiles.size(),
+        snapshotId);
+    return reusedFilePaths;
   }
 
   public void receiveSnapshotFragment(
@@ -363,8 +796,11 @@ public class IoTConsensusServerImpl {
       if (!Files.exists(parentDir)) {
         Files.createDirectories(parentDir);
       }
-      try (FileOutputStream fos = new FileOutputStream(targetFile.getAbsolutePath(), true);
-          FileChannel channel = fos.getChannel()) {
+      // not opened in append mode, so that a fragment retransmitted after a failure overwrites the
+      // same range instead of being appended to the end of the file
+      try (FileChannel channel =
+          FileChannel.open(
+              targetFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
         channel.write(fileChunk.slice(), fileOffset);
       }
     } catch (IOException e) {
@@ -780,6 +1216,10 @@ public class IoTConsensusServerImpl {
     return backgroundTaskService;
   }
 
+  public IoTConsensusFlowController getFlowController() {
+    return flowController;
+  }
+
   public LogDispatcher getLogDispatcher() {
     return logDispatcher;
   }
@@ -887,6 +1327,28 @@ public class IoTConsensusServerImpl {
   }
 
   public TSStatus syncLog(int sourcePeerId, IConsensusRequest request) {
+    if (followerBatchedApply) {
+      SyncLogApplier syncLogApplier = syncLogApplierMap.get(sourcePeerId);
+      if (syncLogApplier == null) {
+        synchronized (syncLogApplierMap) {
+          syncLogApplier =
+              syncLogApplierMap.computeIfAbsent(
+                  sourcePeerId,
+                  id -> {
+                    if (syncLogApplierStopped) {
+                      return null;
+                    }
+                    SyncLogApplier applier = new SyncLogApplier(id);
+                    applier.start();
+                    return applier;
+                  });
+        }
+      }
+      if (syncLogApplier == null) {
+        return getSyncLogApplierStoppedStatus((DeserializedBatchIndexedConsensusRequest) request);
+      }
+      return syncLogApplier.applyInOrder((DeserializedBatchIndexedConsensusRequest) request);
+    }
     return cacheQueueMap
         .computeIfAbsent(sourcePeerId, SyncLogCacheQueue::new)
         .cacheAndInsertLatestNode((DeserializedBatchIndexedConsensusRequest) request);
@@ -995,6 +1457,7 @@ public class IoTConsensusServerImpl {
         }
         long sortTime = System.nanoTime();
         ioTConsensusServerMetrics.recordSortCost(sortTime - insertStartTime);
+        ioTConsensusServerMetrics.recordReorderWaitCost(sortTime - insertStartTime);
         List<TSStatus> subStatus = new LinkedList<>();
         for (IConsensusRequest insertNode : request.getInsertNodes()) {
           insertNode.markAsGeneratedByRemoteConsensusLeader();
@@ -1002,6 +1465,7 @@ public class IoTConsensusServerImpl {
         }
         long applyTime = System.nanoTime();
         ioTConsensusServerMetrics.recordApplyCost(applyTime - sortTime);
+        ioTConsensusServerMetrics.recordAppliedLogEntries(request.getInsertNodes().size());
         queueSortCondition.signalAll();
         logger.debug(
             "cacheAndInsert end: source = {}, region = {}, queue size {}, startSyncIndex = {}, endSyncIndex = {}, sortTime = {}ms, applyTime = {}ms",
@@ -1018,4 +1482,276 @@ public class IoTConsensusServerImpl {
       }
     }
   }
+
+  /**
+   * This class is used for write of IoTConsensus SyncLog in follower batched apply mode. The rpc
+   * threads only put their batches into the queue and wait for the results. A dedicated thread
+   * takes the batch with nextSyncIndex together with all the queued batches contiguous with it, and
+   * writes them to the state machine one batch after another, so each batch gets exactly its own
+   * statuses. The insert nodes are still applied one by one; what is saved is that the batches
+   * which arrive while a follower is catching up are ordered without waking up every waiting rpc
+   * thread after each one.
+   */
+  private class SyncLogApplier implements Runnable {
+
+    private final int sourcePeerId;
+    private final Lock queueLock = new ReentrantLock();
+    private final Condition queueCondition = queueLock.newCondition();
+    private final PriorityQueue<PendingSyncLog> requestCache = new PriorityQueue<>();
+    private final ExecutorService applierService;
+    private long nextSyncIndex = -1;
+    private volatile boolean stopped = false;
+
+    private SyncLogApplier(int sourcePeerId) {
+      this.sourcePeerId = sourcePeerId;
+      this.applierService =
+          IoTDBThreadPoolFactory.newSingleThreadExecutor(
+              ThreadName.SYNC_LOG_APPLIER.getName() + "-" + consensusGroupId + "-" + sourcePeerId);
+    }
+
+    private void start() {
+      applierService.submit(this);
+    }
+
+    private void stop() {
+      queueLock.lock();
+      try {
+        stopped = true;
+        queueCondition.signalAll();
+      } finally {
+        queueLock.unlock();
+      }
+      applierService.shutdownNow();
+      int timeout = 10;
+      try {
+        if (!applierService.awaitTermination(timeout, TimeUnit.SECONDS)) {
+          logger.error(
+              "Unable to shutdown SyncLogApplier of {} for source {} after {} seconds",
+              consensusGroupId,
+              sourcePeerId,
+              timeout);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        logger.error("Unexpected Interruption when closing SyncLogApplier service ");
+      }
+      rejectPendingRequests();
+    }
+
+    private TSStatus applyInOrder(DeserializedBatchIndexedConsensusRequest request) {
+      PendingSyncLog pendingSyncLog = new PendingSyncLog(request);
+      queueLock.lock();
+      try {
+        if (stopped) {
+          return getSyncLogApplierStoppedStatus(request);
+        }
+        requestCache.add(pendingSyncLog);
+        queueCondition.signalAll();
+      } finally {
+        queueLock.unlock();
+      }
+      // the batch is always completed by the applier or by stop(), so it is safe to wait without
+      // being interrupted
+      return pendingSyncLog.result.join();
+    }
+
+    @Override
+    public void run() {
+      while (!stopped && !Thread.currentThread().isInterrupted()) {
+        List<PendingSyncLog> pendingSyncLogs;
+        try {
+          pendingSyncLogs = takeContiguousBatches();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+        if (pendingSyncLogs.isEmpty()) {
+          continue;
+        }
+        try {
+          apply(pendingSyncLogs);
+        } catch (Throwable t) {
+          // the rpc threads waiting for the batches must be released, and the applier keeps
+          // serving the following batches
+          logger.error(
+              "Unexpected error when applying sync log of {} from source {}",
+              consensusGroupId,
+              sourcePeerId,
+              t);
+          failPendingSyncLogs(pendingSyncLogs, t);
+        }
+      }
+      rejectPendingRequests();
+    }
+
+    private void failPendingSyncLogs(List<PendingSyncLog> pendingSyncLogs, Throwable t) {
+      TSStatus status = new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+      status.setMessage(t.getMessage());
+      for (PendingSyncLog pendingSyncLog : pendingSyncLogs) {
+        // the batches already completed by apply() are not affected
+        pendingSyncLog.result.complete(
+            new TSStatus()
+                .setSubStatus(
+                    new ArrayList<>(
+                        Collections.nCopies(
+                            pendingSyncLog.request.getInsertNodes().size(), status))));
+      }
+    }
+
+    /**
+     * Wait until the peek of the queue can be applied, with the same rules as {@link
+     * SyncLogCacheQueue}: it is the target batch, or the queue is full, or it has waited for the
+     * target batch for too long. Then take it and the batches contiguous with it.
+     */
+    private List<PendingSyncLog> takeContiguousBatches() throws InterruptedException {
+      long maxWaitingTimeInNanos =
+          TimeUnit.MILLISECONDS.toNanos(
+              config.getReplication().getMaxWaitingTimeForWaitBatchInMs());
+      queueLock.lock();
+      try {
+        PendingSyncLog peek;
+        boolean timeout;
+        while (true) {
+          if (stopped) {
+            return Collections.emptyList();
+          }
+          peek = requestCache.peek();
+          if (peek == null) {
+            queueCondition.await(maxWaitingTimeInNanos, TimeUnit.NANOSECONDS);
+            continue;
+          }
+          if (peek.getStartSyncIndex() == nextSyncIndex
+              || requestCache.size() >= config.getReplication().getMaxPendingBatchesNum()) {
+            timeout = false;
+            break;
+          }
+          long waitingTime = System.nanoTime() - peek.cacheTime;
+          if (waitingTime >= maxWaitingTimeInNanos) {
+            timeout = true;
+            break;
+          }
+          queueCondition.await(maxWaitingTimeInNanos - waitingTime, TimeUnit.NANOSECONDS);
+        }
+        if (timeout) {
+          logger.info(
+              "waiting target request timeout. current index: {}, target index: {}",
+              peek.getStartSyncIndex(),
+              nextSyncIndex);
+        }
+        List<PendingSyncLog> pendingSyncLogs = new ArrayList<>();
+        requestCache.remove();
+        pendingSyncLogs.add(peek);
+        nextSyncIndex =
+            timeout
+                ? Math.max(nextSyncIndex, peek.getEndSyncIndex() + 1)
+                : peek.getEndSyncIndex() + 1;
+        while (requestCache.peek() != null
+            && requestCache.peek().getStartSyncIndex() == nextSyncIndex) {
+          PendingSyncLog next = requestCache.remove();
+          pendingSyncLogs.add(next);
+          nextSyncIndex = next.getEndSyncIndex() + 1;
+        }
+        long takeTime = System.nanoTime();
+        for (PendingSyncLog pendingSyncLog : pendingSyncLogs) {
+          ioTConsensusServerMetrics.recordReorderWaitCost(takeTime - pendingSyncLog.cacheTime);
+        }
+        return pendingSyncLogs;
+      } finally {
+        queueLock.unlock();
+      }
+    }
+
+    private void apply(List<PendingSyncLog> pendingSyncLogs) {
+      long applyStartTime = System.nanoTime();
+      int appliedLogEntries = 0;
+      for (PendingSyncLog pendingSyncLog : pendingSyncLogs) {
+        DeserializedBatchIndexedConsensusRequest request = pendingSyncLog.request;
+        for (IConsensusRequest insertNode : request.getInsertNodes()) {
+          insertNode.markAsGeneratedByRemoteConsensusLeader();
+        }
+        pendingSyncLog.result.complete(applyBatch(request));
+        appliedLogEntries += request.getInsertNodes().size();
+      }
+      long applyTime = System.nanoTime();
+      ioTConsensusServerMetrics.recordApplyCost(applyTime - applyStartTime);
+      ioTConsensusServerMetrics.recordAppliedLogEntries(appliedLogEntries);
+      logger.debug(
+          "apply sync log: source = {}, region = {}, batches = {}, startSyncIndex = {}, endSyncIndex = {}, applyTime = {}ms",
+          sourcePeerId,
+          consensusGroupId,
+          pendingSyncLogs.size(),
+          pendingSyncLogs.get(0).getStartSyncIndex(),
+          pendingSyncLogs.get(pendingSyncLogs.size() - 1).getEndSyncIndex(),
+          TimeUnit.NANOSECONDS.toMillis(applyTime - applyStartTime));
+    }
+
+    private TSStatus applyBatch(DeserializedBatchIndexedConsensusRequest request) {
+      TSStatus status;
+      try {
+        status = stateMachine.write(request);
+      } catch (Exception e) {
+        logger.error(
+            "Failed to apply sync log of {} from index {} to {}",
+            consensusGroupId,
+            request.getStartSyncIndex(),
+            request.getEndSyncIndex(),
+            e);
+        status = new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+        status.setMessage(e.getMessage());
+      }
+      if (status.getSubStatus() != null
+          && status.getSubStatus().size() == request.getInsertNodes().size()) {
+        return status;
+      }
+      // the state machine failed the batch as a whole, which only affects this batch
+      return new TSStatus()
+          .setSubStatus(
+              new ArrayList<>(Collections.nCopies(request.getInsertNodes().size(), status)));
+    }
+
+    private void rejectPendingRequests() {
+      queueLock.lock();
+      try {
+        PendingSyncLog pendingSyncLog;
+        while ((pendingSyncLog = requestCache.poll()) != null) {
+          pendingSyncLog.result.complete(getSyncLogApplierStoppedStatus(pendingSyncLog.request));
+        }
+      } finally {
+        queueLock.unlock();
+      }
+    }
+  }
+
+  private TSStatus getSyncLogApplierStoppedStatus(
+      DeserializedBatchIndexedConsensusRequest request) {
+    TSStatus status = new TSStatus(TSStatusCode.WRITE_PROCESS_REJECT.getStatusCode());
+    status.setMessage(String.format("SyncLogApplier of %s has been stopped", consensusGroupId));
+    return new TSStatus()
+        .setSubStatus(
+            new ArrayList<>(Collections.nCopies(request.getInsertNodes().size(), status)));
+  }
+
+  private static class PendingSyncLog implements Comparable<PendingSyncLog> {
+
+    private final DeserializedBatchIndexedConsensusRequest request;
+    private final long cacheTime = System.nanoTime();
+    private final CompletableFuture<TSStatus> result = new CompletableFuture<>();
+
+    private PendingSyncLog(DeserializedBatchIndexedConsensusRequest request) {
+      this.request = request;
+    }
+
+    private long getStartSyncIndex() {
+      return request.getStartSyncIndex();
+    }
+
+    private long getEndSyncIndex() {
+      return request.getEndSyncIndex();
+    }
+
+    @Override
+    public int compareTo(PendingSyncLog o) {
+      return request.compareTo(o.request);
+    }
+  }
 }
@@ -24,6 +24,7 @@ import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Rate;
 import org.apache.iotdb.metrics.type.Timer;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MetricType;
@@ -36,13 +37,19 @@ public class IoTConsensusServerMetrics implements IMetricSet {
   private Timer writeStateMachineTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer offerRequestToQueueTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer consensusWriteTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Timer stateMachineLockHoldTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Timer waitForWriteTurnTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Timer admissionDelayTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private static final String IOT_RECEIVE_LOG = Metric.IOT_RECEIVE_LOG.toString();
   private Timer deserializeTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer sortTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer applyTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Timer reorderWaitTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Rate applyLogRate = DoNothingMetricManager.DO_NOTHING_RATE;
   private static final String DESERIALIZE = "deserialize";
   private static final String SORT = "sort";
   private static final String APPLY = "apply";
+  private static final String REORDER_WAIT = "reorderWait";
 
   public IoTConsensusServerMetrics(IoTConsensusServerImpl impl) {
     this.impl = impl;
@@ -62,6 +69,15 @@ public class IoTConsensusServerMetrics implements IMetricSet {
     applyTimer.updateNanos(costTimeInNanos);
   }
 
+  /** Record the time a synced batch waited for its preceding batches before being applied. */
+  public void recordReorderWaitCost(long costTimeInNanos) {
+    reorderWaitTimer.updateNanos(costTimeInNanos);
+  }
+
+  public void recordAppliedLogEntries(long entryNum) {
+    applyLogRate.mark(entryNum);
+  }
+
   @Override
   public void bindTo(AbstractMetricService metricService) {
     bindAutoGauge(metricService);
@@ -133,6 +149,28 @@ public class IoTConsensusServerMetrics implements IMetricSet {
         impl.getThisNode().getGroupId().toString(),
         Tag.TYPE.toString(),
         "LogEntriesFromQueue");
+    metricService.createAutoGauge(
+        Metric.IOT_CONSENSUS.toString(),
+        MetricLevel.IMPORTANT,
+        impl,
+        x -> x.getFlowController().getIngestRate(),
+        Tag.NAME.toString(),
+        IMPL,
+        Tag.REGION.toString(),
+        impl.getThisNode().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "ingestRate");
+    metricService.createAutoGauge(
+        Metric.IOT_CONSENSUS.toString(),
+        MetricLevel.IMPORTANT,
+        impl,
+        x -> x.getFlowController().getLastAdmissionDelayMs(),
+        Tag.NAME.toString(),
+        IMPL,
+        Tag.REGION.toString(),
+        impl.getThisNode().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "admissionDelayMs");
   }
 
   private void bindStageTimer(AbstractMetricService metricService) {
@@ -186,6 +224,36 @@ public class IoTConsensusServerMetrics implements IMetricSet {
             "consensusWrite",
             Tag.REGION.toString(),
             impl.getConsensusGroupId());
+    stateMachineLockHoldTimer =
+        metricService.getOrCreateTimer(
+            Metric.STAGE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            Metric.IOT_CONSENSUS.toString(),
+            Tag.TYPE.toString(),
+            "holdStateMachineLock",
+            Tag.REGION.toString(),
+            impl.getConsensusGroupId());
+    waitForWriteTurnTimer =
+        metricService.getOrCreateTimer(
+            Metric.STAGE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            Metric.IOT_CONSENSUS.toString(),
+            Tag.TYPE.toString(),
+            "waitForWriteTurn",
+            Tag.REGION.toString(),
+            impl.getConsensusGroupId());
+    admissionDelayTimer =
+        metricService.getOrCreateTimer(
+            Metric.STAGE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            Metric.IOT_CONSENSUS.toString(),
+            Tag.TYPE.toString(),
+            "admissionDelay",
+            Tag.REGION.toString(),
+            impl.getConsensusGroupId());
   }
 
   private void bindSyncLogTimer(AbstractMetricService metricService) {
@@ -214,6 +282,20 @@ public class IoTConsensusServerMetrics implements IMetricSet {
             APPLY,
             Tag.REGION.toString(),
             impl.getConsensusGroupId());
+    reorderWaitTimer =
+        metricService.getOrCreateTimer(
+            IOT_RECEIVE_LOG,
+            MetricLevel.IMPORTANT,
+            Tag.STAGE.toString(),
+            REORDER_WAIT,
+            Tag.REGION.toString(),
+            impl.getConsensusGroupId());
+    applyLogRate =
+        metricService.getOrCreateRate(
+            Metric.IOT_APPLY_LOG_RATE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.REGION.toString(),
+            impl.getConsensusGroupId());
   }
 
   private void unbindAutoGauge(AbstractMetricService metricService) {
@@ -262,6 +344,24 @@ public class IoTConsensusServerMetrics implements IMetricSet {
         impl.getThisNode().getGroupId().toString(),
         Tag.TYPE.toString(),
         "LogEntriesFromQueue");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.IOT_CONSENSUS.toString(),
+        Tag.NAME.toString(),
+        IMPL,
+        Tag.REGION.toString(),
+        impl.getThisNode().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "ingestRate");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.IOT_CONSENSUS.toString(),
+        Tag.NAME.toString(),
+        IMPL,
+        Tag.REGION.toString(),
+        impl.getThisNode().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "admissionDelayMs");
   }
 
   private void unbindStageTimer(AbstractMetricService metricService) {
@@ -270,6 +370,9 @@ public class IoTConsensusServerMetrics implements IMetricSet {
     writeStateMachineTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     offerRequestToQueueTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     consensusWriteTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    stateMachineLockHoldTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    waitForWriteTurnTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    admissionDelayTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     metricService.remove(
         MetricType.TIMER,
         Metric.STAGE.toString(),
@@ -315,10 +418,39 @@ public class IoTConsensusServerMetrics implements IMetricSet {
         "consensusWrite",
         Tag.REGION.toString(),
         impl.getConsensusGroupId());
+    metricService.remove(
+        MetricType.TIMER,
+        Metric.STAGE.toString(),
+        Tag.NAME.toString(),
+        Metric.IOT_CONSENSUS.toString(),
+        Tag.TYPE.toString(),
+        "holdStateMachineLock",
+        Tag.REGION.toString(),
+        impl.getConsensusGroupId());
+    metricService.remove(
+        MetricType.TIMER,
+        Metric.STAGE.toString(),
+        Tag.NAME.toString(),
+        Metric.IOT_CONSENSUS.toString(),
+        Tag.TYPE.toString(),
+        "waitForWriteTurn",
+        Tag.REGION.toString(),
+        impl.getConsensusGroupId());
+    metricService.remove(
+        MetricType.TIMER,
+        Metric.STAGE.toString(),
+        Tag.NAME.toString(),
+        Metric.IOT_CONSENSUS.toString(),
+        Tag.TYPE.toString(),
+        "admissionDelay",
+        Tag.REGION.toString(),
+        impl.getConsensusGroupId());
   }
 
   private void unbindSyncLogTimer(AbstractMetricService metricService) {
     // unbind sync log timers
+    reorderWaitTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    applyLogRate = DoNothingMetricManager.DO_NOTHING_RATE;
     metricService.remove(
         MetricType.TIMER,
         IOT_RECEIVE_LOG,
@@ -340,6 +472,18 @@ public class IoTConsensusServerMetrics implements IMetricSet {
         APPLY,
         Tag.REGION.toString(),
         impl.getConsensusGroupId());
+    metricService.remove(
+        MetricType.TIMER,
+        IOT_RECEIVE_LOG,
+        Tag.STAGE.toString(),
+        REORDER_WAIT,
+        Tag.REGION.toString(),
+        impl.getConsensusGroupId());
+    metricService.remove(
+        MetricType.RATE,
+        Metric.IOT_APPLY_LOG_RATE.toString(),
+        Tag.REGION.toString(),
+        impl.getConsensusGroupId());
   }
 
   public void recordGetStateMachineLockTime(long costTimeInNanos) {
@@ -361,4 +505,16 @@ public class IoTConsensusServerMetrics implements IMetricSet {
   public void recordConsensusWriteTime(long costTimeInNanos) {
     consensusWriteTimer.updateNanos(costTimeInNanos);
   }
+
+  public void recordStateMachineLockHoldTime(long costTimeInNanos) {
+    stateMachineLockHoldTimer.updateNanos(costTimeInNanos);
+  }
+
+  public void recordWaitForWriteTurnTime(long costTimeInNanos) {
+    waitForWriteTurnTimer.updateNanos(costTimeInNanos);
+  }
+
+  public void recordAdmissionDelayTime(long costTimeInNanos) {
+    admissionDelayTimer.updateNanos(costTimeInNanos);
+  }
 }
@@ -61,7 +61,20 @@ public class DispatchLogHandler implements AsyncMethodCallback<TSyncLogEntriesRe
 
   @Override
   public void onComplete(TSyncLogEntriesRes response) {
-    if (response.getStatuses().stream()
+    thread.negotiateCompression(response);
+    if (response.getStatusesSize() != batch.getLogEntries().size()) {
+      // e.g. the peer rejects the whole batch with a single status, so it is not known which of
+      // the entries have been written
+      logger.warn(
+          "Can not send {} to peer {} for {} times because the peer returns {} statuses for {} entries: {}",
+          batch,
+          thread.getPeer(),
+          ++retryCount,
+          response.getStatusesSize(),
+          batch.getLogEntries().size(),
+          response.getStatuses());
+      sleepCorrespondingTimeAndRetryAsynchronous();
+    } else if (response.getStatuses().stream()
         .anyMatch(status -> RetryUtils.needRetryForConsensus(status.getCode()))) {
       List<String> retryStatusMessages =
           response.getStatuses().stream()
@@ -34,7 +34,9 @@ import org.apache.iotdb.consensus.iot.log.ConsensusReqReader;
 import org.apache.iotdb.consensus.iot.log.GetConsensusReqReaderPlan;
 import org.apache.iotdb.consensus.iot.thrift.TLogEntry;
 import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesReq;
+import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesRes;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,6 +45,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.OptionalDouble;
 import java.util.OptionalLong;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
@@ -164,6 +167,14 @@ public class LogDispatcher {
     return threads.stream().mapToLong(LogDispatcherThread::getLastFlushedSyncIndex).min();
   }
 
+  public synchronized void sampleSyncRates(long currentTimeInNanos) {
+    threads.forEach(thread -> thread.sampleSyncRate(currentTimeInNanos));
+  }
+
+  public synchronized OptionalDouble getMinSyncRate() {
+    return threads.stream().mapToDouble(LogDispatcherThread::getSyncRate).min();
+  }
+
   public void checkAndFlushIndex() {
     if (!threads.isEmpty()) {
       threads.forEach(
@@ -232,8 +243,15 @@ public class LogDispatcher {
 
     private final LogDispatcherThreadMetrics logDispatcherThreadMetrics;
 
+    private final ProgressRateEstimator syncRateEstimator = new ProgressRateEstimator();
+
     private final CountDownLatch runFinished = new CountDownLatch(1);
 
+    // the batches are only compressed while the peer reports in its latest response that it
+    // supports the compression type, so that the peers of an older version, including a peer
+    // downgraded after the negotiation, still receive uncompressed batches
+    private volatile boolean compressionNegotiated = false;
+
     public LogDispatcherThread(Peer peer, IoTConsensusConfig config, long initialSyncIndex) {
       this.peer = peer;
       this.config = config;
@@ -262,6 +280,20 @@ public class LogDispatcher {
       return controller.getLastFlushedIndex();
     }
 
+    public void sampleSyncRate(long currentTimeInNanos) {
+      syncRateEstimator.update(getCurrentSyncIndex(), currentTimeInNanos);
+    }
+
+    /** The number of logs synced to the peer per second. */
+    public double getSyncRate() {
+      return syncRateEstimator.getRate();
+    }
+
+    public long getPredictedCatchUpTimeInMs() {
+      return impl.getFlowController()
+          .predictCatchUpTimeInMs(impl.getSearchIndex() - getCurrentSyncIndex(), getSyncRate());
+    }
+
     public Peer getPeer() {
       return peer;
     }
@@ -511,6 +543,7 @@ public class LogDispatcher {
         TSyncLogEntriesReq req =
             new TSyncLogEntriesReq(
                 selfPeerId, peer.getGroupId().convertToTConsensusGroupId(), batch.getLogEntries());
+        compressIfNegotiated(req);
         logger.debug(
             "Send Batch[startIndex:{}, endIndex:{}] to ConsensusGroup:{}",
             batch.getStartIndex(),
@@ -523,6 +556,42 @@ public class LogDispatcher {
       }
     }
 
+    private void compressIfNegotiated(TSyncLogEntriesReq req) {
+      int uncompressedSize = LogEntriesCompressor.getSerializedSize(req.getLogEntries());
+      int shippedSize = uncompressedSize;
+      if (compressionNegotiated) {
+        try {
+          shippedSize =
+              LogEntriesCompressor.compress(req, config.getReplication().getLogCompressionType());
+        } catch (IOException e) {
+          logger.warn(
+              "Failed to compress log entries for peer {}, send them uncompressed", peer, e);
+        }
+      }
+      logDispatcherThreadMetrics.recordShippedBytes(uncompressedSize, shippedSize);
+    }
+
+    /**
+     * Compress the following batches only if the peer reports in this response that it supports the
+     * compression, which is derived again from every response.
+     */
+    public void negotiateCompression(TSyncLogEntriesRes response) {
+      CompressionType compressionType = config.getReplication().getLogCompressionType();
+      boolean negotiated =
+          compressionType != CompressionType.UNCOMPRESSED
+              && response.isSetSupportedCompressionTypes()
+              && response.getSupportedCompressionTypes().contains(compressionType.serialize());
+      if (negotiated == compressionNegotiated) {
+        return;
+      }
+      compressionNegotiated = negotiated;
+      if (negotiated) {
+        logger.info("Start sending log entries compressed by {} to peer {}", compressionType, peer);
+      } else {
+        logger.info("Stop sending compressed log entries to peer {}", peer);
+      }
+    }
+
     public SyncStatus getSyncStatus() {
       return syncStatus;
     }
@@ -24,6 +24,7 @@ import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Counter;
 import org.apache.iotdb.metrics.type.Timer;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MetricType;
@@ -34,6 +35,10 @@ public class LogDispatcherThreadMetrics implements IMetricSet {
 
   private Timer constructBatchTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer syncLogTimePerRequestTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Counter bytesBeforeCompressionCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private Counter bytesAfterCompressionCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private static final String BYTES_BEFORE_COMPRESSION = "bytesBeforeCompression";
+  private static final String BYTES_AFTER_COMPRESSION = "bytesAfterCompression";
 
   public LogDispatcherThreadMetrics(LogDispatcher.LogDispatcherThread logDispatcherThread) {
     this.logDispatcherThread = logDispatcherThread;
@@ -48,10 +53,16 @@ public class LogDispatcherThreadMetrics implements IMetricSet {
     syncLogTimePerRequestTimer.updateNanos(costTimeInNanos);
   }
 
+  public void recordShippedBytes(long bytesBeforeCompression, long bytesAfterCompression) {
+    bytesBeforeCompressionCounter.inc(bytesBeforeCompression);
+    bytesAfterCompressionCounter.inc(bytesAfterCompression);
+  }
+
   @Override
   public void bindTo(AbstractMetricService metricService) {
     bindAutoGauge(metricService);
     bindStageTimer(metricService);
+    bindShippedBytesCounter(metricService);
   }
 
   private void bindAutoGauge(AbstractMetricService metricService) {
@@ -88,6 +99,28 @@ public class LogDispatcherThreadMetrics implements IMetricSet {
         logDispatcherThread.getPeer().getGroupId().toString(),
         Tag.TYPE.toString(),
         "cachedRequestInMemoryQueue");
+    metricService.createAutoGauge(
+        Metric.IOT_CONSENSUS.toString(),
+        MetricLevel.IMPORTANT,
+        logDispatcherThread,
+        LogDispatcher.LogDispatcherThread::getSyncRate,
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "syncRate");
+    metricService.createAutoGauge(
+        Metric.IOT_CONSENSUS.toString(),
+        MetricLevel.IMPORTANT,
+        logDispatcherThread,
+        LogDispatcher.LogDispatcherThread::getPredictedCatchUpTimeInMs,
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "predictedCatchUpTimeMs");
   }
 
   private void bindStageTimer(AbstractMetricService metricService) {
@@ -134,10 +167,57 @@ public class LogDispatcherThreadMetrics implements IMetricSet {
         peerGroupId);
   }
 
+  private void bindShippedBytesCounter(AbstractMetricService metricService) {
+    bytesBeforeCompressionCounter =
+        metricService.getOrCreateCounter(
+            Metric.IOT_SEND_LOG_BYTES.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            formatName(),
+            Tag.REGION.toString(),
+            peerGroupId,
+            Tag.TYPE.toString(),
+            BYTES_BEFORE_COMPRESSION);
+    bytesAfterCompressionCounter =
+        metricService.getOrCreateCounter(
+            Metric.IOT_SEND_LOG_BYTES.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            formatName(),
+            Tag.REGION.toString(),
+            peerGroupId,
+            Tag.TYPE.toString(),
+            BYTES_AFTER_COMPRESSION);
+  }
+
+  private void unbindShippedBytesCounter(AbstractMetricService metricService) {
+    bytesBeforeCompressionCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+    bytesAfterCompressionCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+    metricService.remove(
+        MetricType.COUNTER,
+        Metric.IOT_SEND_LOG_BYTES.toString(),
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        peerGroupId,
+        Tag.TYPE.toString(),
+        BYTES_BEFORE_COMPRESSION);
+    metricService.remove(
+        MetricType.COUNTER,
+        Metric.IOT_SEND_LOG_BYTES.toString(),
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        peerGroupId,
+        Tag.TYPE.toString(),
+        BYTES_AFTER_COMPRESSION);
+  }
+
   @Override
   public void unbindFrom(AbstractMetricService metricService) {
     unbindAutoGauge(metricService);
     unbindStageTimer(metricService);
+    unbindShippedBytesCounter(metricService);
   }
 
   private void unbindAutoGauge(AbstractMetricService metricService) {
@@ -168,6 +248,24 @@ public class LogDispatcherThreadMetrics implements IMetricSet {
         logDispatcherThread.getPeer().getGroupId().toString(),
         Tag.TYPE.toString(),
         "cachedRequestInMemoryQueue");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.IOT_CONSENSUS.toString(),
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "syncRate");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.IOT_CONSENSUS.toString(),
+        Tag.NAME.toString(),
+        formatName(),
+        Tag.REGION.toString(),
+        logDispatcherThread.getPeer().getGroupId().toString(),
+        Tag.TYPE.toString(),
+        "predictedCatchUpTimeMs");
   }
 
   private String formatName() {
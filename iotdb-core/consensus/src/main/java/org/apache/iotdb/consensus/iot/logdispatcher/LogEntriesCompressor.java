@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.logdispatcher;
+
+import org.apache.iotdb.consensus.iot.thrift.TLogEntry;
+import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesReq;
+
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compresses the log entries of a {@link TSyncLogEntriesReq} as a whole. The entries are serialized
+ * into one buffer before compression, so that the repeated device paths and measurement names among
+ * the entries of a batch are compressed together.
+ */
+public class LogEntriesCompressor {
+
+  /** The compression types that this node is able to decompress. */
+  public static final List<Byte> SUPPORTED_COMPRESSION_TYPES =
+      Collections.unmodifiableList(
+          Arrays.asList(
+              CompressionType.SNAPPY.serialize(),
+              CompressionType.GZIP.serialize(),
+              CompressionType.LZ4.serialize(),
+              CompressionType.ZSTD.serialize(),
+              CompressionType.LZMA2.serialize()));
+
+  private LogEntriesCompressor() {
+    // util class
+  }
+
+  /**
+   * Replace the log entries of the request with the compressed ones. The request is kept unchanged
+   * if the compressed entries are not smaller.
+   *
+   * @return the size of the log entries shipped by the request
+   */
+  public static int compress(TSyncLogEntriesReq req, CompressionType compressionType)
+      throws IOException {
+    byte[] uncompressed = serialize(req.getLogEntries());
+    byte[] compressed = ICompressor.getCompressor(compressionType).compress(uncompressed);
+    if (compressed.length >= uncompressed.length) {
+      return uncompressed.length;
+    }
+    req.setLogEntries(Collections.emptyList());
+    req.setCompressionType(compressionType.serialize());
+    req.setCompressedLogEntries(compressed);
+    req.setUncompressedSize(uncompressed.length);
+    return compressed.length;
+  }
+
+  /**
+   * Restore the log entries of the request if they have been compressed.
+   *
+   * @param maxUncompressedSize the uncompressed size of a request which is larger than this is
+   *     rejected, so that a corrupted or malicious request can not make this node allocate a huge
+   *     buffer
+   */
+  public static void decompress(TSyncLogEntriesReq req, int maxUncompressedSize)
+      throws IOException {
+    if (!req.isSetCompressedLogEntries()) {
+      return;
+    }
+    CompressionType compressionType = CompressionType.deserialize(req.getCompressionType());
+    if (!SUPPORTED_COMPRESSION_TYPES.contains(req.getCompressionType())) {
+      throw new IOException("Unsupported compression type of log entries: " + compressionType);
+    }
+    if (req.getUncompressedSize() < 0 || req.getUncompressedSize() > maxUncompressedSize) {
+      throw new IOException(
+          "Illegal uncompressed size of log entries: " + req.getUncompressedSize());
+    }
+    ByteBuffer compressed = req.bufferForCompressedLogEntries();
+    byte[] compressedBytes = new byte[compressed.remaining()];
+    compressed.duplicate().get(compressedBytes);
+    byte[] uncompressed = new byte[req.getUncompressedSize()];
+    IUnCompressor.getUnCompressor(compressionType)
+        .uncompress(compressedBytes, 0, compressedBytes.length, uncompressed, 0);
+    req.setLogEntries(deserialize(ByteBuffer.wrap(uncompressed)));
+    req.unsetCompressionType();
+    req.unsetCompressedLogEntries();
+    req.unsetUncompressedSize();
+  }
+
+  /** Get the size of the log entries shipped by the request. */
+  public static int getSerializedSize(List<TLogEntry> logEntries) {
+    // entry num
+    int size = Integer.BYTES;
+    for (TLogEntry logEntry : logEntries) {
+      // search index, fromWAL and data num
+      size += Long.BYTES + Byte.BYTES + Integer.BYTES;
+      for (ByteBuffer data : logEntry.getData()) {
+        size += Integer.BYTES + data.remaining();
+      }
+    }
+    return size;
+  }
+
+  static byte[] serialize(List<TLogEntry> logEntries) {
+    ByteBuffer buffer = ByteBuffer.allocate(getSerializedSize(logEntries));
+    buffer.putInt(logEntries.size());
+    for (TLogEntry logEntry : logEntries) {
+      buffer.putLong(logEntry.getSearchIndex());
+      buffer.put((byte) (logEntry.isFromWAL() ? 1 : 0));
+      buffer.putInt(logEntry.getData().size());
+      for (ByteBuffer data : logEntry.getData()) {
+        buffer.putInt(data.remaining());
+        buffer.put(data.duplicate());
+      }
+    }
+    return buffer.array();
+  }
+
+  static List<TLogEntry> deserialize(ByteBuffer buffer) {
+    int entryNum = buffer.getInt();
+    List<TLogEntry> logEntries = new ArrayList<>(entryNum);
+    for (int i = 0; i < entryNum; i++) {
+      long searchIndex = buffer.getLong();
+      boolean fromWAL = buffer.get() == 1;
+      int dataNum = buffer.getInt();
+      List<ByteBuffer> data = new ArrayList<>(dataNum);
+      for (int j = 0; j < dataNum; j++) {
+        int size = buffer.getInt();
+        ByteBuffer slice = buffer.slice();
+        slice.limit(size);
+        data.add(slice);
+        buffer.position(buffer.position() + size);
+      }
+      logEntries.add(new TLogEntry(data, searchIndex, fromWAL));
+    }
+    return logEntries;
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.logdispatcher;
+
+/**
+ * Estimates how fast a monotonically increasing index advances, such as the search index of a
+ * region or the sync index of a peer. The rate is smoothed by an exponentially weighted moving
+ * average whose weight depends on the interval between two samples, so that irregular sampling does
+ * not bias the estimate.
+ */
+public class ProgressRateEstimator {
+
+  private static final double SMOOTHING_WINDOW_IN_SECONDS = 10.0;
+
+  private long lastIndex = -1;
+  private long lastSampleTimeInNanos;
+  // index advanced per second
+  private double rate = 0;
+
+  public synchronized void update(long index, long currentTimeInNanos) {
+    // the first sample or an index which is reset only records the baseline
+    if (lastIndex < 0 || index < lastIndex) {
+      lastIndex = index;
+      lastSampleTimeInNanos = currentTimeInNanos;
+      return;
+    }
+    long elapsedTimeInNanos = currentTimeInNanos - lastSampleTimeInNanos;
+    if (elapsedTimeInNanos <= 0) {
+      return;
+    }
+    double elapsedSeconds = elapsedTimeInNanos / 1_000_000_000.0;
+    double currentRate = (index - lastIndex) / elapsedSeconds;
+    double weight = 1 - Math.exp(-elapsedSeconds / SMOOTHING_WINDOW_IN_SECONDS);
+    rate += weight * (currentRate - rate);
+    lastIndex = index;
+    lastSampleTimeInNanos = currentTimeInNanos;
+  }
+
+  public synchronized double getRate() {
+    return rate;
+  }
+}
@@ -32,6 +32,7 @@ import org.apache.iotdb.consensus.common.request.IoTConsensusRequest;
 import org.apache.iotdb.consensus.exception.ConsensusGroupModifyPeerException;
 import org.apache.iotdb.consensus.iot.IoTConsensus;
 import org.apache.iotdb.consensus.iot.IoTConsensusServerImpl;
+import org.apache.iotdb.consensus.iot.logdispatcher.LogEntriesCompressor;
 import org.apache.iotdb.consensus.iot.thrift.IoTConsensusIService;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerReq;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerRes;
@@ -44,6 +45,8 @@ import org.apache.iotdb.consensus.iot.thrift.TInactivatePeerRes;
 import org.apache.iotdb.consensus.iot.thrift.TLogEntry;
 import org.apache.iotdb.consensus.iot.thrift.TRemoveSyncLogChannelReq;
 import org.apache.iotdb.consensus.iot.thrift.TRemoveSyncLogChannelRes;
+import org.apache.iotdb.consensus.iot.thrift.TReuseSnapshotFilesReq;
+import org.apache.iotdb.consensus.iot.thrift.TReuseSnapshotFilesRes;
 import org.apache.iotdb.consensus.iot.thrift.TSendSnapshotFragmentReq;
 import org.apache.iotdb.consensus.iot.thrift.TSendSnapshotFragmentRes;
 import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesReq;
@@ -60,6 +63,7 @@ import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.stream.Collectors;
 
@@ -105,6 +109,17 @@ public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Ifa
       status.setMessage(message);
       return new TSyncLogEntriesRes(Collections.singletonList(status));
     }
+    try {
+      // an uncompressed batch has to fit in one thrift frame as well
+      LogEntriesCompressor.decompress(req, impl.getConfig().getRpc().getThriftMaxFrameSize());
+    } catch (IOException e) {
+      String message =
+          String.format("fail to decompress log entries of %s, because %s", groupId, e);
+      LOGGER.error(message);
+      TSStatus status = new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+      status.setMessage(message);
+      return new TSyncLogEntriesRes(Collections.singletonList(status));
+    }
     BatchIndexedConsensusRequest logEntriesInThisBatch =
         new BatchIndexedConsensusRequest(req.peerId);
     // We use synchronized to ensure atomicity of executing multiple logs
@@ -129,7 +144,8 @@ public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Ifa
         "execute TSyncLogEntriesReq for {} with result {}",
         req.consensusGroupId,
         writeStatus.subStatus);
-    return new TSyncLogEntriesRes(writeStatus.subStatus);
+    return new TSyncLogEntriesRes(writeStatus.subStatus)
+        .setSupportedCompressionTypes(LogEntriesCompressor.SUPPORTED_COMPRESSION_TYPES);
   }
 
   @Override
@@ -253,6 +269,34 @@ public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Ifa
         impl.hasReleaseAllRegionRelatedResource(groupId));
   }
 
+  @Override
+  public TReuseSnapshotFilesRes reuseSnapshotFiles(TReuseSnapshotFilesReq req) throws TException {
+    ConsensusGroupId groupId =
+        ConsensusGroupId.Factory.createFromTConsensusGroupId(req.getConsensusGroupId());
+    IoTConsensusServerImpl impl = consensus.getImpl(groupId);
+    if (impl == null) {
+      String message =
+          String.format("unexpected consensusGroupId %s for reuseSnapshotFiles request", groupId);
+      LOGGER.error(message);
+      TSStatus status = new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+      status.setMessage(message);
+      return new TReuseSnapshotFilesRes(status);
+    }
+    TReuseSnapshotFilesRes res;
+    try {
+      res = new TReuseSnapshotFilesRes(new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode()));
+      res.setReusedFilePaths(
+          impl.reuseLocalSnapshotFiles(req.getSnapshotId(), req.getSnapshotFiles()));
+      res.setCandidateFilePaths(
+          impl.getReusableSnapshotFileCandidates(req.getSnapshotId(), req.getSnapshotFiles()));
+    } catch (ConsensusGroupModifyPeerException e) {
+      TSStatus status = new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+      status.setMessage(e.getMessage());
+      res = new TReuseSnapshotFilesRes(status);
+    }
+    return res;
+  }
+
   @Override
   public TSendSnapshotFragmentRes sendSnapshotFragment(TSendSnapshotFragmentReq req)
       throws TException {
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The digest of the content of a snapshot file, with which the receiver of a snapshot verifies that
+ * a local file is identical to a snapshot file before linking it instead of receiving it.
+ */
+public class SnapshotFileDigest {
+
+  private static final String ALGORITHM = "MD5";
+  private static final int BUFFER_SIZE = 1024 * 1024;
+
+  private SnapshotFileDigest() {
+    // util class
+  }
+
+  public static byte[] digest(Path path) throws IOException {
+    MessageDigest messageDigest;
+    try {
+      messageDigest = MessageDigest.getInstance(ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IOException(e);
+    }
+    ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+    try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+      while (fileChannel.read(buf) > 0) {
+        buf.flip();
+        messageDigest.update(buf);
+        buf.clear();
+      }
+    }
+    return messageDigest.digest();
+  }
+
+  public static boolean isIdentical(Path path, byte[] expectedDigest) throws IOException {
+    return expectedDigest != null && MessageDigest.isEqual(digest(path), expectedDigest);
+  }
+}
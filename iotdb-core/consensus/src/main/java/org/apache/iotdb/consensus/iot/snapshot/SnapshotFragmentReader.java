@@ -21,32 +21,44 @@ package org.apache.iotdb.consensus.iot.snapshot;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 public class SnapshotFragmentReader {
 
-  private static final int DEFAULT_FILE_FRAGMENT_SIZE = 10 * 1024 * 1024;
+  public static final int DEFAULT_FILE_FRAGMENT_SIZE = 10 * 1024 * 1024;
   private final String snapshotId;
   private final String filePath;
-  private final SeekableByteChannel fileChannel;
+  private final FileChannel fileChannel;
   private final long fileSize;
   private final ByteBuffer buf;
   private long totalReadSize;
   private SnapshotFragment cachedSnapshotFragment;
 
   public SnapshotFragmentReader(String snapshotId, Path path) throws IOException {
+    this(snapshotId, path, ByteBuffer.allocate(DEFAULT_FILE_FRAGMENT_SIZE), 0);
+  }
+
+  /**
+   * Read the file from startOffset with the given buffer. The buffer is reused by every fragment of
+   * this reader, so a fragment must have been sent before {@link #hasNext()} is called again.
+   */
+  public SnapshotFragmentReader(String snapshotId, Path path, ByteBuffer buf, long startOffset)
+      throws IOException {
     this.snapshotId = snapshotId;
     this.filePath = path.toAbsolutePath().toString();
     this.fileSize = Files.size(path);
-    this.fileChannel = Files.newByteChannel(path);
-    this.buf = ByteBuffer.allocate(DEFAULT_FILE_FRAGMENT_SIZE);
+    this.fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+    this.buf = buf;
+    this.totalReadSize = startOffset;
   }
 
   public boolean hasNext() throws IOException {
     buf.clear();
-    int readSize = fileChannel.read(buf);
+    // positional read, so that the reader can be repositioned by seek() after a failed fragment
+    int readSize = fileChannel.read(buf, totalReadSize);
     buf.flip();
     if (readSize > 0) {
       cachedSnapshotFragment =
@@ -61,6 +73,11 @@ public class SnapshotFragmentReader {
     return cachedSnapshotFragment;
   }
 
+  /** Reposition the reader so that the next fragment starts from the given offset. */
+  public void seek(long offset) {
+    totalReadSize = offset;
+  }
+
   public void close() throws IOException {
     if (fileChannel != null) {
       fileChannel.close();
@@ -70,4 +87,8 @@ public class SnapshotFragmentReader {
   public long getTotalReadSize() {
     return totalReadSize;
   }
+
+  public long getFileSize() {
+    return fileSize;
+  }
 }
@@ -21,6 +21,8 @@ package org.apache.iotdb.consensus.ratis;
 
 import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.service.metric.PerformanceOverviewMetrics;
 import org.apache.iotdb.consensus.IStateMachine;
 import org.apache.iotdb.consensus.common.DataSet;
@@ -54,8 +56,17 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 
 public class ApplicationStateMachineProxy extends BaseStateMachine {
@@ -69,19 +80,42 @@ public class ApplicationStateMachineProxy extends BaseStateMachine {
   private final TConsensusGroupType consensusGroupType;
   private final BiConsumer<RaftGroupMemberId, RaftPeerId> leaderChangeListener;
 
+  private final int applyBatchSizeMax;
+  // committed entries waiting to be applied in batches, null if batch apply is disabled
+  private final BlockingQueue<PendingApply> pendingApplies;
+  private final ExecutorService batchApplier;
+  private volatile CompletableFuture<Message> lastPendingApplyFuture;
+  // the batch applier exits once it is set and all the queued entries have been applied
+  private volatile boolean closing = false;
+  private static final long BATCH_APPLIER_POLL_INTERVAL_IN_MS = 100;
+  private static final long BATCH_APPLIER_CLOSE_TIMEOUT_IN_SECONDS = 60;
+
   ApplicationStateMachineProxy(IStateMachine stateMachine, RaftGroupId id) {
-    this(stateMachine, id, null);
+    this(stateMachine, id, null, 1);
   }
 
   ApplicationStateMachineProxy(
       IStateMachine stateMachine,
       RaftGroupId id,
-      BiConsumer<RaftGroupMemberId, RaftPeerId> onLeaderChanged) {
+      BiConsumer<RaftGroupMemberId, RaftPeerId> onLeaderChanged,
+      int applyBatchSizeMax) {
     this.applicationStateMachine = stateMachine;
     this.leaderChangeListener = onLeaderChanged;
     this.groupId = id;
     snapshotStorage = new SnapshotStorage(applicationStateMachine, groupId);
     consensusGroupType = Utils.getConsensusGroupTypeFromPrefix(groupId.toString());
+    this.applyBatchSizeMax = applyBatchSizeMax;
+    // DataRegion is excluded, as its apply may stall and be retried entry by entry
+    if (applyBatchSizeMax > 1 && consensusGroupType != TConsensusGroupType.DataRegion) {
+      pendingApplies = new LinkedBlockingQueue<>();
+      batchApplier =
+          IoTDBThreadPoolFactory.newSingleThreadExecutor(
+              ThreadName.RATIS_BATCH_APPLIER.getName() + "-" + groupId);
+      batchApplier.submit(this::applyInBatches);
+    } else {
+      pendingApplies = null;
+      batchApplier = null;
+    }
     applicationStateMachine.start();
   }
 
@@ -98,6 +132,8 @@ public class ApplicationStateMachineProxy extends BaseStateMachine {
 
   @Override
   public void reinitialize() {
+    // entries queued before the snapshot is installed must not be applied on top of it
+    waitForPendingApplies("reinitializing");
     setLastAppliedTermIndex(null);
     loadSnapshot(snapshotStorage.findLatestSnapshotDir());
     if (getLifeCycleState() == LifeCycle.State.PAUSED) {
@@ -108,6 +144,7 @@ public class ApplicationStateMachineProxy extends BaseStateMachine {
 
   @Override
   public void pause() {
+    waitForPendingApplies("pausing");
     if (getLifeCycleState() == LifeCycle.State.RUNNING) {
       getLifeCycle().transition(LifeCycle.State.PAUSING);
       getLifeCycle().transition(LifeCycle.State.PAUSED);
@@ -116,6 +153,26 @@ public class ApplicationStateMachineProxy extends BaseStateMachine {
 
   @Override
   public void close() throws IOException {
+    if (batchApplier != null) {
+      // let the applier finish the entries already queued instead of interrupting it in the middle
+      // of a batch, only interrupt it if it does not finish in time
+      closing = true;
+      batchApplier.shutdown();
+      try {
+        if (!batchApplier.awaitTermination(
+            BATCH_APPLIER_CLOSE_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+          logger.warn(
+              "{}: the batch applier does not finish in {} seconds, interrupt it",
+              this,
+              BATCH_APPLIER_CLOSE_TIMEOUT_IN_SECONDS);
+          batchApplier.shutdownNow();
+        }
+      } catch (InterruptedException e) {
+        logger.warn("{}: interrupted when waiting for the batch applier to finish", this);
+        batchApplier.shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+    }
     getLifeCycle().checkStateAndClose(applicationStateMachine::stop);
   }
 
@@ -143,6 +200,18 @@ public class ApplicationStateMachineProxy extends BaseStateMachine {
     final IConsensusRequest deserializedRequest =
         applicationStateMachine.deserializeRequest(applicationRequest);
 
+    if (pendingApplies != null) {
+      if (!isLeader) {
+        deserializedRequest.markAsGeneratedByRemoteConsensusLeader();
+      }
+      // entries are committed by StateMachineUpdater one by one, so the queue keeps their order
+      PendingApply pendingApply =
+          new PendingApply(deserializedRequest, isLeader, writeToStateMachineStartTime);
+      lastPendingApplyFuture = pendingApply.future;
+      pendingApplies.add(pendingApply);
+      return pendingApply.future;
+    }
+
     Message ret;
     waitUntilSystemAllowApply();
     do {
@@ -181,6 +250,67 @@ public class ApplicationStateMachineProxy extends BaseStateMachine {
     return CompletableFuture.completedFuture(ret);
   }
 
+  private void applyInBatches() {
+    List<PendingApply> batch = new ArrayList<>(applyBatchSizeMax);
+    while (!Thread.currentThread().isInterrupted()) {
+      PendingApply first;
+      try {
+        first = pendingApplies.poll(BATCH_APPLIER_POLL_INTERVAL_IN_MS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+      if (first == null) {
+        if (closing) {
+          break;
+        }
+        continue;
+      }
+      batch.add(first);
+      pendingApplies.drainTo(batch, applyBatchSizeMax - 1);
+      applyBatch(batch);
+      batch.clear();
+    }
+    // the applier is interrupted or closed, fail the entries that will never be applied
+    pendingApplies.drainTo(batch);
+    for (PendingApply pendingApply : batch) {
+      pendingApply.future.completeExceptionally(
+          new IllegalStateException(this + " is closed before applying the entry"));
+    }
+  }
+
+  private void applyBatch(List<PendingApply> batch) {
+    long startTime = System.nanoTime();
+    List<IConsensusRequest> requests = new ArrayList<>(batch.size());
+    for (PendingApply pendingApply : batch) {
+      requests.add(pendingApply.request);
+    }
+    List<TSStatus> results;
+    try {
+      results = applicationStateMachine.batchWrite(requests);
+    } catch (Throwable rte) {
+      logger.error("application statemachine throws a runtime exception: ", rte);
+      results =
+          Collections.nCopies(
+              batch.size(),
+              new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode())
+                  .setMessage("internal error. statemachine throws a runtime exception: " + rte));
+    }
+
+    long endTime = System.nanoTime();
+    for (int i = 0; i < batch.size(); i++) {
+      PendingApply pendingApply = batch.get(i);
+      if (pendingApply.isLeader) {
+        // statistic the time of write stateMachine, including the time waiting for the batch
+        RatisMetricsManager.getInstance()
+            .recordWriteStateMachineCost(endTime - pendingApply.startTime, consensusGroupType);
+      }
+      pendingApply.future.complete(new ResponseMessage(results.get(i)));
+    }
+    RatisMetricsManager.getInstance()
+        .recordApplyBatch(batch.size(), endTime - startTime, consensusGroupType);
+  }
+
   private void waitUntilSystemAllowApply() {
     try {
       Retriable.attemptUntilTrue(
@@ -208,6 +338,10 @@ public class ApplicationStateMachineProxy extends BaseStateMachine {
 
   @Override
   public long takeSnapshot() throws IOException {
+    // lastAppliedTermIndex is updated when an entry is queued, make sure it has been applied
+    if (!waitForPendingApplies("taking snapshot")) {
+      return RaftLog.INVALID_LOG_INDEX;
+    }
     final TermIndex lastApplied = getLastAppliedTermIndex();
     if (lastApplied.getTerm() <= 0 || lastApplied.getIndex() <= 0) {
       return RaftLog.INVALID_LOG_INDEX;
@@ -255,6 +389,26 @@ public class ApplicationStateMachineProxy extends BaseStateMachine {
     return lastApplied.getIndex();
   }
 
+  /**
+   * Wait until all the entries queued for batch apply have been applied, as {@link
+   * #applyTransaction} returns before that and lastAppliedTermIndex is already advanced.
+   *
+   * @return false if the last queued entry fails to be applied
+   */
+  private boolean waitForPendingApplies(String action) {
+    final CompletableFuture<Message> lastApplyFuture = lastPendingApplyFuture;
+    if (lastApplyFuture == null) {
+      return true;
+    }
+    try {
+      lastApplyFuture.join();
+      return true;
+    } catch (CompletionException | CancellationException e) {
+      logger.warn("{}: the last entry fails to be applied before {}", this, action, e);
+      return false;
+    }
+  }
+
   private void deleteIncompleteSnapshot(File snapshotDir) throws IOException {
     // this takeSnapshot failed, clean up files and directories
     // statemachine is supposed to clear snapshotDir on failure
@@ -284,6 +438,7 @@ public class ApplicationStateMachineProxy extends BaseStateMachine {
 
   @Override
   public void notifyLeaderChanged(RaftGroupMemberId groupMemberId, RaftPeerId newLeaderId) {
+    waitForPendingApplies("notifying leader changed");
     leaderChangeListener.accept(groupMemberId, newLeaderId);
     applicationStateMachine
         .event()
@@ -294,6 +449,8 @@ public class ApplicationStateMachineProxy extends BaseStateMachine {
 
   @Override
   public void notifyLeaderReady() {
+    // the new leader must observe all the entries committed in previous terms
+    waitForPendingApplies("notifying leader ready");
     applicationStateMachine.event().notifyLeaderReady();
   }
 
@@ -302,6 +459,20 @@ public class ApplicationStateMachineProxy extends BaseStateMachine {
     applicationStateMachine.event().notifyNotLeader();
   }
 
+  private static class PendingApply {
+
+    private final IConsensusRequest request;
+    private final boolean isLeader;
+    private final long startTime;
+    private final CompletableFuture<Message> future = new CompletableFuture<>();
+
+    private PendingApply(IConsensusRequest request, boolean isLeader, long startTime) {
+      this.request = request;
+      this.isLeader = isLeader;
+      this.startTime = startTime;
+    }
+  }
+
   @Override
   public void notifyConfigurationChanged(
       long term, long index, RaftConfigurationProto newRaftConfiguration) {
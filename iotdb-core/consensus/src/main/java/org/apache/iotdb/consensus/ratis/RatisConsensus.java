@@ -59,6 +59,9 @@ import org.apache.ratis.conf.Parameters;
 import org.apache.ratis.conf.RaftProperties;
 import org.apache.ratis.grpc.GrpcConfigKeys;
 import org.apache.ratis.grpc.GrpcFactory;
+import org.apache.ratis.proto.RaftProtos.RaftPeerRole;
+import org.apache.ratis.proto.RaftProtos.RoleInfoProto;
+import org.apache.ratis.proto.RaftProtos.ServerRpcProto;
 import org.apache.ratis.protocol.ClientId;
 import org.apache.ratis.protocol.GroupManagementRequest;
 import org.apache.ratis.protocol.Message;
@@ -139,6 +142,8 @@ class RatisConsensus implements IConsensus {
 
   private final RatisConfig config;
   private final RatisConfig.Read.Option readOption;
+  // only used to estimate whether the leader lease is valid for the metrics
+  private final long leaderLeaseTimeoutMs;
   private final RetryPolicy<RaftClientReply> readRetryPolicy;
   private final RetryPolicy<RaftClientReply> writeRetryPolicy;
 
@@ -161,10 +166,22 @@ class RatisConsensus implements IConsensus {
     Utils.initRatisConfig(properties, config.getRatisConfig());
     this.config = config.getRatisConfig();
     this.readOption = this.config.getRead().getReadOption();
+    this.leaderLeaseTimeoutMs =
+        this.config.getRead().isLeaderLeaseEnabled()
+            ? (long)
+                (this.config.getRpc().getTimeoutMin().toLong(TimeUnit.MILLISECONDS)
+                    * this.config.getRead().getLeaderLeaseTimeoutRatio())
+            : -1;
     this.canServeStaleRead =
         this.readOption == RatisConfig.Read.Option.DEFAULT ? new ConcurrentHashMap<>() : null;
     this.consensusGroupType = config.getConsensusGroupType();
-    this.ratisMetricSet = new RatisMetricSet();
+    this.ratisMetricSet =
+        leaderLeaseTimeoutMs > 0
+            ? new RatisMetricSet(
+                consensusGroupType,
+                () -> countLeadersByEstimatedLease(true),
+                () -> countLeadersByEstimatedLease(false))
+            : new RatisMetricSet();
     this.readRetryPolicy =
         RetryPolicy.<RaftClientReply>newBuilder()
             .setRetryHandler(
@@ -227,7 +244,8 @@ class RatisConsensus implements IConsensus {
                                 registry.apply(
                                     Utils.fromRaftGroupIdToConsensusGroupId(raftGroupId)),
                                 raftGroupId,
-                                this::onLeaderChanged))
+                                this::onLeaderChanged,
+                                this.config.getImpl().getApplyBatchSizeMax()))
                     .build());
   }
 
@@ -445,6 +463,46 @@ class RatisConsensus implements IConsensus {
     return (DataSet) readResponseMessage.getContentHolder();
   }
 
+  /**
+   * Count the leader groups on this node whose lease is estimated to be valid (or expired). The
+   * lease holds while a majority of the group has responded to the leader within the lease timeout,
+   * which is judged here from the followers' last RPC elapsed time. This is only an estimate
+   * sampled when the metrics are collected, the lease itself is checked by the RaftServer, which
+   * falls back to read index when it expires.
+   */
+  private long countLeadersByEstimatedLease(boolean valid) {
+    long count = 0;
+    final Iterable<RaftGroupId> groupIds;
+    try {
+      groupIds = server.get().getGroupIds();
+    } catch (IOException e) {
+      return 0;
+    }
+    for (RaftGroupId raftGroupId : groupIds) {
+      final RoleInfoProto roleInfo;
+      try {
+        roleInfo = server.get().getDivision(raftGroupId).getInfo().getRoleInfoProto();
+      } catch (IOException e) {
+        continue;
+      }
+      if (roleInfo.getRole() != RaftPeerRole.LEADER) {
+        continue;
+      }
+      final List<ServerRpcProto> followers = roleInfo.getLeaderInfo().getFollowerInfoList();
+      // the leader itself is always up to date
+      int acknowledged = 1;
+      for (ServerRpcProto follower : followers) {
+        if (follower.getLastRpcElapsedTimeMs() < leaderLeaseTimeoutMs) {
+          acknowledged++;
+        }
+      }
+      if ((acknowledged > (followers.size() + 1) / 2) == valid) {
+        count++;
+      }
+    }
+    return count;
+  }
+
   /** return a success raft client reply or throw an Exception */
   private RaftClientReply doRead(
       RaftGroupId gid, IConsensusRequest readRequest, boolean linearizable) throws Exception {
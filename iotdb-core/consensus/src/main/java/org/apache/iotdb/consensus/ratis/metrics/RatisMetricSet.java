@@ -34,6 +34,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongSupplier;
 
 public class RatisMetricSet implements IMetricSet {
   private MetricRegistries manager;
@@ -58,11 +59,20 @@ public class RatisMetricSet implements IMetricSet {
   public static final String WRITE_REMOTELY = "writeRemotely";
   public static final String SUBMIT_READ_REQUEST = "submitReadRequest";
   public static final String WRITE_STATE_MACHINE = "writeStateMachine";
+  public static final String APPLY_BATCH = "applyBatch";
+  public static final String LEASE_VALID = "valid";
+  public static final String LEASE_EXPIRED = "expired";
   private static final List<String> RATIS_WRITE_METRICS = new ArrayList<>();
   private static final List<String> RATIS_WRITE_STAGES = new ArrayList<>();
   private static final List<String> RATIS_READ_METRICS = new ArrayList<>();
   private static final List<String> RATIS_READ_STAGES = new ArrayList<>();
 
+  private final TConsensusGroupType consensusGroupType;
+  // number of leader groups on this node whose lease is estimated to be valid or expired, sampled
+  // when the metrics are collected. null if the leader lease is disabled
+  private final LongSupplier leadersWithValidLease;
+  private final LongSupplier leadersWithExpiredLease;
+
   static {
     RATIS_WRITE_METRICS.add(DATA_REGION_RATIS_CONSENSUS_WRITE);
     RATIS_WRITE_METRICS.add(SCHEMA_REGION_RATIS_CONSENSUS_WRITE);
@@ -75,6 +85,7 @@ public class RatisMetricSet implements IMetricSet {
     RATIS_WRITE_STAGES.add(WRITE_LOCALLY);
     RATIS_WRITE_STAGES.add(WRITE_REMOTELY);
     RATIS_WRITE_STAGES.add(WRITE_STATE_MACHINE);
+    RATIS_WRITE_STAGES.add(APPLY_BATCH);
 
     RATIS_READ_STAGES.add(SUBMIT_READ_REQUEST);
 
@@ -97,6 +108,19 @@ public class RatisMetricSet implements IMetricSet {
     }
   }
 
+  public RatisMetricSet() {
+    this(null, null, null);
+  }
+
+  public RatisMetricSet(
+      TConsensusGroupType consensusGroupType,
+      LongSupplier leadersWithValidLease,
+      LongSupplier leadersWithExpiredLease) {
+    this.consensusGroupType = consensusGroupType;
+    this.leadersWithValidLease = leadersWithValidLease;
+    this.leadersWithExpiredLease = leadersWithExpiredLease;
+  }
+
   @Override
   public void bindTo(AbstractMetricService metricService) {
     manager = MetricRegistries.global();
@@ -104,6 +128,22 @@ public class RatisMetricSet implements IMetricSet {
       metricService.getOrCreateTimer(
           metricInfo.getName(), MetricLevel.CORE, metricInfo.getTagsInArray());
     }
+    if (consensusGroupType != null) {
+      metricService.createAutoGauge(
+          consensusGroupType + "_" + Metric.RATIS_CONSENSUS_ESTIMATED_LEASE,
+          MetricLevel.IMPORTANT,
+          leadersWithValidLease,
+          LongSupplier::getAsLong,
+          Tag.TYPE.toString(),
+          LEASE_VALID);
+      metricService.createAutoGauge(
+          consensusGroupType + "_" + Metric.RATIS_CONSENSUS_ESTIMATED_LEASE,
+          MetricLevel.IMPORTANT,
+          leadersWithExpiredLease,
+          LongSupplier::getAsLong,
+          Tag.TYPE.toString(),
+          LEASE_EXPIRED);
+    }
   }
 
   @Override
@@ -112,5 +152,18 @@ public class RatisMetricSet implements IMetricSet {
     for (MetricInfo metricInfo : metricInfoMap.values()) {
       metricService.remove(MetricType.TIMER, metricInfo.getName(), metricInfo.getTagsInArray());
     }
+    for (TConsensusGroupType groupType : TConsensusGroupType.values()) {
+      metricService.remove(
+          MetricType.HISTOGRAM, groupType + "_" + Metric.RATIS_CONSENSUS_APPLY_BATCH_SIZE);
+    }
+    if (consensusGroupType != null) {
+      for (String leaseState : new String[] {LEASE_VALID, LEASE_EXPIRED}) {
+        metricService.remove(
+            MetricType.AUTO_GAUGE,
+            consensusGroupType + "_" + Metric.RATIS_CONSENSUS_ESTIMATED_LEASE,
+            Tag.TYPE.toString(),
+            leaseState);
+      }
+    }
   }
 }
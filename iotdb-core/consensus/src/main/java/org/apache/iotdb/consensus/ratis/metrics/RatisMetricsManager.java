@@ -114,6 +114,22 @@ public class RatisMetricsManager {
         RatisMetricSet.WRITE_STATE_MACHINE);
   }
 
+  /** Record the size and the time cost of a batch of entries applied to the state machine. */
+  public void recordApplyBatch(
+      int batchSize, long costTimeInNanos, TConsensusGroupType consensusGroupType) {
+    metricService.histogram(
+        batchSize,
+        consensusGroupType.toString() + "_" + Metric.RATIS_CONSENSUS_APPLY_BATCH_SIZE,
+        MetricLevel.IMPORTANT);
+    metricService.timer(
+        costTimeInNanos,
+        TimeUnit.NANOSECONDS,
+        consensusGroupType.toString() + "_" + Metric.RATIS_CONSENSUS_WRITE,
+        MetricLevel.IMPORTANT,
+        Tag.STAGE.toString(),
+        RatisMetricSet.APPLY_BATCH);
+  }
+
   private RatisMetricsManager() {
     // empty constructor
   }
@@ -0,0 +1,666 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.benchmark;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.consensus.ConsensusGroupId;
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.consensus.ConsensusFactory;
+import org.apache.iotdb.consensus.IConsensus;
+import org.apache.iotdb.consensus.IStateMachine;
+import org.apache.iotdb.consensus.common.DataSet;
+import org.apache.iotdb.consensus.common.Peer;
+import org.apache.iotdb.consensus.common.request.BatchIndexedConsensusRequest;
+import org.apache.iotdb.consensus.common.request.DeserializedBatchIndexedConsensusRequest;
+import org.apache.iotdb.consensus.common.request.IConsensusRequest;
+import org.apache.iotdb.consensus.common.request.IndexedConsensusRequest;
+import org.apache.iotdb.consensus.config.ConsensusConfig;
+import org.apache.iotdb.consensus.exception.ConsensusException;
+import org.apache.iotdb.consensus.iot.log.ConsensusReqReader;
+import org.apache.iotdb.consensus.iot.log.GetConsensusReqReaderPlan;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.apache.ratis.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consensus write path benchmark. It starts the peers of one data region on localhost, each with an
+ * in-memory state machine, writes requests of a given size to the leader from several threads, and
+ * reports for each protocol the write throughput and latency, the replication latency percentiles
+ * observed by the followers and how fast the followers catch up after the writes stop. The
+ * arguments are given as key=value, e.g.
+ *
+ * <pre>
+ * protocols=iot,ratis peerNum=3 concurrency=8 writeNumPerThread=10000 requestSize=4096
+ * </pre>
+ *
+ * <p>The replication latency of a request is the time between the leader accepting it and a
+ * follower applying it. All the peers run in the same JVM, so the leader stamps each request with
+ * {@link System#nanoTime()} and the followers compare it with their own clock. The catch-up time is
+ * the time between the last write returning and the slowest follower applying all the requests.
+ */
+public class ConsensusBenchmark {
+
+  private static final long MB = 1024L * 1024L;
+  private static final ConsensusGroupId GROUP_ID = new DataRegionId(1);
+
+  private final Config config;
+
+  public ConsensusBenchmark(Config config) {
+    this.config = config;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.parse(args);
+    List<Result> results = new ConsensusBenchmark(config).run();
+    System.out.println(config);
+    System.out.println(Result.HEADER);
+    for (Result result : results) {
+      System.out.println(result);
+    }
+  }
+
+  /** Run the benchmark of each protocol on a new group of peers and remove their storage. */
+  public List<Result> run() throws Exception {
+    File baseDir = new File(config.dir);
+    Files.createDirectories(baseDir.toPath());
+    List<Result> results = new ArrayList<>();
+    for (Protocol protocol : config.protocols) {
+      File workDir = Files.createTempDirectory(baseDir.toPath(), "consensus-benchmark").toFile();
+      try {
+        results.add(benchmark(protocol, workDir));
+      } finally {
+        FileUtils.deleteFully(workDir);
+      }
+    }
+    return results;
+  }
+
+  private Result benchmark(Protocol protocol, File workDir) throws Exception {
+    int peerNum = protocol == Protocol.SIMPLE ? 1 : config.peerNum;
+    List<Peer> peers = new ArrayList<>();
+    for (int i = 0; i < peerNum; i++) {
+      peers.add(new Peer(GROUP_ID, i + 1, new TEndPoint("127.0.0.1", randomFreePort())));
+    }
+    List<BenchmarkStateMachine> stateMachines = new ArrayList<>();
+    List<IConsensus> servers = new ArrayList<>();
+    try {
+      for (int i = 0; i < peerNum; i++) {
+        BenchmarkStateMachine stateMachine = new BenchmarkStateMachine();
+        stateMachines.add(stateMachine);
+        servers.add(
+            ConsensusFactory.getConsensusImpl(
+                    protocol.className,
+                    ConsensusConfig.newBuilder()
+                        .setThisNodeId(peers.get(i).getNodeId())
+                        .setThisNode(peers.get(i).getEndpoint())
+                        .setStorageDir(new File(workDir, String.valueOf(i)).getAbsolutePath())
+                        .setConsensusGroupType(TConsensusGroupType.DataRegion)
+                        .build(),
+                    groupId -> stateMachine)
+                .orElseThrow(
+                    () ->
+                        new IllegalArgumentException(
+                            String.format(ConsensusFactory.CONSTRUCT_FAILED_MSG, protocol))));
+      }
+      for (IConsensus server : servers) {
+        server.start();
+      }
+      for (IConsensus server : servers) {
+        server.createLocalPeer(GROUP_ID, peers);
+      }
+      int leaderIndex = waitForLeader(protocol, servers);
+      List<BenchmarkStateMachine> followers = new ArrayList<>(stateMachines);
+      followers.remove(leaderIndex);
+      return write(protocol, peerNum, servers.get(leaderIndex), followers);
+    } finally {
+      for (IConsensus server : servers) {
+        server.stop();
+      }
+    }
+  }
+
+  /**
+   * Every peer of IoTConsensus accepts writes, so the first one is used. RatisConsensus elects its
+   * leader, which is waited for.
+   */
+  private int waitForLeader(Protocol protocol, List<IConsensus> servers)
+      throws InterruptedException, TimeoutException {
+    if (protocol != Protocol.RATIS) {
+      return 0;
+    }
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.timeoutInSec);
+    while (System.nanoTime() < deadline) {
+      for (int i = 0; i < servers.size(); i++) {
+        if (servers.get(i).isLeaderReady(GROUP_ID)) {
+          return i;
+        }
+      }
+      Thread.sleep(100);
+    }
+    throw new TimeoutException("No leader is elected in " + config.timeoutInSec + "s");
+  }
+
+  private Result write(
+      Protocol protocol, int peerNum, IConsensus leader, List<BenchmarkStateMachine> followers)
+      throws Exception {
+    Result result = new Result(protocol, peerNum, config.requestSize);
+    LatencyRecorder writeLatencies = new LatencyRecorder();
+    AtomicLong failedWriteNum = new AtomicLong(0);
+    ExecutorService executor = Executors.newFixedThreadPool(config.concurrency);
+    long startTime = System.nanoTime();
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < config.concurrency; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int j = 0; j < config.writeNumPerThread; j++) {
+                    long writeStartTime = System.nanoTime();
+                    if (!writeOnce(leader, new BenchmarkRequest(config.requestSize))) {
+                      failedWriteNum.incrementAndGet();
+                    }
+                    writeLatencies.record(System.nanoTime() - writeStartTime);
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    long writeEndTime = System.nanoTime();
+    result.writeNum = (long) config.concurrency * config.writeNumPerThread;
+    result.failedWriteNum = failedWriteNum.get();
+    result.writeTimeInNanos = writeEndTime - startTime;
+    result.writeLatencies = writeLatencies;
+
+    // wait for the slowest follower to apply all the succeeded writes
+    long expectedAppliedNum = result.writeNum - result.failedWriteNum;
+    long deadline = writeEndTime + TimeUnit.SECONDS.toNanos(config.timeoutInSec);
+    while (followers.stream().anyMatch(x -> x.getAppliedNum() < expectedAppliedNum)
+        && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    long catchUpEndTime = System.nanoTime();
+    if (!followers.isEmpty()
+        && followers.stream().allMatch(x -> x.getAppliedNum() >= expectedAppliedNum)) {
+      result.catchUpTimeInNanos = catchUpEndTime - writeEndTime;
+    }
+    result.minFollowerAppliedNum =
+        followers.stream().mapToLong(BenchmarkStateMachine::getAppliedNum).min().orElse(0);
+    result.followerApplyTimeInNanos = catchUpEndTime - startTime;
+    for (BenchmarkStateMachine follower : followers) {
+      result.replicationLatencies.merge(follower.getReplicationLatencies());
+    }
+    return result;
+  }
+
+  private static boolean writeOnce(IConsensus leader, BenchmarkRequest request) {
+    try {
+      TSStatus status = leader.write(GROUP_ID, request);
+      return status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode();
+    } catch (ConsensusException e) {
+      return false;
+    }
+  }
+
+  private static int randomFreePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  public enum Protocol {
+    IOT(ConsensusFactory.IOT_CONSENSUS),
+    RATIS(ConsensusFactory.RATIS_CONSENSUS),
+    // a single peer without replication, which is the baseline of the state machine
+    SIMPLE(ConsensusFactory.SIMPLE_CONSENSUS);
+
+    private final String className;
+
+    Protocol(String className) {
+      this.className = className;
+    }
+  }
+
+  public static class Config {
+    private String dir = "target" + File.separator + "consensus-benchmark";
+    private List<Protocol> protocols = Arrays.asList(Protocol.IOT, Protocol.RATIS);
+    private int peerNum = 3;
+    private int concurrency = 4;
+    private int writeNumPerThread = 1000;
+    // the size of the payload of each request in bytes
+    private int requestSize = 1024;
+    // how long to wait for the leader to be elected and for the followers to catch up
+    private int timeoutInSec = 60;
+
+    public static Config parse(String[] args) {
+      Config config = new Config();
+      for (String arg : args) {
+        String[] keyValue = arg.split("=", 2);
+        if (keyValue.length != 2) {
+          throw new IllegalArgumentException("Argument should be key=value: " + arg);
+        }
+        String value = keyValue[1].trim();
+        switch (keyValue[0].trim()) {
+          case "dir":
+            config.dir = value;
+            break;
+          case "protocols":
+            List<Protocol> protocols = new ArrayList<>();
+            for (String protocol : value.split(",")) {
+              protocols.add(Protocol.valueOf(protocol.trim().toUpperCase()));
+            }
+            config.protocols = protocols;
+            break;
+          case "peerNum":
+            config.peerNum = Integer.parseInt(value);
+            break;
+          case "concurrency":
+            config.concurrency = Integer.parseInt(value);
+            break;
+          case "writeNumPerThread":
+            config.writeNumPerThread = Integer.parseInt(value);
+            break;
+          case "requestSize":
+            config.requestSize = Integer.parseInt(value);
+            break;
+          case "timeoutInSec":
+            config.timeoutInSec = Integer.parseInt(value);
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown argument: " + keyValue[0]);
+        }
+      }
+      config.check();
+      return config;
+    }
+
+    private void check() {
+      if (protocols.isEmpty()) {
+        throw new IllegalArgumentException("protocols should not be empty");
+      }
+      if (peerNum < 1 || concurrency < 1 || writeNumPerThread < 1 || timeoutInSec < 1) {
+        throw new IllegalArgumentException(
+            "peerNum, concurrency, writeNumPerThread and timeoutInSec should be positive");
+      }
+      if (requestSize < 0) {
+        throw new IllegalArgumentException("requestSize should not be negative");
+      }
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "protocols=%s, peerNum=%d, concurrency=%d, writeNumPerThread=%d, requestSize=%d",
+          protocols, peerNum, concurrency, writeNumPerThread, requestSize);
+    }
+  }
+
+  /** The result of one protocol. The latencies are in ms, and -1 means not available. */
+  public static class Result {
+    private static final String HEADER =
+        String.format(
+            "%-8s%6s%10s%10s%12s%12s%12s%12s%12s%12s%14s%14s",
+            "protocol",
+            "peers",
+            "writes",
+            "failed",
+            "writes/s",
+            "MB/s",
+            "write-p50",
+            "write-p99",
+            "repl-p50",
+            "repl-p99",
+            "catchUp(ms)",
+            "apply/s");
+
+    private final Protocol protocol;
+    private final int peerNum;
+    private long writeNum = 0;
+    private long failedWriteNum = 0;
+    private long writeTimeInNanos = 0;
+    private LatencyRecorder writeLatencies = new LatencyRecorder();
+    private final LatencyRecorder replicationLatencies = new LatencyRecorder();
+    private long catchUpTimeInNanos = -1;
+    private long minFollowerAppliedNum = 0;
+    private long followerApplyTimeInNanos = 0;
+    private final int requestSize;
+
+    private Result(Protocol protocol, int peerNum, int requestSize) {
+      this.protocol = protocol;
+      this.peerNum = peerNum;
+      this.requestSize = requestSize;
+    }
+
+    public Protocol getProtocol() {
+      return protocol;
+    }
+
+    public long getWriteNum() {
+      return writeNum;
+    }
+
+    public long getFailedWriteNum() {
+      return failedWriteNum;
+    }
+
+    public double getThroughputInWritesPerSec() {
+      return writeTimeInNanos == 0 ? 0 : writeNum / (writeTimeInNanos / 1_000_000_000.0);
+    }
+
+    public double getThroughputInMBPerSec() {
+      return getThroughputInWritesPerSec() * requestSize / MB;
+    }
+
+    public double getWriteLatencyInMs(double percentile) {
+      return writeLatencies.getPercentileInMs(percentile);
+    }
+
+    public double getReplicationLatencyInMs(double percentile) {
+      return replicationLatencies.getPercentileInMs(percentile);
+    }
+
+    public double getCatchUpTimeInMs() {
+      return catchUpTimeInNanos < 0 ? -1 : catchUpTimeInNanos / 1_000_000.0;
+    }
+
+    /** The number of requests applied per second by the slowest follower, -1 without followers. */
+    public double getFollowerApplyRate() {
+      if (peerNum == 1 || followerApplyTimeInNanos == 0) {
+        return -1;
+      }
+      return minFollowerAppliedNum / (followerApplyTimeInNanos / 1_000_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%-8s%6d%10d%10d%12.2f%12.2f%12.3f%12.3f%12.3f%12.3f%14.2f%14.2f",
+          protocol,
+          peerNum,
+          writeNum,
+          failedWriteNum,
+          getThroughputInWritesPerSec(),
+          getThroughputInMBPerSec(),
+          getWriteLatencyInMs(0.5),
+          getWriteLatencyInMs(0.99),
+          getReplicationLatencyInMs(0.5),
+          getReplicationLatencyInMs(0.99),
+          getCatchUpTimeInMs(),
+          getFollowerApplyRate());
+    }
+  }
+
+  /** Records the latencies in nanoseconds to compute the percentiles. */
+  static class LatencyRecorder {
+    private long[] latencies = new long[1024];
+    private int size = 0;
+
+    synchronized void record(long latencyInNanos) {
+      if (size == latencies.length) {
+        latencies = Arrays.copyOf(latencies, size * 2);
+      }
+      latencies[size++] = latencyInNanos;
+    }
+
+    synchronized void merge(LatencyRecorder other) {
+      long[] otherLatencies;
+      synchronized (other) {
+        otherLatencies = Arrays.copyOf(other.latencies, other.size);
+      }
+      for (long latency : otherLatencies) {
+        record(latency);
+      }
+    }
+
+    synchronized double getPercentileInMs(double percentile) {
+      if (size == 0) {
+        return -1;
+      }
+      long[] sorted = Arrays.copyOf(latencies, size);
+      Arrays.sort(sorted);
+      int index = (int) Math.min(size - 1, Math.max(0, Math.ceil(percentile * size) - 1));
+      return sorted[index] / 1_000_000.0;
+    }
+  }
+
+  /** A request whose payload is led by the time when it is created. */
+  static class BenchmarkRequest implements IConsensusRequest {
+    private final ByteBuffer buffer;
+
+    BenchmarkRequest(int payloadSize) {
+      buffer = ByteBuffer.allocate(Long.BYTES + payloadSize);
+      buffer.putLong(0, System.nanoTime());
+    }
+
+    @Override
+    public ByteBuffer serializeToByteBuffer() {
+      return buffer.duplicate();
+    }
+
+    static long getCreateTime(ByteBuffer buffer) {
+      return buffer.getLong(buffer.position());
+    }
+  }
+
+  /**
+   * Applies the requests in memory and records their replication latencies. The requests written on
+   * this peer are kept as its WAL, from which the log dispatchers of IoTConsensus read when their
+   * queues are full.
+   */
+  static class BenchmarkStateMachine implements IStateMachine, IStateMachine.EventApi {
+
+    private final AtomicLong appliedNum = new AtomicLong(0);
+    private final LatencyRecorder replicationLatencies = new LatencyRecorder();
+    private final BenchmarkReqReader reqReader = new BenchmarkReqReader();
+
+    long getAppliedNum() {
+      return appliedNum.get();
+    }
+
+    LatencyRecorder getReplicationLatencies() {
+      return replicationLatencies;
+    }
+
+    @Override
+    public void start() {}
+
+    @Override
+    public void stop() {}
+
+    @Override
+    public TSStatus write(IConsensusRequest request) {
+      if (request instanceof IndexedConsensusRequest) {
+        IndexedConsensusRequest indexedRequest = (IndexedConsensusRequest) request;
+        if (indexedRequest.getSearchIndex() != ConsensusReqReader.DEFAULT_SEARCH_INDEX) {
+          reqReader.append(indexedRequest);
+        }
+        for (IConsensusRequest innerRequest : indexedRequest.getRequests()) {
+          apply(innerRequest);
+        }
+        return RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS);
+      } else if (request instanceof DeserializedBatchIndexedConsensusRequest) {
+        List<TSStatus> subStatus = new ArrayList<>();
+        for (IConsensusRequest innerRequest :
+            ((DeserializedBatchIndexedConsensusRequest) request).getInsertNodes()) {
+          subStatus.add(write(innerRequest));
+        }
+        return new TSStatus().setSubStatus(subStatus);
+      }
+      apply(request);
+      return RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS);
+    }
+
+    private void apply(IConsensusRequest request) {
+      long createTime = BenchmarkRequest.getCreateTime(request.serializeToByteBuffer());
+      replicationLatencies.record(System.nanoTime() - createTime);
+      appliedNum.incrementAndGet();
+    }
+
+    @Override
+    public IConsensusRequest deserializeRequest(IConsensusRequest request) {
+      if (request instanceof BatchIndexedConsensusRequest) {
+        BatchIndexedConsensusRequest batchRequest = (BatchIndexedConsensusRequest) request;
+        DeserializedBatchIndexedConsensusRequest result =
+            new DeserializedBatchIndexedConsensusRequest(
+                batchRequest.getStartSyncIndex(),
+                batchRequest.getEndSyncIndex(),
+                batchRequest.getRequests().size());
+        for (IndexedConsensusRequest innerRequest : batchRequest.getRequests()) {
+          result.add(innerRequest);
+        }
+        return result;
+      }
+      return request;
+    }
+
+    @Override
+    public DataSet read(IConsensusRequest request) {
+      if (request instanceof GetConsensusReqReaderPlan) {
+        return reqReader;
+      }
+      return null;
+    }
+
+    @Override
+    public boolean takeSnapshot(File snapshotDir) {
+      return true;
+    }
+
+    @Override
+    public void loadSnapshot(File latestSnapshotRootDir) {}
+  }
+
+  /** An in-memory WAL which drops the requests once all the followers have synced them. */
+  static class BenchmarkReqReader implements ConsensusReqReader, DataSet {
+
+    private final NavigableMap<Long, IndexedConsensusRequest> requests =
+        new ConcurrentSkipListMap<>();
+    private final AtomicLong currentSearchIndex = new AtomicLong(0);
+
+    private void append(IndexedConsensusRequest request) {
+      requests.put(request.getSearchIndex(), request);
+      currentSearchIndex.accumulateAndGet(request.getSearchIndex(), Math::max);
+      synchronized (this) {
+        notifyAll();
+      }
+    }
+
+    @Override
+    public void setSafelyDeletedSearchIndex(long safelyDeletedSearchIndex) {
+      requests.headMap(safelyDeletedSearchIndex, false).clear();
+    }
+
+    @Override
+    public ReqIterator getReqIterator(long startIndex) {
+      return new BenchmarkReqIterator(startIndex);
+    }
+
+    @Override
+    public long getCurrentSearchIndex() {
+      return currentSearchIndex.get();
+    }
+
+    @Override
+    public long getCurrentWALFileVersion() {
+      return 0;
+    }
+
+    @Override
+    public long getTotalSize() {
+      return 0;
+    }
+
+    private class BenchmarkReqIterator implements ReqIterator {
+
+      private long nextSearchIndex;
+
+      private BenchmarkReqIterator(long startIndex) {
+        this.nextSearchIndex = startIndex;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return requests.containsKey(nextSearchIndex);
+      }
+
+      @Override
+      public IndexedConsensusRequest next() {
+        IndexedConsensusRequest request = requests.get(nextSearchIndex);
+        if (request == null) {
+          return null;
+        }
+        nextSearchIndex++;
+        return new IndexedConsensusRequest(request.getSearchIndex(), request.getRequests());
+      }
+
+      @Override
+      public void waitForNextReady() throws InterruptedException {
+        synchronized (BenchmarkReqReader.this) {
+          while (!hasNext()) {
+            BenchmarkReqReader.this.wait();
+          }
+        }
+      }
+
+      @Override
+      public void waitForNextReady(long time, TimeUnit unit)
+          throws InterruptedException, TimeoutException {
+        long deadline = System.nanoTime() + unit.toNanos(time);
+        synchronized (BenchmarkReqReader.this) {
+          while (!hasNext()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+              throw new TimeoutException();
+            }
+            TimeUnit.NANOSECONDS.timedWait(BenchmarkReqReader.this, remaining);
+          }
+        }
+      }
+
+      @Override
+      public void skipTo(long targetIndex) {
+        nextSearchIndex = targetIndex;
+      }
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.benchmark;
+
+import org.apache.iotdb.consensus.benchmark.ConsensusBenchmark.Config;
+import org.apache.iotdb.consensus.benchmark.ConsensusBenchmark.Protocol;
+import org.apache.iotdb.consensus.benchmark.ConsensusBenchmark.Result;
+
+import org.apache.ratis.util.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+public class ConsensusBenchmarkTest {
+
+  private File dir;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("consensus-benchmark-test").toFile();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteFully(dir);
+  }
+
+  @Test
+  public void testReplicatedProtocols() throws Exception {
+    List<Result> results = runBenchmark("iot,ratis");
+    Assert.assertEquals(2, results.size());
+    for (Result result : results) {
+      checkWrites(result);
+      // every follower has applied all the writes
+      Assert.assertTrue(result.getCatchUpTimeInMs() >= 0);
+      Assert.assertTrue(result.getReplicationLatencyInMs(0.5) >= 0);
+      Assert.assertTrue(
+          result.getReplicationLatencyInMs(0.99) >= result.getReplicationLatencyInMs(0.5));
+      Assert.assertTrue(result.getFollowerApplyRate() > 0);
+    }
+    // the storage of the peers is removed
+    File[] files = dir.listFiles();
+    Assert.assertNotNull(files);
+    Assert.assertEquals(0, files.length);
+  }
+
+  @Test
+  public void testSinglePeer() throws Exception {
+    List<Result> results = runBenchmark("simple");
+    Assert.assertEquals(1, results.size());
+    Result result = results.get(0);
+    Assert.assertEquals(Protocol.SIMPLE, result.getProtocol());
+    checkWrites(result);
+    // there is no follower
+    Assert.assertEquals(-1, result.getCatchUpTimeInMs(), 0);
+    Assert.assertEquals(-1, result.getReplicationLatencyInMs(0.5), 0);
+    Assert.assertEquals(-1, result.getFollowerApplyRate(), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalArgument() {
+    Config.parse(new String[] {"concurrency=0"});
+  }
+
+  private List<Result> runBenchmark(String protocols) throws Exception {
+    Config config =
+        Config.parse(
+            new String[] {
+              "dir=" + dir.getPath(),
+              "protocols=" + protocols,
+              "peerNum=3",
+              "concurrency=2",
+              "writeNumPerThread=50",
+              "requestSize=128"
+            });
+    return new ConsensusBenchmark(config).run();
+  }
+
+  private void checkWrites(Result result) {
+    Assert.assertEquals(100, result.getWriteNum());
+    Assert.assertEquals(0, result.getFailedWriteNum());
+    Assert.assertTrue(result.getThroughputInWritesPerSec() > 0);
+    Assert.assertTrue(result.getWriteLatencyInMs(0.99) >= result.getWriteLatencyInMs(0.5));
+  }
+}
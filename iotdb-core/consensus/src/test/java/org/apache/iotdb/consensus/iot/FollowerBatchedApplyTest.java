@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.consensus.ConsensusGroupId;
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.consensus.ConsensusFactory;
+import org.apache.iotdb.consensus.common.Peer;
+import org.apache.iotdb.consensus.common.request.DeserializedBatchIndexedConsensusRequest;
+import org.apache.iotdb.consensus.common.request.IConsensusRequest;
+import org.apache.iotdb.consensus.common.request.IndexedConsensusRequest;
+import org.apache.iotdb.consensus.config.ConsensusConfig;
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+import org.apache.iotdb.consensus.iot.util.TestEntry;
+import org.apache.iotdb.consensus.iot.util.TestStateMachine;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.apache.ratis.util.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FollowerBatchedApplyTest {
+
+  private static final int BATCH_NUM = 8;
+  private static final int ENTRY_NUM_PER_BATCH = 10;
+  private static final int SOURCE_PEER_ID = 2;
+
+  private final ConsensusGroupId dataRegionId = new DataRegionId(1);
+  private final File storageDir = new File("target" + File.separator + "batchedApply");
+  private final int basePort = 6687;
+  private final Peer sourcePeer =
+      new Peer(dataRegionId, SOURCE_PEER_ID, new TEndPoint("0.0.0.0", 0));
+  private final OrderRecordingStateMachine stateMachine = new OrderRecordingStateMachine();
+  private IoTConsensus consensusImpl;
+
+  @Before
+  public void setUp() throws Exception {
+    FileUtils.deleteFully(storageDir);
+    consensusImpl =
+        (IoTConsensus)
+            ConsensusFactory.getConsensusImpl(
+                    ConsensusFactory.IOT_CONSENSUS,
+                    ConsensusConfig.newBuilder()
+                        .setThisNodeId(1)
+                        .setThisNode(new TEndPoint("0.0.0.0", basePort))
+                        .setStorageDir(storageDir.getAbsolutePath())
+                        .setConsensusGroupType(TConsensusGroupType.DataRegion)
+                        .setIoTConsensusConfig(
+                            IoTConsensusConfig.newBuilder()
+                                .setReplication(
+                                    IoTConsensusConfig.Replication.newBuilder()
+                                        .setEnableFollowerBatchedApply(true)
+                                        .setMaxPendingBatchesNum(BATCH_NUM)
+                                        // never apply a batch before its preceding ones arrive
+                                        .setMaxWaitingTimeForWaitBatchInMs(60_000L)
+                                        .build())
+                                .build())
+                        .build(),
+                    gid -> stateMachine)
+                .orElseThrow(
+                    () ->
+                        new IllegalArgumentException(
+                            String.format(
+                                ConsensusFactory.CONSTRUCT_FAILED_MSG,
+                                ConsensusFactory.IOT_CONSENSUS)));
+    consensusImpl.start();
+    consensusImpl.createLocalPeer(
+        dataRegionId,
+        Collections.singletonList(new Peer(dataRegionId, 1, new TEndPoint("0.0.0.0", basePort))));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    consensusImpl.stop();
+    FileUtils.deleteFully(storageDir);
+  }
+
+  @Test
+  public void testOutOfOrderBatchesAreAppliedInOrder() throws Exception {
+    // nextSyncIndex is unknown at first, so the batches are applied once the queue is full, and
+    // all of them are contiguous with the peek
+    syncBatchesInReverseOrder(0);
+    Assert.assertEquals(1, stateMachine.getWriteNum());
+    checkAppliedIndexes(BATCH_NUM * ENTRY_NUM_PER_BATCH);
+
+    // nextSyncIndex is known now, each batch is applied as soon as its preceding ones are
+    syncBatchesInReverseOrder(BATCH_NUM);
+    checkAppliedIndexes(2 * BATCH_NUM * ENTRY_NUM_PER_BATCH);
+  }
+
+  private void syncBatchesInReverseOrder(int firstBatch) throws Exception {
+    IoTConsensusServerImpl impl = consensusImpl.getImpl(dataRegionId);
+    AtomicInteger entryNum = new AtomicInteger(0);
+    ExecutorService executor = Executors.newFixedThreadPool(BATCH_NUM);
+    try {
+      List<Future<TSStatus>> futures = new ArrayList<>();
+      for (int i = firstBatch + BATCH_NUM - 1; i >= firstBatch; i--) {
+        long startSyncIndex = (long) i * ENTRY_NUM_PER_BATCH + 1;
+        DeserializedBatchIndexedConsensusRequest request =
+            new DeserializedBatchIndexedConsensusRequest(
+                startSyncIndex, startSyncIndex + ENTRY_NUM_PER_BATCH - 1, ENTRY_NUM_PER_BATCH);
+        for (int j = 0; j < ENTRY_NUM_PER_BATCH; j++) {
+          request.add(
+              new IndexedConsensusRequest(
+                  startSyncIndex + j,
+                  Collections.singletonList(
+                      new TestEntry(entryNum.getAndIncrement(), sourcePeer))));
+        }
+        futures.add(executor.submit(() -> impl.syncLog(SOURCE_PEER_ID, request)));
+      }
+      for (Future<TSStatus> future : futures) {
+        TSStatus status = future.get();
+        Assert.assertEquals(ENTRY_NUM_PER_BATCH, status.getSubStatus().size());
+        for (TSStatus subStatus : status.getSubStatus()) {
+          Assert.assertEquals(TSStatusCode.SUCCESS_STATUS.getStatusCode(), subStatus.getCode());
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void checkAppliedIndexes(int expectedNum) {
+    List<Long> appliedIndexes = stateMachine.getAppliedIndexes();
+    Assert.assertEquals(expectedNum, appliedIndexes.size());
+    for (int i = 0; i < expectedNum; i++) {
+      Assert.assertEquals(i + 1, (long) appliedIndexes.get(i));
+    }
+  }
+
+  private static class OrderRecordingStateMachine extends TestStateMachine {
+
+    private final List<Long> appliedIndexes = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger writeNum = new AtomicInteger(0);
+
+    @Override
+    public TSStatus write(IConsensusRequest request) {
+      if (request instanceof DeserializedBatchIndexedConsensusRequest) {
+        writeNum.incrementAndGet();
+        for (IConsensusRequest insertNode :
+            ((DeserializedBatchIndexedConsensusRequest) request).getInsertNodes()) {
+          appliedIndexes.add(((IndexedConsensusRequest) insertNode).getSearchIndex());
+        }
+      }
+      return super.write(request);
+    }
+
+    private List<Long> getAppliedIndexes() {
+      return new ArrayList<>(appliedIndexes);
+    }
+
+    private int getWriteNum() {
+      return writeNum.get();
+    }
+  }
+}
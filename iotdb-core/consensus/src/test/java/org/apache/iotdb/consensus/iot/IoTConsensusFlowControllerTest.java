@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot;
+
+import org.apache.iotdb.consensus.iot.logdispatcher.ProgressRateEstimator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.OptionalDouble;
+import java.util.concurrent.TimeUnit;
+
+public class IoTConsensusFlowControllerTest {
+
+  private static final double SOFT_LIMIT_RATIO = 0.8;
+  private static final long MAX_ADMISSION_DELAY_MS = 100;
+
+  @Test
+  public void testAdmissionDelayGrowsWithWalPressure() {
+    OptionalDouble slowFollower = OptionalDouble.of(50);
+    // below the soft limit
+    Assert.assertEquals(0, computeAdmissionDelayMs(0.5, 100, slowFollower));
+    Assert.assertEquals(0, computeAdmissionDelayMs(0.8, 100, slowFollower));
+    // between the soft limit and the threshold
+    Assert.assertEquals(50, computeAdmissionDelayMs(0.9, 100, slowFollower));
+    Assert.assertTrue(
+        computeAdmissionDelayMs(0.85, 100, slowFollower)
+            < computeAdmissionDelayMs(0.95, 100, slowFollower));
+    // beyond the threshold
+    Assert.assertEquals(MAX_ADMISSION_DELAY_MS, computeAdmissionDelayMs(1.5, 100, slowFollower));
+  }
+
+  @Test
+  public void testNoAdmissionDelayWhenFollowersCatchUp() {
+    Assert.assertEquals(0, computeAdmissionDelayMs(0.9, 100, OptionalDouble.of(200)));
+    // without followers, the WAL is only released by flushing
+    Assert.assertEquals(50, computeAdmissionDelayMs(0.9, 100, OptionalDouble.empty()));
+  }
+
+  @Test
+  public void testPredictCatchUpTime() {
+    Assert.assertEquals(0, IoTConsensusFlowController.predictCatchUpTimeInMs(0, 10, 100));
+    Assert.assertEquals(-1, IoTConsensusFlowController.predictCatchUpTimeInMs(1000, 100, 100));
+    Assert.assertEquals(-1, IoTConsensusFlowController.predictCatchUpTimeInMs(1000, 50, 100));
+    Assert.assertEquals(10_000, IoTConsensusFlowController.predictCatchUpTimeInMs(1000, 200, 100));
+  }
+
+  @Test
+  public void testProgressRateEstimator() {
+    ProgressRateEstimator estimator = new ProgressRateEstimator();
+    long time = 0;
+    estimator.update(0, time);
+    Assert.assertEquals(0, estimator.getRate(), 0);
+    // advances 100 per second
+    for (int i = 1; i <= 120; i++) {
+      time += TimeUnit.SECONDS.toNanos(1);
+      estimator.update(100L * i, time);
+    }
+    Assert.assertEquals(100, estimator.getRate(), 1);
+    // stops advancing
+    for (int i = 0; i < 120; i++) {
+      time += TimeUnit.SECONDS.toNanos(1);
+      estimator.update(12_000, time);
+    }
+    Assert.assertEquals(0, estimator.getRate(), 1);
+  }
+
+  private long computeAdmissionDelayMs(
+      double walPressure, double ingestRate, OptionalDouble minSyncRate) {
+    return IoTConsensusFlowController.computeAdmissionDelayMs(
+        walPressure, ingestRate, minSyncRate, SOFT_LIMIT_RATIO, MAX_ADMISSION_DELAY_MS);
+  }
+}
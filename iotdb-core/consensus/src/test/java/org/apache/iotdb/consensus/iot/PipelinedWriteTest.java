@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.consensus.ConsensusGroupId;
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.consensus.ConsensusFactory;
+import org.apache.iotdb.consensus.common.Peer;
+import org.apache.iotdb.consensus.common.request.IConsensusRequest;
+import org.apache.iotdb.consensus.common.request.IndexedConsensusRequest;
+import org.apache.iotdb.consensus.config.ConsensusConfig;
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+import org.apache.iotdb.consensus.iot.util.TestEntry;
+import org.apache.iotdb.consensus.iot.util.TestStateMachine;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.apache.ratis.util.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PipelinedWriteTest {
+
+  private static final int THREAD_NUM = 8;
+  private static final int WRITE_NUM_PER_THREAD = 200;
+
+  private final ConsensusGroupId dataRegionId = new DataRegionId(1);
+  private final File storageDir = new File("target" + File.separator + "pipelined");
+  private final int basePort = 6677;
+  private final OrderRecordingStateMachine stateMachine = new OrderRecordingStateMachine();
+  private IoTConsensus consensusImpl;
+
+  @Before
+  public void setUp() throws Exception {
+    FileUtils.deleteFully(storageDir);
+    consensusImpl =
+        (IoTConsensus)
+            ConsensusFactory.getConsensusImpl(
+                    ConsensusFactory.IOT_CONSENSUS,
+                    ConsensusConfig.newBuilder()
+                        .setThisNodeId(1)
+                        .setThisNode(new TEndPoint("0.0.0.0", basePort))
+                        .setStorageDir(storageDir.getAbsolutePath())
+                        .setConsensusGroupType(TConsensusGroupType.DataRegion)
+                        .setIoTConsensusConfig(
+                            IoTConsensusConfig.newBuilder()
+                                .setReplication(
+                                    IoTConsensusConfig.Replication.newBuilder()
+                                        .setEnablePipelinedWrite(true)
+                                        .build())
+                                .build())
+                        .build(),
+                    gid -> stateMachine)
+                .orElseThrow(
+                    () ->
+                        new IllegalArgumentException(
+                            String.format(
+                                ConsensusFactory.CONSTRUCT_FAILED_MSG,
+                                ConsensusFactory.IOT_CONSENSUS)));
+    consensusImpl.start();
+    consensusImpl.createLocalPeer(
+        dataRegionId,
+        Collections.singletonList(new Peer(dataRegionId, 1, new TEndPoint("0.0.0.0", basePort))));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    consensusImpl.stop();
+    FileUtils.deleteFully(storageDir);
+  }
+
+  @Test
+  public void testConcurrentWritesAreAppliedInIndexOrder() throws Exception {
+    Peer peer = new Peer(dataRegionId, 1, new TEndPoint("0.0.0.0", basePort));
+    AtomicInteger entryNum = new AtomicInteger(0);
+    ExecutorService executor = Executors.newFixedThreadPool(THREAD_NUM);
+    try {
+      List<Future<Boolean>> futures = new ArrayList<>();
+      for (int i = 0; i < THREAD_NUM; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int j = 0; j < WRITE_NUM_PER_THREAD; j++) {
+                    TSStatus status =
+                        consensusImpl.write(
+                            dataRegionId, new TestEntry(entryNum.getAndIncrement(), peer));
+                    if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+                      return false;
+                    }
+                  }
+                  return true;
+                }));
+      }
+      for (Future<Boolean> future : futures) {
+        Assert.assertTrue(future.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int totalWriteNum = THREAD_NUM * WRITE_NUM_PER_THREAD;
+    Assert.assertEquals(totalWriteNum, consensusImpl.getImpl(dataRegionId).getSearchIndex());
+    List<Long> appliedIndexes = stateMachine.getAppliedIndexes();
+    Assert.assertEquals(totalWriteNum, appliedIndexes.size());
+    for (int i = 0; i < totalWriteNum; i++) {
+      Assert.assertEquals(i + 1, (long) appliedIndexes.get(i));
+    }
+    Assert.assertEquals(totalWriteNum, stateMachine.getData().size());
+  }
+
+  private static class OrderRecordingStateMachine extends TestStateMachine {
+
+    private final List<Long> appliedIndexes = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public TSStatus write(IConsensusRequest request) {
+      if (request instanceof IndexedConsensusRequest) {
+        appliedIndexes.add(((IndexedConsensusRequest) request).getSearchIndex());
+      }
+      return super.write(request);
+    }
+
+    private List<Long> getAppliedIndexes() {
+      return new ArrayList<>(appliedIndexes);
+    }
+  }
+}
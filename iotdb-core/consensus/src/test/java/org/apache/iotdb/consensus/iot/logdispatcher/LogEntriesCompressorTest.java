@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.logdispatcher;
+
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.consensus.iot.thrift.TLogEntry;
+import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesReq;
+
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class LogEntriesCompressorTest {
+
+  @Test
+  public void testCompressAndDecompress() throws IOException {
+    for (CompressionType compressionType :
+        Arrays.asList(CompressionType.LZ4, CompressionType.ZSTD, CompressionType.SNAPPY)) {
+      List<TLogEntry> logEntries = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        List<ByteBuffer> data = new ArrayList<>();
+        for (int j = 0; j < 3; j++) {
+          data.add(
+              ByteBuffer.wrap(
+                  ("root.sg.d" + j + ".s1,root.sg.d" + j + ".s2," + i)
+                      .getBytes(StandardCharsets.UTF_8)));
+        }
+        logEntries.add(new TLogEntry(data, i + 1, i % 2 == 0));
+      }
+      TSyncLogEntriesReq req = createRequest(logEntries);
+
+      int uncompressedSize = LogEntriesCompressor.getSerializedSize(logEntries);
+      int shippedSize = LogEntriesCompressor.compress(req, compressionType);
+      Assert.assertTrue(shippedSize < uncompressedSize);
+      Assert.assertTrue(req.getLogEntries().isEmpty());
+      Assert.assertTrue(req.isSetCompressedLogEntries());
+
+      LogEntriesCompressor.decompress(req, uncompressedSize);
+      Assert.assertFalse(req.isSetCompressedLogEntries());
+      Assert.assertEquals(logEntries, req.getLogEntries());
+    }
+  }
+
+  @Test
+  public void testKeepUncompressedIfNotSmaller() throws IOException {
+    List<TLogEntry> logEntries =
+        Collections.singletonList(
+            new TLogEntry(Collections.singletonList(ByteBuffer.wrap(new byte[] {1})), 1, false));
+    TSyncLogEntriesReq req = createRequest(logEntries);
+    LogEntriesCompressor.compress(req, CompressionType.LZ4);
+    Assert.assertFalse(req.isSetCompressedLogEntries());
+    Assert.assertEquals(logEntries, req.getLogEntries());
+
+    // a request which is not compressed is kept unchanged
+    LogEntriesCompressor.decompress(req, 0);
+    Assert.assertEquals(logEntries, req.getLogEntries());
+  }
+
+  @Test
+  public void testRejectOversizedUncompressedSize() throws IOException {
+    List<TLogEntry> logEntries = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      logEntries.add(
+          new TLogEntry(
+              Collections.singletonList(
+                  ByteBuffer.wrap(("root.sg.d1.s1," + i).getBytes(StandardCharsets.UTF_8))),
+              i + 1,
+              false));
+    }
+    TSyncLogEntriesReq req = createRequest(logEntries);
+    LogEntriesCompressor.compress(req, CompressionType.LZ4);
+    Assert.assertTrue(req.isSetCompressedLogEntries());
+
+    req.setUncompressedSize(Integer.MAX_VALUE);
+    try {
+      LogEntriesCompressor.decompress(req, LogEntriesCompressor.getSerializedSize(logEntries));
+      Assert.fail();
+    } catch (IOException e) {
+      // the buffer of the claimed size is never allocated
+      Assert.assertTrue(req.isSetCompressedLogEntries());
+    }
+  }
+
+  private TSyncLogEntriesReq createRequest(List<TLogEntry> logEntries) {
+    return new TSyncLogEntriesReq(
+        1, new DataRegionId(1).convertToTConsensusGroupId(), new ArrayList<>(logEntries));
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.snapshot;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class SnapshotFileDigestTest {
+
+  private Path snapshotFile;
+  private Path localFile;
+
+  @Before
+  public void setUp() throws IOException {
+    snapshotFile = Files.createTempFile("snapshot", ".tsfile");
+    localFile = Files.createTempFile("local", ".tsfile");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(snapshotFile);
+    Files.deleteIfExists(localFile);
+  }
+
+  @Test
+  public void testSameSizeDifferentContent() throws IOException {
+    Files.write(snapshotFile, new byte[] {1, 2, 3, 4});
+    byte[] digest = SnapshotFileDigest.digest(snapshotFile);
+
+    Files.write(localFile, new byte[] {1, 2, 3, 4});
+    Assert.assertTrue(SnapshotFileDigest.isIdentical(localFile, digest));
+
+    // same size, different content
+    Files.write(localFile, new byte[] {1, 2, 3, 5});
+    Assert.assertFalse(SnapshotFileDigest.isIdentical(localFile, digest));
+    // the sender did not provide a digest
+    Assert.assertFalse(SnapshotFileDigest.isIdentical(snapshotFile, null));
+  }
+}
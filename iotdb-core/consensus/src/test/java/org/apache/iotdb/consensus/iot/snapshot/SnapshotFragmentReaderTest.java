@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.snapshot;
+
+import org.apache.iotdb.consensus.iot.thrift.TSendSnapshotFragmentReq;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class SnapshotFragmentReaderTest {
+
+  private static final int FRAGMENT_SIZE = 16;
+
+  private Path snapshotFile;
+  private byte[] content;
+
+  @Before
+  public void setUp() throws IOException {
+    content = new byte[FRAGMENT_SIZE * 3 + 5];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) i;
+    }
+    snapshotFile = Files.createTempFile("snapshot", ".tsfile");
+    Files.write(snapshotFile, content);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(snapshotFile);
+  }
+
+  @Test
+  public void testReadWithReusedBuffer() throws IOException {
+    ByteBuffer buf = ByteBuffer.allocate(FRAGMENT_SIZE);
+    SnapshotFragmentReader reader = new SnapshotFragmentReader("1", snapshotFile, buf, 0);
+    try {
+      Assert.assertArrayEquals(content, readAll(reader));
+      Assert.assertEquals(content.length, reader.getTotalReadSize());
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testResumeFromOffset() throws IOException {
+    ByteBuffer buf = ByteBuffer.allocate(FRAGMENT_SIZE);
+    SnapshotFragmentReader reader = new SnapshotFragmentReader("1", snapshotFile, buf, 0);
+    try {
+      Assert.assertTrue(reader.hasNext());
+      Assert.assertTrue(reader.hasNext());
+      // the second fragment is lost, resume from the end of the first one
+      reader.seek(FRAGMENT_SIZE);
+      byte[] resumed = readAll(reader);
+      Assert.assertEquals(content.length - FRAGMENT_SIZE, resumed.length);
+      for (int i = 0; i < resumed.length; i++) {
+        Assert.assertEquals(content[FRAGMENT_SIZE + i], resumed[i]);
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  private byte[] readAll(SnapshotFragmentReader reader) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    while (reader.hasNext()) {
+      SnapshotFragment fragment = reader.next();
+      TSendSnapshotFragmentReq req = fragment.toTSendSnapshotFragmentReq();
+      Assert.assertEquals(outputStream.size(), req.getOffset());
+      Assert.assertEquals(fragment.getFragmentSize(), req.getFileChunk().length);
+      outputStream.write(req.getFileChunk());
+    }
+    return outputStream.toByteArray();
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.consensus.ratis;
+
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.consensus.ConsensusGroupId;
+import org.apache.iotdb.commons.consensus.SchemaRegionId;
+import org.apache.iotdb.consensus.common.Peer;
+import org.apache.iotdb.consensus.common.request.IConsensusRequest;
+import org.apache.iotdb.consensus.config.RatisConfig;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BatchApplyTest {
+
+  private static final int WRITE_NUM = 100;
+
+  private final List<BatchCountingCounter> stateMachines =
+      Collections.synchronizedList(new ArrayList<>());
+  private TestUtils.MiniCluster miniCluster;
+
+  @Before
+  public void setUp() throws Exception {
+    final RatisConfig config =
+        RatisConfig.newBuilder()
+            .setImpl(RatisConfig.Impl.newBuilder().setApplyBatchSizeMax(16).build())
+            .build();
+    miniCluster =
+        new TestUtils.MiniClusterFactory()
+            .setRatisConfig(config)
+            .setGid(new SchemaRegionId(1))
+            .setSMProvider(
+                () -> {
+                  BatchCountingCounter stateMachine = new BatchCountingCounter();
+                  stateMachines.add(stateMachine);
+                  return stateMachine;
+                })
+            .create();
+    miniCluster.start();
+    final ConsensusGroupId gid = miniCluster.getGid();
+    final List<Peer> members = miniCluster.getPeers();
+    for (RatisConsensus s : miniCluster.getServers()) {
+      s.createLocalPeer(gid, members);
+    }
+    miniCluster.waitUntilActiveLeaderElectedAndReady();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    miniCluster.cleanUp();
+  }
+
+  @Test
+  public void testParallelWritesAreAppliedInBatches() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      miniCluster.writeManyParallel(executor, 0, WRITE_NUM);
+    } finally {
+      executor.shutdownNow();
+    }
+    Assert.assertEquals(WRITE_NUM, miniCluster.mustRead(0));
+
+    // every committed entry is applied exactly once through batchWrite, and the leader has applied
+    // all of them before replying to the clients
+    int maxBatchedEntryNum = 0;
+    for (BatchCountingCounter stateMachine : stateMachines) {
+      Assert.assertTrue(stateMachine.getBatchedEntryNum() <= WRITE_NUM);
+      Assert.assertTrue(stateMachine.getBatchNum() <= stateMachine.getBatchedEntryNum());
+      maxBatchedEntryNum = Math.max(maxBatchedEntryNum, stateMachine.getBatchedEntryNum());
+    }
+    Assert.assertEquals(WRITE_NUM, maxBatchedEntryNum);
+
+    // the pending batch is applied before the snapshot is taken
+    miniCluster.getServer(0).triggerSnapshot(miniCluster.getGid(), true);
+    Assert.assertTrue(miniCluster.hasSnapshot(miniCluster.getGid(), 0));
+  }
+
+  private static class BatchCountingCounter extends TestUtils.IntegerCounter {
+
+    private final AtomicInteger batchNum = new AtomicInteger(0);
+    private final AtomicInteger batchedEntryNum = new AtomicInteger(0);
+
+    @Override
+    public List<TSStatus> batchWrite(List<IConsensusRequest> requests) {
+      batchNum.incrementAndGet();
+      batchedEntryNum.addAndGet(requests.size());
+      return super.batchWrite(requests);
+    }
+
+    private int getBatchNum() {
+      return batchNum.get();
+    }
+
+    private int getBatchedEntryNum() {
+      return batchedEntryNum.get();
+    }
+  }
+}
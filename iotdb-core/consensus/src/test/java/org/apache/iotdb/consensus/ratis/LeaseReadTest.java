@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.consensus.ratis;
+
+import org.apache.iotdb.commons.consensus.ConsensusGroupId;
+import org.apache.iotdb.commons.consensus.SchemaRegionId;
+import org.apache.iotdb.consensus.common.Peer;
+import org.apache.iotdb.consensus.config.RatisConfig;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class LeaseReadTest {
+
+  private TestUtils.MiniCluster miniCluster;
+
+  @Before
+  public void setUp() throws Exception {
+    final RatisConfig config =
+        RatisConfig.newBuilder()
+            .setRead(
+                RatisConfig.Read.newBuilder()
+                    .setReadOption(RatisConfig.Read.Option.LINEARIZABLE)
+                    .setLeaderLeaseEnabled(true)
+                    .setLeaderLeaseTimeoutRatio(0.9)
+                    .build())
+            .build();
+    miniCluster =
+        new TestUtils.MiniClusterFactory()
+            .setRatisConfig(config)
+            .setGid(new SchemaRegionId(1))
+            .create();
+    miniCluster.start();
+    final ConsensusGroupId gid = miniCluster.getGid();
+    final List<Peer> members = miniCluster.getPeers();
+    for (RatisConsensus s : miniCluster.getServers()) {
+      s.createLocalPeer(gid, members);
+    }
+    miniCluster.waitUntilActiveLeaderElectedAndReady();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    miniCluster.cleanUp();
+  }
+
+  @Test
+  public void testLeaseReadSeesLatestWrites() throws Exception {
+    for (int i = 1; i <= 10; i++) {
+      miniCluster.writeOnce(0);
+      // the leader answers the read index with its lease, followers wait until they catch up
+      for (int serverIndex = 0; serverIndex < miniCluster.getServers().size(); serverIndex++) {
+        Assert.assertEquals(i, miniCluster.mustRead(serverIndex));
+      }
+    }
+  }
+}
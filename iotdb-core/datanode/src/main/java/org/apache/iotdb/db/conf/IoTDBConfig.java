@@ -333,6 +333,30 @@ public class IoTDBConfig {
 
   private int modeMapSizeThreshold = 10000;
 
+  /**
+   * Whether to persist the last values of each sealed TsFile and warm the last cache with them when
+   * the data regions are recovered.
+   */
+  private boolean enableLastCacheSnapshot = false;
+
+  /**
+   * Whether the writes put the last cache of the table model devices if the written row is known to
+   * be the latest, rather than only updating the existing last cache.
+   */
+  private boolean enableLastCacheWriteThrough = false;
+
+  /**
+   * The off-heap memory of the device offset directories of the closed TsFiles, which locate the
+   * timeseries metadata of a device without walking the device index tree. 0 means disabled.
+   */
+  private long deviceOffsetDirectoryCacheSizeInMB = 0;
+
+  /**
+   * Whether the compaction reads through the query path put the chunks and timeseries metadata they
+   * load into the caches. If false, they only hit the cached entries.
+   */
+  private boolean enableCompactionReadCacheAdmission = false;
+
   /** How many queries can be concurrently executed. When <= 0, use 1000. */
   private int maxAllowedConcurrentQueries = 1000;
 
@@ -442,10 +466,17 @@ public class IoTDBConfig {
    * The priority of compaction task execution. There are three priority strategy INNER_CROSS:
    * prioritize inner space compaction, reduce the number of files first CROSS INNER: prioritize
    * cross space compaction, eliminate the unsequence files first BALANCE: alternate two compaction
-   * types
+   * types WORKLOAD_AWARE: prioritize the tasks saving the most read amplification of the frequently
+   * queried time partitions
    */
   private CompactionPriority compactionPriority = CompactionPriority.INNER_CROSS;
 
+  /**
+   * The half-life of the query access frequency of each time partition, which is used to score the
+   * compaction tasks when the compaction priority is WORKLOAD_AWARE.
+   */
+  private long compactionQueryAccessHalfLifeInMs = 600_000L;
+
   private double chunkMetadataSizeProportion = 0.1;
 
   private long innerCompactionTotalFileSizeThresholdInByte = 10737418240L;
@@ -520,12 +551,52 @@ public class IoTDBConfig {
    */
   private float expiredDataRatio = 0.3f;
 
+  /**
+   * The deleted data ratio. If the estimated ratio of the data deleted by mods in one tsfile
+   * exceeds this value, then the tsfile will be rewritten by compaction. The time partitions with
+   * new deletions are checked in the next compaction schedule. When <= 0, disabled.
+   */
+  private float deletedDataRatio = 0.5f;
+
+  /**
+   * Whether to leave the expired data of partially expired tsfiles to the normal compaction instead
+   * of rewriting them in the ttl check. The tsfiles whose devices are all expired are still removed
+   * directly, and the expired devices are skipped by the readers before they are compacted.
+   */
+  private boolean deferExpiredDataRewrite = false;
+
+  /**
+   * Whether to write the target files of compaction directly to the tier which the data belongs to
+   * according to the tier ttl, instead of the tier of the source files.
+   */
+  private boolean enableTierAwareCompaction = true;
+
+  /**
+   * The seq inner compaction with the read chunk performer records a checkpoint in its log each
+   * time it writes this many bytes to the target files, so that the task can resume from the last
+   * checkpoint after a restart instead of starting over. Values <= 0 disable the checkpoints.
+   */
+  private long compactionCheckpointIntervalInByte = 0L;
+
+  /**
+   * The interrupted compaction kept for resuming is discarded when recovering, if its last
+   * checkpoint is older than this. Values <= 0 means it is kept until its files are selected.
+   */
+  private long compactionResumableCheckpointTtlInMs = 3_600_000L;
+
   /**
    * The number of sub compaction threads to be set up to perform compaction. Currently only works
-   * for nonAligned data in cross space compaction and unseq inner space compaction.
+   * for nonAligned data in cross space compaction, unseq inner space compaction and seq inner space
+   * compaction with read chunk performer.
    */
   private int subCompactionTaskNum = 4;
 
+  /**
+   * Whether the read chunk performer compacts the nonAligned series of a device in the sub
+   * compaction threads.
+   */
+  private boolean enableReadChunkParallelSubCompaction = false;
+
   /** The number of threads to be set up to select compaction task. */
   private int compactionScheduleThreadNum = 4;
 
@@ -658,6 +729,32 @@ public class IoTDBConfig {
   /** The limit of compaction read operation can reach per second. When <= 0, no limit. */
   private int compactionReadOperationPerSec = 0;
 
+  /**
+   * The limit of compaction write throughput on each data directory per second. It works together
+   * with compactionWriteThroughputMbPerSec. When <= 0, no limit. unit: megabyte
+   */
+  private int compactionPerDiskWriteThroughputMbPerSec = 0;
+
+  /**
+   * The limit of compaction read throughput on each data directory per second. It works together
+   * with compactionReadThroughputMbPerSec. When <= 0, no limit. unit: megabyte
+   */
+  private int compactionPerDiskReadThroughputMbPerSec = 0;
+
+  /**
+   * When the average latency of the query reading chunks from a data directory exceeds this
+   * threshold, the compaction IO throughput on the data directory is reduced, and it is restored
+   * when the latency falls back. When <= 0, the compaction IO throughput is not adapted, which is
+   * the default. Unit: millisecond
+   */
+  private long compactionForegroundReadLatencyThresholdInMs = 0;
+
+  /**
+   * Whether to correct the estimated memory cost of compaction tasks by the factors learned from
+   * the peak memory of the finished tasks.
+   */
+  private boolean enableCompactionMemoryEstimateCalibration = false;
+
   /**
    * How many thread will be set up to perform compaction, 10 by default. Set to 1 when less than or
    * equal to 0.
@@ -1032,6 +1129,11 @@ public class IoTDBConfig {
   private long dataRatisPeriodicSnapshotInterval = 24L * 60 * 60; // 24hr
   private long schemaRatisPeriodicSnapshotInterval = 24L * 60 * 60; // 24hr
 
+  private int schemaRatisApplyBatchSizeMax = 1;
+
+  private boolean schemaRatisLeaderLeaseEnabled = true;
+  private double schemaRatisLeaderLeaseTimeoutRatio = 0.9;
+
   /** whether to enable the audit log * */
   private boolean enableAuditLog = false;
 
@@ -1056,6 +1158,40 @@ public class IoTDBConfig {
   private double maxMemoryRatioForQueue = 0.6;
   private long regionMigrationSpeedLimitBytesPerSecond = 48 * 1024 * 1024L;
 
+  /**
+   * Whether the leader of IoTConsensus only holds the state machine lock of a region to check the
+   * throttle and to take its turn, so that the waiting writes and the log dispatchers do not
+   * contend with the write being applied.
+   */
+  private boolean enableIoTConsensusPipelinedWrite = false;
+
+  /**
+   * Whether the follower of IoTConsensus applies the synced batches of each leader in a dedicated
+   * thread, which merges the contiguous batches waiting in the queue into one write.
+   */
+  private boolean enableIoTConsensusFollowerBatchedApply = false;
+
+  /**
+   * The compression type of the log entries shipped by the leader of IoTConsensus. A batch is only
+   * compressed if the follower has reported that it is able to decompress it.
+   */
+  private CompressionType iotConsensusLogCompressionType = CompressionType.UNCOMPRESSED;
+
+  /** The number of snapshot files that IoTConsensus transmits in parallel to a new peer. */
+  private int iotConsensusSnapshotTransmissionThreadNum = 4;
+
+  /**
+   * Whether the leader of IoTConsensus delays the writes in proportion to the WAL pressure before
+   * the WAL reaches the throttle threshold, when its slowest follower is not catching up.
+   */
+  private boolean enableIoTConsensusAdaptiveFlowControl = false;
+
+  /** The ratio of the WAL throttle threshold from which the writes start to be delayed. */
+  private double iotConsensusFlowControlSoftLimitRatio = 0.8;
+
+  /** The delay of a write when the WAL reaches the throttle threshold. */
+  private long iotConsensusMaxAdmissionDelayMs = 100;
+
   // IoTConsensusV2 Config
   private int iotConsensusV2PipelineSize = 5;
   private String iotConsensusV2Mode = ConsensusFactory.IOT_CONSENSUS_V2_BATCH_MODE;
@@ -1211,6 +1347,66 @@ public class IoTDBConfig {
     this.maxPendingBatchesNum = maxPendingBatchesNum;
   }
 
+  public boolean isEnableIoTConsensusPipelinedWrite() {
+    return enableIoTConsensusPipelinedWrite;
+  }
+
+  public void setEnableIoTConsensusPipelinedWrite(boolean enableIoTConsensusPipelinedWrite) {
+    this.enableIoTConsensusPipelinedWrite = enableIoTConsensusPipelinedWrite;
+  }
+
+  public boolean isEnableIoTConsensusFollowerBatchedApply() {
+    return enableIoTConsensusFollowerBatchedApply;
+  }
+
+  public void setEnableIoTConsensusFollowerBatchedApply(
+      boolean enableIoTConsensusFollowerBatchedApply) {
+    this.enableIoTConsensusFollowerBatchedApply = enableIoTConsensusFollowerBatchedApply;
+  }
+
+  public CompressionType getIoTConsensusLogCompressionType() {
+    return iotConsensusLogCompressionType;
+  }
+
+  public void setIoTConsensusLogCompressionType(CompressionType iotConsensusLogCompressionType) {
+    this.iotConsensusLogCompressionType = iotConsensusLogCompressionType;
+  }
+
+  public int getIoTConsensusSnapshotTransmissionThreadNum() {
+    return iotConsensusSnapshotTransmissionThreadNum;
+  }
+
+  public void setIoTConsensusSnapshotTransmissionThreadNum(
+      int iotConsensusSnapshotTransmissionThreadNum) {
+    this.iotConsensusSnapshotTransmissionThreadNum = iotConsensusSnapshotTransmissionThreadNum;
+  }
+
+  public boolean isEnableIoTConsensusAdaptiveFlowControl() {
+    return enableIoTConsensusAdaptiveFlowControl;
+  }
+
+  public void setEnableIoTConsensusAdaptiveFlowControl(
+      boolean enableIoTConsensusAdaptiveFlowControl) {
+    this.enableIoTConsensusAdaptiveFlowControl = enableIoTConsensusAdaptiveFlowControl;
+  }
+
+  public double getIoTConsensusFlowControlSoftLimitRatio() {
+    return iotConsensusFlowControlSoftLimitRatio;
+  }
+
+  public void setIoTConsensusFlowControlSoftLimitRatio(
+      double iotConsensusFlowControlSoftLimitRatio) {
+    this.iotConsensusFlowControlSoftLimitRatio = iotConsensusFlowControlSoftLimitRatio;
+  }
+
+  public long getIoTConsensusMaxAdmissionDelayMs() {
+    return iotConsensusMaxAdmissionDelayMs;
+  }
+
+  public void setIoTConsensusMaxAdmissionDelayMs(long iotConsensusMaxAdmissionDelayMs) {
+    this.iotConsensusMaxAdmissionDelayMs = iotConsensusMaxAdmissionDelayMs;
+  }
+
   public void setMaxMemoryRatioForQueue(double maxMemoryRatioForQueue) {
     this.maxMemoryRatioForQueue = maxMemoryRatioForQueue;
   }
@@ -1734,6 +1930,38 @@ public class IoTDBConfig {
     return mergeThresholdOfExplainAnalyze;
   }
 
+  public boolean isEnableLastCacheSnapshot() {
+    return enableLastCacheSnapshot;
+  }
+
+  public void setEnableLastCacheSnapshot(boolean enableLastCacheSnapshot) {
+    this.enableLastCacheSnapshot = enableLastCacheSnapshot;
+  }
+
+  public boolean isEnableLastCacheWriteThrough() {
+    return enableLastCacheWriteThrough;
+  }
+
+  public void setEnableLastCacheWriteThrough(boolean enableLastCacheWriteThrough) {
+    this.enableLastCacheWriteThrough = enableLastCacheWriteThrough;
+  }
+
+  public boolean isEnableCompactionReadCacheAdmission() {
+    return enableCompactionReadCacheAdmission;
+  }
+
+  public void setEnableCompactionReadCacheAdmission(boolean enableCompactionReadCacheAdmission) {
+    this.enableCompactionReadCacheAdmission = enableCompactionReadCacheAdmission;
+  }
+
+  public long getDeviceOffsetDirectoryCacheSizeInMB() {
+    return deviceOffsetDirectoryCacheSizeInMB;
+  }
+
+  public void setDeviceOffsetDirectoryCacheSizeInMB(long deviceOffsetDirectoryCacheSizeInMB) {
+    this.deviceOffsetDirectoryCacheSizeInMB = deviceOffsetDirectoryCacheSizeInMB;
+  }
+
   public int getMaxAllowedConcurrentQueries() {
     return maxAllowedConcurrentQueries;
   }
@@ -2085,6 +2313,43 @@ public class IoTDBConfig {
     this.compactionReadOperationPerSec = compactionReadOperationPerSec;
   }
 
+  public int getCompactionPerDiskWriteThroughputMbPerSec() {
+    return compactionPerDiskWriteThroughputMbPerSec;
+  }
+
+  public void setCompactionPerDiskWriteThroughputMbPerSec(
+      int compactionPerDiskWriteThroughputMbPerSec) {
+    this.compactionPerDiskWriteThroughputMbPerSec = compactionPerDiskWriteThroughputMbPerSec;
+  }
+
+  public int getCompactionPerDiskReadThroughputMbPerSec() {
+    return compactionPerDiskReadThroughputMbPerSec;
+  }
+
+  public void setCompactionPerDiskReadThroughputMbPerSec(
+      int compactionPerDiskReadThroughputMbPerSec) {
+    this.compactionPerDiskReadThroughputMbPerSec = compactionPerDiskReadThroughputMbPerSec;
+  }
+
+  public long getCompactionForegroundReadLatencyThresholdInMs() {
+    return compactionForegroundReadLatencyThresholdInMs;
+  }
+
+  public void setCompactionForegroundReadLatencyThresholdInMs(
+      long compactionForegroundReadLatencyThresholdInMs) {
+    this.compactionForegroundReadLatencyThresholdInMs =
+        compactionForegroundReadLatencyThresholdInMs;
+  }
+
+  public boolean isEnableCompactionMemoryEstimateCalibration() {
+    return enableCompactionMemoryEstimateCalibration;
+  }
+
+  public void setEnableCompactionMemoryEstimateCalibration(
+      boolean enableCompactionMemoryEstimateCalibration) {
+    this.enableCompactionMemoryEstimateCalibration = enableCompactionMemoryEstimateCalibration;
+  }
+
   public boolean isEnableTimedFlushSeqMemtable() {
     return enableTimedFlushSeqMemtable;
   }
@@ -2730,6 +2995,14 @@ public class IoTDBConfig {
     this.compactionPriority = compactionPriority;
   }
 
+  public long getCompactionQueryAccessHalfLifeInMs() {
+    return compactionQueryAccessHalfLifeInMs;
+  }
+
+  public void setCompactionQueryAccessHalfLifeInMs(long compactionQueryAccessHalfLifeInMs) {
+    this.compactionQueryAccessHalfLifeInMs = compactionQueryAccessHalfLifeInMs;
+  }
+
   public long getTargetCompactionFileSize() {
     return targetCompactionFileSize;
   }
@@ -2831,6 +3104,46 @@ public class IoTDBConfig {
     this.expiredDataRatio = expiredDataRatio;
   }
 
+  public float getDeletedDataRatio() {
+    return deletedDataRatio;
+  }
+
+  public void setDeletedDataRatio(float deletedDataRatio) {
+    this.deletedDataRatio = deletedDataRatio;
+  }
+
+  public boolean isDeferExpiredDataRewrite() {
+    return deferExpiredDataRewrite;
+  }
+
+  public void setDeferExpiredDataRewrite(boolean deferExpiredDataRewrite) {
+    this.deferExpiredDataRewrite = deferExpiredDataRewrite;
+  }
+
+  public boolean isEnableTierAwareCompaction() {
+    return enableTierAwareCompaction;
+  }
+
+  public void setEnableTierAwareCompaction(boolean enableTierAwareCompaction) {
+    this.enableTierAwareCompaction = enableTierAwareCompaction;
+  }
+
+  public long getCompactionCheckpointIntervalInByte() {
+    return compactionCheckpointIntervalInByte;
+  }
+
+  public void setCompactionCheckpointIntervalInByte(long compactionCheckpointIntervalInByte) {
+    this.compactionCheckpointIntervalInByte = compactionCheckpointIntervalInByte;
+  }
+
+  public long getCompactionResumableCheckpointTtlInMs() {
+    return compactionResumableCheckpointTtlInMs;
+  }
+
+  public void setCompactionResumableCheckpointTtlInMs(long compactionResumableCheckpointTtlInMs) {
+    this.compactionResumableCheckpointTtlInMs = compactionResumableCheckpointTtlInMs;
+  }
+
   public int getInnerCompactionCandidateFileNum() {
     return innerCompactionCandidateFileNum;
   }
@@ -2875,6 +3188,15 @@ public class IoTDBConfig {
     this.subCompactionTaskNum = subCompactionTaskNum;
   }
 
+  public boolean isEnableReadChunkParallelSubCompaction() {
+    return enableReadChunkParallelSubCompaction;
+  }
+
+  public void setEnableReadChunkParallelSubCompaction(
+      boolean enableReadChunkParallelSubCompaction) {
+    this.enableReadChunkParallelSubCompaction = enableReadChunkParallelSubCompaction;
+  }
+
   public int getCompactionScheduleThreadNum() {
     return compactionScheduleThreadNum;
   }
@@ -4020,6 +4342,30 @@ public class IoTDBConfig {
     this.schemaRatisPeriodicSnapshotInterval = schemaRatisPeriodicSnapshotInterval;
   }
 
+  public int getSchemaRatisApplyBatchSizeMax() {
+    return schemaRatisApplyBatchSizeMax;
+  }
+
+  public void setSchemaRatisApplyBatchSizeMax(int schemaRatisApplyBatchSizeMax) {
+    this.schemaRatisApplyBatchSizeMax = schemaRatisApplyBatchSizeMax;
+  }
+
+  public boolean isSchemaRatisLeaderLeaseEnabled() {
+    return schemaRatisLeaderLeaseEnabled;
+  }
+
+  public void setSchemaRatisLeaderLeaseEnabled(boolean schemaRatisLeaderLeaseEnabled) {
+    this.schemaRatisLeaderLeaseEnabled = schemaRatisLeaderLeaseEnabled;
+  }
+
+  public double getSchemaRatisLeaderLeaseTimeoutRatio() {
+    return schemaRatisLeaderLeaseTimeoutRatio;
+  }
+
+  public void setSchemaRatisLeaderLeaseTimeoutRatio(double schemaRatisLeaderLeaseTimeoutRatio) {
+    this.schemaRatisLeaderLeaseTimeoutRatio = schemaRatisLeaderLeaseTimeoutRatio;
+  }
+
   public boolean isEnableTsFileValidation() {
     return enableTsFileValidation;
   }
@@ -41,6 +41,7 @@ import org.apache.iotdb.db.storageengine.StorageEngine;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.constant.CrossCompactionPerformer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.constant.InnerSeqCompactionPerformer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.constant.InnerUnseqCompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionIoScheduler;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionPriority;
@@ -457,6 +458,15 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "compaction_priority", conf.getCompactionPriority().toString())));
 
+    long compactionQueryAccessHalfLifeInMs =
+        Long.parseLong(
+            properties.getProperty(
+                "compaction_query_access_half_life_in_ms",
+                Long.toString(conf.getCompactionQueryAccessHalfLifeInMs())));
+    if (compactionQueryAccessHalfLifeInMs > 0) {
+      conf.setCompactionQueryAccessHalfLifeInMs(compactionQueryAccessHalfLifeInMs);
+    }
+
     int subtaskNum =
         Integer.parseInt(
             properties.getProperty(
@@ -465,6 +475,12 @@ public class IoTDBDescriptor {
     subtaskNum = subtaskNum <= 0 ? 1 : subtaskNum;
     conf.setSubCompactionTaskNum(subtaskNum);
 
+    conf.setEnableReadChunkParallelSubCompaction(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_read_chunk_parallel_sub_compaction",
+                Boolean.toString(conf.isEnableReadChunkParallelSubCompaction()))));
+
     int compactionScheduleThreadNum =
         Integer.parseInt(
             properties.getProperty(
@@ -542,6 +558,29 @@ public class IoTDBDescriptor {
       conf.setModeMapSizeThreshold(10000);
     }
 
+    conf.setEnableLastCacheSnapshot(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_last_cache_snapshot", Boolean.toString(conf.isEnableLastCacheSnapshot()))));
+
+    conf.setEnableLastCacheWriteThrough(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_last_cache_write_through",
+                Boolean.toString(conf.isEnableLastCacheWriteThrough()))));
+
+    conf.setDeviceOffsetDirectoryCacheSizeInMB(
+        Long.parseLong(
+            properties.getProperty(
+                "device_offset_directory_cache_size_in_mb",
+                Long.toString(conf.getDeviceOffsetDirectoryCacheSizeInMB()))));
+
+    conf.setEnableCompactionReadCacheAdmission(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_compaction_read_cache_admission",
+                Boolean.toString(conf.isEnableCompactionReadCacheAdmission()))));
+
     conf.setMaxAllowedConcurrentQueries(
         Integer.parseInt(
             properties.getProperty(
@@ -676,6 +715,30 @@ public class IoTDBDescriptor {
                 "compaction_read_operation_per_sec",
                 Integer.toString(conf.getCompactionReadOperationPerSec()))));
 
+    conf.setCompactionPerDiskWriteThroughputMbPerSec(
+        Integer.parseInt(
+            properties.getProperty(
+                "compaction_per_disk_write_throughput_mb_per_sec",
+                Integer.toString(conf.getCompactionPerDiskWriteThroughputMbPerSec()))));
+
+    conf.setCompactionPerDiskReadThroughputMbPerSec(
+        Integer.parseInt(
+            properties.getProperty(
+                "compaction_per_disk_read_throughput_mb_per_sec",
+                Integer.toString(conf.getCompactionPerDiskReadThroughputMbPerSec()))));
+
+    conf.setCompactionForegroundReadLatencyThresholdInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "compaction_foreground_read_latency_threshold_in_ms",
+                Long.toString(conf.getCompactionForegroundReadLatencyThresholdInMs()))));
+
+    conf.setEnableCompactionMemoryEstimateCalibration(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_compaction_memory_estimate_calibration",
+                Boolean.toString(conf.isEnableCompactionMemoryEstimateCalibration()))));
+
     conf.setEnableTsFileValidation(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -708,6 +771,34 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "expired_data_ratio", Float.toString(conf.getExpiredDataRatio()))));
 
+    conf.setDeletedDataRatio(
+        Float.parseFloat(
+            properties.getProperty(
+                "deleted_data_ratio", Float.toString(conf.getDeletedDataRatio()))));
+
+    conf.setDeferExpiredDataRewrite(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "defer_expired_data_rewrite", Boolean.toString(conf.isDeferExpiredDataRewrite()))));
+
+    conf.setEnableTierAwareCompaction(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_tier_aware_compaction",
+                Boolean.toString(conf.isEnableTierAwareCompaction()))));
+
+    conf.setCompactionCheckpointIntervalInByte(
+        Long.parseLong(
+            properties.getProperty(
+                "compaction_checkpoint_interval_in_byte",
+                Long.toString(conf.getCompactionCheckpointIntervalInByte()))));
+
+    conf.setCompactionResumableCheckpointTtlInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "compaction_resumable_checkpoint_ttl_in_ms",
+                Long.toString(conf.getCompactionResumableCheckpointTtlInMs()))));
+
     conf.setEnablePartialInsert(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -1075,6 +1166,53 @@ public class IoTDBDescriptor {
                 "detail_container_min_degrade_memory_in_bytes",
                 String.valueOf(conf.getDetailContainerMinDegradeMemoryInBytes()))));
 
+    conf.setEnableIoTConsensusPipelinedWrite(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "data_region_iot_enable_pipelined_write",
+                String.valueOf(conf.isEnableIoTConsensusPipelinedWrite()))));
+    conf.setEnableIoTConsensusFollowerBatchedApply(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "data_region_iot_enable_follower_batched_apply",
+                String.valueOf(conf.isEnableIoTConsensusFollowerBatchedApply()))));
+    conf.setIoTConsensusLogCompressionType(
+        CompressionType.valueOf(
+            properties
+                .getProperty(
+                    "data_region_iot_log_compression_type",
+                    conf.getIoTConsensusLogCompressionType().name())
+                .trim()
+                .toUpperCase()));
+    int snapshotTransmissionThreadNum =
+        Integer.parseInt(
+            properties.getProperty(
+                "data_region_iot_snapshot_transmission_thread_num",
+                String.valueOf(conf.getIoTConsensusSnapshotTransmissionThreadNum())));
+    if (snapshotTransmissionThreadNum > 0) {
+      conf.setIoTConsensusSnapshotTransmissionThreadNum(snapshotTransmissionThreadNum);
+    }
+    conf.setEnableIoTConsensusAdaptiveFlowControl(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "data_region_iot_enable_adaptive_flow_control",
+                String.valueOf(conf.isEnableIoTConsensusAdaptiveFlowControl()))));
+    double flowControlSoftLimitRatio =
+        Double.parseDouble(
+            properties.getProperty(
+                "data_region_iot_flow_control_soft_limit_ratio",
+                String.valueOf(conf.getIoTConsensusFlowControlSoftLimitRatio())));
+    if (flowControlSoftLimitRatio > 0 && flowControlSoftLimitRatio <= 1) {
+      conf.setIoTConsensusFlowControlSoftLimitRatio(flowControlSoftLimitRatio);
+    }
+    long maxAdmissionDelayMs =
+        Long.parseLong(
+            properties.getProperty(
+                "data_region_iot_max_admission_delay_in_ms",
+                String.valueOf(conf.getIoTConsensusMaxAdmissionDelayMs())));
+    if (maxAdmissionDelayMs >= 0) {
+      conf.setIoTConsensusMaxAdmissionDelayMs(maxAdmissionDelayMs);
+    }
     loadIoTConsensusProps(properties);
     loadIoTConsensusV2Props(properties);
 
@@ -1240,6 +1378,10 @@ public class IoTDBDescriptor {
         .setCompactionReadThroughputRate(conf.getCompactionReadThroughputMbPerSec());
     CompactionTaskManager.getInstance()
         .setWriteMergeRate(conf.getCompactionWriteThroughputMbPerSec());
+    CompactionIoScheduler.getInstance()
+        .setRates(
+            conf.getCompactionPerDiskReadThroughputMbPerSec(),
+            conf.getCompactionPerDiskWriteThroughputMbPerSec());
 
     conf.setEnableAutoRepairCompaction(
         Boolean.parseBoolean(
@@ -1280,6 +1422,39 @@ public class IoTDBDescriptor {
                     "compaction_read_throughput_mb_per_sec"))));
     configModified |= compactionReadThroughput != conf.getCompactionReadThroughputMbPerSec();
 
+    // update compaction_per_disk_write_throughput_mb_per_sec
+    int compactionPerDiskWriteThroughput = conf.getCompactionPerDiskWriteThroughputMbPerSec();
+    conf.setCompactionPerDiskWriteThroughputMbPerSec(
+        Integer.parseInt(
+            properties.getProperty(
+                "compaction_per_disk_write_throughput_mb_per_sec",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "compaction_per_disk_write_throughput_mb_per_sec"))));
+    configModified |=
+        compactionPerDiskWriteThroughput != conf.getCompactionPerDiskWriteThroughputMbPerSec();
+
+    // update compaction_per_disk_read_throughput_mb_per_sec
+    int compactionPerDiskReadThroughput = conf.getCompactionPerDiskReadThroughputMbPerSec();
+    conf.setCompactionPerDiskReadThroughputMbPerSec(
+        Integer.parseInt(
+            properties.getProperty(
+                "compaction_per_disk_read_throughput_mb_per_sec",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "compaction_per_disk_read_throughput_mb_per_sec"))));
+    configModified |=
+        compactionPerDiskReadThroughput != conf.getCompactionPerDiskReadThroughputMbPerSec();
+
+    // update compaction_foreground_read_latency_threshold_in_ms
+    long foregroundReadLatencyThreshold = conf.getCompactionForegroundReadLatencyThresholdInMs();
+    conf.setCompactionForegroundReadLatencyThresholdInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "compaction_foreground_read_latency_threshold_in_ms",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "compaction_foreground_read_latency_threshold_in_ms"))));
+    configModified |=
+        foregroundReadLatencyThreshold != conf.getCompactionForegroundReadLatencyThresholdInMs();
+
     // update inner_compaction_candidate_file_num
     int maxInnerCompactionCandidateFileNum = conf.getInnerCompactionCandidateFileNum();
     conf.setInnerCompactionCandidateFileNum(
@@ -2625,6 +2800,17 @@ public class IoTDBDescriptor {
     conf.setSchemaRatisPeriodicSnapshotInterval(
         ratisConfig.getSchemaRegionPeriodicSnapshotInterval());
     conf.setDataRatisPeriodicSnapshotInterval(ratisConfig.getDataRegionPeriodicSnapshotInterval());
+
+    if (ratisConfig.isSetSchemaRegionApplyBatchSizeMax()) {
+      conf.setSchemaRatisApplyBatchSizeMax(ratisConfig.getSchemaRegionApplyBatchSizeMax());
+    }
+    if (ratisConfig.isSetSchemaRegionLeaderLeaseEnabled()) {
+      conf.setSchemaRatisLeaderLeaseEnabled(ratisConfig.isSchemaRegionLeaderLeaseEnabled());
+    }
+    if (ratisConfig.isSetSchemaRegionLeaderLeaseTimeoutRatio()) {
+      conf.setSchemaRatisLeaderLeaseTimeoutRatio(
+          ratisConfig.getSchemaRegionLeaderLeaseTimeoutRatio());
+    }
   }
 
   public void loadCQConfig(TCQConfig cqConfig) {
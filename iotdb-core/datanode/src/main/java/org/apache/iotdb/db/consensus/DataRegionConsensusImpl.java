@@ -147,6 +147,17 @@ public class DataRegionConsensusImpl {
                           .setMaxMemoryRatioForQueue(CONF.getMaxMemoryRatioForQueue())
                           .setRegionMigrationSpeedLimitBytesPerSecond(
                               CONF.getRegionMigrationSpeedLimitBytesPerSecond())
+                          .setEnablePipelinedWrite(CONF.isEnableIoTConsensusPipelinedWrite())
+                          .setEnableFollowerBatchedApply(
+                              CONF.isEnableIoTConsensusFollowerBatchedApply())
+                          .setLogCompressionType(CONF.getIoTConsensusLogCompressionType())
+                          .setSnapshotTransmissionThreadNum(
+                              CONF.getIoTConsensusSnapshotTransmissionThreadNum())
+                          .setEnableAdaptiveFlowControl(
+                              CONF.isEnableIoTConsensusAdaptiveFlowControl())
+                          .setFlowControlSoftLimitRatio(
+                              CONF.getIoTConsensusFlowControlSoftLimitRatio())
+                          .setMaxAdmissionDelayMs(CONF.getIoTConsensusMaxAdmissionDelayMs())
                           .build())
                   .build())
           .setPipeConsensusConfig(
@@ -150,6 +150,7 @@ public class SchemaRegionConsensusImpl {
                                       .setRaftLogSizeMaxThreshold(CONF.getSchemaRatisLogMax())
                                       .setForceSnapshotInterval(
                                           CONF.getSchemaRatisPeriodicSnapshotInterval())
+                                      .setApplyBatchSizeMax(CONF.getSchemaRatisApplyBatchSizeMax())
                                       .setRetryTimesMax(10)
                                       .setRetryWaitMillis(CONF.getConnectionTimeoutInMS() / 10)
                                       .build())
@@ -166,6 +167,9 @@ public class SchemaRegionConsensusImpl {
                                           TimeDuration.valueOf(
                                               CONF.getConnectionTimeoutInMS(),
                                               TimeUnit.MILLISECONDS))
+                                      .setLeaderLeaseEnabled(CONF.isSchemaRatisLeaderLeaseEnabled())
+                                      .setLeaderLeaseTimeoutRatio(
+                                          CONF.getSchemaRatisLeaderLeaseTimeoutRatio())
                                       .build())
                               .build())
                       .setStorageDir(CONF.getSchemaRegionConsensusDir())
@@ -37,6 +37,7 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.SearchNode;
 import org.apache.iotdb.db.storageengine.StorageEngine;
 import org.apache.iotdb.db.storageengine.buffer.BloomFilterCache;
 import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+import org.apache.iotdb.db.storageengine.buffer.DeviceOffsetDirectoryCache;
 import org.apache.iotdb.db.storageengine.buffer.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.snapshot.SnapshotLoader;
@@ -50,6 +51,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class DataRegionStateMachine extends BaseStateMachine {
 
@@ -140,6 +142,7 @@ public class DataRegionStateMachine extends BaseStateMachine {
       ChunkCache.getInstance().clear();
       TimeSeriesMetadataCache.getInstance().clear();
       BloomFilterCache.getInstance().clear();
+      DeviceOffsetDirectoryCache.getInstance().clear();
     } catch (Exception e) {
       logger.error("Exception occurs when replacing data region in storage engine.", e);
     }
@@ -179,6 +182,11 @@ public class DataRegionStateMachine extends BaseStateMachine {
     return searchNodes.get(0).merge(searchNodes);
   }
 
+  @Override
+  public Map<String, File> getIdenticalLocalFiles(Map<String, Long> snapshotFiles) {
+    return new SnapshotTaker(region).getIdenticalTsFiles(snapshotFiles);
+  }
+
   @Override
   public List<File> getSnapshotFiles(File latestSnapshotRootDir) {
     try {
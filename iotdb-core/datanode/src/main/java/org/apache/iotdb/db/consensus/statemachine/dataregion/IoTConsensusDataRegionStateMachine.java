@@ -51,21 +51,27 @@ public class IoTConsensusDataRegionStateMachine extends DataRegionStateMachine {
 
   @Override
   public TSStatus write(IConsensusRequest request) {
-    try {
-      if (request instanceof DeserializedBatchIndexedConsensusRequest) {
-        List<TSStatus> subStatus = new LinkedList<>();
-        for (IConsensusRequest consensusRequest :
-            ((DeserializedBatchIndexedConsensusRequest) request).getInsertNodes()) {
-          PlanNode writeNode = (PlanNode) consensusRequest;
-          subStatus.add(write(writeNode));
-        }
-        return new TSStatus().setSubStatus(subStatus);
-      } else {
-        return write((PlanNode) request);
+    if (request instanceof DeserializedBatchIndexedConsensusRequest) {
+      // every insert node gets its own status, so that the caller can tell which ones of a batch
+      // (or of several merged batches) have been applied
+      List<TSStatus> subStatus = new LinkedList<>();
+      for (IConsensusRequest consensusRequest :
+          ((DeserializedBatchIndexedConsensusRequest) request).getInsertNodes()) {
+        subStatus.add(writeAndCatch((PlanNode) consensusRequest));
       }
+      return new TSStatus().setSubStatus(subStatus);
+    } else {
+      return writeAndCatch((PlanNode) request);
+    }
+  }
+
+  private TSStatus writeAndCatch(PlanNode planNode) {
+    try {
+      return write(planNode);
     } catch (IllegalArgumentException e) {
       LOGGER.error(e.getMessage(), e);
-      return new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+      return new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode())
+          .setMessage(e.getMessage());
     }
   }
 
@@ -42,6 +42,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -177,13 +178,40 @@ public class SchemaRegionStateMachine extends BaseStateMachine {
 
   @Override
   public TSStatus write(final IConsensusRequest request) {
+    return write(
+        request,
+        new SchemaExecutionVisitor(),
+        PipeDataNodeAgent.runtime().schemaListener(schemaRegion.getSchemaRegionId()));
+  }
+
+  @Override
+  public List<TSStatus> batchWrite(final List<IConsensusRequest> requests) {
+    // The visitor and the listener are shared by the whole batch
+    final SchemaExecutionVisitor visitor = new SchemaExecutionVisitor();
+    final SchemaRegionListeningQueue listener =
+        PipeDataNodeAgent.runtime().schemaListener(schemaRegion.getSchemaRegionId());
+    final List<TSStatus> results = new ArrayList<>(requests.size());
+    for (final IConsensusRequest request : requests) {
+      try {
+        results.add(write(request, visitor, listener));
+      } catch (final RuntimeException e) {
+        logger.error("Failed to write {} to schema region", request, e);
+        results.add(
+            new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode())
+                .setMessage(e.getMessage()));
+      }
+    }
+    return results;
+  }
+
+  private TSStatus write(
+      final IConsensusRequest request,
+      final SchemaExecutionVisitor visitor,
+      final SchemaRegionListeningQueue listener) {
     try {
-      final TSStatus result =
-          ((PlanNode) request).accept(new SchemaExecutionVisitor(), schemaRegion);
+      final TSStatus result = ((PlanNode) request).accept(visitor, schemaRegion);
       if (result.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-        PipeDataNodeAgent.runtime()
-            .schemaListener(schemaRegion.getSchemaRegionId())
-            .tryListenToNode((PlanNode) request);
+        listener.tryListenToNode((PlanNode) request);
       }
       return result;
     } catch (final IllegalArgumentException e) {
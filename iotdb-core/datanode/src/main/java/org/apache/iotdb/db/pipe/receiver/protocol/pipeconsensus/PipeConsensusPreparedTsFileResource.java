@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.receiver.protocol.pipeconsensus;
+
+import org.apache.iotdb.consensus.pipe.thrift.TCommitId;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * The TsFileResource of a received TsFile, generated as soon as all the pieces of the file are
+ * received instead of when its seal request gets its turn in the replicate order. The seal request
+ * only uses it if it was generated for the same event from the same file, otherwise it is discarded
+ * and the seal request generates the resource itself.
+ */
+public class PipeConsensusPreparedTsFileResource {
+
+  private TsFileResource resource;
+  private TCommitId commitId;
+  private String fileAbsolutePath;
+  private long fileLength;
+
+  public synchronized boolean isPrepared() {
+    return Objects.nonNull(resource);
+  }
+
+  public synchronized void prepare(TCommitId commitId, File file, ResourceGenerator generator)
+      throws IOException {
+    final long lengthBeforeGenerating = file.length();
+    final TsFileResource generated = generator.generate(file);
+    this.resource = generated;
+    this.commitId = commitId;
+    this.fileAbsolutePath = file.getAbsolutePath();
+    this.fileLength = lengthBeforeGenerating;
+  }
+
+  /**
+   * Take the prepared resource, which is cleared whether it is returned or discarded.
+   *
+   * @return the prepared resource if it was generated for the same event from the same file with
+   *     the same length, null otherwise
+   */
+  public synchronized TsFileResource take(TCommitId commitId, File file) {
+    final TsFileResource prepared = resource;
+    final boolean isMatched =
+        Objects.nonNull(prepared)
+            && Objects.equals(this.commitId, commitId)
+            && Objects.equals(fileAbsolutePath, file.getAbsolutePath())
+            && fileLength == file.length();
+    clear();
+    return isMatched ? prepared : null;
+  }
+
+  public synchronized void clear() {
+    resource = null;
+    commitId = null;
+    fileAbsolutePath = null;
+    fileLength = 0;
+  }
+
+  @FunctionalInterface
+  public interface ResourceGenerator {
+    TsFileResource generate(File file) throws IOException;
+  }
+}
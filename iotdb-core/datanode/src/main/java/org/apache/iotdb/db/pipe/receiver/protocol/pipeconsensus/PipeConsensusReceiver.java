@@ -183,7 +183,10 @@ public class PipeConsensusReceiver {
           break;
         case TRANSFER_TS_FILE_SEAL:
         case TRANSFER_TS_FILE_SEAL_WITH_MOD:
+          // Parse the sealed file before waiting for its turn, so that the files of different
+          // events are parsed in parallel and only the loading follows the replicate order.
           // TODO: check memory when logging WAL(in further version)
+          prepareTsFileSeal(req);
           resp = requestExecutor.onRequest(req, false, true);
           break;
         case TRANSFER_DELETION:
@@ -423,6 +426,58 @@ public class PipeConsensusReceiver {
     }
   }
 
+  /**
+   * Generate the TsFileResource of the sealed TsFile ahead of {@link #handleTransferFileSeal}. This
+   * runs before the request waits for its turn in {@link RequestExecutor}, so the TsFiles of
+   * different events, which usually belong to different time partitions, are parsed in parallel.
+   * Nothing is prepared if the file is not ready, and the seal request will then do the whole work
+   * in order as before.
+   */
+  private void prepareTsFileSeal(final TPipeConsensusTransferReq req) {
+    if (isClosed.get()) {
+      return;
+    }
+    tsFilePieceReadWriteLock.readLock().lock();
+    try {
+      // Parse a copy of the request, because parsing consumes the body
+      final TPipeConsensusTransferReq copiedReq = new TPipeConsensusTransferReq(req);
+      final String fileName;
+      final long fileLength;
+      final byte[] progressIndex;
+      if (PipeConsensusRequestType.valueOf(req.getType())
+          == PipeConsensusRequestType.TRANSFER_TS_FILE_SEAL) {
+        final PipeConsensusTsFileSealReq sealReq =
+            PipeConsensusTsFileSealReq.fromTPipeConsensusTransferReq(copiedReq);
+        fileName = sealReq.getFileName();
+        fileLength = sealReq.getFileLength();
+        progressIndex = sealReq.getProgressIndex();
+      } else {
+        // the TsFile is the last file, which is the writing file when sealing
+        final PipeConsensusTsFileSealWithModReq sealReq =
+            PipeConsensusTsFileSealWithModReq.fromTPipeConsensusTransferReq(copiedReq);
+        final int lastIndex = sealReq.getFileNames().size() - 1;
+        fileName = sealReq.getFileNames().get(lastIndex);
+        fileLength = sealReq.getFileLengths().get(lastIndex);
+        progressIndex = sealReq.getProgressIndex();
+      }
+      final Optional<PipeConsensusTsFileWriter> tsFileWriter =
+          pipeConsensusTsFileWriterPool.findCorrespondingWriter(req.getCommitId());
+      if (tsFileWriter.isPresent()) {
+        tsFileWriter
+            .get()
+            .prepareTsFileResource(req.getCommitId(), fileName, fileLength, progressIndex);
+      }
+    } catch (Exception e) {
+      LOGGER.warn(
+          "PipeConsensus-PipeName-{}: Failed to prepare tsFile seal of no.{} event, it will be prepared when sealing.",
+          consensusPipeName,
+          req.getCommitId(),
+          e);
+    } finally {
+      tsFilePieceReadWriteLock.readLock().unlock();
+    }
+  }
+
   private TPipeConsensusTransferResp handleTransferFileSeal(final PipeConsensusTsFileSealReq req) {
     // TODO: turn it to debug after GA
     LOGGER.info("PipeConsensus-PipeName-{}: starting to receive tsFile seal", consensusPipeName);
@@ -454,6 +509,8 @@ public class PipeConsensusReceiver {
       }
 
       final String fileAbsolutePath = writingFile.getAbsolutePath();
+      final TsFileResource preparedTsFileResource =
+          tsFileWriter.takePreparedTsFileResource(req.getCommitId(), writingFile);
 
       // Sync here is necessary to ensure that the data is written to the disk. Or data region may
       // load the file before the data is written to the disk and cause unexpected behavior after
@@ -480,7 +537,8 @@ public class PipeConsensusReceiver {
       final TSStatus status =
           loadFileToDataRegion(
               fileAbsolutePath,
-              ProgressIndexType.deserializeFrom(ByteBuffer.wrap(req.getProgressIndex())));
+              ProgressIndexType.deserializeFrom(ByteBuffer.wrap(req.getProgressIndex())),
+              preparedTsFileResource);
       pipeConsensusReceiverMetrics.recordTsFileSealLoadTimer(System.nanoTime() - endPreCheckNanos);
 
       if (status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
@@ -591,6 +649,9 @@ public class PipeConsensusReceiver {
         }
       }
 
+      final TsFileResource preparedTsFileResource =
+          tsFileWriter.takePreparedTsFileResource(req.getCommitId(), files.get(files.size() - 1));
+
       // Sync here is necessary to ensure that the data is written to the disk. Or data region may
       // load the file before the data is written to the disk and cause unexpected behavior after
       // system restart. (e.g., empty file in data region's data directory)
@@ -620,7 +681,8 @@ public class PipeConsensusReceiver {
       final TSStatus status =
           loadFileToDataRegion(
               tsFileAbsolutePath,
-              ProgressIndexType.deserializeFrom(ByteBuffer.wrap(req.getProgressIndex())));
+              ProgressIndexType.deserializeFrom(ByteBuffer.wrap(req.getProgressIndex())),
+              preparedTsFileResource);
       pipeConsensusReceiverMetrics.recordTsFileSealLoadTimer(System.nanoTime() - endPreCheckNanos);
 
       if (status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
@@ -715,10 +777,19 @@ public class PipeConsensusReceiver {
 
   private TSStatus loadFileToDataRegion(String filePath, ProgressIndex progressIndex)
       throws IOException, LoadFileException {
+    return loadFileToDataRegion(filePath, progressIndex, null);
+  }
+
+  private TSStatus loadFileToDataRegion(
+      String filePath, ProgressIndex progressIndex, TsFileResource preparedTsFileResource)
+      throws IOException, LoadFileException {
     DataRegion region =
         StorageEngine.getInstance().getDataRegion(((DataRegionId) consensusGroupId));
     if (region != null) {
-      TsFileResource resource = generateTsFileResource(filePath, progressIndex);
+      TsFileResource resource =
+          Objects.nonNull(preparedTsFileResource)
+              ? preparedTsFileResource
+              : generateTsFileResource(filePath, progressIndex);
       region.loadNewTsFile(resource, true, false);
     } else {
       // Data region is null indicates that dr has been removed or migrated. In those cases, there
@@ -1116,6 +1187,15 @@ public class PipeConsensusReceiver {
           IOTDB_CONFIG.getTsFileWriterCheckInterval());
     }
 
+    public Optional<PipeConsensusTsFileWriter> findCorrespondingWriter(TCommitId commitId) {
+      return pipeConsensusTsFileWriterPool.stream()
+          .filter(
+              item ->
+                  item.isUsed()
+                      && Objects.equals(commitId, item.getCommitIdOfCorrespondingHolderEvent()))
+          .findFirst();
+    }
+
     @SuppressWarnings("java:S3655")
     public PipeConsensusTsFileWriter borrowCorrespondingWriter(TCommitId commitId) {
       Optional<PipeConsensusTsFileWriter> tsFileWriter =
@@ -1227,6 +1307,9 @@ public class PipeConsensusReceiver {
     // If isUsed is true, this variable will be set to the TCommitId of holderEvent
     private volatile TCommitId commitIdOfCorrespondingHolderEvent;
     private long lastUsedTs;
+    // the resource of the writing file generated ahead of sealing
+    private final PipeConsensusPreparedTsFileResource preparedTsFileResource =
+        new PipeConsensusPreparedTsFileResource();
 
     public PipeConsensusTsFileWriter(int index, ConsensusPipeName consensusPipeName) {
       this.index = index;
@@ -1284,6 +1367,7 @@ public class PipeConsensusReceiver {
 
     public void setWritingFile(File writingFile) {
       this.writingFile = writingFile;
+      preparedTsFileResource.clear();
       // TODO: remove it into debug after GA
       if (writingFile == null) {
         LOGGER.info(
@@ -1312,6 +1396,33 @@ public class PipeConsensusReceiver {
       return commitIdOfCorrespondingHolderEvent;
     }
 
+    public synchronized void prepareTsFileResource(
+        TCommitId commitId, String fileName, long fileLength, byte[] progressIndex)
+        throws IOException {
+      // Only prepare a completely received file, otherwise leave the errors to the seal request
+      if (preparedTsFileResource.isPrepared()
+          || writingFile == null
+          || writingFileWriter == null
+          || !writingFile.getName().equals(fileName)
+          || writingFileWriter.length() != fileLength) {
+        return;
+      }
+      final ProgressIndex tsFileProgressIndex =
+          ProgressIndexType.deserializeFrom(ByteBuffer.wrap(progressIndex));
+      preparedTsFileResource.prepare(
+          commitId,
+          writingFile,
+          file -> generateTsFileResource(file.getAbsolutePath(), tsFileProgressIndex));
+    }
+
+    /**
+     * Take the prepared resource if it was generated for the same event from the same file, waiting
+     * for its preparation.
+     */
+    public synchronized TsFileResource takePreparedTsFileResource(TCommitId commitId, File file) {
+      return preparedTsFileResource.take(commitId, file);
+    }
+
     public void setCommitIdOfCorrespondingHolderEvent(
         TCommitId commitIdOfCorrespondingHolderEvent) {
       this.commitIdOfCorrespondingHolderEvent = commitIdOfCorrespondingHolderEvent;
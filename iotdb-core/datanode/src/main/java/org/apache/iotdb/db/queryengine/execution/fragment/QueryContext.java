@@ -22,6 +22,7 @@ package org.apache.iotdb.db.queryengine.execution.fragment;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.path.PatternTreeMap;
+import org.apache.iotdb.db.storageengine.buffer.CacheAccessSource;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
@@ -71,6 +72,8 @@ public class QueryContext {
   // for tree model, it will be true
   private boolean ignoreAllNullRows = true;
 
+  private CacheAccessSource cacheAccessSource = CacheAccessSource.QUERY;
+
   private final Set<TsFileID> nonExistentModFiles = new CopyOnWriteArraySet<>();
 
   // referenced TVLists for the query
@@ -220,6 +223,14 @@ public class QueryContext {
     this.ignoreAllNullRows = ignoreAllNullRows;
   }
 
+  public CacheAccessSource getCacheAccessSource() {
+    return cacheAccessSource;
+  }
+
+  public void setCacheAccessSource(CacheAccessSource cacheAccessSource) {
+    this.cacheAccessSource = cacheAccessSource;
+  }
+
   public void addTVListToSet(Map<TVList, Integer> tvListMap) {
     tvListSet.addAll(tvListMap.keySet());
   }
@@ -23,6 +23,8 @@ import org.apache.iotdb.commons.path.AlignedFullPath;
 import org.apache.iotdb.commons.path.NonAlignedFullPath;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
+import org.apache.iotdb.db.storageengine.buffer.DeviceOffsetDirectory;
+import org.apache.iotdb.db.storageengine.buffer.DeviceOffsetDirectoryCache;
 import org.apache.iotdb.db.storageengine.buffer.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.storageengine.buffer.TimeSeriesMetadataCache.TimeSeriesMetadataCacheKey;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
@@ -92,18 +94,25 @@ public class FileLoaderUtils {
       if (resource.isClosed()) {
         // when resource.getTimeIndexType() == 1, TsFileResource.timeIndexType is deviceTimeIndex
         // we should not ignore the non-exist of device in TsFileMetadata
-        timeSeriesMetadata =
-            TimeSeriesMetadataCache.getInstance()
-                .get(
-                    resource.getTsFilePath(),
-                    new TimeSeriesMetadataCache.TimeSeriesMetadataCacheKey(
-                        resource.getTsFileID(),
-                        seriesPath.getDeviceId(),
-                        seriesPath.getMeasurement()),
-                    allSensors,
-                    resource.getTimeIndexType() == ITimeIndex.FILE_TIME_INDEX_TYPE,
-                    context.isDebug(),
-                    context);
+        DeviceOffsetDirectory deviceOffsetDirectory = getDeviceOffsetDirectory(resource, context);
+        if (deviceOffsetDirectory != null
+            && !deviceOffsetDirectory.mayContain(seriesPath.getDeviceId(), globalTimeFilter)) {
+          timeSeriesMetadata = null;
+        } else {
+          timeSeriesMetadata =
+              TimeSeriesMetadataCache.getInstance()
+                  .get(
+                      resource.getTsFilePath(),
+                      new TimeSeriesMetadataCache.TimeSeriesMetadataCacheKey(
+                          resource.getTsFileID(),
+                          seriesPath.getDeviceId(),
+                          seriesPath.getMeasurement()),
+                      allSensors,
+                      resource.getTimeIndexType() == ITimeIndex.FILE_TIME_INDEX_TYPE,
+                      context.isDebug(),
+                      context,
+                      deviceOffsetDirectory);
+        }
         if (timeSeriesMetadata != null) {
           long t2 = System.nanoTime();
           List<ModEntry> pathModifications =
@@ -269,6 +278,12 @@ public class FileLoaderUtils {
     String filePath = resource.getTsFilePath();
     IDeviceID deviceId = alignedPath.getDeviceId();
 
+    DeviceOffsetDirectory deviceOffsetDirectory = getDeviceOffsetDirectory(resource, context);
+    if (deviceOffsetDirectory != null
+        && !deviceOffsetDirectory.mayContain(deviceId, globalTimeFilter)) {
+      return null;
+    }
+
     // when resource.getTimeIndexType() == 1, TsFileResource.timeIndexType is deviceTimeIndex
     // we should not ignore the non-exist of device in TsFileMetadata
     TimeseriesMetadata timeColumn =
@@ -278,7 +293,8 @@ public class FileLoaderUtils {
             allSensors,
             resource.getTimeIndexType() == ITimeIndex.FILE_TIME_INDEX_TYPE,
             isDebug,
-            context);
+            context,
+            deviceOffsetDirectory);
     if (timeColumn != null) {
       // only need time column, like count_time aggregation
       if (valueMeasurementList.isEmpty()) {
@@ -307,7 +323,8 @@ public class FileLoaderUtils {
                   allSensors,
                   resource.getTimeIndexType() == ITimeIndex.FILE_TIME_INDEX_TYPE,
                   isDebug,
-                  context);
+                  context,
+                  deviceOffsetDirectory);
           exist = (exist || (valueColumn != null));
           valueTimeSeriesMetadataList.add(valueColumn);
         }
@@ -327,6 +344,18 @@ public class FileLoaderUtils {
     return alignedTimeSeriesMetadata;
   }
 
+  /**
+   * @return {@code null} if the device offset directory of the TsFile is unavailable, then the
+   *     devices are located by the index tree of the TsFile
+   */
+  private static DeviceOffsetDirectory getDeviceOffsetDirectory(
+      TsFileResource resource, QueryContext context) {
+    return DeviceOffsetDirectoryCache.getInstance()
+        .get(
+            resource,
+            context.getQueryStatistics().getLoadTimeSeriesMetadataActualIOSize()::addAndGet);
+  }
+
   private static AbstractAlignedTimeSeriesMetadata setModifications(
       TsFileResource resource,
       TimeseriesMetadata timeColumnMetadata,
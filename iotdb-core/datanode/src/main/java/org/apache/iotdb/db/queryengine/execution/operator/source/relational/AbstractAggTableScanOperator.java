@@ -61,6 +61,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import static org.apache.iotdb.db.queryengine.execution.aggregation.TreeAggregator.QUERY_EXECUTION_METRICS;
 import static org.apache.iotdb.db.queryengine.execution.operator.AggregationUtil.satisfiedTimeRange;
 import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator.CURRENT_DEVICE_INDEX_STRING;
 import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator.TIME_COLUMN_TEMPLATE;
@@ -70,6 +71,8 @@ import static org.apache.tsfile.read.common.block.TsBlockUtil.skipPointsOutOfTim
 
 public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOperator {
 
+  public static final String POINTS_FROM_STATISTICS = "PointsFromStatistics";
+
   private boolean finished = false;
   private TsBlock inputTsBlock;
 
@@ -110,6 +113,11 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
 
   private boolean allAggregatorsHasFinalResult = false;
 
+  // number of points whose aggregation results are answered by file/chunk/page statistics, it is
+  // recorded once when the operator finishes or closes
+  private long pointsFromStatistics = 0;
+  private boolean pointsFromStatisticsRecorded = false;
+
   protected AbstractAggTableScanOperator(AbstractAggTableScanOperatorParameter parameter) {
 
     this.sourceId = parameter.sourceId;
@@ -155,6 +163,9 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
   public boolean isFinished() throws Exception {
     if (!finished) {
       finished = !hasNextWithTimer();
+      if (finished) {
+        recordPointsFromStatistics();
+      }
     }
     return finished;
   }
@@ -383,6 +394,7 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
   }
 
   protected void calcFromStatistics(Statistics timeStatistics, Statistics[] valueStatistics) {
+    pointsFromStatistics += timeStatistics.getCount();
     int idx = -1;
 
     for (TableAggregator aggregator : tableAggregators) {
@@ -409,6 +421,16 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
     }
   }
 
+  private void recordPointsFromStatistics() {
+    if (pointsFromStatisticsRecorded || pointsFromStatistics == 0) {
+      return;
+    }
+    pointsFromStatisticsRecorded = true;
+    QUERY_EXECUTION_METRICS.recordAggregationPointsFromStatistics(pointsFromStatistics);
+    operatorContext.recordSpecifiedInfo(
+        POINTS_FROM_STATISTICS, Long.toString(pointsFromStatistics));
+  }
+
   private Statistics buildStatistics(
       TsTableColumnCategory columnSchemaCategory,
       Statistics timeStatistics,
@@ -756,6 +778,8 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
 
   @Override
   public void close() throws Exception {
+    // the operator may be closed before it finishes, e.g. by a limit
+    recordPointsFromStatistics();
     super.close();
     tableAggregators.forEach(TableAggregator::close);
   }
@@ -24,6 +24,7 @@ import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Counter;
 import org.apache.iotdb.metrics.type.Timer;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MetricType;
@@ -145,6 +146,8 @@ public class QueryExecutionMetricSet implements IMetricSet {
   public static final String AGGREGATION_FROM_STATISTICS = "aggregation_from_statistics";
   private Timer aggregationFromRawDataTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer aggregationFromStatisticsTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Counter aggregationPointsFromStatisticsCounter =
+      DoNothingMetricManager.DO_NOTHING_COUNTER;
 
   private void bindQueryAggregation(AbstractMetricService metricService) {
     aggregationFromRawDataTimer =
@@ -156,16 +159,33 @@ public class QueryExecutionMetricSet implements IMetricSet {
             MetricLevel.IMPORTANT,
             Tag.FROM.toString(),
             "statistics");
+    aggregationPointsFromStatisticsCounter =
+        metricService.getOrCreateCounter(
+            Metric.AGGREGATION_POINTS.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.FROM.toString(),
+            "statistics");
   }
 
   private void unbindQueryAggregation(AbstractMetricService metricService) {
     aggregationFromRawDataTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     aggregationFromStatisticsTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    aggregationPointsFromStatisticsCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
     Arrays.asList("raw_data", "statistics")
         .forEach(
             from ->
                 metricService.remove(
                     MetricType.TIMER, Metric.AGGREGATION.toString(), Tag.FROM.toString(), from));
+    metricService.remove(
+        MetricType.COUNTER,
+        Metric.AGGREGATION_POINTS.toString(),
+        Tag.FROM.toString(),
+        "statistics");
+  }
+
+  /** Record the number of points whose aggregation results are answered by statistics. */
+  public void recordAggregationPointsFromStatistics(long pointCount) {
+    aggregationPointsFromStatisticsCounter.inc(pointCount);
   }
 
   // endregion
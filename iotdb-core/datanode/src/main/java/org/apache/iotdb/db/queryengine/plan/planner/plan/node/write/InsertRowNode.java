@@ -38,6 +38,7 @@ import org.apache.iotdb.db.utils.TypeInferenceUtils;
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.NotImplementedException;
+import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.read.TimeValuePair;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.ReadWriteIOUtils;
@@ -54,6 +55,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.ToLongFunction;
 
 public class InsertRowNode extends InsertNode implements WALEntryValue {
 
@@ -906,4 +908,16 @@ public class InsertRowNode extends InsertNode implements WALEntryValue {
             isAligned,
             measurementSchemas);
   }
+
+  /**
+   * Update the last cache with write-through, which may put the last cache of the device if it is
+   * not cached. The tree model only updates the existing last cache.
+   *
+   * @param deviceLatestTimeGetter get the latest time of a device among all its data including this
+   *     write, {@link Long#MAX_VALUE} if unknown
+   */
+  public void updateLastCache(
+      final String databaseName, final ToLongFunction<IDeviceID> deviceLatestTimeGetter) {
+    updateLastCache(databaseName);
+  }
 }
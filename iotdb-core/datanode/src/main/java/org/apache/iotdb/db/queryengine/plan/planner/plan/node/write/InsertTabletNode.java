@@ -70,6 +70,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.function.ToLongFunction;
 
 import static org.apache.iotdb.db.utils.CommonUtils.isAlive;
 
@@ -1300,4 +1301,16 @@ public class InsertTabletNode extends InsertNode implements WALEntryValue {
             isAligned,
             measurementSchemas);
   }
+
+  /**
+   * Update the last cache with write-through, which may put the last cache of the device if it is
+   * not cached. The tree model only updates the existing last cache.
+   *
+   * @param deviceLatestTimeGetter get the latest time of a device among all its data including this
+   *     write, {@link Long#MAX_VALUE} if unknown
+   */
+  public void updateLastCache(
+      final String databaseName, final ToLongFunction<IDeviceID> deviceLatestTimeGetter) {
+    updateLastCache(databaseName);
+  }
 }
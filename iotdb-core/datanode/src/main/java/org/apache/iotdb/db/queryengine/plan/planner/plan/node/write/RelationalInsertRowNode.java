@@ -39,6 +39,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.function.ToLongFunction;
 
 public class RelationalInsertRowNode extends InsertRowNode {
 
@@ -239,11 +240,30 @@ public class RelationalInsertRowNode extends InsertRowNode {
   @Override
   public void updateLastCache(String databaseName) {
     String[] rawMeasurements = getRawMeasurements();
-    TimeValuePair[] timeValuePairs = new TimeValuePair[rawMeasurements.length];
+    TableDeviceSchemaCache.getInstance()
+        .updateLastCacheIfExists(
+            databaseName, getDeviceID(), rawMeasurements, composeTimeValuePairs(rawMeasurements));
+  }
+
+  @Override
+  public void updateLastCache(
+      final String databaseName, final ToLongFunction<IDeviceID> deviceLatestTimeGetter) {
+    final String[] rawMeasurements = getRawMeasurements();
+    final IDeviceID deviceID = getDeviceID();
+    TableDeviceSchemaCache.getInstance()
+        .updateLastCacheWithWriteThrough(
+            databaseName,
+            deviceID,
+            rawMeasurements,
+            composeTimeValuePairs(rawMeasurements),
+            () -> deviceLatestTimeGetter.applyAsLong(deviceID));
+  }
+
+  private TimeValuePair[] composeTimeValuePairs(final String[] rawMeasurements) {
+    final TimeValuePair[] timeValuePairs = new TimeValuePair[rawMeasurements.length];
     for (int i = 0; i < rawMeasurements.length; i++) {
       timeValuePairs[i] = composeTimeValuePair(i);
     }
-    TableDeviceSchemaCache.getInstance()
-        .updateLastCacheIfExists(databaseName, getDeviceID(), rawMeasurements, timeValuePairs);
+    return timeValuePairs;
   }
 }
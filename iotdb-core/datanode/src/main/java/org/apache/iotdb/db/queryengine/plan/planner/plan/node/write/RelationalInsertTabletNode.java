@@ -50,6 +50,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
 
 public class RelationalInsertTabletNode extends InsertTabletNode {
 
@@ -354,6 +356,12 @@ public class RelationalInsertTabletNode extends InsertTabletNode {
 
   @Override
   public void updateLastCache(final String databaseName) {
+    updateLastCache(databaseName, null);
+  }
+
+  @Override
+  public void updateLastCache(
+      final String databaseName, final ToLongFunction<IDeviceID> deviceLatestTimeGetter) {
     final String[] rawMeasurements = getRawMeasurements();
 
     final List<Pair<IDeviceID, Integer>> deviceEndOffsetPairs = splitByDevice(0, rowCount);
@@ -366,8 +374,18 @@ public class RelationalInsertTabletNode extends InsertTabletNode {
       for (int i = 0; i < rawMeasurements.length; i++) {
         timeValuePairs[i] = composeLastTimeValuePair(i, startOffset, endOffset);
       }
-      TableDeviceSchemaCache.getInstance()
-          .updateLastCacheIfExists(databaseName, deviceID, rawMeasurements, timeValuePairs);
+      if (Objects.isNull(deviceLatestTimeGetter)) {
+        TableDeviceSchemaCache.getInstance()
+            .updateLastCacheIfExists(databaseName, deviceID, rawMeasurements, timeValuePairs);
+      } else {
+        TableDeviceSchemaCache.getInstance()
+            .updateLastCacheWithWriteThrough(
+                databaseName,
+                deviceID,
+                rawMeasurements,
+                timeValuePairs,
+                () -> deviceLatestTimeGetter.applyAsLong(deviceID));
+      }
 
       startOffset = endOffset;
     }
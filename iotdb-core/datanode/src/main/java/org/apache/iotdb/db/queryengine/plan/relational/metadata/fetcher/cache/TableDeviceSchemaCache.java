@@ -52,6 +52,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -59,7 +60,9 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
@@ -274,6 +277,136 @@ public class TableDeviceSchemaCache {
         false);
   }
 
+  /**
+   * Update the last cache in writing with write-through. Besides updating the existing last caches
+   * like {@link #updateLastCacheIfExists}, the device's last row is put into the cache if the
+   * written row is known to be the latest one of the device, so that the following last queries
+   * need not load the device lazily.
+   *
+   * <p>The written row at the largest time is the latest row iff no data of the device is later,
+   * which is decided by the cached time of the device if present, else by the {@code
+   * latestTimeSupplier}. Measurements written at an earlier time are only updated if present, since
+   * there may be a later value on disk.
+   *
+   * @param database the device's database, without "root"
+   * @param deviceId {@link IDeviceID}
+   * @param measurements the written measurements
+   * @param timeValuePairs the {@link TimeValuePair}s with indexes corresponding to the measurements
+   * @param latestTimeSupplier the latest time of the device among all its data including this
+   *     write, {@link Long#MAX_VALUE} if unknown
+   */
+  public void updateLastCacheWithWriteThrough(
+      final String database,
+      final IDeviceID deviceId,
+      final String[] measurements,
+      final TimeValuePair[] timeValuePairs,
+      final LongSupplier latestTimeSupplier) {
+    long lastTime = Long.MIN_VALUE;
+    boolean hasValue = false;
+    for (final TimeValuePair timeValuePair : timeValuePairs) {
+      if (Objects.nonNull(timeValuePair)) {
+        lastTime = Math.max(lastTime, timeValuePair.getTimestamp());
+        hasValue = true;
+      }
+    }
+    if (!hasValue) {
+      return;
+    }
+
+    // The time column and the measurements written at the device's last time
+    final List<String> latestMeasurements = new ArrayList<>(measurements.length + 1);
+    latestMeasurements.add("");
+    for (int i = 0; i < measurements.length; ++i) {
+      if (Objects.nonNull(timeValuePairs[i]) && timeValuePairs[i].getTimestamp() == lastTime) {
+        latestMeasurements.add(measurements[i]);
+      }
+    }
+    final String[] measurements2Init = latestMeasurements.toArray(new String[0]);
+    final long finalLastTime = lastTime;
+
+    final TableId tableId = new TableId(database, deviceId.getTableName());
+    final AtomicBoolean isCached = new AtomicBoolean(false);
+    readWriteLock.readLock().lock();
+    try {
+      dualKeyCache.update(
+          tableId,
+          deviceId,
+          null,
+          entry -> {
+            isCached.set(true);
+            final TimeValuePair cachedTime = entry.getTimeValuePair("");
+            final boolean isLatest =
+                Objects.nonNull(cachedTime)
+                    ? finalLastTime >= cachedTime.getTimestamp()
+                    : finalLastTime >= latestTimeSupplier.getAsLong();
+            return (isLatest
+                    ? entry.initOrInvalidateLastCache(
+                        database, deviceId.getTableName(), measurements2Init, false, true)
+                    : 0)
+                + entry.tryUpdateLastCache(measurements, timeValuePairs);
+          },
+          false);
+
+      // Avoid stale table
+      if (isCached.get()
+          || finalLastTime < latestTimeSupplier.getAsLong()
+          || Objects.isNull(
+              DataNodeTableCache.getInstance().getTable(database, deviceId.getTableName()))) {
+        return;
+      }
+      dualKeyCache.update(
+          tableId,
+          deviceId,
+          new TableDeviceCacheEntry(),
+          entry ->
+              entry.initOrInvalidateLastCache(
+                      database, deviceId.getTableName(), measurements2Init, false, true)
+                  + entry.tryUpdateLastCache(measurements, timeValuePairs),
+          true);
+    } finally {
+      readWriteLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Put the last values loaded from the persisted last cache snapshot at startup. Unlike the query,
+   * the values are put in one step because no writing or deletion can happen concurrently during
+   * the recovery of the data region. For table model, the device's last time shall be put with
+   * measurement "".
+   *
+   * @param database the device's database, without "root", {@code null} for tree model
+   * @param deviceId {@link IDeviceID}
+   * @param measurements the measurements to put
+   * @param timeValuePairs the {@link TimeValuePair}s with indexes corresponding to the measurements
+   */
+  public void putLastCacheSnapshot(
+      final @Nullable String database,
+      final IDeviceID deviceId,
+      final String[] measurements,
+      final TimeValuePair[] timeValuePairs) {
+    final boolean isTableModel = Objects.nonNull(database);
+    readWriteLock.readLock().lock();
+    try {
+      // Avoid stale table
+      if (isTableModel
+          && Objects.isNull(
+              DataNodeTableCache.getInstance().getTable(database, deviceId.getTableName()))) {
+        return;
+      }
+      dualKeyCache.update(
+          new TableId(database, deviceId.getTableName()),
+          deviceId,
+          new TableDeviceCacheEntry(),
+          entry ->
+              entry.initOrInvalidateLastCache(
+                      database, deviceId.getTableName(), measurements, false, isTableModel)
+                  + entry.tryUpdateLastCache(measurements, timeValuePairs),
+          true);
+    } finally {
+      readWriteLock.readLock().unlock();
+    }
+  }
+
   /**
    * Get the last {@link TimeValuePair} of a measurement, the measurement shall never be "time".
    *
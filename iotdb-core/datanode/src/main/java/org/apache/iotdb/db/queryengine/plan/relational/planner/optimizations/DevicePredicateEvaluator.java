@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations;
+
+import org.apache.iotdb.db.queryengine.common.SessionInfo;
+import org.apache.iotdb.db.queryengine.execution.relational.ColumnTransformerBuilder;
+import org.apache.iotdb.db.queryengine.plan.analyze.TypeProvider;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.InputLocation;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.ColumnSchema;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.DeviceEntry;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.Metadata;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.DeviceTableScanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.leaf.LeafColumnTransformer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.utils.Binary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory.TAG;
+import static org.apache.iotdb.db.queryengine.execution.operator.process.FilterAndProjectOperator.satisfy;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.SymbolsExtractor.extractUnique;
+
+/**
+ * Evaluates the predicate which only references tag and attribute columns but can not be pushed
+ * into the metadata query, e.g. {@code CASE WHEN tag1 = 'a' THEN attr1 ELSE attr2 END = 'b'}. The
+ * result of such a predicate is constant within one device, thus it is evaluated once per {@link
+ * DeviceEntry} while planning, and the devices not satisfying it are pruned. The predicate is then
+ * not required in the FilterNode above the DeviceTableScanNode, which allows the aggregation to be
+ * pushed into the scan and calculated by statistics.
+ */
+public class DevicePredicateEvaluator {
+
+  private static final int MAX_TS_BLOCK_LINE_NUMBER =
+      TSFileDescriptor.getInstance().getConfig().getMaxTsBlockLineNumber();
+
+  private DevicePredicateEvaluator() {
+    // util class
+  }
+
+  public static List<DeviceEntry> filter(
+      final List<DeviceEntry> deviceEntries,
+      final Expression predicate,
+      final DeviceTableScanNode tableScanNode,
+      final SessionInfo sessionInfo,
+      final TypeProvider typeProvider,
+      final Metadata metadata) {
+    final List<Symbol> inputSymbols = new ArrayList<>(extractUnique(predicate));
+    final Map<Symbol, List<InputLocation>> inputLocations = new HashMap<>();
+    for (int i = 0; i < inputSymbols.size(); i++) {
+      inputLocations.put(inputSymbols.get(i), Collections.singletonList(new InputLocation(0, i)));
+    }
+    final List<TSDataType> inputDataTypes =
+        Collections.nCopies(inputSymbols.size(), TSDataType.STRING);
+
+    final List<LeafColumnTransformer> leafColumnTransformerList = new ArrayList<>();
+    final ColumnTransformer filterOutputTransformer =
+        new ColumnTransformerBuilder()
+            .process(
+                predicate,
+                new ColumnTransformerBuilder.Context(
+                    sessionInfo,
+                    leafColumnTransformerList,
+                    inputLocations,
+                    new HashMap<>(),
+                    ImmutableMap.of(),
+                    ImmutableList.of(),
+                    ImmutableList.of(),
+                    0,
+                    typeProvider,
+                    metadata));
+
+    final List<DeviceEntry> result = new ArrayList<>();
+    try {
+      for (int start = 0; start < deviceEntries.size(); start += MAX_TS_BLOCK_LINE_NUMBER) {
+        final List<DeviceEntry> batch =
+            deviceEntries.subList(
+                start, Math.min(start + MAX_TS_BLOCK_LINE_NUMBER, deviceEntries.size()));
+        final TsBlockBuilder builder = new TsBlockBuilder(inputDataTypes);
+        for (final DeviceEntry deviceEntry : batch) {
+          builder.getTimeColumnBuilder().writeLong(0L);
+          for (int i = 0; i < inputSymbols.size(); i++) {
+            final Binary value = getColumnValue(deviceEntry, tableScanNode, inputSymbols.get(i));
+            if (value == null) {
+              builder.getColumnBuilder(i).appendNull();
+            } else {
+              builder.getColumnBuilder(i).writeBinary(value);
+            }
+          }
+          builder.declarePosition();
+        }
+        final TsBlock block = builder.build();
+
+        leafColumnTransformerList.forEach(
+            leafColumnTransformer -> leafColumnTransformer.initFromTsBlock(block));
+        filterOutputTransformer.tryEvaluate();
+        final Column filterColumn = filterOutputTransformer.getColumn();
+        for (int i = 0; i < batch.size(); i++) {
+          if (satisfy(filterColumn, i)) {
+            result.add(batch.get(i));
+          }
+        }
+      }
+    } finally {
+      filterOutputTransformer.close();
+    }
+    return result;
+  }
+
+  private static Binary getColumnValue(
+      final DeviceEntry deviceEntry, final DeviceTableScanNode tableScanNode, final Symbol symbol) {
+    final ColumnSchema columnSchema = tableScanNode.getAssignments().get(symbol);
+    final int index = tableScanNode.getIdAndAttributeIndexMap().get(symbol);
+    if (TAG.equals(columnSchema.getColumnCategory())) {
+      final Object segment = deviceEntry.getNthSegment(index + 1);
+      return segment == null ? null : new Binary((String) segment, TSFileConfig.STRING_CHARSET);
+    }
+    return deviceEntry.getAttributeColumnValues()[index];
+  }
+}
@@ -444,7 +444,8 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
 
       // no predicate, just scan all matched deviceEntries
       if (TRUE_LITERAL.equals(context.inheritedPredicate)) {
-        getDeviceEntriesWithDataPartitions(tableScanNode, Collections.emptyList(), null);
+        getDeviceEntriesWithDataPartitions(
+            tableScanNode, Collections.emptyList(), Collections.emptyList(), null);
         return tableScanNode;
       }
 
@@ -486,6 +487,7 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
       getDeviceEntriesWithDataPartitions(
           tableScanNode,
           splitExpression.getMetadataExpressions(),
+          splitExpression.getDeviceConstantExpressions(),
           splitExpression.getTimeColumnName());
 
       // exist expressions can not push down to scan operator
@@ -521,41 +523,54 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
 
       List<Expression> metadataExpressions = new ArrayList<>();
       List<Expression> expressionsCanPushDown = new ArrayList<>();
+      List<Expression> deviceConstantExpressions = new ArrayList<>();
       List<Expression> expressionsCannotPushDown = new ArrayList<>();
-
-      if (predicate instanceof LogicalExpression
-          && ((LogicalExpression) predicate).getOperator() == LogicalExpression.Operator.AND) {
-
-        for (Expression expression : ((LogicalExpression) predicate).getTerms()) {
-          if (PredicatePushIntoMetadataChecker.check(idOrAttributeColumnNames, expression)) {
-            metadataExpressions.add(expression);
-          } else if (PredicateCombineIntoTableScanChecker.check(
-              measurementColumnNames, expression)) {
-            expressionsCanPushDown.add(expression);
-          } else {
-            expressionsCannotPushDown.add(expression);
-          }
+      // the tag columns of tree device view are not mapped to the segments of DeviceEntry one by
+      // one, so the device constant expressions are still evaluated in FilterNode
+      boolean canEvaluatePerDevice = !(node instanceof TreeDeviceViewScanNode);
+
+      List<Expression> conjuncts =
+          predicate instanceof LogicalExpression
+                  && ((LogicalExpression) predicate).getOperator() == LogicalExpression.Operator.AND
+              ? ((LogicalExpression) predicate).getTerms()
+              : Collections.singletonList(predicate);
+
+      for (Expression expression : conjuncts) {
+        if (PredicatePushIntoMetadataChecker.check(idOrAttributeColumnNames, expression)) {
+          metadataExpressions.add(expression);
+        } else if (PredicateCombineIntoTableScanChecker.check(measurementColumnNames, expression)) {
+          expressionsCanPushDown.add(expression);
+        } else if (canEvaluatePerDevice && isDeviceConstant(idOrAttributeColumnNames, expression)) {
+          deviceConstantExpressions.add(expression);
+        } else {
+          expressionsCannotPushDown.add(expression);
         }
-
-        return new SplitExpression(
-            metadataExpressions, expressionsCanPushDown, expressionsCannotPushDown, timeColumnName);
-      }
-
-      if (PredicatePushIntoMetadataChecker.check(idOrAttributeColumnNames, predicate)) {
-        metadataExpressions.add(predicate);
-      } else if (PredicateCombineIntoTableScanChecker.check(measurementColumnNames, predicate)) {
-        expressionsCanPushDown.add(predicate);
-      } else {
-        expressionsCannotPushDown.add(predicate);
       }
 
       return new SplitExpression(
-          metadataExpressions, expressionsCanPushDown, expressionsCannotPushDown, timeColumnName);
+          metadataExpressions,
+          expressionsCanPushDown,
+          deviceConstantExpressions,
+          expressionsCannotPushDown,
+          timeColumnName);
+    }
+
+    /**
+     * Whether the expression only references tag and attribute columns and is deterministic, thus
+     * its result is constant within one device.
+     */
+    private boolean isDeviceConstant(Set<String> idOrAttributeColumnNames, Expression expression) {
+      Set<Symbol> symbols = extractUnique(expression);
+      return !symbols.isEmpty()
+          && symbols.stream()
+              .allMatch(symbol -> idOrAttributeColumnNames.contains(symbol.getName()))
+          && isDeterministic(expression);
     }
 
     private void getDeviceEntriesWithDataPartitions(
         final DeviceTableScanNode tableScanNode,
         final List<Expression> metadataExpressions,
+        final List<Expression> deviceConstantExpressions,
         String timeColumnName) {
 
       final List<String> attributeColumns = new ArrayList<>();
@@ -588,11 +603,23 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
       }
       final String deviceDatabase =
           !deviceEntriesMap.isEmpty() ? deviceEntriesMap.keySet().iterator().next() : null;
-      final List<DeviceEntry> deviceEntries =
+      List<DeviceEntry> deviceEntries =
           Objects.nonNull(deviceDatabase)
               ? deviceEntriesMap.get(deviceDatabase)
               : Collections.emptyList();
 
+      // evaluate the device constant expressions once per device, instead of once per row
+      if (!deviceConstantExpressions.isEmpty() && !deviceEntries.isEmpty()) {
+        deviceEntries =
+            DevicePredicateEvaluator.filter(
+                deviceEntries,
+                combineConjuncts(deviceConstantExpressions),
+                tableScanNode,
+                queryContext.getSession(),
+                symbolAllocator.getTypes(),
+                metadata);
+      }
+
       tableScanNode.setDeviceEntries(deviceEntries);
       if (deviceEntries.stream()
           .anyMatch(deviceEntry -> deviceEntry instanceof NonAlignedDeviceEntry)) {
@@ -1325,6 +1352,9 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
     List<Expression> metadataExpressions;
     // expressions can push down into TableScan, such as `time > 1 and s_1 = 1`
     List<Expression> expressionsCanPushDown;
+    // expressions only related to tag and attribute columns but can not be used in metadata query,
+    // such as `if(tag1 = 'A', attr1, attr2) = 'B'`, they are evaluated once per device
+    List<Expression> deviceConstantExpressions;
     // expressions can not push down into TableScan, such as `s_1 is null`
     List<Expression> expressionsCannotPushDown;
 
@@ -1333,11 +1363,14 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
     public SplitExpression(
         List<Expression> metadataExpressions,
         List<Expression> expressionsCanPushDown,
+        List<Expression> deviceConstantExpressions,
         List<Expression> expressionsCannotPushDown,
         @Nullable String timeColumnName) {
       this.metadataExpressions = requireNonNull(metadataExpressions, "metadataExpressions is null");
       this.expressionsCanPushDown =
           requireNonNull(expressionsCanPushDown, "expressionsCanPushDown is null");
+      this.deviceConstantExpressions =
+          requireNonNull(deviceConstantExpressions, "deviceConstantExpressions is null");
       this.expressionsCannotPushDown =
           requireNonNull(expressionsCannotPushDown, "expressionsCannotPushDown is null");
       this.timeColumnName = timeColumnName;
@@ -1351,6 +1384,10 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
       return this.expressionsCanPushDown;
     }
 
+    public List<Expression> getDeviceConstantExpressions() {
+      return this.deviceConstantExpressions;
+    }
+
     public List<Expression> getExpressionsCannotPushDown() {
       return this.expressionsCannotPushDown;
     }
@@ -24,6 +24,8 @@ import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskStatus;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CompactionTaskSummary;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionIoScheduler;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.DiskIoTokenBucket;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleContext;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionIoDataType;
@@ -254,6 +256,9 @@ public class CompactionMetrics implements IMetricSet {
   private Counter totalDirectlyFlushChunkCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
   private Counter totalDeserializedChunkCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
   private Counter totalMergedChunkCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private Counter totalDirectlyFlushByteCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private Counter totalRewriteByteCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private Counter totalTierMigrationSavedByteCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
 
   private void bindPerformanceInfo(AbstractMetricService metricService) {
     totalCompactedPointCounter =
@@ -271,6 +276,15 @@ public class CompactionMetrics implements IMetricSet {
     totalMergedChunkCounter =
         metricService.getOrCreateCounter(
             "merged_chunk_num", MetricLevel.NORMAL, Tag.NAME.toString(), "compaction");
+    totalDirectlyFlushByteCounter =
+        metricService.getOrCreateCounter(
+            "directly_flush_byte_num", MetricLevel.NORMAL, Tag.NAME.toString(), "compaction");
+    totalRewriteByteCounter =
+        metricService.getOrCreateCounter(
+            "rewrite_byte_num", MetricLevel.NORMAL, Tag.NAME.toString(), "compaction");
+    totalTierMigrationSavedByteCounter =
+        metricService.getOrCreateCounter(
+            "tier_migration_saved_byte_num", MetricLevel.NORMAL, Tag.NAME.toString(), "compaction");
   }
 
   private void unbindPerformanceInfo(AbstractMetricService metricService) {
@@ -283,6 +297,11 @@ public class CompactionMetrics implements IMetricSet {
     metricService.remove(
         MetricType.COUNTER, "deserialized_chunk_num", Tag.NAME.toString(), "compaction");
     metricService.remove(MetricType.COUNTER, "merged_chunk_num", Tag.NAME.toString(), "compaction");
+    metricService.remove(
+        MetricType.COUNTER, "directly_flush_byte_num", Tag.NAME.toString(), "compaction");
+    metricService.remove(MetricType.COUNTER, "rewrite_byte_num", Tag.NAME.toString(), "compaction");
+    metricService.remove(
+        MetricType.COUNTER, "tier_migration_saved_byte_num", Tag.NAME.toString(), "compaction");
   }
 
   public void recordSummaryInfo(CompactionTaskSummary summary) {
@@ -291,6 +310,16 @@ public class CompactionMetrics implements IMetricSet {
     totalDirectlyFlushChunkCounter.inc(summary.getDirectlyFlushChunkNum());
     totalDeserializedChunkCounter.inc(summary.getDeserializeChunkCount());
     totalMergedChunkCounter.inc(summary.getMergedChunkNum());
+    totalDirectlyFlushByteCounter.inc(summary.getDirectlyFlushByteNum());
+    totalRewriteByteCounter.inc(summary.getRewriteByteNum());
+  }
+
+  /**
+   * @param savedBytes the size of the target files written directly to a colder tier than the
+   *     source files, which need not be migrated after the compaction
+   */
+  public void recordTierMigrationSavedBytes(long savedBytes) {
+    totalTierMigrationSavedByteCounter.inc(savedBytes);
   }
 
   // endregion
@@ -582,6 +611,9 @@ public class CompactionMetrics implements IMetricSet {
       DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
   private Histogram crossSpaceCompactionTaskMemory = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
   private Histogram settleCompactionTaskMemory = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Histogram compactionTaskPeakMemory = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  // the actual peak memory in percentage of the estimated memory
+  private Histogram compactionMemoryEstimateAccuracy = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
 
   public void updateCompactionMemoryMetrics(CompactionTaskType taskType, long memory) {
     switch (taskType) {
@@ -603,6 +635,13 @@ public class CompactionMetrics implements IMetricSet {
     }
   }
 
+  public void updateCompactionPeakMemoryMetrics(long estimatedMemory, long peakMemory) {
+    compactionTaskPeakMemory.update(peakMemory);
+    if (estimatedMemory > 0) {
+      compactionMemoryEstimateAccuracy.update(peakMemory * 100 / estimatedMemory);
+    }
+  }
+
   private void bindCompactionTaskMemory(AbstractMetricService metricService) {
     seqInnerSpaceCompactionTaskMemory =
         metricService.getOrCreateHistogram(
@@ -628,6 +667,12 @@ public class CompactionMetrics implements IMetricSet {
             MetricLevel.IMPORTANT,
             Tag.NAME.toString(),
             "settle");
+    compactionTaskPeakMemory =
+        metricService.getOrCreateHistogram(
+            Metric.COMPACTION_TASK_PEAK_MEMORY.toString(), MetricLevel.IMPORTANT);
+    compactionMemoryEstimateAccuracy =
+        metricService.getOrCreateHistogram(
+            Metric.COMPACTION_MEMORY_ESTIMATE_ACCURACY.toString(), MetricLevel.IMPORTANT);
     metricService.createAutoGauge(
         Metric.COMPACTION_TASK_MEMORY_DISTRIBUTION.toString(),
         MetricLevel.IMPORTANT,
@@ -673,6 +718,9 @@ public class CompactionMetrics implements IMetricSet {
           Tag.NAME.toString(),
           taskType);
     }
+    metricService.remove(MetricType.HISTOGRAM, Metric.COMPACTION_TASK_PEAK_MEMORY.toString());
+    metricService.remove(
+        MetricType.HISTOGRAM, Metric.COMPACTION_MEMORY_ESTIMATE_ACCURACY.toString());
     for (String taskType : Arrays.asList("seq", "unseq", "cross", "settle", "total")) {
       metricService.remove(
           MetricType.AUTO_GAUGE,
@@ -721,6 +769,13 @@ public class CompactionMetrics implements IMetricSet {
       DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
   private Histogram insertionCrossSpaceCompactionTaskSelectedFileSize =
       DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Histogram seqInnerSpaceCompactionTaskWorkloadScore =
+      DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Histogram unseqInnerSpaceCompactionTaskWorkloadScore =
+      DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Histogram crossSpaceCompactionTaskWorkloadScore =
+      DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+
   private Histogram settleCompactionTaskSelectedFileSize =
       DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
 
@@ -787,6 +842,23 @@ public class CompactionMetrics implements IMetricSet {
     }
   }
 
+  /** Record the workload score of the task chosen to be executed, rounded to a long. */
+  public void updateCompactionTaskWorkloadScore(CompactionTaskType taskType, double score) {
+    switch (taskType) {
+      case INNER_SEQ:
+        seqInnerSpaceCompactionTaskWorkloadScore.update(Math.round(score));
+        break;
+      case INNER_UNSEQ:
+        unseqInnerSpaceCompactionTaskWorkloadScore.update(Math.round(score));
+        break;
+      case CROSS:
+        crossSpaceCompactionTaskWorkloadScore.update(Math.round(score));
+        break;
+      default:
+        break;
+    }
+  }
+
   public void updateCompactionTaskSelectedFileSize(CompactionTaskType taskType, long size) {
     switch (taskType) {
       case INNER_SEQ:
@@ -924,6 +996,24 @@ public class CompactionMetrics implements IMetricSet {
             MetricLevel.IMPORTANT,
             Tag.NAME.toString(),
             "settle");
+    seqInnerSpaceCompactionTaskWorkloadScore =
+        metricService.getOrCreateHistogram(
+            Metric.COMPACTION_TASK_WORKLOAD_SCORE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "seq");
+    unseqInnerSpaceCompactionTaskWorkloadScore =
+        metricService.getOrCreateHistogram(
+            Metric.COMPACTION_TASK_WORKLOAD_SCORE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "unseq");
+    crossSpaceCompactionTaskWorkloadScore =
+        metricService.getOrCreateHistogram(
+            Metric.COMPACTION_TASK_WORKLOAD_SCORE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "cross");
 
     metricService.createAutoGauge(
         Metric.COMPACTION_SELECTION_CACHED_TIME_INDEX_SIZE.toString(),
@@ -954,6 +1044,13 @@ public class CompactionMetrics implements IMetricSet {
           Tag.NAME.toString(),
           taskType);
     }
+    for (String taskType : Arrays.asList("seq", "unseq", "cross")) {
+      metricService.remove(
+          MetricType.HISTOGRAM,
+          Metric.COMPACTION_TASK_WORKLOAD_SCORE.toString(),
+          Tag.NAME.toString(),
+          taskType);
+    }
     metricService.remove(
         MetricType.AUTO_GAUGE,
         Metric.COMPACTION_SELECTION_CACHED_TIME_INDEX_SIZE.toString(),
@@ -961,6 +1058,97 @@ public class CompactionMetrics implements IMetricSet {
         "total_cached_device_time_index_size");
   }
 
+  // endregion
+
+  // region compaction disk io info
+  private static final String READ = "read";
+  private static final String WRITE = "write";
+  // data dir -> Counter[ Read, Write]
+  private final Map<String, Counter[]> diskIoCounters = new ConcurrentHashMap<>();
+
+  private void bindDiskIoInfo(AbstractMetricService metricService) {
+    for (DiskIoTokenBucket bucket : CompactionIoScheduler.getInstance().getDiskIoTokenBuckets()) {
+      String dataDir = bucket.getDataDir();
+      diskIoCounters.put(
+          dataDir,
+          new Counter[] {
+            metricService.getOrCreateCounter(
+                Metric.COMPACTION_DISK_IO_SIZE.toString(),
+                MetricLevel.IMPORTANT,
+                Tag.NAME.toString(),
+                dataDir,
+                Tag.TYPE.toString(),
+                READ),
+            metricService.getOrCreateCounter(
+                Metric.COMPACTION_DISK_IO_SIZE.toString(),
+                MetricLevel.IMPORTANT,
+                Tag.NAME.toString(),
+                dataDir,
+                Tag.TYPE.toString(),
+                WRITE)
+          });
+      metricService.createAutoGauge(
+          Metric.COMPACTION_DISK_IO_RATE_LIMIT.toString(),
+          MetricLevel.IMPORTANT,
+          bucket,
+          DiskIoTokenBucket::getReadRate,
+          Tag.NAME.toString(),
+          dataDir,
+          Tag.TYPE.toString(),
+          READ);
+      metricService.createAutoGauge(
+          Metric.COMPACTION_DISK_IO_RATE_LIMIT.toString(),
+          MetricLevel.IMPORTANT,
+          bucket,
+          DiskIoTokenBucket::getWriteRate,
+          Tag.NAME.toString(),
+          dataDir,
+          Tag.TYPE.toString(),
+          WRITE);
+      metricService.createAutoGauge(
+          Metric.COMPACTION_FOREGROUND_READ_LATENCY.toString(),
+          MetricLevel.IMPORTANT,
+          bucket,
+          DiskIoTokenBucket::getLastForegroundReadLatencyInMs,
+          Tag.NAME.toString(),
+          dataDir);
+    }
+  }
+
+  private void unbindDiskIoInfo(AbstractMetricService metricService) {
+    for (String dataDir : diskIoCounters.keySet()) {
+      for (String type : Arrays.asList(READ, WRITE)) {
+        metricService.remove(
+            MetricType.COUNTER,
+            Metric.COMPACTION_DISK_IO_SIZE.toString(),
+            Tag.NAME.toString(),
+            dataDir,
+            Tag.TYPE.toString(),
+            type);
+        metricService.remove(
+            MetricType.AUTO_GAUGE,
+            Metric.COMPACTION_DISK_IO_RATE_LIMIT.toString(),
+            Tag.NAME.toString(),
+            dataDir,
+            Tag.TYPE.toString(),
+            type);
+      }
+      metricService.remove(
+          MetricType.AUTO_GAUGE,
+          Metric.COMPACTION_FOREGROUND_READ_LATENCY.toString(),
+          Tag.NAME.toString(),
+          dataDir);
+    }
+    diskIoCounters.clear();
+  }
+
+  public void recordDiskIoInfo(String dataDir, boolean isRead, long byteNum) {
+    Counter[] counters = diskIoCounters.get(dataDir);
+    if (counters != null) {
+      counters[isRead ? 0 : 1].inc(byteNum);
+    }
+  }
+
   // endregion
   @Override
   public void bindTo(AbstractMetricService metricService) {
@@ -970,6 +1158,7 @@ public class CompactionMetrics implements IMetricSet {
     bindPerformanceInfo(metricService);
     bindCompactionTaskMemory(metricService);
     bindCompactionTaskSelection(metricService);
+    bindDiskIoInfo(metricService);
   }
 
   @Override
@@ -980,6 +1169,7 @@ public class CompactionMetrics implements IMetricSet {
     unbindPerformanceInfo(metricService);
     unbindCompactionTaskMemory(metricService);
     unbindCompactionTaskSelection(metricService);
+    unbindDiskIoInfo(metricService);
   }
 
   private void updateCompactionTaskInfo() {
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+/**
+ * The kind of reader that looks up {@link ChunkCache} and {@link TimeSeriesMetadataCache}. The
+ * source decides whether the entries loaded on cache miss are admitted into the caches, and the hit
+ * ratio of each source is recorded separately.
+ */
+public enum CacheAccessSource {
+  /** Reads of queries, which are always admitted. */
+  QUERY,
+  /**
+   * Reads of compaction through the query path. They scan whole files once, and are admitted only
+   * if enabled, to keep one compaction from evicting the working set of the queries.
+   */
+  COMPACTION;
+
+  public boolean isAdmitted() {
+    return this == QUERY
+        || IoTDBDescriptor.getInstance().getConfig().isEnableCompactionReadCacheAdmission();
+  }
+}
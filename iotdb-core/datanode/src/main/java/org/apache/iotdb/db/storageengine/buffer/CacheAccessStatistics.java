@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** The hit and request counts of a cache for each {@link CacheAccessSource}. */
+public class CacheAccessStatistics {
+
+  private final AtomicLongArray hitCounts = new AtomicLongArray(CacheAccessSource.values().length);
+  private final AtomicLongArray requestCounts =
+      new AtomicLongArray(CacheAccessSource.values().length);
+
+  public void record(CacheAccessSource source, boolean hit) {
+    requestCounts.incrementAndGet(source.ordinal());
+    if (hit) {
+      hitCounts.incrementAndGet(source.ordinal());
+    }
+  }
+
+  /** Returns 1.0 if there is no request, the same as the hit rate of the caffeine cache. */
+  public double hitRatio(CacheAccessSource source) {
+    long requestCount = requestCounts.get(source.ordinal());
+    return requestCount == 0 ? 1.0 : (double) hitCounts.get(source.ordinal()) / requestCount;
+  }
+
+  public long getRequestCount(CacheAccessSource source) {
+    return requestCounts.get(source.ordinal());
+  }
+}
@@ -62,6 +62,16 @@ public class CacheHitRatioMonitor implements CacheHitRatioMonitorMXBean, IServic
     return ChunkCache.getInstance().calculateChunkHitRatio();
   }
 
+  @Override
+  public double getChunkHitRatioOfQuery() {
+    return ChunkCache.getInstance().calculateChunkHitRatio(CacheAccessSource.QUERY);
+  }
+
+  @Override
+  public double getChunkHitRatioOfCompaction() {
+    return ChunkCache.getInstance().calculateChunkHitRatio(CacheAccessSource.COMPACTION);
+  }
+
   @Override
   public long getChunkEvictionCount() {
     return ChunkCache.getInstance().getEvictionCount();
@@ -88,6 +98,18 @@ public class CacheHitRatioMonitor implements CacheHitRatioMonitorMXBean, IServic
     return TimeSeriesMetadataCache.getInstance().calculateTimeSeriesMetadataHitRatio();
   }
 
+  @Override
+  public double getTimeSeriesMetadataHitRatioOfQuery() {
+    return TimeSeriesMetadataCache.getInstance()
+        .calculateTimeSeriesMetadataHitRatio(CacheAccessSource.QUERY);
+  }
+
+  @Override
+  public double getTimeSeriesMetadataHitRatioOfCompaction() {
+    return TimeSeriesMetadataCache.getInstance()
+        .calculateTimeSeriesMetadataHitRatio(CacheAccessSource.COMPACTION);
+  }
+
   @Override
   public long getTimeSeriesMetadataCacheEvictionCount() {
     return TimeSeriesMetadataCache.getInstance().getEvictionCount();
@@ -23,6 +23,10 @@ public interface CacheHitRatioMonitorMXBean {
 
   double getChunkHitRatio();
 
+  double getChunkHitRatioOfQuery();
+
+  double getChunkHitRatioOfCompaction();
+
   long getChunkEvictionCount();
 
   long getChunkCacheMaxMemory();
@@ -33,6 +37,10 @@ public interface CacheHitRatioMonitorMXBean {
 
   double getTimeSeriesMetadataHitRatio();
 
+  double getTimeSeriesMetadataHitRatioOfQuery();
+
+  double getTimeSeriesMetadataHitRatioOfCompaction();
+
   long getTimeSeriesMetadataCacheEvictionCount();
 
   long getTimeSeriesMetadataCacheMaxMemory();
@@ -29,6 +29,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.ChunkCacheMetrics;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionIoScheduler;
 import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
 
@@ -72,6 +73,8 @@ public class ChunkCache {
   // to save memory footprint, we don't save measurementId in ChunkHeader of Chunk
   private final Cache<ChunkCacheKey, Chunk> lruCache;
 
+  private final CacheAccessStatistics accessStatistics = new CacheAccessStatistics();
+
   static {
     CACHE_MEMORY_BLOCK =
         MEMORY_CONFIG
@@ -116,6 +119,7 @@ public class ChunkCache {
         chunkCacheKey,
         timeRangeList,
         chunkStatistic,
+        CacheAccessSource.QUERY,
         false,
         emptyConsumer,
         emptyConsumer,
@@ -138,6 +142,7 @@ public class ChunkCache {
         chunkCacheKey,
         timeRangeList,
         chunkStatistic,
+        queryContext.getCacheAccessSource(),
         queryContext.isDebug(),
         ioSizeRecorder,
         cacheHitAdder,
@@ -148,20 +153,30 @@ public class ChunkCache {
       ChunkCacheKey chunkCacheKey,
       List<TimeRange> timeRangeList,
       Statistics chunkStatistic,
+      CacheAccessSource accessSource,
       boolean debug,
       LongConsumer ioSizeRecorder,
       LongConsumer cacheHitAdder,
       LongConsumer cacheMissAdder)
       throws IOException {
     long startTime = System.nanoTime();
-    ChunkLoader chunkLoader = new ChunkLoader(ioSizeRecorder);
+    ChunkLoader chunkLoader = new ChunkLoader(ioSizeRecorder, accessSource);
     try {
       if (!CACHE_ENABLE) {
         Chunk chunk = chunkLoader.apply(chunkCacheKey);
         return constructChunk(chunk, timeRangeList, chunkStatistic);
       }
 
-      Chunk chunk = lruCache.get(chunkCacheKey, chunkLoader);
+      Chunk chunk;
+      if (accessSource.isAdmitted()) {
+        chunk = lruCache.get(chunkCacheKey, chunkLoader);
+      } else {
+        // only hit the cached chunks, and never put the loaded chunk into cache
+        chunk = lruCache.getIfPresent(chunkCacheKey);
+        if (chunk == null) {
+          chunk = chunkLoader.apply(chunkCacheKey);
+        }
+      }
 
       if (debug) {
         DEBUG_LOGGER.info("get chunk from cache whose key is: {}", chunkCacheKey);
@@ -171,6 +186,7 @@ public class ChunkCache {
     } catch (IoTDBIORuntimeException e) {
       throw e.getCause();
     } finally {
+      accessStatistics.record(accessSource, !chunkLoader.isCacheMiss());
       if (chunkLoader.isCacheMiss()) {
         cacheMissAdder.accept(1);
         SERIES_SCAN_COST_METRIC_SET.recordSeriesScanCost(
@@ -197,6 +213,10 @@ public class ChunkCache {
     return lruCache.stats().hitRate();
   }
 
+  public double calculateChunkHitRatio(CacheAccessSource accessSource) {
+    return accessStatistics.hitRatio(accessSource);
+  }
+
   public long getEvictionCount() {
     return lruCache.stats().evictionCount();
   }
@@ -295,9 +315,11 @@ public class ChunkCache {
 
     private boolean cacheMiss = false;
     private final LongConsumer ioSizeRecorder;
+    private final CacheAccessSource accessSource;
 
-    private ChunkLoader(LongConsumer ioSizeRecorder) {
+    private ChunkLoader(LongConsumer ioSizeRecorder, CacheAccessSource accessSource) {
       this.ioSizeRecorder = ioSizeRecorder;
+      this.accessSource = accessSource;
     }
 
     @Override
@@ -315,8 +337,12 @@ public class ChunkCache {
       } catch (IOException e) {
         throw new IoTDBIORuntimeException(e);
       } finally {
-        SERIES_SCAN_COST_METRIC_SET.recordSeriesScanCost(
-            READ_CHUNK_FILE, System.nanoTime() - startTime);
+        long cost = System.nanoTime() - startTime;
+        SERIES_SCAN_COST_METRIC_SET.recordSeriesScanCost(READ_CHUNK_FILE, cost);
+        if (accessSource == CacheAccessSource.QUERY) {
+          // feed back the latency of queries to the compaction io scheduler of the disk
+          CompactionIoScheduler.getInstance().recordForegroundReadLatency(key.getFilePath(), cost);
+        }
       }
     }
 
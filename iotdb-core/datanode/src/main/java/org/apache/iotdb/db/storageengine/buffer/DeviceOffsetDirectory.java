@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ArrayDeviceTimeIndex;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ITimeIndex;
+
+import org.apache.tsfile.file.IMetadataIndexEntry;
+import org.apache.tsfile.file.metadata.DeviceMetadataIndexEntry;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.MetadataIndexNode;
+import org.apache.tsfile.file.metadata.TsFileMetadata;
+import org.apache.tsfile.file.metadata.enums.MetadataIndexNodeType;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.filter.basic.Filter;
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The device directory of one closed TsFile. For each device it records the offsets of the first
+ * measurement-level metadata index node and the device's time range, so that the device's {@link
+ * org.apache.tsfile.file.metadata.TimeseriesMetadata} can be read without walking the device-level
+ * metadata index tree, and a device absent from the file can be told exactly.
+ *
+ * <p>The directory is stored in one direct {@link ByteBuffer} with the layout below, where the
+ * slots are sorted by the hash code of the device:
+ *
+ * <p>[deviceCount: int] [hashCode: int, recordPosition: int] * deviceCount [record] * deviceCount
+ *
+ * <p>record: [nodeStartOffset: long] [nodeEndOffset: long] [startTime: long] [endTime: long]
+ * [serialized {@link IDeviceID}]
+ */
+public class DeviceOffsetDirectory {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(DeviceOffsetDirectory.class);
+
+  private static final int SLOT_SIZE = 2 * Integer.BYTES;
+  private static final int RECORD_HEADER_SIZE = 4 * Long.BYTES;
+
+  private final ByteBuffer buffer;
+  private final int deviceCount;
+
+  private DeviceOffsetDirectory(final ByteBuffer buffer) {
+    this.buffer = buffer;
+    this.deviceCount = buffer.getInt(0);
+  }
+
+  /**
+   * Build the directory by reading the device-level metadata index tree of a closed TsFile once.
+   * The time ranges are taken from the device time index of the resource.
+   */
+  public static DeviceOffsetDirectory build(
+      final TsFileSequenceReader reader, final TsFileResource resource) throws IOException {
+    final List<DeviceMetadataIndexEntry> entries = new ArrayList<>();
+    final List<Long> endOffsets = new ArrayList<>();
+    final TsFileMetadata tsFileMetadata = reader.readFileMetadata();
+    for (final MetadataIndexNode rootNode :
+        tsFileMetadata.getTableMetadataIndexNodeMap().values()) {
+      collectDeviceEntries(reader, rootNode, entries, endOffsets);
+    }
+
+    final ITimeIndex timeIndex = getDeviceTimeIndex(resource);
+    final int deviceCount = entries.size();
+    final byte[][] serializedDevices = new byte[deviceCount][];
+    final long[] slots = new long[deviceCount];
+    int recordSize = 0;
+    for (int i = 0; i < deviceCount; ++i) {
+      final PublicBAOS outputStream = new PublicBAOS();
+      entries.get(i).getDeviceID().serialize(outputStream);
+      serializedDevices[i] = outputStream.toByteArray();
+      // hash code in the high bits and index in the low bits, thus sorting by hash code
+      slots[i] = ((long) entries.get(i).getDeviceID().hashCode() << 32) | i;
+      recordSize += RECORD_HEADER_SIZE + serializedDevices[i].length;
+    }
+    Arrays.sort(slots);
+
+    final ByteBuffer buffer =
+        ByteBuffer.allocateDirect(Integer.BYTES + deviceCount * SLOT_SIZE + recordSize);
+    buffer.putInt(deviceCount);
+    int recordPosition = Integer.BYTES + deviceCount * SLOT_SIZE;
+    for (final long slot : slots) {
+      final int index = (int) slot;
+      final IDeviceID deviceID = entries.get(index).getDeviceID();
+      buffer.putInt((int) (slot >> 32));
+      buffer.putInt(recordPosition);
+
+      final int slotEnd = buffer.position();
+      buffer.position(recordPosition);
+      buffer.putLong(entries.get(index).getOffset());
+      buffer.putLong(endOffsets.get(index));
+      buffer.putLong(timeIndex.getStartTime(deviceID).orElse(Long.MIN_VALUE));
+      buffer.putLong(timeIndex.getEndTime(deviceID).orElse(Long.MAX_VALUE));
+      buffer.put(serializedDevices[index]);
+      recordPosition = buffer.position();
+      buffer.position(slotEnd);
+    }
+    return new DeviceOffsetDirectory(buffer);
+  }
+
+  private static void collectDeviceEntries(
+      final TsFileSequenceReader reader,
+      final MetadataIndexNode node,
+      final List<DeviceMetadataIndexEntry> entries,
+      final List<Long> endOffsets)
+      throws IOException {
+    final List<IMetadataIndexEntry> children = node.getChildren();
+    for (int i = 0; i < children.size(); ++i) {
+      final long endOffset =
+          i == children.size() - 1 ? node.getEndOffset() : children.get(i + 1).getOffset();
+      if (MetadataIndexNodeType.LEAF_DEVICE.equals(node.getNodeType())) {
+        entries.add((DeviceMetadataIndexEntry) children.get(i));
+        endOffsets.add(endOffset);
+      } else if (MetadataIndexNodeType.INTERNAL_DEVICE.equals(node.getNodeType())) {
+        collectDeviceEntries(
+            reader,
+            reader.readMetadataIndexNode(children.get(i).getOffset(), endOffset, true),
+            entries,
+            endOffsets);
+      }
+    }
+  }
+
+  private static ITimeIndex getDeviceTimeIndex(final TsFileResource resource) throws IOException {
+    final ITimeIndex timeIndex = resource.getTimeIndex();
+    if (timeIndex instanceof ArrayDeviceTimeIndex || !resource.resourceFileExists()) {
+      return timeIndex;
+    }
+    return resource.buildDeviceTimeIndex();
+  }
+
+  /**
+   * @return {@code null} iff the device is not in the TsFile
+   */
+  public DeviceEntry get(final IDeviceID deviceID) {
+    final int hashCode = deviceID.hashCode();
+    int low = 0;
+    int high = deviceCount - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int midHashCode = getSlotHashCode(mid);
+      if (midHashCode < hashCode) {
+        low = mid + 1;
+      } else if (midHashCode > hashCode) {
+        high = mid - 1;
+      } else {
+        // Scan the slots with the same hash code on both sides
+        for (int i = mid; i >= 0 && getSlotHashCode(i) == hashCode; --i) {
+          final DeviceEntry entry = readEntryIfMatches(i, deviceID);
+          if (entry != null) {
+            return entry;
+          }
+        }
+        for (int i = mid + 1; i < deviceCount && getSlotHashCode(i) == hashCode; ++i) {
+          final DeviceEntry entry = readEntryIfMatches(i, deviceID);
+          if (entry != null) {
+            return entry;
+          }
+        }
+        return null;
+      }
+    }
+    return null;
+  }
+
+  /** Whether the device may have data satisfying the time filter in the TsFile. */
+  public boolean mayContain(final IDeviceID deviceID, final Filter timeFilter) {
+    final DeviceEntry entry = get(deviceID);
+    return entry != null
+        && (timeFilter == null || timeFilter.satisfyStartEndTime(entry.startTime, entry.endTime));
+  }
+
+  private int getSlotHashCode(final int slot) {
+    return buffer.getInt(Integer.BYTES + slot * SLOT_SIZE);
+  }
+
+  private DeviceEntry readEntryIfMatches(final int slot, final IDeviceID deviceID) {
+    final int recordPosition = buffer.getInt(Integer.BYTES + slot * SLOT_SIZE + Integer.BYTES);
+    final ByteBuffer record = buffer.duplicate();
+    record.position(recordPosition + RECORD_HEADER_SIZE);
+    if (!deviceID.equals(IDeviceID.Deserializer.DEFAULT_DESERIALIZER.deserializeFrom(record))) {
+      return null;
+    }
+    return new DeviceEntry(
+        buffer.getLong(recordPosition),
+        buffer.getLong(recordPosition + Long.BYTES),
+        buffer.getLong(recordPosition + 2 * Long.BYTES),
+        buffer.getLong(recordPosition + 3 * Long.BYTES));
+  }
+
+  public int getDeviceCount() {
+    return deviceCount;
+  }
+
+  public long getRetainedSizeInBytes() {
+    return INSTANCE_SIZE + buffer.capacity();
+  }
+
+  public static class DeviceEntry {
+
+    private final long nodeStartOffset;
+    private final long nodeEndOffset;
+    private final long startTime;
+    private final long endTime;
+
+    private DeviceEntry(
+        final long nodeStartOffset,
+        final long nodeEndOffset,
+        final long startTime,
+        final long endTime) {
+      this.nodeStartOffset = nodeStartOffset;
+      this.nodeEndOffset = nodeEndOffset;
+      this.startTime = startTime;
+      this.endTime = endTime;
+    }
+
+    /** Read the first measurement-level metadata index node of the device. */
+    public MetadataIndexNode readMeasurementNode(final TsFileSequenceReader reader)
+        throws IOException {
+      return reader.readMetadataIndexNode(nodeStartOffset, nodeEndOffset, false);
+    }
+
+    public long getNodeSize() {
+      return nodeEndOffset - nodeStartOffset;
+    }
+
+    public long getStartTime() {
+      return startTime;
+    }
+
+    public long getEndTime() {
+      return endTime;
+    }
+  }
+}
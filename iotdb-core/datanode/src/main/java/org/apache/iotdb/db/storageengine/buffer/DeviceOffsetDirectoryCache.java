@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.commons.exception.IoTDBIORuntimeException;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * This class is used to cache the {@link DeviceOffsetDirectory} of the closed TsFiles. The
+ * directories are built lazily by the first query of each TsFile and stored off-heap. The caching
+ * strategy is LRU.
+ */
+@SuppressWarnings("squid:S6548")
+public class DeviceOffsetDirectoryCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DeviceOffsetDirectoryCache.class);
+  private static final long CACHE_SIZE_IN_BYTES =
+      IoTDBDescriptor.getInstance().getConfig().getDeviceOffsetDirectoryCacheSizeInMB()
+          * 1024
+          * 1024;
+  private static final boolean CACHE_ENABLE = CACHE_SIZE_IN_BYTES > 0;
+  private static final long KEY_SIZE = RamUsageEstimator.shallowSizeOfInstance(TsFileID.class);
+
+  private final Cache<TsFileID, DeviceOffsetDirectory> lruCache;
+
+  private DeviceOffsetDirectoryCache() {
+    if (CACHE_ENABLE) {
+      LOGGER.info("DeviceOffsetDirectoryCache size = {}", CACHE_SIZE_IN_BYTES);
+    }
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(CACHE_SIZE_IN_BYTES)
+            .weigher(
+                (Weigher<TsFileID, DeviceOffsetDirectory>)
+                    (key, directory) -> (int) (KEY_SIZE + directory.getRetainedSizeInBytes()))
+            .recordStats()
+            .build();
+  }
+
+  public static DeviceOffsetDirectoryCache getInstance() {
+    return DeviceOffsetDirectoryCacheHolder.INSTANCE;
+  }
+
+  /**
+   * Get the device offset directory of a closed TsFile, building it on cache miss.
+   *
+   * @return {@code null} if the cache is disabled or the directory fails to be built, then the
+   *     caller shall locate the devices by the index tree of the TsFile as usual
+   */
+  public DeviceOffsetDirectory get(TsFileResource resource, LongConsumer ioSizeRecorder) {
+    if (!CACHE_ENABLE || !resource.isClosed()) {
+      return null;
+    }
+    try {
+      return lruCache.get(
+          resource.getTsFileID(), new DeviceOffsetDirectoryLoader(resource, ioSizeRecorder));
+    } catch (IoTDBIORuntimeException e) {
+      LOGGER.debug(
+          "Failed to build device offset directory of {}, skip it", resource.getTsFilePath(), e);
+      return null;
+    }
+  }
+
+  public boolean isEnabled() {
+    return CACHE_ENABLE;
+  }
+
+  public double calculateHitRatio() {
+    return lruCache.stats().hitRate();
+  }
+
+  public long getEvictionCount() {
+    return lruCache.stats().evictionCount();
+  }
+
+  public long getMaxMemory() {
+    return CACHE_SIZE_IN_BYTES;
+  }
+
+  /** clear LRUCache. */
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+  }
+
+  @TestOnly
+  public DeviceOffsetDirectory getIfPresent(TsFileID tsFileID) {
+    return lruCache.getIfPresent(tsFileID);
+  }
+
+  private static class DeviceOffsetDirectoryLoader
+      implements Function<TsFileID, DeviceOffsetDirectory> {
+
+    private final TsFileResource resource;
+    private final LongConsumer ioSizeRecorder;
+
+    private DeviceOffsetDirectoryLoader(TsFileResource resource, LongConsumer ioSizeRecorder) {
+      this.resource = resource;
+      this.ioSizeRecorder = ioSizeRecorder;
+    }
+
+    @Override
+    public DeviceOffsetDirectory apply(TsFileID tsFileID) {
+      try {
+        TsFileSequenceReader reader =
+            FileReaderManager.getInstance().get(resource.getTsFilePath(), true, ioSizeRecorder);
+        return DeviceOffsetDirectory.build(reader, resource);
+      } catch (IOException e) {
+        throw new IoTDBIORuntimeException(e);
+      }
+    }
+  }
+
+  /** singleton pattern. */
+  private static class DeviceOffsetDirectoryCacheHolder {
+    private static final DeviceOffsetDirectoryCache INSTANCE = new DeviceOffsetDirectoryCache();
+  }
+}
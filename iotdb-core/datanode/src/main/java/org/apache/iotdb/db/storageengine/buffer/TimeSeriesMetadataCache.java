@@ -36,6 +36,7 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.Weigher;
 import org.apache.tsfile.common.constant.TsFileConstant;
 import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.MetadataIndexNode;
 import org.apache.tsfile.file.metadata.TimeseriesMetadata;
 import org.apache.tsfile.read.TsFileSequenceReader;
 import org.apache.tsfile.utils.BloomFilter;
@@ -45,6 +46,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -74,6 +76,8 @@ public class TimeSeriesMetadataCache {
 
   private final AtomicLong entryAverageSize = new AtomicLong(0);
 
+  private final CacheAccessStatistics accessStatistics = new CacheAccessStatistics();
+
   private final Map<String, WeakReference<String>> devices =
       Collections.synchronizedMap(new WeakHashMap<>());
   private static final String SEPARATOR = "$";
@@ -109,7 +113,6 @@ public class TimeSeriesMetadataCache {
     return TimeSeriesMetadataCache.TimeSeriesMetadataCacheHolder.INSTANCE;
   }
 
-  @SuppressWarnings({"squid:S1860", "squid:S6541", "squid:S3776"}) // Suppress synchronize warning
   public TimeseriesMetadata get(
       String filePath,
       TimeSeriesMetadataCacheKey key,
@@ -118,12 +121,30 @@ public class TimeSeriesMetadataCache {
       boolean debug,
       QueryContext queryContext)
       throws IOException {
+    return get(filePath, key, allSensors, ignoreNotExists, debug, queryContext, null);
+  }
+
+  /**
+   * @param deviceOffsetDirectory the directory of the TsFile used to locate the device without
+   *     walking the device index tree on cache miss, may be {@code null}
+   */
+  @SuppressWarnings({"squid:S1860", "squid:S6541", "squid:S3776"}) // Suppress synchronize warning
+  public TimeseriesMetadata get(
+      String filePath,
+      TimeSeriesMetadataCacheKey key,
+      Set<String> allSensors,
+      boolean ignoreNotExists,
+      boolean debug,
+      QueryContext queryContext,
+      DeviceOffsetDirectory deviceOffsetDirectory)
+      throws IOException {
     long startTime = System.nanoTime();
     long loadBloomFilterTime = 0;
     LongConsumer timeSeriesMetadataIoSizeRecorder =
         queryContext.getQueryStatistics().getLoadTimeSeriesMetadataActualIOSize()::addAndGet;
     LongConsumer bloomFilterIoSizeRecorder =
         queryContext.getQueryStatistics().getLoadBloomFilterActualIOSize()::addAndGet;
+    CacheAccessSource accessSource = queryContext.getCacheAccessSource();
     boolean cacheHit = true;
     try {
       if (!CACHE_ENABLE) {
@@ -143,9 +164,24 @@ public class TimeSeriesMetadataCache {
         }
         loadBloomFilterTime = System.nanoTime() - startTime;
 
-        TimeseriesMetadata timeseriesMetadata =
-            reader.readTimeseriesMetadata(
-                key.device, key.measurement, ignoreNotExists, timeSeriesMetadataIoSizeRecorder);
+        TimeseriesMetadata timeseriesMetadata = null;
+        if (deviceOffsetDirectory == null) {
+          timeseriesMetadata =
+              reader.readTimeseriesMetadata(
+                  key.device, key.measurement, ignoreNotExists, timeSeriesMetadataIoSizeRecorder);
+        } else {
+          for (TimeseriesMetadata metadata :
+              readTimeseriesMetadata(
+                  reader,
+                  deviceOffsetDirectory,
+                  key,
+                  Collections.emptySet(),
+                  timeSeriesMetadataIoSizeRecorder)) {
+            if (metadata.getMeasurementId().equals(key.measurement)) {
+              timeseriesMetadata = metadata;
+            }
+          }
+        }
         return (timeseriesMetadata == null || timeseriesMetadata.getStatistics().getCount() == 0)
             ? null
             : timeseriesMetadata;
@@ -195,18 +231,25 @@ public class TimeSeriesMetadataCache {
                 FileReaderManager.getInstance()
                     .get(filePath, true, timeSeriesMetadataIoSizeRecorder);
             List<TimeseriesMetadata> timeSeriesMetadataList =
-                reader.readTimeseriesMetadata(
-                    key.device,
-                    key.measurement,
-                    allSensors,
-                    ignoreNotExists,
-                    timeSeriesMetadataIoSizeRecorder);
+                deviceOffsetDirectory == null
+                    ? reader.readTimeseriesMetadata(
+                        key.device,
+                        key.measurement,
+                        allSensors,
+                        ignoreNotExists,
+                        timeSeriesMetadataIoSizeRecorder)
+                    : readTimeseriesMetadata(
+                        reader,
+                        deviceOffsetDirectory,
+                        key,
+                        allSensors,
+                        timeSeriesMetadataIoSizeRecorder);
             // put TimeSeriesMetadata of all sensors used in this read into cache
             for (TimeseriesMetadata metadata : timeSeriesMetadataList) {
               TimeSeriesMetadataCacheKey k =
                   new TimeSeriesMetadataCacheKey(
                       key.tsFileID, key.device, metadata.getMeasurementId());
-              if (metadata.getStatistics().getCount() != 0) {
+              if (metadata.getStatistics().getCount() != 0 && accessSource.isAdmitted()) {
                 lruCache.put(k, metadata);
               }
               if (metadata.getMeasurementId().equals(key.measurement)) {
@@ -233,6 +276,7 @@ public class TimeSeriesMetadataCache {
         return new TimeseriesMetadata(timeseriesMetadata);
       }
     } finally {
+      accessStatistics.record(accessSource, cacheHit);
       queryContext.getQueryStatistics().getLoadBloomFilterTime().getAndAdd(loadBloomFilterTime);
       if (cacheHit) {
         queryContext
@@ -256,10 +300,43 @@ public class TimeSeriesMetadataCache {
     }
   }
 
+  /**
+   * Read the TimeseriesMetadata of the sensors in the leaf node that may contain the measurement,
+   * starting from the measurement index node of the device located by the directory.
+   */
+  private static List<TimeseriesMetadata> readTimeseriesMetadata(
+      TsFileSequenceReader reader,
+      DeviceOffsetDirectory deviceOffsetDirectory,
+      TimeSeriesMetadataCacheKey key,
+      Set<String> allSensors,
+      LongConsumer ioSizeRecorder)
+      throws IOException {
+    DeviceOffsetDirectory.DeviceEntry deviceEntry = deviceOffsetDirectory.get(key.device);
+    if (deviceEntry == null) {
+      return Collections.emptyList();
+    }
+    MetadataIndexNode measurementNode = deviceEntry.readMeasurementNode(reader);
+    ioSizeRecorder.accept(deviceEntry.getNodeSize());
+    List<TimeseriesMetadata> leafTimeseriesMetadataList = new ArrayList<>();
+    reader.readITimeseriesMetadata(leafTimeseriesMetadataList, measurementNode, key.measurement);
+    List<TimeseriesMetadata> timeseriesMetadataList = new ArrayList<>();
+    for (TimeseriesMetadata metadata : leafTimeseriesMetadataList) {
+      if (metadata.getMeasurementId().equals(key.measurement)
+          || allSensors.contains(metadata.getMeasurementId())) {
+        timeseriesMetadataList.add(metadata);
+      }
+    }
+    return timeseriesMetadataList;
+  }
+
   public double calculateTimeSeriesMetadataHitRatio() {
     return lruCache.stats().hitRate();
   }
 
+  public double calculateTimeSeriesMetadataHitRatio(CacheAccessSource accessSource) {
+    return accessStatistics.hitRatio(accessSource);
+  }
+
   public long getEvictionCount() {
     return lruCache.stats().evictionCount();
   }
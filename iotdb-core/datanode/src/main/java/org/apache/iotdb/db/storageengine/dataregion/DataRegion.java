@@ -80,6 +80,7 @@ import org.apache.iotdb.db.service.metrics.WritingMetrics;
 import org.apache.iotdb.db.storageengine.StorageEngine;
 import org.apache.iotdb.db.storageengine.buffer.BloomFilterCache;
 import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+import org.apache.iotdb.db.storageengine.buffer.DeviceOffsetDirectoryCache;
 import org.apache.iotdb.db.storageengine.buffer.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.recover.CompactionRecoverManager;
@@ -89,11 +90,13 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.Compacti
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduler;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.TimePartitionAccessTracker;
 import org.apache.iotdb.db.storageengine.dataregion.flush.CloseFileListener;
 import org.apache.iotdb.db.storageengine.dataregion.flush.FlushListener;
 import org.apache.iotdb.db.storageengine.dataregion.flush.FlushStatus;
 import org.apache.iotdb.db.storageengine.dataregion.flush.TsFileFlushPolicy;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IMemTable;
+import org.apache.iotdb.db.storageengine.dataregion.memtable.IWritableMemChunkGroup;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessorInfo;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
@@ -116,6 +119,8 @@ import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeInd
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndexCacheRecorder;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ITimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.utils.fileTimeIndexCache.FileTimeIndexCacheReader;
+import org.apache.iotdb.db.storageengine.dataregion.utils.lastCacheSnapshot.LastCacheSnapshotFile;
+import org.apache.iotdb.db.storageengine.dataregion.utils.lastCacheSnapshot.LastCacheSnapshotLoader;
 import org.apache.iotdb.db.storageengine.dataregion.utils.validate.TsFileValidator;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.node.IWALNode;
@@ -144,6 +149,7 @@ import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
 
+import com.google.common.collect.Iterables;
 import org.apache.commons.io.FileUtils;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IDeviceID;
@@ -321,6 +327,9 @@ public class DataRegion implements IDataRegionForQuery {
 
   private final AtomicBoolean isCompactionSelecting = new AtomicBoolean(false);
 
+  // the time partitions whose sealed files are deleted by mods since the last compaction schedule
+  private final Set<Long> timePartitionsWithNewDeletion = ConcurrentHashMap.newKeySet();
+
   private static final QueryResourceMetricSet QUERY_RESOURCE_METRIC_SET =
       QueryResourceMetricSet.getInstance();
 
@@ -683,6 +692,11 @@ public class DataRegion implements IDataRegionForQuery {
         long partitionNum = resource.getTimePartition();
         updatePartitionFileVersion(partitionNum, resource.getVersion());
       }
+      if (LastCacheSnapshotFile.isEnabled()) {
+        final List<TsFileResource> resources = new ArrayList<>(tsFileManager.getTsFileList(true));
+        resources.addAll(tsFileManager.getTsFileList(false));
+        new LastCacheSnapshotLoader(databaseName).load(resources);
+      }
     } catch (IOException e) {
       // signal wal recover manager to recover this region's files
       WALRecoverManager.getInstance()
@@ -1401,7 +1415,11 @@ public class DataRegion implements IDataRegionForQuery {
   }
 
   private void tryToUpdateInsertTabletLastCache(final InsertTabletNode node) {
-    node.updateLastCache(getDatabaseName());
+    if (config.isEnableLastCacheWriteThrough()) {
+      node.updateLastCache(getDatabaseName(), this::getDeviceLatestTime);
+    } else {
+      node.updateLastCache(getDatabaseName());
+    }
   }
 
   private TsFileProcessor insertToTsFileProcessor(
@@ -1425,7 +1443,43 @@ public class DataRegion implements IDataRegionForQuery {
   }
 
   private void tryToUpdateInsertRowLastCache(final InsertRowNode node) {
-    node.updateLastCache(databaseName);
+    if (config.isEnableLastCacheWriteThrough()) {
+      node.updateLastCache(databaseName, this::getDeviceLatestTime);
+    } else {
+      node.updateLastCache(databaseName);
+    }
+  }
+
+  /**
+   * Get the latest time of a device among all its data in this region, used to decide whether a
+   * write may put the last cache. The flushing memTables are already counted in the global flushed
+   * time when they are submitted to flush, thus only the working memTables are checked here. Shall
+   * be called with the write lock held.
+   *
+   * @return {@link Long#MAX_VALUE} if the latest time is unknown
+   */
+  private long getDeviceLatestTime(final IDeviceID deviceId) {
+    // The global flushed time is not maintained if the data is not separated
+    if (!config.isEnableSeparateData()) {
+      return Long.MAX_VALUE;
+    }
+    long latestTime = lastFlushTimeMap.getGlobalFlushedTime(deviceId);
+    if (latestTime == Long.MAX_VALUE) {
+      return latestTime;
+    }
+    for (final TsFileProcessor processor :
+        Iterables.concat(
+            workSequenceTsFileProcessors.values(), workUnsequenceTsFileProcessors.values())) {
+      final IMemTable workMemTable = processor.getWorkMemTable();
+      if (Objects.isNull(workMemTable)) {
+        continue;
+      }
+      final IWritableMemChunkGroup memChunkGroup = workMemTable.getMemTableMap().get(deviceId);
+      if (Objects.nonNull(memChunkGroup) && memChunkGroup.count() > 0 && !memChunkGroup.isEmpty()) {
+        latestTime = Math.max(latestTime, memChunkGroup.getMaxTime());
+      }
+    }
+    return latestTime;
   }
 
   private List<InsertRowNode> insertToTsFileProcessors(
@@ -1494,7 +1548,7 @@ public class DataRegion implements IDataRegionForQuery {
 
   private void tryToUpdateInsertRowsLastCache(List<InsertRowNode> nodeList) {
     for (InsertRowNode node : nodeList) {
-      node.updateLastCache(databaseName);
+      tryToUpdateInsertRowLastCache(node);
     }
   }
 
@@ -2037,6 +2091,7 @@ public class DataRegion implements IDataRegionForQuery {
 
       QUERY_RESOURCE_METRIC_SET.recordQueryResourceNum(SEQUENCE_TSFILE, seqResources.size());
       QUERY_RESOURCE_METRIC_SET.recordQueryResourceNum(UNSEQUENCE_TSFILE, unseqResources.size());
+      recordTimePartitionAccess(seqResources, unseqResources);
 
       return new QueryDataSource(seqResources, unseqResources, databaseName);
     } catch (MetadataException e) {
@@ -2196,6 +2251,18 @@ public class DataRegion implements IDataRegionForQuery {
     insertLock.writeLock().unlock();
   }
 
+  /** record the accessed time partitions, which are used to score the compaction tasks */
+  private void recordTimePartitionAccess(
+      List<TsFileResource> seqResources, List<TsFileResource> unseqResources) {
+    if (!TimePartitionAccessTracker.getInstance().isEnabled()) {
+      return;
+    }
+    Set<Long> timePartitions = new HashSet<>();
+    seqResources.forEach(resource -> timePartitions.add(resource.getTimePartition()));
+    unseqResources.forEach(resource -> timePartitions.add(resource.getTimePartition()));
+    TimePartitionAccessTracker.getInstance().recordAccess(dataRegionId, timePartitions);
+  }
+
   /**
    * @param tsFileResources includes sealed and unsealed tsfile resources
    * @return fill unsealed tsfile resources with memory data and ChunkMetadataList of data in disk
@@ -2607,6 +2674,7 @@ public class DataRegion implements IDataRegionForQuery {
       }
 
       involvedModificationFiles.add(sealedTsFile.getModFileForWrite());
+      recordNewDeletion(sealedTsFile);
     }
 
     if (involvedModificationFiles.isEmpty()) {
@@ -2644,6 +2712,17 @@ public class DataRegion implements IDataRegionForQuery {
         involvedModificationFiles.size());
   }
 
+  /**
+   * The time partition of the file will be checked by settle compaction in the next compaction
+   * schedule, so that the files mostly deleted by mods are rewritten without waiting for the ttl
+   * check.
+   */
+  private void recordNewDeletion(TsFileResource tsFileResource) {
+    if (config.getDeletedDataRatio() > 0) {
+      timePartitionsWithNewDeletion.add(tsFileResource.getTimePartition());
+    }
+  }
+
   private void deleteDataDirectlyInFile(List<TsFileResource> tsfileResourceList, ModEntry modEntry)
       throws IOException {
     List<TsFileResource> deletedByMods = new ArrayList<>();
@@ -2656,6 +2735,7 @@ public class DataRegion implements IDataRegionForQuery {
       if (tsFileResource.isClosed()
           || !tsFileResource.getProcessor().deleteDataInMemory(modEntry)) {
         involvedModificationFiles.add(tsFileResource.getModFileForWrite());
+        recordNewDeletion(tsFileResource);
       } // else do nothing
     }
 
@@ -2811,6 +2891,10 @@ public class DataRegion implements IDataRegionForQuery {
         CompactionScheduler.sharedLockCompactionSelection();
         try {
           CompactionScheduler.scheduleCompaction(tsFileManager, timePartition, context);
+          if (timePartitionsWithNewDeletion.remove(timePartition)) {
+            CompactionScheduler.tryToSubmitSettleCompactionTask(
+                tsFileManager, timePartition, context, true);
+          }
         } finally {
           context.clearTimePartitionDeviceInfoCache();
           CompactionScheduler.sharedUnlockCompactionSelection();
@@ -2945,6 +3029,7 @@ public class DataRegion implements IDataRegionForQuery {
     ChunkCache.getInstance().clear();
     TimeSeriesMetadataCache.getInstance().clear();
     BloomFilterCache.getInstance().clear();
+    DeviceOffsetDirectoryCache.getInstance().clear();
   }
 
   public static Optional<String> getNonSystemDatabaseName(String databaseName) {
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionCheckpoint;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionLogger;
+
+/**
+ * The performer which records checkpoints in the compaction log while writing the target files, and
+ * resumes from the last checkpoint of an interrupted task of the same source files.
+ */
+public interface IResumableCompactionPerformer {
+
+  /**
+   * @param compactionLogger the log of the task, no checkpoint is recorded if it is null
+   */
+  void setCheckpointLogger(CompactionLogger compactionLogger);
+
+  /**
+   * @param checkpoint the checkpoint to resume from, null if the task starts from the beginning
+   */
+  void setResumeCheckpoint(CompactionCheckpoint checkpoint);
+}
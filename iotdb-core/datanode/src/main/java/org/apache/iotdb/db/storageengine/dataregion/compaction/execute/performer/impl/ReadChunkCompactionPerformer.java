@@ -19,39 +19,70 @@
 
 package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl;
 
+import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.CompactionLastTimeCheckFailedException;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.IResumableCompactionPerformer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.ISeqCompactionPerformer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CompactionTaskSummary;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.subtask.ReadChunkCompactionPerformerSubTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionTableSchemaCollector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.MultiTsFileDeviceIterator;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.batch.BatchedReadChunkAlignedSeriesCompactionExecutor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.SeriesChunkBuffer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.SingleSeriesCompactionExecutor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionCheckpoint;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionLogger;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionIoScheduler;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionTsFileWriter;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator.AbstractInnerSpaceEstimator;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator.ReadChunkInnerCompactionEstimator;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.utils.TsFileResourceUtils;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 
 import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.StopReadTsFileByInterruptException;
 import org.apache.tsfile.exception.write.PageException;
 import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
+import org.apache.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.read.TsFileSequenceReader;
 import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.write.schema.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+public class ReadChunkCompactionPerformer
+    implements ISeqCompactionPerformer, IResumableCompactionPerformer {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+  private static final long PAUSE_CHECK_INTERVAL_IN_MS = 1000L;
+  // the compaction continues after pausing this long, otherwise the files keep piling up
+  private static final long MAX_PAUSE_TIME_IN_MS = 60_000L;
 
-public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
   private List<TsFileResource> seqFiles;
   private List<TsFileResource> targetResources;
   private CompactionTaskSummary summary;
@@ -64,8 +95,19 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
           ((double) SystemInfo.getInstance().getMemorySizeForCompaction()
               / IoTDBDescriptor.getInstance().getConfig().getCompactionThreadCount()
               * IoTDBDescriptor.getInstance().getConfig().getChunkMetadataSizeProportion());
+  // each sub task buffers at most one target chunk besides the chunk writer it is writing, which is
+  // included in the memory cost estimated by ReadChunkInnerCompactionEstimator
+  private final long maxBufferedChunkSizeOfSubTask =
+      IoTDBDescriptor.getInstance().getConfig().getTargetChunkSize();
   private Schema schema = null;
 
+  private CompactionLogger checkpointLogger;
+  private CompactionCheckpoint resumeCheckpoint;
+  private final long checkpointInterval =
+      IoTDBDescriptor.getInstance().getConfig().getCompactionCheckpointIntervalInByte();
+  // the size of the data written to the target files when the last checkpoint is recorded
+  private long lastCheckpointWrittenSize = 0;
+
   public ReadChunkCompactionPerformer(List<TsFileResource> sourceFiles, TsFileResource targetFile) {
     this(sourceFiles, Collections.singletonList(targetFile));
   }
@@ -92,11 +134,16 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
     try (MultiTsFileDeviceIterator deviceIterator = new MultiTsFileDeviceIterator(seqFiles)) {
       schema =
           CompactionTableSchemaCollector.collectSchema(seqFiles, deviceIterator.getReaderMap());
+      IDeviceID lastWrittenDevice = resumeCheckpoint == null ? null : resumeFromCheckpoint();
       while (deviceIterator.hasNextDevice()) {
         currentWriter = getAvailableCompactionWriter();
         Pair<IDeviceID, Boolean> deviceInfo = deviceIterator.nextDevice();
         IDeviceID device = deviceInfo.left;
         boolean aligned = deviceInfo.right;
+        if (lastWrittenDevice != null && device.compareTo(lastWrittenDevice) <= 0) {
+          // the device has been written before the checkpoint, the devices are in ascending order
+          continue;
+        }
 
         if (aligned) {
           compactAlignedSeries(
@@ -107,6 +154,7 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
         }
         // update temporal file metrics
         summary.setTemporaryFileSize(endedFileSize + currentWriter.getPos());
+        mayRecordCheckpoint();
       }
 
       for (TsFileResource tsFileResource : seqFiles) {
@@ -147,6 +195,10 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
   private void rollCompactionFileWriter() throws IOException {
     currentWriter.endFile();
     endedFileSize += currentWriter.getFile().length();
+    if (checkpointLogger != null) {
+      // the next checkpoint implies that the previous target files are complete
+      syncFile(currentWriter.getFile());
+    }
     if (currentWriter.isEmptyTargetFile()) {
       targetResources.get(currentTargetFileIndex).forceMarkDeleted();
     }
@@ -165,6 +217,143 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
     currentWriter.setSchema(CompactionTableSchemaCollector.copySchema(schema));
   }
 
+  /**
+   * Record a checkpoint at the end of the device if enough data has been written since the last
+   * one, and pause at the checkpoint while the queries on the disks are overloaded.
+   */
+  private void mayRecordCheckpoint() throws IOException, InterruptedException {
+    if (checkpointLogger == null || checkpointInterval <= 0) {
+      return;
+    }
+    long writtenSize = endedFileSize + currentWriter.getPos();
+    if (writtenSize - lastCheckpointWrittenSize < checkpointInterval) {
+      return;
+    }
+    recordCheckpoint();
+    lastCheckpointWrittenSize = writtenSize;
+    waitWhileForegroundOverloaded();
+  }
+
+  private void recordCheckpoint() throws IOException {
+    currentWriter.sync();
+    checkpointLogger.logCheckpoint(
+        new CompactionCheckpoint(currentTargetFileIndex, currentWriter.getPos()));
+  }
+
+  private void waitWhileForegroundOverloaded() throws InterruptedException {
+    if (!isForegroundOverloaded()) {
+      return;
+    }
+    long startTime = System.currentTimeMillis();
+    LOGGER.info(
+        "[Compaction] Compaction for target files {} pauses because the queries are overloaded",
+        targetResources);
+    do {
+      Thread.sleep(PAUSE_CHECK_INTERVAL_IN_MS);
+      checkThreadInterrupted();
+    } while (System.currentTimeMillis() - startTime < MAX_PAUSE_TIME_IN_MS
+        && isForegroundOverloaded());
+    LOGGER.info(
+        "[Compaction] Compaction for target files {} continues after pausing {} ms",
+        targetResources,
+        System.currentTimeMillis() - startTime);
+  }
+
+  private boolean isForegroundOverloaded() {
+    CompactionIoScheduler ioScheduler = CompactionIoScheduler.getInstance();
+    if (ioScheduler.isForegroundOverloaded(currentWriter.getFile().getAbsolutePath())) {
+      return true;
+    }
+    for (TsFileResource seqFile : seqFiles) {
+      if (ioScheduler.isForegroundOverloaded(seqFile.getTsFilePath())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Restore the target files written before the checkpoint. The complete chunk groups of the
+   * current target file before the checkpoint are copied to a new writer, the data after the
+   * checkpoint may be incomplete.
+   *
+   * @return the last device written before the checkpoint, null if there is none
+   */
+  private IDeviceID resumeFromCheckpoint() throws IOException {
+    currentTargetFileIndex = resumeCheckpoint.getTargetFileIndex();
+    for (int i = 0; i < currentTargetFileIndex; i++) {
+      TsFileResource targetResource = targetResources.get(i);
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(targetResource.getTsFilePath())) {
+        TsFileResourceUtils.updateTsFileResource(reader, targetResource);
+      }
+      if (targetResource.getDevices().isEmpty()) {
+        targetResource.forceMarkDeleted();
+      }
+      endedFileSize += targetResource.getTsFile().length();
+    }
+
+    TsFileResource targetResource = targetResources.get(currentTargetFileIndex);
+    File targetFile = targetResource.getTsFile();
+    File checkpointFile =
+        new File(targetFile.getPath() + CompactionCheckpoint.CHECKPOINT_FILE_SUFFIX);
+    // the checkpoint file exists if the task is interrupted while copying it back
+    if (!checkpointFile.exists()) {
+      Files.move(targetFile.toPath(), checkpointFile.toPath());
+    }
+    try (FileChannel channel =
+        FileChannel.open(checkpointFile.toPath(), StandardOpenOption.WRITE)) {
+      channel.truncate(resumeCheckpoint.getOffset());
+    }
+
+    useNewWriter();
+    IDeviceID lastWrittenDevice = null;
+    List<ChunkGroupMetadata> chunkGroupMetadataList = new ArrayList<>();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(checkpointFile.getPath(), false)) {
+      // only the complete chunk groups are collected
+      reader.selfCheck(new Schema(), chunkGroupMetadataList, false);
+      for (ChunkGroupMetadata chunkGroupMetadata : chunkGroupMetadataList) {
+        IDeviceID device = chunkGroupMetadata.getDevice();
+        currentWriter.startChunkGroup(device);
+        for (ChunkMetadata chunkMetadata : chunkGroupMetadata.getChunkMetadataList()) {
+          currentWriter.writeChunk(reader.readMemChunk(chunkMetadata), chunkMetadata);
+          targetResource.updateStartTime(device, chunkMetadata.getStartTime());
+          targetResource.updateEndTime(device, chunkMetadata.getEndTime());
+        }
+        currentWriter.checkMetadataSizeAndMayFlush();
+        currentWriter.endChunkGroup();
+        lastWrittenDevice = device;
+      }
+    }
+    // the checkpoint file is deleted after the copied data is durable, and the new checkpoint is
+    // never beyond the copied data
+    currentWriter.sync();
+    Files.delete(checkpointFile.toPath());
+    recordCheckpoint();
+    lastCheckpointWrittenSize = endedFileSize + currentWriter.getPos();
+    LOGGER.info(
+        "[Compaction] Compaction for target files {} resumes from {} after device {}",
+        targetResources,
+        resumeCheckpoint,
+        lastWrittenDevice);
+    return lastWrittenDevice;
+  }
+
+  private static void syncFile(File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+      channel.force(true);
+    }
+  }
+
+  @Override
+  public void setCheckpointLogger(CompactionLogger compactionLogger) {
+    this.checkpointLogger = compactionLogger;
+  }
+
+  @Override
+  public void setResumeCheckpoint(CompactionCheckpoint checkpoint) {
+    this.resumeCheckpoint = checkpoint;
+  }
+
   @Override
   public void setTargetFiles(List<TsFileResource> targetFiles) {
     this.targetResources = targetFiles;
@@ -234,13 +423,19 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
       CompactionTsFileWriter writer,
       MultiTsFileDeviceIterator deviceIterator)
       throws IOException, MetadataException, InterruptedException {
+    int subTaskNum = IoTDBDescriptor.getInstance().getConfig().getSubCompactionTaskNum();
+    if (IoTDBDescriptor.getInstance().getConfig().isEnableReadChunkParallelSubCompaction()
+        && subTaskNum > 1
+        && CompactionTaskManager.getInstance().isInit()) {
+      compactNotAlignedSeriesInParallel(device, targetResource, writer, deviceIterator, subTaskNum);
+      return;
+    }
     writer.startChunkGroup(device);
     MultiTsFileDeviceIterator.MultiTsFileNonAlignedMeasurementMetadataListIterator seriesIterator =
         deviceIterator.iterateNotAlignedSeriesAndChunkMetadataListOfCurrentDevice();
     while (seriesIterator.hasNextSeries()) {
       checkThreadInterrupted();
       String measurement = seriesIterator.nextSeries();
-      // TODO: we can provide a configuration item to enable concurrent between each series
       LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>> readerAndChunkMetadataList =
           seriesIterator.getMetadataListForCurrentSeries();
       // remove the chunk metadata whose data type not match the data type of last chunk
@@ -254,6 +449,111 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
     writer.endChunkGroup();
   }
 
+  /**
+   * Compact the series of the device in the sub compaction threads, at most subTaskNum series at
+   * the same time. The chunks of each series are buffered by its sub task and appended to the
+   * target file by the compaction thread in the order of series, which is the same as the
+   * sequential compaction.
+   */
+  private void compactNotAlignedSeriesInParallel(
+      IDeviceID device,
+      TsFileResource targetResource,
+      CompactionTsFileWriter writer,
+      MultiTsFileDeviceIterator deviceIterator,
+      int subTaskNum)
+      throws IOException, MetadataException, InterruptedException {
+    writer.startChunkGroup(device);
+    MultiTsFileDeviceIterator.MultiTsFileNonAlignedMeasurementMetadataListIterator seriesIterator =
+        deviceIterator.iterateNotAlignedSeriesAndChunkMetadataListOfCurrentDevice();
+    Deque<Pair<ReadChunkCompactionPerformerSubTask, Future<Void>>> runningSubTasks =
+        new ArrayDeque<>();
+    try {
+      while (seriesIterator.hasNextSeries()) {
+        checkThreadInterrupted();
+        String measurement = seriesIterator.nextSeries();
+        LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>> readerAndChunkMetadataList =
+            filterDataTypeNotMatchedChunkMetadata(seriesIterator.getMetadataListForCurrentSeries());
+        if (runningSubTasks.size() >= subTaskNum) {
+          // wait for the earliest series to be written before starting a new one
+          appendSeriesOfSubTask(runningSubTasks.peek(), device, targetResource, writer);
+          runningSubTasks.poll();
+        }
+        ReadChunkCompactionPerformerSubTask subTask =
+            new ReadChunkCompactionPerformerSubTask(
+                device, measurement, readerAndChunkMetadataList, maxBufferedChunkSizeOfSubTask);
+        runningSubTasks.add(
+            new Pair<>(subTask, CompactionTaskManager.getInstance().submitSubTask(subTask)));
+      }
+      while (!runningSubTasks.isEmpty()) {
+        checkThreadInterrupted();
+        appendSeriesOfSubTask(runningSubTasks.peek(), device, targetResource, writer);
+        runningSubTasks.poll();
+      }
+    } finally {
+      // abort the remaining sub tasks if errors occurred
+      abortSubTasks(runningSubTasks);
+    }
+    writer.endChunkGroup();
+  }
+
+  /**
+   * Abort the sub tasks and wait for them to exit. They are not interrupted, because an interrupt
+   * in the middle of a read closes the channel of the source file shared with the other readers. An
+   * aborted sub task exits when it buffers its next chunk.
+   */
+  private void abortSubTasks(
+      Deque<Pair<ReadChunkCompactionPerformerSubTask, Future<Void>>> runningSubTasks) {
+    for (Pair<ReadChunkCompactionPerformerSubTask, Future<Void>> subTask : runningSubTasks) {
+      subTask.left.getChunkBuffer().abort();
+    }
+    boolean interrupted = false;
+    for (Pair<ReadChunkCompactionPerformerSubTask, Future<Void>> subTask : runningSubTasks) {
+      while (true) {
+        try {
+          subTask.right.get();
+          break;
+        } catch (InterruptedException e) {
+          // keep waiting, the sub task still holds the source file readers
+          interrupted = true;
+        } catch (ExecutionException | CancellationException e) {
+          // the error of an aborted sub task is expected
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void appendSeriesOfSubTask(
+      Pair<ReadChunkCompactionPerformerSubTask, Future<Void>> subTask,
+      IDeviceID device,
+      TsFileResource targetResource,
+      CompactionTsFileWriter writer)
+      throws IOException, InterruptedException {
+    SeriesChunkBuffer chunkBuffer = subTask.left.getChunkBuffer();
+    chunkBuffer.drainTo(writer);
+    try {
+      subTask.right.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof CompactionLastTimeCheckFailedException) {
+        throw (CompactionLastTimeCheckFailedException) cause;
+      }
+      if (cause instanceof StopReadTsFileByInterruptException) {
+        throw (StopReadTsFileByInterruptException) cause;
+      }
+      throw new IOException("[Compaction] SubCompactionTask meet errors ", e);
+    }
+    summary.increase(subTask.left.getSummary());
+    writer.checkMetadataSizeAndMayFlush();
+    if (chunkBuffer.isTimeRangeSet()) {
+      targetResource.updateStartTime(device, chunkBuffer.getStartTime());
+      targetResource.updateEndTime(device, chunkBuffer.getEndTime());
+    }
+  }
+
   private LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>>
       filterDataTypeNotMatchedChunkMetadata(
           LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>> readerAndChunkMetadataList) {
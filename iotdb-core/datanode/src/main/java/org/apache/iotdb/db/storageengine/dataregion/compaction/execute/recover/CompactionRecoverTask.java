@@ -22,7 +22,9 @@ package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.recover;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionUtils;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionCheckpoint;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionLogAnalyzer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionLogger;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.TsFileIdentifier;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
 import org.apache.iotdb.db.storageengine.dataregion.modification.v1.ModificationFileV1;
@@ -38,6 +40,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -66,6 +69,7 @@ public class CompactionRecoverTask {
   @SuppressWarnings({"squid:S3776", "squid:S6541"})
   public void doCompaction() {
     boolean recoverSuccess = true;
+    boolean keepLogFile = false;
     LOGGER.info(
         "{} [Compaction][Recover] compaction log is {}", fullStorageGroupName, compactionLogFile);
     try {
@@ -98,7 +102,15 @@ public class CompactionRecoverTask {
           }
         }
 
-        if (isAllSourcesFileExisted) {
+        if (isAllSourcesFileExisted
+            && canResumeFromCheckpoint(logAnalyzer.getLastCheckpoint(), targetFileIdentifiers)) {
+          recoverSuccess = keepForResume(sourceFileIdentifiers);
+          keepLogFile = recoverSuccess;
+        } else if (CompactionLogger.isResumableLogFile(compactionLogFile)) {
+          // the resumable task can not be resumed any more
+          recoverSuccess =
+              CompactionUtils.deleteResumableCompaction(compactionLogFile, targetFileIdentifiers);
+        } else if (isAllSourcesFileExisted) {
           recoverSuccess =
               handleWithAllSourceFilesExist(targetFileIdentifiers, sourceFileIdentifiers);
 
@@ -113,7 +125,7 @@ public class CompactionRecoverTask {
     } finally {
       if (!recoverSuccess) {
         LOGGER.error("{} [Compaction][Recover] Failed to recover compaction", fullStorageGroupName);
-      } else {
+      } else if (!keepLogFile) {
         if (compactionLogFile.exists()) {
           try {
             LOGGER.info(
@@ -133,6 +145,74 @@ public class CompactionRecoverTask {
     }
   }
 
+  /**
+   * The inner space task interrupted after a checkpoint can be resumed by the task of the same
+   * source files, if none of its target files has been completed and its last checkpoint has not
+   * expired.
+   */
+  private boolean canResumeFromCheckpoint(
+      CompactionCheckpoint checkpoint, List<TsFileIdentifier> targetFileIdentifiers) {
+    if (!isInnerSpace
+        || checkpoint == null
+        || TsFileResource.useSharedModFile
+        || IoTDBDescriptor.getInstance().getConfig().getCompactionCheckpointIntervalInByte() <= 0) {
+      return false;
+    }
+    long checkpointTtl =
+        IoTDBDescriptor.getInstance().getConfig().getCompactionResumableCheckpointTtlInMs();
+    // the log is appended at each checkpoint
+    if (checkpointTtl > 0
+        && System.currentTimeMillis() - compactionLogFile.lastModified() > checkpointTtl) {
+      LOGGER.info(
+          "{} [Compaction][Recover] the last checkpoint of {} has expired, discard it",
+          fullStorageGroupName,
+          compactionLogFile);
+      return false;
+    }
+    for (TsFileIdentifier targetFileIdentifier : targetFileIdentifiers) {
+      if (getFileFromDataDirs(
+              targetFileIdentifier
+                  .getFilePath()
+                  .replace(
+                      IoTDBConstant.INNER_COMPACTION_TMP_FILE_SUFFIX, TsFileConstant.TSFILE_SUFFIX))
+          != null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Keep the tmp target files and rename the log to a resumable one, only the compaction mods files
+   * are deleted because the modifications are combined again when the task is resumed.
+   */
+  private boolean keepForResume(List<TsFileIdentifier> sourceFileIdentifiers) {
+    LOGGER.info(
+        "{} [Compaction][Recover] keep the target files of {} to resume the compaction",
+        fullStorageGroupName,
+        compactionLogFile);
+    List<TsFileResource> sourceTsFileResourceList = new ArrayList<>();
+    for (TsFileIdentifier sourceFileIdentifier : sourceFileIdentifiers) {
+      sourceTsFileResourceList.add(new TsFileResource(sourceFileIdentifier.getFileFromDataDirs()));
+    }
+    try {
+      CompactionUtils.deleteCompactionModsFile(sourceTsFileResourceList, Collections.emptyList());
+      if (!CompactionLogger.isResumableLogFile(compactionLogFile)) {
+        Files.move(
+            compactionLogFile.toPath(),
+            CompactionLogger.getResumableLogFile(compactionLogFile).toPath(),
+            StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      LOGGER.error(
+          "{} [Compaction][Recover] Exception occurs while keeping compaction for resuming",
+          fullStorageGroupName,
+          e);
+      return false;
+    }
+    return true;
+  }
+
   /**
    * All source files exist: (1) delete all the target files and tmp target files (2) delete
    * compaction mods files.
@@ -164,6 +244,17 @@ public class CompactionRecoverTask {
         targetResource = new TsFileResource(targetFile);
       }
 
+      // the tmp target file moved aside while resuming from a checkpoint
+      File checkpointFile =
+          getFileFromDataDirs(
+              targetFileIdentifier.getFilePath() + CompactionCheckpoint.CHECKPOINT_FILE_SUFFIX);
+      if (checkpointFile != null && !checkpointFile.delete()) {
+        LOGGER.error(
+            "{} [Compaction][Recover] failed to remove checkpoint file {}",
+            fullStorageGroupName,
+            checkpointFile);
+        return false;
+      }
       if (targetResource != null && !targetResource.remove()) {
         // failed to remove tmp target tsfile
         // system should not carry out the subsequent compaction in case of data redundant
@@ -30,11 +30,15 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.CompactionValidationFailedException;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.FileCannotTransitToCompactingException;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.ICompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionMemoryTracker;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionUtils;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionLogAnalyzer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionLogger;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionTaskStage;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.TsFileIdentifier;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.repair.RepairDataFileScanUtil;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator.CompactionMemoryEstimateCalibrator;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileRepairStatus;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
@@ -50,7 +54,10 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -75,6 +82,8 @@ public abstract class AbstractCompactionTask {
   protected CompactionTaskStage taskStage;
   protected long roughMemoryCost = -1L;
   protected long memoryCost = 0L;
+  // tracks the memory actually held by this task, compared with the estimated memory cost
+  protected final CompactionMemoryTracker memoryTracker = new CompactionMemoryTracker();
 
   protected boolean recoverMemoryStatus;
 
@@ -83,6 +92,8 @@ public abstract class AbstractCompactionTask {
   private boolean memoryAcquired = false;
   private boolean fileHandleAcquired = false;
   protected long compactionConfigVersion = Long.MAX_VALUE;
+  // expected read amplification saved by this task, only used by WORKLOAD_AWARE priority
+  protected double workloadScore = 0;
 
   protected AbstractCompactionTask(
       String storageGroupName,
@@ -109,6 +120,14 @@ public abstract class AbstractCompactionTask {
     this.compactionConfigVersion = Long.MAX_VALUE;
   }
 
+  public double getWorkloadScore() {
+    return workloadScore;
+  }
+
+  public void setWorkloadScore(double workloadScore) {
+    this.workloadScore = workloadScore;
+  }
+
   /**
    * This method will try to set the files to COMPACTION_CANDIDATE. If failed, it should roll back
    * all status to original value
@@ -220,11 +239,15 @@ public abstract class AbstractCompactionTask {
   public boolean start() {
     boolean isSuccess = false;
     summary.start();
-    try {
+    try (CompactionMemoryTracker.Binding ignored = memoryTracker.bindToCurrentThread()) {
+      if (!needRecoverTaskInfoFromLogFile) {
+        discardConflictingResumableCompactions();
+      }
       isSuccess = doCompaction();
     } finally {
       resetCompactionCandidateStatusForAllSourceFiles();
       handleTaskCleanup();
+      recordPeakMemoryCost(isSuccess);
       releaseOccupiedResources();
       summary.finish(isSuccess);
       CompactionTaskManager.getInstance().removeRunningTaskFuture(this);
@@ -234,6 +257,42 @@ public abstract class AbstractCompactionTask {
     return isSuccess;
   }
 
+  private void recordPeakMemoryCost(boolean isSuccess) {
+    long peakMemoryCost = memoryTracker.getPeakMemory();
+    summary.setPeakMemoryCost(peakMemoryCost);
+    // the estimated memory cost has been calculated when acquiring the memory
+    if (!isSuccess || !memoryAcquired || peakMemoryCost <= 0) {
+      return;
+    }
+    long estimatedMemoryCost = getEstimatedMemoryCost();
+    if (estimatedMemoryCost <= 0) {
+      return;
+    }
+    CompactionMetrics.getInstance()
+        .updateCompactionPeakMemoryMetrics(estimatedMemoryCost, peakMemoryCost);
+    String estimatorName = getMemoryEstimatorName();
+    if (estimatorName != null) {
+      CompactionMemoryEstimateCalibrator.getInstance()
+          .record(
+              estimatorName, getMemoryEstimateSourceFiles(), estimatedMemoryCost, peakMemoryCost);
+    }
+  }
+
+  /**
+   * @return the name of the estimator which estimated the memory cost of this task, null if the
+   *     memory cost is not estimated by any estimator
+   */
+  protected String getMemoryEstimatorName() {
+    return null;
+  }
+
+  /**
+   * @return the source files used to estimate the memory cost of this task
+   */
+  protected List<TsFileResource> getMemoryEstimateSourceFiles() {
+    return getAllSourceTsFiles();
+  }
+
   public String getStorageGroupName() {
     return this.storageGroupName;
   }
@@ -314,6 +373,67 @@ public abstract class AbstractCompactionTask {
     }
   }
 
+  /**
+   * Discard the interrupted compactions kept for resuming which share source files with this task,
+   * they can never be resumed once the source files are compacted by a different task.
+   */
+  private void discardConflictingResumableCompactions() {
+    Set<TsFileIdentifier> sourceFileIdentifiers = new HashSet<>();
+    Set<File> dataDirectories = new HashSet<>();
+    for (TsFileResource resource : getAllSourceTsFiles()) {
+      sourceFileIdentifiers.add(
+          TsFileIdentifier.getFileIdentifierFromFilePath(resource.getTsFile().getAbsolutePath()));
+      dataDirectories.add(resource.getTsFile().getParentFile());
+    }
+    for (File dataDirectory : dataDirectories) {
+      File[] resumableLogFiles =
+          dataDirectory.listFiles(
+              (dir, name) -> name.endsWith(CompactionLogger.RESUMABLE_COMPACTION_LOG_NAME_SUFFIX));
+      if (resumableLogFiles == null) {
+        continue;
+      }
+      for (File resumableLogFile : resumableLogFiles) {
+        try {
+          CompactionLogAnalyzer logAnalyzer = new CompactionLogAnalyzer(resumableLogFile);
+          logAnalyzer.analyze();
+          List<TsFileIdentifier> logSourceFileIdentifiers = logAnalyzer.getSourceFileInfos();
+          if (Collections.disjoint(logSourceFileIdentifiers, sourceFileIdentifiers)
+              || canResumeCompactionOf(logSourceFileIdentifiers)) {
+            continue;
+          }
+          LOGGER.info(
+              "{}-{} [Compaction] Discard the interrupted compaction of log {}, "
+                  + "its source files are selected by another task",
+              storageGroupName,
+              dataRegionId,
+              resumableLogFile);
+          if (!CompactionUtils.deleteResumableCompaction(
+              resumableLogFile, logAnalyzer.getTargetFileInfos())) {
+            LOGGER.warn(
+                "{}-{} [Compaction] Failed to discard the interrupted compaction of log {}",
+                storageGroupName,
+                dataRegionId,
+                resumableLogFile);
+          }
+        } catch (IOException | IllegalArgumentException e) {
+          LOGGER.warn(
+              "{}-{} [Compaction] Failed to read the interrupted compaction log {}",
+              storageGroupName,
+              dataRegionId,
+              resumableLogFile,
+              e);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return true if this task resumes the interrupted compaction of the given source files itself
+   */
+  protected boolean canResumeCompactionOf(List<TsFileIdentifier> sourceFileIdentifiers) {
+    return false;
+  }
+
   protected boolean checkAllSourceFileExists(List<TsFileResource> tsFileResources) {
     for (TsFileResource tsFileResource : tsFileResources) {
       if (!tsFileResource.tsFileExists() || !tsFileResource.resourceFileExists()) {
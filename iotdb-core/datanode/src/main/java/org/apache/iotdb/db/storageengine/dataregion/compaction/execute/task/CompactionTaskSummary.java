@@ -35,8 +35,14 @@ public class CompactionTaskSummary {
   protected int mergedChunkNum = 0;
   protected long processPointNum = 0;
   protected long rewritePointNum = 0;
+  // compressed bytes of the source chunks and pages copied into the target files without decoding
+  protected long directlyFlushByteNum = 0;
+  // compressed bytes of the source pages decoded and rewritten point by point
+  protected long rewriteByteNum = 0;
   protected long temporalFileSize = 0;
   protected int temporalFileNum = 0;
+  // the peak memory actually held by the task, tracked by CompactionMemoryTracker
+  protected long peakMemoryCost = 0;
 
   public void start() {
     this.status = Status.STARTED;
@@ -105,10 +111,32 @@ public class CompactionTaskSummary {
     rewritePointNum += increment;
   }
 
+  public void increaseDirectlyFlushByteNum(long increment) {
+    directlyFlushByteNum += increment;
+  }
+
+  public void increaseRewriteByteNum(long increment) {
+    rewriteByteNum += increment;
+  }
+
   public void increaseMergedChunkNum(int increment) {
     this.mergedChunkNum += increment;
   }
 
+  /** Merge the counters of the summary of a sub task into this summary. */
+  public void increase(CompactionTaskSummary summary) {
+    this.processChunkNum += summary.processChunkNum;
+    this.directlyFlushChunkNum += summary.directlyFlushChunkNum;
+    this.deserializeChunkCount += summary.deserializeChunkCount;
+    this.directlyFlushPageCount += summary.directlyFlushPageCount;
+    this.deserializePageCount += summary.deserializePageCount;
+    this.mergedChunkNum += summary.mergedChunkNum;
+    this.processPointNum += summary.processPointNum;
+    this.rewritePointNum += summary.rewritePointNum;
+    this.directlyFlushByteNum += summary.directlyFlushByteNum;
+    this.rewriteByteNum += summary.rewriteByteNum;
+  }
+
   public void setDirectlyFlushChunkNum(int directlyFlushChunkNum) {
     this.directlyFlushChunkNum = directlyFlushChunkNum;
   }
@@ -165,6 +193,14 @@ public class CompactionTaskSummary {
     return rewritePointNum;
   }
 
+  public long getDirectlyFlushByteNum() {
+    return directlyFlushByteNum;
+  }
+
+  public long getRewriteByteNum() {
+    return rewriteByteNum;
+  }
+
   enum Status {
     NOT_STARTED,
     STARTED,
@@ -189,13 +225,22 @@ public class CompactionTaskSummary {
     return temporalFileNum;
   }
 
+  public void setPeakMemoryCost(long peakMemoryCost) {
+    this.peakMemoryCost = peakMemoryCost;
+  }
+
+  public long getPeakMemoryCost() {
+    return peakMemoryCost;
+  }
+
   @Override
   public String toString() {
     String startTimeInStr = new SimpleDateFormat().format(new Date(startTime));
     return String.format(
         "Task start time: %s, total process chunk num: %d, "
             + "directly flush chunk num: %d, merge chunk num: %d, deserialize chunk num: %d,"
-            + " directly flush page num: %d, total process point num: %d, rewrite point num: %d",
+            + " directly flush page num: %d, total process point num: %d, rewrite point num: %d,"
+            + " directly flush byte num: %d, rewrite byte num: %d, peak memory cost: %d",
         startTimeInStr,
         processChunkNum,
         directlyFlushChunkNum,
@@ -203,6 +248,9 @@ public class CompactionTaskSummary {
         deserializeChunkCount,
         directlyFlushPageCount,
         processPointNum,
-        rewritePointNum);
+        rewritePointNum,
+        directlyFlushByteNum,
+        rewriteByteNum,
+        peakMemoryCost);
   }
 }
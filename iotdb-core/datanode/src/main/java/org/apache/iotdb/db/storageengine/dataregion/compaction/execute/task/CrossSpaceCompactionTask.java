@@ -63,6 +63,7 @@ public class CrossSpaceCompactionTask extends AbstractCompactionTask {
   protected List<TsFileResource> holdWriteLockList = new ArrayList<>();
   protected double selectedSeqFileSize = 0;
   protected double selectedUnseqFileSize = 0;
+  protected boolean isRoughMemoryCost;
 
   @SuppressWarnings("squid:S107")
   public CrossSpaceCompactionTask(
@@ -170,7 +171,8 @@ public class CrossSpaceCompactionTask extends AbstractCompactionTask {
     try {
       long startTime = System.currentTimeMillis();
       targetTsfileResourceList =
-          TsFileNameGenerator.getCrossCompactionTargetFileResources(selectedSequenceFiles);
+          TsFileNameGenerator.getCrossCompactionTargetFileResources(
+              selectedSequenceFiles, selectedUnsequenceFiles);
 
       logFile =
           new File(
@@ -237,6 +239,8 @@ public class CrossSpaceCompactionTask extends AbstractCompactionTask {
         }
 
         CompactionMetrics.getInstance().recordSummaryInfo(summary);
+        CompactionUtils.recordTierMigrationSavedBytes(
+            getAllSourceTsFiles(), targetTsfileResourceList);
 
         double costTime = (System.currentTimeMillis() - startTime) / 1000.0d;
 
@@ -419,6 +423,19 @@ public class CrossSpaceCompactionTask extends AbstractCompactionTask {
     return selectedSequenceFiles.size() + selectedUnsequenceFiles.size();
   }
 
+  @Override
+  protected String getMemoryEstimatorName() {
+    return ((ICrossCompactionPerformer) performer)
+        .getCrossSpaceEstimator()
+        .map(estimator -> estimator.getCalibrationName(isRoughMemoryCost))
+        .orElse(null);
+  }
+
+  /** The memory cost from a rough estimation is calibrated separately from a precise one. */
+  public void setRoughMemoryCost(boolean isRoughMemoryCost) {
+    this.isRoughMemoryCost = isRoughMemoryCost;
+  }
+
   @Override
   protected void createSummary() {
     if (performer instanceof FastCompactionPerformer) {
@@ -29,9 +29,11 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.CompactionSourceFileDeletedException;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.ICompactionPerformer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.IInnerCompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.IResumableCompactionPerformer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.FastCompactionPerformer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.subtask.FastCompactionTaskSummary;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionUtils;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionCheckpoint;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionLogAnalyzer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionLogger;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.SimpleCompactionLogger;
@@ -51,6 +53,7 @@ import org.apache.tsfile.utils.TsFileUtils;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -64,6 +67,12 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
   protected File logFile;
   protected boolean[] isHoldingWriteLock;
   protected AbstractInnerSpaceEstimator innerSpaceEstimator;
+  // whether the memory cost is the rough estimate, which is calibrated separately
+  protected boolean isRoughMemoryCost;
+  // the checkpoint of an interrupted task of the same files to resume from
+  protected CompactionCheckpoint resumeCheckpoint;
+  // whether the target files can be kept for resuming if the task is interrupted
+  protected boolean canResumeFromCheckpoint = false;
 
   public InnerSpaceCompactionTask(
       long timePartition,
@@ -196,10 +205,6 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
 
   protected void prepare() throws IOException, DiskSpaceInsufficientException {
     calculateSourceFilesAndTargetFiles();
-    CompactionUtils.prepareCompactionModFiles(
-        filesView.targetFilesInPerformer, filesView.sourceFilesInLog);
-    isHoldingWriteLock = new boolean[this.filesView.sourceFilesInLog.size()];
-    Arrays.fill(isHoldingWriteLock, false);
     String dataDirectory =
         filesView.sourceFilesInCompactionPerformer.get(0).getTsFile().getParent();
     String logSuffix =
@@ -211,6 +216,130 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
                 + File.separator
                 + filesView.targetFilesInLog.get(0).getTsFile().getName()
                 + logSuffix);
+    resumeCheckpoint = loadResumableCheckpoint();
+    CompactionUtils.prepareCompactionModFiles(
+        filesView.targetFilesInPerformer, filesView.sourceFilesInLog);
+    if (resumeCheckpoint != null) {
+      CompactionUtils.combineModsInResumedCompaction(
+          filesView.sourceFilesInLog, filesView.targetFilesInPerformer);
+    }
+    isHoldingWriteLock = new boolean[this.filesView.sourceFilesInLog.size()];
+    Arrays.fill(isHoldingWriteLock, false);
+  }
+
+  protected boolean isCheckpointSupported() {
+    return performer instanceof IResumableCompactionPerformer
+        && IoTDBDescriptor.getInstance().getConfig().getCompactionCheckpointIntervalInByte() > 0
+        && filesView.renamedTargetFiles.isEmpty()
+        && !TsFileResource.useSharedModFile;
+  }
+
+  /**
+   * The log of a task interrupted after a checkpoint is kept with the target files. If the same
+   * files are selected again, the target files are reused so that the task resumes from the
+   * checkpoint, otherwise they are deleted.
+   *
+   * @return the checkpoint to resume from, null if there is none
+   */
+  private CompactionCheckpoint loadResumableCheckpoint() throws IOException {
+    File resumableLogFile = CompactionLogger.getResumableLogFile(logFile);
+    if (!resumableLogFile.exists()) {
+      return null;
+    }
+    CompactionLogAnalyzer logAnalyzer = new CompactionLogAnalyzer(resumableLogFile);
+    logAnalyzer.analyze();
+    CompactionCheckpoint checkpoint = logAnalyzer.getLastCheckpoint();
+    List<TsFileIdentifier> targetFileIdentifiers = logAnalyzer.getTargetFileInfos();
+    if (checkpoint != null
+        && isCheckpointSupported()
+        && logAnalyzer.getSourceFileInfos().equals(getFileIdentifiers(filesView.sourceFilesInLog))
+        && targetFileIdentifiers.equals(getFileIdentifiers(filesView.targetFilesInLog))) {
+      List<TsFileResource> targetFiles = new ArrayList<>(targetFileIdentifiers.size());
+      for (int i = 0; i < targetFileIdentifiers.size(); i++) {
+        File targetFile = CompactionUtils.findResumableTargetFile(targetFileIdentifiers.get(i));
+        if (targetFile == null && i <= checkpoint.getTargetFileIndex()) {
+          targetFiles = null;
+          break;
+        }
+        targetFiles.add(
+            targetFile == null
+                ? filesView.targetFilesInLog.get(i)
+                : new TsFileResource(targetFile, TsFileResourceStatus.COMPACTING));
+      }
+      if (targetFiles != null) {
+        filesView.setTargetFileForRecover(targetFiles);
+        LOGGER.info(
+            "{}-{} [Compaction] InnerSpaceCompaction task resumes from {} of log {}",
+            storageGroupName,
+            dataRegionId,
+            checkpoint,
+            resumableLogFile);
+        return checkpoint;
+      }
+    }
+    LOGGER.info(
+        "{}-{} [Compaction] Discard the interrupted compaction of log {}",
+        storageGroupName,
+        dataRegionId,
+        resumableLogFile);
+    if (!CompactionUtils.deleteResumableCompaction(resumableLogFile, targetFileIdentifiers)) {
+      throw new IOException("Failed to delete the interrupted compaction of " + resumableLogFile);
+    }
+    return null;
+  }
+
+  @Override
+  protected boolean canResumeCompactionOf(List<TsFileIdentifier> sourceFileIdentifiers) {
+    // the source files in log are one of them, the log is checked again when preparing
+    return sourceFileIdentifiers.equals(getFileIdentifiers(filesView.sortedAllSourceFilesInTask))
+        || sourceFileIdentifiers.equals(
+            getFileIdentifiers(filesView.sourceFilesInCompactionPerformer));
+  }
+
+  private static List<TsFileIdentifier> getFileIdentifiers(List<TsFileResource> resources) {
+    List<TsFileIdentifier> identifiers = new ArrayList<>(resources.size());
+    for (TsFileResource resource : resources) {
+      identifiers.add(
+          TsFileIdentifier.getFileIdentifierFromFilePath(resource.getTsFile().getAbsolutePath()));
+    }
+    return identifiers;
+  }
+
+  /**
+   * Keep the target files and the log of the task interrupted after a checkpoint, so that the task
+   * of the same files resumes from the checkpoint later.
+   *
+   * @return false if the task should be rolled back
+   */
+  private boolean keepCheckpointForResume() {
+    if (!canResumeFromCheckpoint || logFile == null || !logFile.exists()) {
+      return false;
+    }
+    try {
+      CompactionLogAnalyzer logAnalyzer = new CompactionLogAnalyzer(logFile);
+      logAnalyzer.analyze();
+      if (logAnalyzer.getLastCheckpoint() == null) {
+        return false;
+      }
+      deleteCompactionModsFile(filesView.sortedAllSourceFilesInTask);
+      Files.move(
+          logFile.toPath(),
+          CompactionLogger.getResumableLogFile(logFile).toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+      LOGGER.info(
+          "{}-{} [Compaction] Keep the target files of the interrupted task to resume from {}",
+          storageGroupName,
+          dataRegionId,
+          logAnalyzer.getLastCheckpoint());
+      return true;
+    } catch (IOException e) {
+      LOGGER.warn(
+          "{}-{} [Compaction] Failed to keep the interrupted task for resuming",
+          storageGroupName,
+          dataRegionId,
+          e);
+      return false;
+    }
   }
 
   @Override
@@ -250,7 +379,13 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
         // Here is tmpTargetFile, which is xxx.target
         compactionLogger.logSourceFiles(filesView.sourceFilesInLog);
         compactionLogger.logTargetFiles(filesView.targetFilesInLog);
+        if (resumeCheckpoint != null) {
+          compactionLogger.logCheckpoint(resumeCheckpoint);
+        }
         compactionLogger.force();
+        if (resumeCheckpoint != null) {
+          Files.deleteIfExists(CompactionLogger.getResumableLogFile(logFile).toPath());
+        }
         LOGGER.info(
             "{}-{} [Compaction] compaction with selected files {}, skipped files {}",
             storageGroupName,
@@ -275,7 +410,10 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
     } catch (Exception e) {
       isSuccess = false;
       handleException(LOGGER, e);
-      recover();
+      // the interrupted task resumes from its last checkpoint later, instead of starting over
+      if (!Thread.currentThread().isInterrupted() || !keepCheckpointForResume()) {
+        recover();
+      }
     } finally {
       releaseAllLocks();
       try {
@@ -340,11 +478,14 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
                   Math.min(
                       filesView.renamedTargetFiles.size() + requiredPositionNum,
                       filesView.sortedAllSourceFilesInTask.size())),
-              filesView.sequence);
+              filesView.sequence,
+              filesView.sourceFilesInCompactionPerformer);
     } else {
       filesView.targetFilesInPerformer =
           TsFileNameGenerator.getNewInnerCompactionTargetFileResources(
-              availablePositionForTargetFiles.subList(0, requiredPositionNum), filesView.sequence);
+              availablePositionForTargetFiles.subList(0, requiredPositionNum),
+              filesView.sequence,
+              filesView.sourceFilesInCompactionPerformer);
     }
     filesView.targetFilesInLog =
         new ArrayList<>(
@@ -388,7 +529,14 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
     // instead of Collections.singletonList()
     performer.setTargetFiles(filesView.targetFilesInPerformer);
     performer.setSummary(summary);
+    if (isCheckpointSupported()) {
+      ((IResumableCompactionPerformer) performer).setCheckpointLogger(compactionLogger);
+      ((IResumableCompactionPerformer) performer).setResumeCheckpoint(resumeCheckpoint);
+      canResumeFromCheckpoint = true;
+    }
     performer.perform();
+    // the target files are complete, they are not resumable once renamed
+    canResumeFromCheckpoint = false;
 
     prepareTargetFiles();
 
@@ -434,6 +582,8 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
         filesView.sourceFilesInLog, filesView.sequence);
 
     CompactionMetrics.getInstance().recordSummaryInfo(summary);
+    CompactionUtils.recordTierMigrationSavedBytes(
+        filesView.sourceFilesInLog, filesView.targetFilesInLog);
   }
 
   protected void prepareTargetFiles() throws IOException {
@@ -589,6 +739,18 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
     return filesView.sortedAllSourceFilesInTask;
   }
 
+  @Override
+  protected String getMemoryEstimatorName() {
+    return innerSpaceEstimator == null
+        ? null
+        : innerSpaceEstimator.getCalibrationName(isRoughMemoryCost);
+  }
+
+  @Override
+  protected List<TsFileResource> getMemoryEstimateSourceFiles() {
+    return filesView.sourceFilesInCompactionPerformer;
+  }
+
   public List<TsFileResource> getSelectedTsFileResourceList() {
     return filesView.sourceFilesInCompactionPerformer;
   }
@@ -672,8 +834,9 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
     }
     if (innerSpaceEstimator != null && memoryCost == 0L) {
       try {
+        isRoughMemoryCost = CompactionEstimateUtils.shouldUseRoughEstimatedResult(roughMemoryCost);
         memoryCost =
-            CompactionEstimateUtils.shouldUseRoughEstimatedResult(roughMemoryCost)
+            isRoughMemoryCost
                 ? roughMemoryCost
                 : innerSpaceEstimator.estimateInnerCompactionMemory(
                     filesView.sourceFilesInCompactionPerformer);
@@ -33,6 +33,7 @@ public class FastCompactionTaskSummary extends CompactionTaskSummary {
   public int pageNoneOverlapButDeserialize;
 
   public void increase(FastCompactionTaskSummary summary) {
+    super.increase(summary);
     this.chunkNoneOverlap += summary.chunkNoneOverlap;
     this.chunkNoneOverlapButDeserialize += summary.chunkNoneOverlapButDeserialize;
     this.chunkOverlapOrModified += summary.chunkOverlapOrModified;
@@ -40,11 +41,6 @@ public class FastCompactionTaskSummary extends CompactionTaskSummary {
     this.pageOverlapOrModified += summary.pageOverlapOrModified;
     this.pageFakeOverlap += summary.pageFakeOverlap;
     this.pageNoneOverlapButDeserialize += summary.pageNoneOverlapButDeserialize;
-    this.processChunkNum += summary.processChunkNum;
-    this.processPointNum += summary.processPointNum;
-    this.directlyFlushChunkNum += summary.directlyFlushChunkNum;
-    this.mergedChunkNum += summary.mergedChunkNum;
-    this.deserializeChunkCount += summary.deserializeChunkCount;
   }
 
   @Override
@@ -53,13 +49,17 @@ public class FastCompactionTaskSummary extends CompactionTaskSummary {
         "CHUNK_NONE_OVERLAP num is %d, CHUNK_NONE_OVERLAP_BUT_DESERIALIZE num is %d,"
             + " CHUNK_OVERLAP_OR_MODIFIED num is %d, PAGE_NONE_OVERLAP num is %d,"
             + " PAGE_NONE_OVERLAP_BUT_DESERIALIZE num is %d, PAGE_OVERLAP_OR_MODIFIED num is %d,"
-            + " PAGE_FAKE_OVERLAP num is %d.",
+            + " PAGE_FAKE_OVERLAP num is %d, DIRECTLY_FLUSH_BYTE num is %d,"
+            + " REWRITE_BYTE num is %d, PEAK_MEMORY_COST is %d.",
         chunkNoneOverlap,
         chunkNoneOverlapButDeserialize,
         chunkOverlapOrModified,
         pageNoneOverlap,
         pageNoneOverlapButDeserialize,
         pageOverlapOrModified,
-        pageFakeOverlap);
+        pageFakeOverlap,
+        directlyFlushByteNum,
+        rewriteByteNum,
+        peakMemoryCost);
   }
 }
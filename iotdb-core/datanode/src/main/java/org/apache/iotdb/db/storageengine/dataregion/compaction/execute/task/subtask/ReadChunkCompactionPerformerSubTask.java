@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.subtask;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CompactionTaskSummary;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.SeriesChunkBuffer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.SingleSeriesCompactionExecutor;
+
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.utils.Pair;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * This class is used to compact one nonAligned series of inner space compaction in the sub
+ * compaction thread. The compacted chunks are buffered in the {@link SeriesChunkBuffer} and
+ * appended to the target file by the compaction thread.
+ */
+@SuppressWarnings("squid:S1319")
+public class ReadChunkCompactionPerformerSubTask implements Callable<Void> {
+
+  private final IDeviceID device;
+
+  private final String measurement;
+
+  private final LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>>
+      readerAndChunkMetadataList;
+
+  private final SeriesChunkBuffer chunkBuffer;
+
+  // the summary is merged into the summary of the task by the compaction thread after this sub task
+  // finishes, because it is not thread safe
+  private final CompactionTaskSummary summary = new CompactionTaskSummary();
+
+  public ReadChunkCompactionPerformerSubTask(
+      IDeviceID device,
+      String measurement,
+      LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>> readerAndChunkMetadataList,
+      long maxBufferedChunkSize) {
+    this.device = device;
+    this.measurement = measurement;
+    this.readerAndChunkMetadataList = readerAndChunkMetadataList;
+    this.chunkBuffer = new SeriesChunkBuffer(maxBufferedChunkSize);
+  }
+
+  @Override
+  public Void call() throws IOException {
+    try {
+      new SingleSeriesCompactionExecutor(
+              device, measurement, readerAndChunkMetadataList, chunkBuffer, summary)
+          .execute();
+    } finally {
+      chunkBuffer.finish();
+    }
+    return null;
+  }
+
+  public SeriesChunkBuffer getChunkBuffer() {
+    return chunkBuffer;
+  }
+
+  public CompactionTaskSummary getSummary() {
+    return summary;
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the peak memory actually held by one compaction task, which is compared with the estimated
+ * memory cost to calibrate the estimators. The tracker is bound to the compaction thread and the
+ * sub compaction threads of the task, and it counts the same structures as the estimators:
+ *
+ * <p>1. The data read from the source files is held until the thread writes a target chunk.
+ *
+ * <p>2. The metadata read from the source files is held until the thread finishes the chunk group.
+ *
+ * <p>3. The target chunk writer is held until it is written to the target file.
+ *
+ * <p>The data read by a sub task whose chunks are buffered and written by the compaction thread is
+ * handed off with the buffered chunk, and released when the chunk is written.
+ */
+public class CompactionMemoryTracker {
+
+  private static final ThreadLocal<ThreadContext> CONTEXT = new ThreadLocal<>();
+
+  private final AtomicLong inFlightMemory = new AtomicLong(0);
+  private final AtomicLong peakMemory = new AtomicLong(0);
+
+  /**
+   * Bind this tracker to the current thread until the returned binding is closed. The memory
+   * counted by the current thread is released when the binding is closed.
+   */
+  public Binding bindToCurrentThread() {
+    ThreadContext previous = CONTEXT.get();
+    ThreadContext context = new ThreadContext(this);
+    CONTEXT.set(context);
+    return new Binding(context, previous);
+  }
+
+  /** Wrap the sub task so that it is tracked by the tracker bound to the current thread. */
+  public static <V> Callable<V> wrap(Callable<V> callable) {
+    ThreadContext context = CONTEXT.get();
+    if (context == null) {
+      return callable;
+    }
+    CompactionMemoryTracker tracker = context.tracker;
+    return () -> {
+      try (Binding ignored = tracker.bindToCurrentThread()) {
+        return callable.call();
+      }
+    };
+  }
+
+  public static void recordRead(long size, boolean isMetadata) {
+    ThreadContext context = CONTEXT.get();
+    if (context == null || size <= 0) {
+      return;
+    }
+    if (isMetadata) {
+      context.metadataMemory += size;
+    } else {
+      context.dataMemory += size;
+    }
+    context.tracker.allocate(size);
+  }
+
+  /**
+   * @param chunkWriterMemory the memory of the chunk writer to be written, 0 if the chunk is
+   *     flushed directly
+   */
+  public static void recordChunkWritten(long chunkWriterMemory) {
+    ThreadContext context = CONTEXT.get();
+    if (context == null) {
+      return;
+    }
+    context.tracker.updatePeak(context.tracker.inFlightMemory.get() + chunkWriterMemory);
+    context.tracker.release(context.dataMemory);
+    context.dataMemory = 0;
+  }
+
+  /**
+   * Hand off the data read by the current thread to a chunk buffered for another thread, it stays
+   * counted until {@link #releaseHandedOff} is called by that thread.
+   *
+   * @return the size of the data handed off
+   */
+  public static long handOffReadData() {
+    ThreadContext context = CONTEXT.get();
+    if (context == null) {
+      return 0;
+    }
+    long size = context.dataMemory;
+    context.dataMemory = 0;
+    return size;
+  }
+
+  /** Release the data handed off with a buffered chunk once the chunk is written or dropped. */
+  public static void releaseHandedOff(long size) {
+    ThreadContext context = CONTEXT.get();
+    if (context == null || size <= 0) {
+      return;
+    }
+    context.tracker.release(size);
+  }
+
+  public static void recordChunkGroupEnd() {
+    ThreadContext context = CONTEXT.get();
+    if (context == null) {
+      return;
+    }
+    context.tracker.release(context.dataMemory + context.metadataMemory);
+    context.dataMemory = 0;
+    context.metadataMemory = 0;
+  }
+
+  public long getPeakMemory() {
+    return peakMemory.get();
+  }
+
+  private void allocate(long size) {
+    updatePeak(inFlightMemory.addAndGet(size));
+  }
+
+  private void release(long size) {
+    inFlightMemory.addAndGet(-size);
+  }
+
+  private void updatePeak(long memory) {
+    peakMemory.accumulateAndGet(memory, Math::max);
+  }
+
+  private static class ThreadContext {
+    private final CompactionMemoryTracker tracker;
+    // only accessed by the bound thread
+    private long dataMemory = 0;
+    private long metadataMemory = 0;
+
+    private ThreadContext(CompactionMemoryTracker tracker) {
+      this.tracker = tracker;
+    }
+  }
+
+  public static class Binding implements AutoCloseable {
+    private final ThreadContext context;
+    private final ThreadContext previous;
+
+    private Binding(ThreadContext context, ThreadContext previous) {
+      this.context = context;
+      this.previous = previous;
+    }
+
+    @Override
+    public void close() {
+      context.tracker.release(context.dataMemory + context.metadataMemory);
+      context.dataMemory = 0;
+      context.metadataMemory = 0;
+      if (previous == null) {
+        CONTEXT.remove();
+      } else {
+        CONTEXT.set(previous);
+      }
+    }
+  }
+}
@@ -26,9 +26,14 @@ import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.service.metrics.CompactionMetrics;
 import org.apache.iotdb.db.service.metrics.FileMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionCheckpoint;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.TsFileIdentifier;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionIoScheduler;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.DiskIoTokenBucket;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.modification.DeletionPredicate;
 import org.apache.iotdb.db.storageengine.dataregion.modification.IDPredicate.FullExactMatch;
@@ -39,6 +44,7 @@ import org.apache.iotdb.db.storageengine.dataregion.modification.TableDeletionEn
 import org.apache.iotdb.db.storageengine.dataregion.modification.TreeDeletionEntry;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ArrayDeviceTimeIndex;
+import org.apache.iotdb.db.storageengine.dataregion.utils.lastCacheSnapshot.LastCacheSnapshotFile;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.SystemMetric;
 
@@ -53,6 +59,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -125,6 +132,9 @@ public class CompactionUtils {
     // serialize xxx.tsfile.resource
     targetResource.setFile(newFile);
     targetResource.serialize();
+    if (LastCacheSnapshotFile.isEnabled()) {
+      LastCacheSnapshotFile.generate(targetResource);
+    }
     targetResource.closeWithoutSettingStatus();
   }
 
@@ -246,6 +256,78 @@ public class CompactionUtils {
     }
   }
 
+  /**
+   * Write the modifications of the source files to the target files of a resumed task. Otherwise
+   * the deletions on the source files while the task was interrupted are not applied to the data
+   * written before the checkpoint. Applying a deletion twice is harmless.
+   */
+  public static void combineModsInResumedCompaction(
+      Collection<TsFileResource> sourceFiles, List<TsFileResource> targetTsFiles)
+      throws IOException {
+    Set<ModEntry> modifications = new HashSet<>();
+    for (TsFileResource sourceFile : sourceFiles) {
+      modifications.addAll(sourceFile.getAllModEntries());
+    }
+    for (TsFileResource targetTsFile : targetTsFiles) {
+      updateOneTargetMods(targetTsFile, modifications);
+    }
+  }
+
+  /**
+   * Find the tmp target file of an interrupted compaction task in the data directories. If the
+   * target file has been moved aside while it was being resumed, its original path is returned.
+   *
+   * @return null if the target file is not found
+   */
+  public static File findResumableTargetFile(TsFileIdentifier targetFileIdentifier) {
+    File targetFile = targetFileIdentifier.getFileFromDataDirs();
+    if (targetFile != null) {
+      return targetFile;
+    }
+    for (String dataDir : IoTDBDescriptor.getInstance().getConfig().getDataDirs()) {
+      File file =
+          FSFactoryProducer.getFSFactory().getFile(dataDir, targetFileIdentifier.getFilePath());
+      if (new File(file.getPath() + CompactionCheckpoint.CHECKPOINT_FILE_SUFFIX).exists()) {
+        return file;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Delete the tmp target files and the log of an interrupted compaction task which will not be
+   * resumed. The complete target files are never deleted here.
+   */
+  public static boolean deleteResumableCompaction(
+      File logFile, List<TsFileIdentifier> targetFileIdentifiers) {
+    boolean success = true;
+    for (TsFileIdentifier targetFileIdentifier : targetFileIdentifiers) {
+      File targetFile = findResumableTargetFile(targetFileIdentifier);
+      if (targetFile == null) {
+        continue;
+      }
+      if (!new TsFileResource(targetFile).remove()) {
+        success = false;
+      }
+      try {
+        Files.deleteIfExists(
+            new File(targetFile.getPath() + CompactionCheckpoint.CHECKPOINT_FILE_SUFFIX).toPath());
+      } catch (IOException e) {
+        logger.error("[Compaction] Failed to delete the checkpoint file of {}", targetFile, e);
+        success = false;
+      }
+    }
+    if (success) {
+      try {
+        Files.deleteIfExists(logFile.toPath());
+      } catch (IOException e) {
+        logger.error("[Compaction] Failed to delete compaction log {}", logFile, e);
+        success = false;
+      }
+    }
+    return success;
+  }
+
   public static void addFilesToFileMetrics(TsFileResource resource) {
     FileMetrics.getInstance()
         .addTsFile(
@@ -256,6 +338,27 @@ public class CompactionUtils {
             resource.getTsFile().getName());
   }
 
+  /**
+   * Record the size of the target files which are written to a colder tier than all the source
+   * files, they would have been written to the tier of the source files and migrated otherwise.
+   */
+  public static void recordTierMigrationSavedBytes(
+      List<TsFileResource> sourceFiles, List<TsFileResource> targetFiles) {
+    int maxSourceTierLevel = 0;
+    for (TsFileResource sourceFile : sourceFiles) {
+      maxSourceTierLevel = Math.max(sourceFile.getTierLevel(), maxSourceTierLevel);
+    }
+    long savedBytes = 0;
+    for (TsFileResource targetFile : targetFiles) {
+      if (!targetFile.isDeleted() && targetFile.getTierLevel() > maxSourceTierLevel) {
+        savedBytes += targetFile.getTsFileSize();
+      }
+    }
+    if (savedBytes > 0) {
+      CompactionMetrics.getInstance().recordTierMigrationSavedBytes(savedBytes);
+    }
+  }
+
   private static void updateOneTargetMods(TsFileResource targetFile, Set<ModEntry> modifications)
       throws IOException {
     if (!modifications.isEmpty()) {
@@ -427,9 +530,12 @@ public class CompactionUtils {
         new File(resource.getTsFilePath() + TsFileResource.RESOURCE_SUFFIX).length();
     CompactionTaskManager.getInstance().getCompactionReadOperationRateLimiter().acquire(1);
     CompactionMetrics.getInstance().recordDeserializeResourceInfo(resourceFileSize);
+    DiskIoTokenBucket diskIoTokenBucket =
+        CompactionIoScheduler.getInstance().getDiskIoTokenBucket(resource.getTsFilePath());
     while (resourceFileSize > 0) {
       int readSize = (int) Math.min(resourceFileSize, Integer.MAX_VALUE);
       CompactionTaskManager.getInstance().getCompactionReadRateLimiter().acquire(readSize);
+      CompactionIoScheduler.getInstance().acquireRead(diskIoTokenBucket, readSize);
       resourceFileSize -= readSize;
     }
     return resource.buildDeviceTimeIndex();
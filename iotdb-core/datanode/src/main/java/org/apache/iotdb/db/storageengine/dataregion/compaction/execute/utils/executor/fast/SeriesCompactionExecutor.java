@@ -185,10 +185,12 @@ public abstract class SeriesCompactionExecutor {
    */
   private void compactWithNonOverlapChunk(ChunkMetadataElement chunkMetadataElement)
       throws IOException, PageException, WriteProcessException, IllegalPathException {
+    long chunkDataSize = chunkMetadataElement.getChunkDataSize();
     boolean success = flushChunkToCompactionWriter(chunkMetadataElement);
     if (success) {
       // flush chunk successfully, then remove this chunk
       updateSummary(chunkMetadataElement, ChunkStatus.DIRECTORY_FLUSH);
+      summary.increaseDirectlyFlushByteNum(chunkDataSize);
       checkShouldRemoveFile(chunkMetadataElement);
     } else {
       // unsealed chunk is not large enough or chunk.endTime > file.endTime, then deserialize chunk
@@ -237,7 +239,7 @@ public abstract class SeriesCompactionExecutor {
           || firstPageElement.needForceDecoding()) {
         // has overlap or modified pages, then deserialize it
         summary.pageOverlapOrModified += 1;
-        if (pointPriorityReader.addNewPageIfPageNotEmpty(firstPageElement)) {
+        if (addPageIntoPointPriorityReader(firstPageElement)) {
           compactWithOverlapPages();
         }
       } else {
@@ -253,11 +255,12 @@ public abstract class SeriesCompactionExecutor {
     boolean success = flushPageToCompactionWriter(pageElement);
     if (success) {
       // flush the page successfully, then remove this page
+      summary.increaseDirectlyFlushByteNum(pageElement.getCompressedSize());
       checkShouldRemoveFile(pageElement);
     } else {
       // unsealed page is not large enough or page.endTime > file.endTime, then deserialze it
       summary.pageNoneOverlapButDeserialize += 1;
-      if (!pointPriorityReader.addNewPageIfPageNotEmpty(pageElement)) {
+      if (!addPageIntoPointPriorityReader(pageElement)) {
         return;
       }
 
@@ -278,6 +281,18 @@ public abstract class SeriesCompactionExecutor {
   protected abstract boolean flushPageToCompactionWriter(PageElement pageElement)
       throws PageException, IOException;
 
+  /**
+   * Deserialize the page into point priority reader, its data will be decoded and rewritten into
+   * the target file point by point.
+   *
+   * @return false if the page is empty after deserializing
+   */
+  private boolean addPageIntoPointPriorityReader(PageElement pageElement)
+      throws IOException, IllegalPathException, WriteProcessException {
+    summary.increaseRewriteByteNum(pageElement.getCompressedSize());
+    return pointPriorityReader.addNewPageIfPageNotEmpty(pageElement);
+  }
+
   /**
    * Compact a series of pages that overlap with each other. Eg: The parameters are page 1 and page
    * 2, that is, page 1 only overlaps with page 2, while page 2 overlap with page 3, page 3 overlap
@@ -338,7 +353,7 @@ public abstract class SeriesCompactionExecutor {
           || nextPageElement.needForceDecoding()) {
         // next page is overlapped or modified, then deserialize it
         summary.pageOverlapOrModified++;
-        pointPriorityReader.addNewPageIfPageNotEmpty(nextPageElement);
+        addPageIntoPointPriorityReader(nextPageElement);
       } else {
         // has none overlap or modified pages, flush it to chunk writer directly
         summary.pageFakeOverlap += 1;
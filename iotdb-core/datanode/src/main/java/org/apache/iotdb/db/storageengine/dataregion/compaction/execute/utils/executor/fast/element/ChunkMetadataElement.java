@@ -55,6 +55,19 @@ public class ChunkMetadataElement {
     valueChunks = null;
   }
 
+  /** The size of the chunk data read in, excluding the chunk headers. */
+  public long getChunkDataSize() {
+    long dataSize = chunk == null ? 0 : chunk.getHeader().getDataSize();
+    if (valueChunks != null) {
+      for (Chunk valueChunk : valueChunks) {
+        if (valueChunk != null) {
+          dataSize += valueChunk.getHeader().getDataSize();
+        }
+      }
+    }
+    return dataSize;
+  }
+
   public MergeReaderPriority getPriority() {
     return this.fileElement.getPriority();
   }
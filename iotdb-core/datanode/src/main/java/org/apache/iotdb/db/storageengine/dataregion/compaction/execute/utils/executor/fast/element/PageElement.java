@@ -46,6 +46,9 @@ public abstract class PageElement {
 
   public abstract long getEndTime();
 
+  /** The size of the compressed page data, excluding the page header. */
+  public abstract long getCompressedSize();
+
   public ChunkMetadataElement getChunkMetadataElement() {
     return chunkMetadataElement;
   }
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionMemoryTracker;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionTsFileWriter;
+
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.write.chunk.ChunkWriterImpl;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Buffers the chunks of one series compacted by a sub task of inner space compaction. The chunks
+ * are appended to the target file by the compaction thread in the order of series, so that the sub
+ * tasks never write the target file concurrently. The sub task is blocked when the size of the
+ * buffered chunks exceeds the limit until the compaction thread drains them, which bounds the
+ * memory cost of the sub task.
+ */
+public class SeriesChunkBuffer {
+
+  private final long maxBufferedSize;
+
+  private final Deque<BufferedChunk> bufferedChunks = new ArrayDeque<>();
+  private long bufferedSize = 0;
+
+  private boolean finished = false;
+  private boolean aborted = false;
+
+  // record the min time and max time to update the target resource
+  private boolean timeRangeSet = false;
+  private long startTime;
+  private long endTime;
+
+  public SeriesChunkBuffer(long maxBufferedSize) {
+    this.maxBufferedSize = maxBufferedSize;
+  }
+
+  /** Buffer a chunk read from the source file, which is written to the target file directly. */
+  public synchronized void put(Chunk chunk, ChunkMetadata chunkMetadata) throws IOException {
+    put(
+        new BufferedChunk(
+            chunk,
+            chunkMetadata,
+            null,
+            (long) chunk.getHeader().getSerializedSize() + chunk.getHeader().getDataSize()));
+  }
+
+  /**
+   * Buffer a chunk writer containing the rewritten points. The chunk writer should not be used by
+   * the caller any more.
+   */
+  public synchronized void put(ChunkWriterImpl chunkWriter) throws IOException {
+    put(new BufferedChunk(null, null, chunkWriter, chunkWriter.estimateMaxSeriesMemSize()));
+  }
+
+  private void put(BufferedChunk bufferedChunk) throws IOException {
+    // the data read for the chunk is released when the compaction thread writes the chunk
+    bufferedChunk.handedOffMemory = CompactionMemoryTracker.handOffReadData();
+    // at least one chunk can be buffered whatever its size is
+    while (!aborted
+        && !bufferedChunks.isEmpty()
+        && bufferedSize + bufferedChunk.size > maxBufferedSize) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        CompactionMemoryTracker.releaseHandedOff(bufferedChunk.handedOffMemory);
+        throw new InterruptedIOException("[Compaction] sub task is interrupted");
+      }
+    }
+    if (aborted) {
+      CompactionMemoryTracker.releaseHandedOff(bufferedChunk.handedOffMemory);
+      throw new InterruptedIOException("[Compaction] sub task is aborted");
+    }
+    bufferedChunks.add(bufferedChunk);
+    bufferedSize += bufferedChunk.size;
+    notifyAll();
+  }
+
+  public synchronized void updateTimeRange(long startTime, long endTime) {
+    if (!timeRangeSet || startTime < this.startTime) {
+      this.startTime = startTime;
+    }
+    if (!timeRangeSet || endTime > this.endTime) {
+      this.endTime = endTime;
+    }
+    timeRangeSet = true;
+  }
+
+  /** Called by the sub task when it finishes, no matter whether it succeeds or not. */
+  public synchronized void finish() {
+    finished = true;
+    notifyAll();
+  }
+
+  /** Called by the compaction thread to release the sub task blocked on the buffer. */
+  public synchronized void abort() {
+    aborted = true;
+    for (BufferedChunk bufferedChunk : bufferedChunks) {
+      CompactionMemoryTracker.releaseHandedOff(bufferedChunk.handedOffMemory);
+    }
+    bufferedChunks.clear();
+    bufferedSize = 0;
+    notifyAll();
+  }
+
+  /**
+   * Append the chunks to the target file until the sub task finishes. The chunks are written
+   * outside the lock, thus the sub task can keep compacting while the compaction thread is doing
+   * IO.
+   */
+  public void drainTo(CompactionTsFileWriter writer) throws IOException, InterruptedException {
+    while (true) {
+      BufferedChunk bufferedChunk;
+      synchronized (this) {
+        while (bufferedChunks.isEmpty() && !finished) {
+          wait();
+        }
+        if (bufferedChunks.isEmpty()) {
+          return;
+        }
+        bufferedChunk = bufferedChunks.peek();
+      }
+      bufferedChunk.writeTo(writer);
+      CompactionMemoryTracker.releaseHandedOff(bufferedChunk.handedOffMemory);
+      synchronized (this) {
+        bufferedChunks.poll();
+        bufferedSize -= bufferedChunk.size;
+        notifyAll();
+      }
+    }
+  }
+
+  public synchronized boolean isTimeRangeSet() {
+    return timeRangeSet;
+  }
+
+  public synchronized long getStartTime() {
+    return startTime;
+  }
+
+  public synchronized long getEndTime() {
+    return endTime;
+  }
+
+  private static class BufferedChunk {
+    private final Chunk chunk;
+    private final ChunkMetadata chunkMetadata;
+    private final ChunkWriterImpl chunkWriter;
+    private final long size;
+    private long handedOffMemory;
+
+    private BufferedChunk(
+        Chunk chunk, ChunkMetadata chunkMetadata, ChunkWriterImpl chunkWriter, long size) {
+      this.chunk = chunk;
+      this.chunkMetadata = chunkMetadata;
+      this.chunkWriter = chunkWriter;
+      this.size = size;
+    }
+
+    private void writeTo(CompactionTsFileWriter writer) throws IOException {
+      if (chunkWriter != null) {
+        writer.writeChunk(chunkWriter);
+      } else {
+        writer.writeChunk(chunk, chunkMetadata);
+      }
+    }
+  }
+}
@@ -51,6 +51,8 @@ public class SingleSeriesCompactionExecutor {
   private LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>> readerAndChunkMetadataList;
   private CompactionTsFileWriter fileWriter;
   private TsFileResource targetResource;
+  // if not null, the compacted chunks are buffered here rather than written to the file writer
+  private SeriesChunkBuffer chunkBuffer;
 
   private IMeasurementSchema schema;
   private ChunkWriterImpl chunkWriter;
@@ -112,6 +114,20 @@ public class SingleSeriesCompactionExecutor {
     this.summary = summary;
   }
 
+  /**
+   * Used by the sub task of inner space compaction, the compacted chunks are buffered in the chunk
+   * buffer and appended to the target file by the compaction thread.
+   */
+  public SingleSeriesCompactionExecutor(
+      IDeviceID device,
+      String measurement,
+      LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>> readerAndChunkMetadataList,
+      SeriesChunkBuffer chunkBuffer,
+      CompactionTaskSummary summary) {
+    this(device, measurement, readerAndChunkMetadataList, null, null, summary);
+    this.chunkBuffer = chunkBuffer;
+  }
+
   /**
    * This function execute the compaction of a single time series. Notice, the result of single
    * series compaction may contain more than one chunk.
@@ -160,6 +176,12 @@ public class SingleSeriesCompactionExecutor {
     } else if (pointCountInChunkWriter != 0L) {
       flushChunkWriter();
     }
+    if (chunkBuffer != null) {
+      if (minStartTimestampSet) {
+        chunkBuffer.updateTimeRange(minStartTimestamp, maxEndTimestamp);
+      }
+      return;
+    }
     fileWriter.checkMetadataSizeAndMayFlush();
     if (minStartTimestampSet) {
       targetResource.updateStartTime(device, minStartTimestamp);
@@ -351,14 +373,17 @@ public class SingleSeriesCompactionExecutor {
       maxEndTimestamp = chunkMetadata.getEndTime();
       maxEndTimestampSet = true;
     }
-    fileWriter.writeChunk(chunk, chunkMetadata);
+    if (chunkBuffer != null) {
+      chunkBuffer.put(chunk, chunkMetadata);
+    } else {
+      fileWriter.writeChunk(chunk, chunkMetadata);
+    }
   }
 
   private void flushChunkWriterIfLargeEnough() throws IOException {
     if (pointCountInChunkWriter >= targetChunkPointNum
         || chunkWriter.estimateMaxSeriesMemSize() >= targetChunkSize) {
-      fileWriter.writeChunk(chunkWriter);
-      pointCountInChunkWriter = 0L;
+      flushChunkWriter();
     }
   }
 
@@ -372,7 +397,13 @@ public class SingleSeriesCompactionExecutor {
   }
 
   private void flushChunkWriter() throws IOException {
-    fileWriter.writeChunk(chunkWriter);
+    if (chunkBuffer != null) {
+      // the buffered chunk writer is written to the file later, so use a new one
+      chunkBuffer.put(chunkWriter);
+      chunkWriter = new ChunkWriterImpl(schema);
+    } else {
+      fileWriter.writeChunk(chunkWriter);
+    }
     pointCountInChunkWriter = 0L;
   }
 
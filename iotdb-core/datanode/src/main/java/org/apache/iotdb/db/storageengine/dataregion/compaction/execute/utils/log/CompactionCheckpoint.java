@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log;
+
+/**
+ * The progress of a compaction task recorded in its log. All the data written to the target file of
+ * the index before the offset is durable, and the target files before it are complete.
+ */
+public class CompactionCheckpoint {
+
+  // the target file is moved to this name while its data before the checkpoint is copied back
+  public static final String CHECKPOINT_FILE_SUFFIX = ".checkpoint";
+
+  private final int targetFileIndex;
+  private final long offset;
+
+  public CompactionCheckpoint(int targetFileIndex, long offset) {
+    this.targetFileIndex = targetFileIndex;
+    this.offset = offset;
+  }
+
+  public int getTargetFileIndex() {
+    return targetFileIndex;
+  }
+
+  public long getOffset() {
+    return offset;
+  }
+
+  public String toLogString() {
+    return targetFileIndex + TsFileIdentifier.INFO_SEPARATOR + offset;
+  }
+
+  /**
+   * @return null if the info string is incomplete, which may be left by a crash
+   */
+  public static CompactionCheckpoint fromLogString(String infoString) {
+    String[] values = infoString.split(TsFileIdentifier.INFO_SEPARATOR);
+    if (values.length != 2) {
+      return null;
+    }
+    try {
+      return new CompactionCheckpoint(Integer.parseInt(values[0]), Long.parseLong(values[1]));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CompactionCheckpoint{targetFileIndex=" + targetFileIndex + ", offset=" + offset + '}';
+  }
+}
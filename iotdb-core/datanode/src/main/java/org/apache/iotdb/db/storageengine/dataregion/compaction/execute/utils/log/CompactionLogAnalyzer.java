@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
 
+import static org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionLogger.STR_CHECKPOINT;
 import static org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionLogger.STR_DELETED_TARGET_FILES;
 import static org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionLogger.STR_SOURCE_FILES;
 import static org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionLogger.STR_TARGET_FILES;
@@ -38,6 +39,7 @@ public class CompactionLogAnalyzer {
   private final List<TsFileIdentifier> targetFileInfos = new ArrayList<>();
   private final List<TsFileIdentifier> deletedTargetFileInfos = new ArrayList<>();
   private CompactionTaskStage taskStage;
+  private CompactionCheckpoint lastCheckpoint;
 
   public CompactionLogAnalyzer(File logFile) {
     this.logFile = logFile;
@@ -60,6 +62,14 @@ public class CompactionLogAnalyzer {
           fileInfo =
               currLine.replaceFirst(STR_DELETED_TARGET_FILES + TsFileIdentifier.INFO_SEPARATOR, "");
           deletedTargetFileInfos.add(TsFileIdentifier.getFileIdentifierFromInfoString(fileInfo));
+        } else if (currLine.startsWith(STR_CHECKPOINT) || STR_CHECKPOINT.startsWith(currLine)) {
+          CompactionCheckpoint checkpoint =
+              CompactionCheckpoint.fromLogString(
+                  currLine.replaceFirst(STR_CHECKPOINT + TsFileIdentifier.INFO_SEPARATOR, ""));
+          // the last line may be incomplete if the system crashed while recording it
+          if (checkpoint != null) {
+            lastCheckpoint = checkpoint;
+          }
         } else if (Stream.of(CompactionTaskStage.values())
             .anyMatch(stage -> lineValue.startsWith(stage.name()))) {
           taskStage = CompactionTaskStage.valueOf(currLine);
@@ -86,4 +96,11 @@ public class CompactionLogAnalyzer {
   public CompactionTaskStage getTaskStage() {
     return taskStage;
   }
+
+  /**
+   * @return null if no checkpoint is recorded
+   */
+  public CompactionCheckpoint getLastCheckpoint() {
+    return lastCheckpoint;
+  }
 }
@@ -38,6 +38,10 @@ public class CompactionLogger implements AutoCloseable {
   public static final String STR_SOURCE_FILES = "source";
   public static final String STR_TARGET_FILES = "target";
   public static final String STR_DELETED_TARGET_FILES = "empty";
+  public static final String STR_CHECKPOINT = "checkpoint";
+
+  // the log of a task interrupted after a checkpoint, which is kept until the task is resumed
+  public static final String RESUMABLE_COMPACTION_LOG_NAME_SUFFIX = ".resumable";
   private FileOutputStream logStream;
 
   public CompactionLogger(File logFile) throws IOException {
@@ -74,6 +78,18 @@ public class CompactionLogger implements AutoCloseable {
     logStream.flush();
   }
 
+  /** Record the progress of the task after the data before it has been synced to the disk. */
+  public void logCheckpoint(CompactionCheckpoint checkpoint) throws IOException {
+    String log =
+        STR_CHECKPOINT
+            + TsFileIdentifier.INFO_SEPARATOR
+            + checkpoint.toLogString()
+            + System.lineSeparator();
+    // written at once, so that a crash leaves at most an incomplete last line
+    logStream.write(log.getBytes());
+    force();
+  }
+
   public static File[] findCompactionLogs(boolean isInnerSpace, String directory) {
     File timePartitionDir = new File(directory);
     if (timePartitionDir.exists()) {
@@ -94,12 +110,23 @@ public class CompactionLogger implements AutoCloseable {
   public static File[] findCompactionLogs(CompactionTaskType type, File timePartitionDir) {
     if (timePartitionDir.exists()) {
       String logNameSuffix = getLogSuffix(type);
-      return timePartitionDir.listFiles((dir, name) -> name.endsWith(logNameSuffix));
+      return timePartitionDir.listFiles(
+          (dir, name) ->
+              name.endsWith(logNameSuffix)
+                  || name.endsWith(logNameSuffix + RESUMABLE_COMPACTION_LOG_NAME_SUFFIX));
     } else {
       return new File[0];
     }
   }
 
+  public static File getResumableLogFile(File logFile) {
+    return new File(logFile.getPath() + RESUMABLE_COMPACTION_LOG_NAME_SUFFIX);
+  }
+
+  public static boolean isResumableLogFile(File logFile) {
+    return logFile.getName().endsWith(RESUMABLE_COMPACTION_LOG_NAME_SUFFIX);
+  }
+
   public static String getLogSuffix(CompactionTaskType type) {
     String logNameSuffix = null;
     switch (type) {
@@ -38,6 +38,10 @@ public class CompactionDiskTSMIterator extends DiskTSMIterator {
       LinkedList<Long> endPosForEachDevice)
       throws IOException {
     super(cmtFile, chunkGroupMetadataList, endPosForEachDevice);
-    this.input = new CompactionTsFileInput(compactionType, this.input);
+    CompactionTsFileInput compactionTsFileInput =
+        new CompactionTsFileInput(compactionType, this.input);
+    // the chunk metadata is read from the temp file incrementally when the target file is sealed
+    compactionTsFileInput.disableMemoryTracking();
+    this.input = compactionTsFileInput;
   }
 }
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.io;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Schedules the compaction IO of each data directory with a {@link DiskIoTokenBucket}, so that the
+ * compaction on one disk is throttled independently of the others, and backs off when the queries
+ * reading the same disk slow down. It works together with the global rate limiters in {@link
+ * org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager}.
+ */
+public class CompactionIoScheduler {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  // the files not in any data directory, e.g. the files of load or pipe, share one bucket
+  private static final String OTHER_DIR = "others";
+
+  private static final int MAX_CACHED_FILE_NUM = 10_000;
+
+  private final Map<String, DiskIoTokenBucket> diskIoTokenBuckets = new ConcurrentHashMap<>();
+
+  // the bucket of the files recently read by the queries, so that the data directory of a file is
+  // resolved once instead of on every chunk load
+  private final Cache<String, DiskIoTokenBucket> fileDiskIoTokenBuckets =
+      Caffeine.newBuilder().maximumSize(MAX_CACHED_FILE_NUM).build();
+
+  private CompactionIoScheduler() {}
+
+  public static CompactionIoScheduler getInstance() {
+    return CompactionIoSchedulerHolder.INSTANCE;
+  }
+
+  /** Get the token bucket of the data directory which the file belongs to. */
+  public DiskIoTokenBucket getDiskIoTokenBucket(String filePath) {
+    return getOrCreateDiskIoTokenBucket(getDataDir(filePath));
+  }
+
+  /** Get the token buckets of all the local data directories. */
+  public List<DiskIoTokenBucket> getDiskIoTokenBuckets() {
+    List<DiskIoTokenBucket> buckets = new ArrayList<>();
+    for (String dataDir : config.getLocalDataDirs()) {
+      buckets.add(getOrCreateDiskIoTokenBucket(new File(dataDir).getAbsolutePath()));
+    }
+    return buckets;
+  }
+
+  public void acquireRead(DiskIoTokenBucket bucket, int size) {
+    bucket.acquireRead(size, config.getCompactionForegroundReadLatencyThresholdInMs());
+  }
+
+  public void acquireWrite(DiskIoTokenBucket bucket, int size) {
+    bucket.acquireWrite(size, config.getCompactionForegroundReadLatencyThresholdInMs());
+  }
+
+  /** Record the latency of a query reading the file from disk. */
+  public void recordForegroundReadLatency(String filePath, long costInNanos) {
+    if (config.getCompactionForegroundReadLatencyThresholdInMs() <= 0) {
+      return;
+    }
+    getCachedDiskIoTokenBucket(filePath).recordForegroundRead(costInNanos);
+  }
+
+  /**
+   * Whether the compaction on the data directory of the file should pause to yield the IO to the
+   * queries, which are still slow even though the compaction IO has been throttled to the minimum.
+   */
+  public boolean isForegroundOverloaded(String filePath) {
+    return getCachedDiskIoTokenBucket(filePath)
+        .isForegroundOverloaded(
+            System.currentTimeMillis(), config.getCompactionForegroundReadLatencyThresholdInMs());
+  }
+
+  /**
+   * @param readMbPerSec the read limit of each data directory, when <= 0, no limit
+   * @param writeMbPerSec the write limit of each data directory, when <= 0, no limit
+   */
+  public void setRates(double readMbPerSec, double writeMbPerSec) {
+    for (DiskIoTokenBucket bucket : diskIoTokenBuckets.values()) {
+      bucket.setMaxRates(readMbPerSec, writeMbPerSec);
+    }
+  }
+
+  private DiskIoTokenBucket getCachedDiskIoTokenBucket(String filePath) {
+    return filePath == null
+        ? getDiskIoTokenBucket(null)
+        : fileDiskIoTokenBuckets.get(filePath, this::getDiskIoTokenBucket);
+  }
+
+  private DiskIoTokenBucket getOrCreateDiskIoTokenBucket(String dataDir) {
+    return diskIoTokenBuckets.computeIfAbsent(
+        dataDir,
+        k -> {
+          DiskIoTokenBucket bucket = new DiskIoTokenBucket(k, System.currentTimeMillis());
+          bucket.setMaxRates(
+              config.getCompactionPerDiskReadThroughputMbPerSec(),
+              config.getCompactionPerDiskWriteThroughputMbPerSec());
+          return bucket;
+        });
+  }
+
+  private String getDataDir(String filePath) {
+    if (filePath == null) {
+      return OTHER_DIR;
+    }
+    String absoluteFilePath = new File(filePath).getAbsolutePath();
+    String result = OTHER_DIR;
+    int matchedLength = 0;
+    for (String dataDir : config.getLocalDataDirs()) {
+      String absoluteDataDir = new File(dataDir).getAbsolutePath();
+      // the data directories may be nested, choose the deepest one
+      if (absoluteDataDir.length() > matchedLength
+          && absoluteFilePath.startsWith(absoluteDataDir + File.separator)) {
+        result = absoluteDataDir;
+        matchedLength = absoluteDataDir.length();
+      }
+    }
+    return result;
+  }
+
+  private static class CompactionIoSchedulerHolder {
+    private static final CompactionIoScheduler INSTANCE = new CompactionIoScheduler();
+  }
+}
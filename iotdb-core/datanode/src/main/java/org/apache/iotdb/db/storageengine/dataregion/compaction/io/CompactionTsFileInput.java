@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.storageengine.dataregion.compaction.io;
 
 import org.apache.iotdb.db.service.metrics.CompactionMetrics;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionMemoryTracker;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionIoDataType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
@@ -42,15 +43,28 @@ public class CompactionTsFileInput implements TsFileInput {
   /** A flag that indicates if an aligned series is being read. */
   private volatile boolean readingAlignedSeries = false;
 
+  /** Whether the data read is counted as the memory held by the compaction task. */
+  private boolean trackMemory = true;
+
+  /** The token bucket of the data directory which the file belongs to. */
+  private final DiskIoTokenBucket diskIoTokenBucket;
+
   public CompactionTsFileInput(CompactionType compactionType, TsFileInput tsFileInput) {
     this.compactionType = compactionType;
     this.tsFileInput = tsFileInput;
+    this.diskIoTokenBucket =
+        CompactionIoScheduler.getInstance().getDiskIoTokenBucket(tsFileInput.getFilePath());
   }
 
   public void setMetadataOffset(long metadataOffset) {
     this.metadataOffset = metadataOffset;
   }
 
+  /** The data read is not counted as the memory held by the compaction task. */
+  public void disableMemoryTracking() {
+    this.trackMemory = false;
+  }
+
   /** Marks the start of reading an aligned series. */
   public void markStartOfAlignedSeries() {
     readingAlignedSeries = true;
@@ -137,9 +151,13 @@ public class CompactionTsFileInput implements TsFileInput {
   private void acquireReadDataSizeWithCompactionReadRateLimiter(int readDataSize) {
     CompactionTaskManager.getInstance().getCompactionReadOperationRateLimiter().acquire(1);
     CompactionTaskManager.getInstance().getCompactionReadRateLimiter().acquire(readDataSize);
+    CompactionIoScheduler.getInstance().acquireRead(diskIoTokenBucket, readDataSize);
   }
 
   private void updateMetrics(long position, long totalSize) {
+    if (trackMemory) {
+      CompactionMemoryTracker.recordRead(totalSize, position >= metadataOffset);
+    }
     if (position >= metadataOffset) {
       CompactionMetrics.getInstance()
           .recordReadInfo(compactionType, CompactionIoDataType.METADATA, totalSize);
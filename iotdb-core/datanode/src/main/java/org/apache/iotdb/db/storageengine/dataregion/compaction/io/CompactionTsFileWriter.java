@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.storageengine.dataregion.compaction.io;
 
 import org.apache.iotdb.db.service.metrics.CompactionMetrics;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionMemoryTracker;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionIoDataType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
@@ -58,7 +59,9 @@ public class CompactionTsFileWriter extends TsFileIOWriter {
     this.type = type;
     super.out =
         new CompactionTsFileOutput(
-            super.out, CompactionTaskManager.getInstance().getMergeWriteRateLimiter());
+            super.out,
+            CompactionTaskManager.getInstance().getMergeWriteRateLimiter(),
+            CompactionIoScheduler.getInstance().getDiskIoTokenBucket(file.getAbsolutePath()));
   }
 
   public void markStartingWritingAligned() {
@@ -71,6 +74,7 @@ public class CompactionTsFileWriter extends TsFileIOWriter {
 
   public void writeChunk(IChunkWriter chunkWriter) throws IOException {
     boolean isAligned = chunkWriter instanceof AlignedChunkWriterImpl;
+    CompactionMemoryTracker.recordChunkWritten(chunkWriter.estimateMaxSeriesMemSize());
     long beforeOffset = this.getPos();
     if (!chunkWriter.isEmpty()) {
       isEmptyTargetFile = false;
@@ -86,6 +90,7 @@ public class CompactionTsFileWriter extends TsFileIOWriter {
 
   @Override
   public void writeChunk(Chunk chunk, ChunkMetadata chunkMetadata) throws IOException {
+    CompactionMemoryTracker.recordChunkWritten(0);
     long beforeOffset = this.getPos();
     if (chunkMetadata.getNumOfPoints() != 0) {
       isEmptyTargetFile = false;
@@ -130,6 +135,7 @@ public class CompactionTsFileWriter extends TsFileIOWriter {
 
   @Override
   public void endChunkGroup() throws IOException {
+    CompactionMemoryTracker.recordChunkGroupEnd();
     if (currentDeviceId == null || chunkMetadataList.isEmpty()) {
       return;
     }
@@ -159,6 +165,12 @@ public class CompactionTsFileWriter extends TsFileIOWriter {
         : TSMIterator.getTSMIteratorInMemory(chunkGroupMetadataList);
   }
 
+  /** Flush the data written so far and sync it to the disk. */
+  public void sync() throws IOException {
+    out.flush();
+    out.force();
+  }
+
   public boolean isEmptyTargetFile() {
     return isEmptyTargetFile;
   }
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.io;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.service.metrics.CompactionMetrics;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The token buckets limiting the compaction read and write throughput of one data directory. The
+ * rates are adapted to the latency of the queries reading the same directory at the end of each
+ * window: when the average latency exceeds the threshold, the rate of a direction used in the
+ * window is halved based on the throughput observed in it; otherwise the rate is doubled until it
+ * reaches the configured limit, or restored to the configured limit directly if the compaction did
+ * not use half of it.
+ */
+public class DiskIoTokenBucket {
+
+  static final long WINDOW_IN_MS = 1000L;
+
+  // never throttle compaction below 1MB/s, otherwise it can not keep up with the writing
+  static final double MIN_RATE = 1024.0 * 1024.0;
+
+  // a window much longer than expected means the compaction was idle, so its throughput is stale
+  static final long STALE_WINDOW_IN_MS = 3 * WINDOW_IN_MS;
+
+  private final String dataDir;
+
+  private final AdaptiveRateLimiter readRateLimiter = new AdaptiveRateLimiter();
+  private final AdaptiveRateLimiter writeRateLimiter = new AdaptiveRateLimiter();
+
+  private volatile long windowStartTime;
+  private final AtomicLong readBytesInWindow = new AtomicLong(0);
+  private final AtomicLong writtenBytesInWindow = new AtomicLong(0);
+  private final AtomicLong foregroundReadCostInWindow = new AtomicLong(0);
+  private final AtomicLong foregroundReadCountInWindow = new AtomicLong(0);
+
+  private volatile double lastForegroundReadLatencyInMs = 0;
+
+  public DiskIoTokenBucket(String dataDir, long currentTime) {
+    this.dataDir = dataDir;
+    this.windowStartTime = currentTime;
+  }
+
+  public void acquireRead(int size, long latencyThresholdInMs) {
+    maybeAdjust(System.currentTimeMillis(), latencyThresholdInMs);
+    readRateLimiter.acquire(size);
+    readBytesInWindow.addAndGet(size);
+    CompactionMetrics.getInstance().recordDiskIoInfo(dataDir, true, size);
+  }
+
+  public void acquireWrite(int size, long latencyThresholdInMs) {
+    maybeAdjust(System.currentTimeMillis(), latencyThresholdInMs);
+    writeRateLimiter.acquire(size);
+    writtenBytesInWindow.addAndGet(size);
+    CompactionMetrics.getInstance().recordDiskIoInfo(dataDir, false, size);
+  }
+
+  public void recordForegroundRead(long costInNanos) {
+    foregroundReadCostInWindow.addAndGet(costInNanos);
+    foregroundReadCountInWindow.incrementAndGet();
+  }
+
+  /**
+   * @param readMbPerSec when <= 0, no limit
+   * @param writeMbPerSec when <= 0, no limit
+   */
+  public synchronized void setMaxRates(double readMbPerSec, double writeMbPerSec) {
+    readRateLimiter.setMaxRate(toRate(readMbPerSec));
+    writeRateLimiter.setMaxRate(toRate(writeMbPerSec));
+  }
+
+  /**
+   * @return true if the queries reading the directory are still slower than the threshold while the
+   *     compaction IO on it has been throttled to the minimum rate
+   */
+  public boolean isForegroundOverloaded(long currentTime, long latencyThresholdInMs) {
+    if (latencyThresholdInMs <= 0) {
+      return false;
+    }
+    // the window is not adjusted by the IO of the compaction tasks paused by this
+    maybeAdjust(currentTime, latencyThresholdInMs);
+    // an idle direction is not throttled, so it does not prevent the pause
+    return lastForegroundReadLatencyInMs > latencyThresholdInMs
+        && (readRateLimiter.isThrottledToMin() || writeRateLimiter.isThrottledToMin())
+        && (readRateLimiter.isThrottledToMin() || readRateLimiter.isIdle())
+        && (writeRateLimiter.isThrottledToMin() || writeRateLimiter.isIdle());
+  }
+
+  private void maybeAdjust(long currentTime, long latencyThresholdInMs) {
+    if (currentTime - windowStartTime >= WINDOW_IN_MS) {
+      adjust(currentTime, latencyThresholdInMs);
+    }
+  }
+
+  @TestOnly
+  synchronized void adjust(long currentTime, long latencyThresholdInMs) {
+    long elapsedTime = currentTime - windowStartTime;
+    if (elapsedTime < WINDOW_IN_MS) {
+      // adjusted by another thread
+      return;
+    }
+    windowStartTime = currentTime;
+    long readBytes = readBytesInWindow.getAndSet(0);
+    long writtenBytes = writtenBytesInWindow.getAndSet(0);
+    long foregroundReadCost = foregroundReadCostInWindow.getAndSet(0);
+    long foregroundReadCount = foregroundReadCountInWindow.getAndSet(0);
+    lastForegroundReadLatencyInMs =
+        foregroundReadCount == 0 ? 0 : foregroundReadCost / 1_000_000.0 / foregroundReadCount;
+
+    if (latencyThresholdInMs <= 0) {
+      readRateLimiter.setRate(readRateLimiter.maxRate);
+      writeRateLimiter.setRate(writeRateLimiter.maxRate);
+    } else if (lastForegroundReadLatencyInMs > latencyThresholdInMs) {
+      if (elapsedTime >= STALE_WINDOW_IN_MS) {
+        // the compaction IO is not what slows down the queries, keep the rates
+        readRateLimiter.markIdle();
+        writeRateLimiter.markIdle();
+        return;
+      }
+      readRateLimiter.throttle(readBytes, elapsedTime);
+      writeRateLimiter.throttle(writtenBytes, elapsedTime);
+    } else {
+      readRateLimiter.recover(readBytes, elapsedTime);
+      writeRateLimiter.recover(writtenBytes, elapsedTime);
+    }
+  }
+
+  private static double toRate(double mbPerSec) {
+    return mbPerSec <= 0 ? Double.MAX_VALUE : mbPerSec * 1024.0 * 1024.0;
+  }
+
+  public String getDataDir() {
+    return dataDir;
+  }
+
+  /**
+   * @return the current read rate in bytes per second, 0 means no limit
+   */
+  public long getReadRate() {
+    return readRateLimiter.getRateForMetric();
+  }
+
+  /**
+   * @return the current write rate in bytes per second, 0 means no limit
+   */
+  public long getWriteRate() {
+    return writeRateLimiter.getRateForMetric();
+  }
+
+  public double getLastForegroundReadLatencyInMs() {
+    return lastForegroundReadLatencyInMs;
+  }
+
+  private static class AdaptiveRateLimiter {
+    private final RateLimiter rateLimiter = RateLimiter.create(Double.MAX_VALUE);
+    // the configured rate and the current rate, Double.MAX_VALUE means no limit
+    private volatile double maxRate = Double.MAX_VALUE;
+    private volatile double rate = Double.MAX_VALUE;
+    // whether nothing went through the limiter in the last window
+    private volatile boolean idle = true;
+
+    private void acquire(int size) {
+      if (rate != Double.MAX_VALUE) {
+        rateLimiter.acquire(Math.max(size, 1));
+      }
+    }
+
+    private void setMaxRate(double maxRate) {
+      if (maxRate != this.maxRate) {
+        this.maxRate = maxRate;
+        setRate(maxRate);
+      }
+    }
+
+    private void throttle(long bytes, long elapsedTime) {
+      idle = bytes == 0;
+      if (idle) {
+        // the compaction does not use this direction, halving it would only hurt later windows
+        return;
+      }
+      double observedRate = bytes * 1000.0 / elapsedTime;
+      setRate(Math.max(MIN_RATE, Math.min(rate, observedRate) / 2));
+    }
+
+    private void recover(long bytes, long elapsedTime) {
+      idle = bytes == 0;
+      double observedRate = bytes * 1000.0 / elapsedTime;
+      if (rate >= maxRate || observedRate < rate / 2) {
+        // the compaction is not limited by the current rate
+        setRate(maxRate);
+      } else {
+        setRate(Math.min(maxRate, rate * 2));
+      }
+    }
+
+    private void setRate(double rate) {
+      if (Math.abs(this.rate - rate) > 0.0001) {
+        this.rate = rate;
+        rateLimiter.setRate(rate);
+      }
+    }
+
+    private void markIdle() {
+      idle = true;
+    }
+
+    private boolean isIdle() {
+      return idle;
+    }
+
+    private boolean isThrottledToMin() {
+      return rate <= MIN_RATE;
+    }
+
+    private long getRateForMetric() {
+      return rate == Double.MAX_VALUE ? 0 : (long) rate;
+    }
+  }
+}
@@ -304,6 +304,7 @@ public class CompactionScheduler {
               context.getCrossCompactionPerformer(),
               memoryCost.get(i),
               tsFileManager.getNextCompactionTaskId());
+      task.setRoughMemoryCost(taskList.get(i).isRoughMemoryCost());
       task.setCompactionConfigVersion(compactionConfigVersionWhenSelectTask);
       trySubmitCount = addTaskToWaitingQueue(Collections.singletonList(task));
     }
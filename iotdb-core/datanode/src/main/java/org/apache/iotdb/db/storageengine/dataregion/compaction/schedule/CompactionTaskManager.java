@@ -32,7 +32,10 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.Compacti
 import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.AbstractCompactionTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CompactionTaskSummary;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionMemoryTracker;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.comparator.DefaultCompactionTaskComparatorImpl;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.comparator.WorkloadAwareCompactionTaskComparatorImpl;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionPriority;
 import org.apache.iotdb.db.utils.datastructure.FixedPriorityBlockingQueue;
 
 import com.google.common.util.concurrent.RateLimiter;
@@ -60,6 +63,10 @@ public class CompactionTaskManager implements IService {
 
   private static final long MAX_WAITING_TIME = 120_000L;
 
+  // how often the workload scores of the waiting tasks are recalculated, only used by
+  // WORKLOAD_AWARE priority
+  private static final long WORKLOAD_SCORE_REFRESH_INTERVAL_IN_MS = 60_000L;
+
   private static final CompactionTaskManager INSTANCE = new CompactionTaskManager();
 
   private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
@@ -74,12 +81,16 @@ public class CompactionTaskManager implements IService {
 
   private final FixedPriorityBlockingQueue<AbstractCompactionTask> candidateCompactionTaskQueue =
       new CompactionTaskQueue(
-          config.getCandidateCompactionTaskQueueSize(), new DefaultCompactionTaskComparatorImpl());
+          config.getCandidateCompactionTaskQueueSize(),
+          config.getCompactionPriority() == CompactionPriority.WORKLOAD_AWARE
+              ? new WorkloadAwareCompactionTaskComparatorImpl()
+              : new DefaultCompactionTaskComparatorImpl());
   // <StorageGroup-DataRegionId,futureSet>, it is used to store all compaction tasks under each
   // virtualStorageGroup
   private final Map<String, Map<AbstractCompactionTask, Future<CompactionTaskSummary>>>
       storageGroupTasks = new ConcurrentHashMap<>();
   private final AtomicInteger finishedTaskNum = new AtomicInteger(0);
+  private long lastWorkloadScoreRefreshTime = System.currentTimeMillis();
 
   private final RateLimiter mergeWriteRateLimiter =
       RateLimiter.create(
@@ -269,12 +280,33 @@ public class CompactionTaskManager implements IService {
         && !isTaskRunning(compactionTask)
         && compactionTask.setSourceFilesToCompactionCandidate()
         && compactionTask.getCompactionConfigVersion() >= getCurrentCompactionConfigVersion()) {
+      if (TimePartitionAccessTracker.getInstance().isEnabled()) {
+        compactionTask.setWorkloadScore(
+            WorkloadAwareCompactionTaskComparatorImpl.calculateWorkloadScore(compactionTask));
+        refreshWorkloadScoresIfNecessary();
+      }
       candidateCompactionTaskQueue.put(compactionTask);
       return true;
     }
     return false;
   }
 
+  /**
+   * The access frequency of the time partitions keeps changing while the tasks are waiting, so the
+   * scores of the waiting tasks are recalculated and the queue is reordered periodically.
+   */
+  private void refreshWorkloadScoresIfNecessary() {
+    long currentTime = System.currentTimeMillis();
+    if (currentTime - lastWorkloadScoreRefreshTime < WORKLOAD_SCORE_REFRESH_INTERVAL_IN_MS) {
+      return;
+    }
+    lastWorkloadScoreRefreshTime = currentTime;
+    candidateCompactionTaskQueue.reorder(
+        task ->
+            task.setWorkloadScore(
+                WorkloadAwareCompactionTaskComparatorImpl.calculateWorkloadScore(task)));
+  }
+
   private boolean isTaskRunning(AbstractCompactionTask task) {
     String regionWithSG = getSgWithRegionId(task.getStorageGroupName(), task.getDataRegionId());
     return storageGroupTasks
@@ -327,7 +359,8 @@ public class CompactionTaskManager implements IService {
   public synchronized Future<Void> submitSubTask(Callable<Void> subCompactionTask)
       throws InterruptedException {
     if (subCompactionTaskExecutionPool != null && !subCompactionTaskExecutionPool.isShutdown()) {
-      return subCompactionTaskExecutionPool.submit(subCompactionTask);
+      // the memory held by the sub task is counted into the task submitting it
+      return subCompactionTaskExecutionPool.submit(CompactionMemoryTracker.wrap(subCompactionTask));
     }
     throw new InterruptedException();
   }
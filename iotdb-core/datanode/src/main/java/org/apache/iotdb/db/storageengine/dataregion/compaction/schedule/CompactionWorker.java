@@ -84,6 +84,10 @@ public class CompactionWorker implements Runnable {
           .updateCompactionTaskSelectedFileNum(taskType, task.getAllSourceTsFiles().size());
       CompactionMetrics.getInstance()
           .updateCompactionTaskSelectedFileSize(taskType, task.getSelectedFileSize());
+      if (TimePartitionAccessTracker.getInstance().isEnabled()) {
+        CompactionMetrics.getInstance()
+            .updateCompactionTaskWorkloadScore(taskType, task.getWorkloadScore());
+      }
       CompactionTaskSummary summary = task.getSummary();
       CompactionTaskFuture future = new CompactionTaskFuture(summary);
       CompactionTaskManager.getInstance().recordTask(task, future);
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.schedule;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionPriority;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks how frequently each time partition of each data region is queried. Every construction of a
+ * QueryDataSource counts as one access of the time partitions it covers, and the counts decay
+ * exponentially with the configured half-life, so that the frequency reflects the recent workload.
+ * It is only enabled when the compaction priority is {@link CompactionPriority#WORKLOAD_AWARE}.
+ */
+public class TimePartitionAccessTracker {
+
+  private final boolean enabled;
+  private final double halfLifeInMs;
+
+  // dataRegionId -> timePartition -> decayed access count
+  private final Map<String, Map<Long, DecayedCounter>> accessCounters = new ConcurrentHashMap<>();
+
+  private TimePartitionAccessTracker() {
+    this(
+        IoTDBDescriptor.getInstance().getConfig().getCompactionPriority()
+            == CompactionPriority.WORKLOAD_AWARE,
+        IoTDBDescriptor.getInstance().getConfig().getCompactionQueryAccessHalfLifeInMs());
+  }
+
+  @TestOnly
+  public TimePartitionAccessTracker(boolean enabled, long halfLifeInMs) {
+    this.enabled = enabled;
+    this.halfLifeInMs = halfLifeInMs;
+  }
+
+  public static TimePartitionAccessTracker getInstance() {
+    return TimePartitionAccessTrackerHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void recordAccess(String dataRegionId, Collection<Long> timePartitions) {
+    recordAccess(dataRegionId, timePartitions, System.currentTimeMillis());
+  }
+
+  @TestOnly
+  public void recordAccess(String dataRegionId, Collection<Long> timePartitions, long currentTime) {
+    if (!enabled || timePartitions.isEmpty()) {
+      return;
+    }
+    Map<Long, DecayedCounter> partitionCounters =
+        accessCounters.computeIfAbsent(dataRegionId, k -> new ConcurrentHashMap<>());
+    for (long timePartition : timePartitions) {
+      partitionCounters
+          .computeIfAbsent(timePartition, k -> new DecayedCounter())
+          .increase(currentTime, halfLifeInMs);
+    }
+  }
+
+  /**
+   * @return the decayed access count of the time partition, 0 if it has never been queried
+   */
+  public double getAccessFrequency(String dataRegionId, long timePartition) {
+    return getAccessFrequency(dataRegionId, timePartition, System.currentTimeMillis());
+  }
+
+  @TestOnly
+  public double getAccessFrequency(String dataRegionId, long timePartition, long currentTime) {
+    Map<Long, DecayedCounter> partitionCounters = accessCounters.get(dataRegionId);
+    if (partitionCounters == null) {
+      return 0;
+    }
+    DecayedCounter counter = partitionCounters.get(timePartition);
+    return counter == null ? 0 : counter.get(currentTime, halfLifeInMs);
+  }
+
+  public void removeDataRegion(String dataRegionId) {
+    accessCounters.remove(dataRegionId);
+  }
+
+  private static class DecayedCounter {
+    private double value = 0;
+    private long lastUpdateTime = 0;
+
+    private synchronized void increase(long currentTime, double halfLifeInMs) {
+      value = decay(currentTime, halfLifeInMs) + 1;
+      lastUpdateTime = Math.max(lastUpdateTime, currentTime);
+    }
+
+    private synchronized double get(long currentTime, double halfLifeInMs) {
+      return decay(currentTime, halfLifeInMs);
+    }
+
+    private double decay(long currentTime, double halfLifeInMs) {
+      long elapsedTime = currentTime - lastUpdateTime;
+      return elapsedTime <= 0 ? value : value * Math.pow(0.5, elapsedTime / halfLifeInMs);
+    }
+  }
+
+  private static class TimePartitionAccessTrackerHolder {
+    private static final TimePartitionAccessTracker INSTANCE = new TimePartitionAccessTracker();
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.comparator;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.AbstractCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CrossSpaceCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.RepairUnsortedFileCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.SettleCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.TimePartitionAccessTracker;
+
+/**
+ * Orders the inner space and cross space compaction tasks by the expected read amplification they
+ * save, i.e. the number of overlapping files eliminated by the task multiplied by the recent query
+ * access frequency of its time partition. The other types of tasks are not scored, they are always
+ * ordered before the scored ones as {@link DefaultCompactionTaskComparatorImpl} does, so the order
+ * is compared first on whether a task is scored, then on the score, then as the default order. The
+ * score is calculated when the task is added to the waiting queue and refreshed periodically by
+ * {@link CompactionTaskManager}, because the ordering key of a queued element may only change while
+ * the queue is reordered.
+ */
+public class WorkloadAwareCompactionTaskComparatorImpl extends DefaultCompactionTaskComparatorImpl {
+
+  // the sequence files do not overlap with each other, merging them only reduces the number of
+  // files to be opened by a query, so they are less beneficial than the unsequence files
+  private static final double SEQUENCE_FILE_WEIGHT = 0.5;
+
+  @Override
+  public int compare(AbstractCompactionTask o1, AbstractCompactionTask o2) {
+    boolean isScoredTask1 = isScoredTask(o1);
+    boolean isScoredTask2 = isScoredTask(o2);
+    if (isScoredTask1 != isScoredTask2) {
+      return isScoredTask1 ? 1 : -1;
+    }
+    if (isScoredTask1) {
+      int result = Double.compare(o2.getWorkloadScore(), o1.getWorkloadScore());
+      if (result != 0) {
+        return result;
+      }
+    }
+    return super.compare(o1, o2);
+  }
+
+  public static double calculateWorkloadScore(AbstractCompactionTask task) {
+    double accessFrequency =
+        TimePartitionAccessTracker.getInstance()
+            .getAccessFrequency(task.getDataRegionId(), task.getTimePartition());
+    // the cold partitions are still ordered by the overlapping files eliminated
+    return getEliminatedOverlapCount(task) * (1 + accessFrequency);
+  }
+
+  private static double getEliminatedOverlapCount(AbstractCompactionTask task) {
+    if (!isScoredTask(task)) {
+      return 0;
+    }
+    if (task instanceof CrossSpaceCompactionTask) {
+      // every unsequence file is merged into the sequence files
+      return ((CrossSpaceCompactionTask) task).getSelectedUnsequenceFiles().size();
+    }
+    InnerSpaceCompactionTask innerSpaceCompactionTask = (InnerSpaceCompactionTask) task;
+    int eliminatedFileNum =
+        Math.max(0, innerSpaceCompactionTask.getSelectedTsFileResourceList().size() - 1);
+    return innerSpaceCompactionTask.isSequence()
+        ? eliminatedFileNum * SEQUENCE_FILE_WEIGHT
+        : eliminatedFileNum;
+  }
+
+  private static boolean isScoredTask(AbstractCompactionTask task) {
+    return (task instanceof InnerSpaceCompactionTask
+            && !(task instanceof RepairUnsortedFileCompactionTask)
+            && !(task instanceof SettleCompactionTask))
+        || task instanceof CrossSpaceCompactionTask;
+  }
+}
@@ -224,6 +224,28 @@ public abstract class AbstractCompactionEstimator {
     return (ArrayDeviceTimeIndex) timeIndex;
   }
 
+  /**
+   * Correct the estimated memory cost by the factor learned from the finished tasks with similar
+   * source files, see {@link CompactionMemoryEstimateCalibrator}.
+   */
+  protected long calibrate(List<TsFileResource> resources, long estimatedCost) {
+    return calibrate(resources, estimatedCost, false);
+  }
+
+  protected long calibrate(
+      List<TsFileResource> resources, long estimatedCost, boolean isRoughEstimate) {
+    return CompactionMemoryEstimateCalibrator.getInstance()
+        .calibrate(getCalibrationName(isRoughEstimate), resources, estimatedCost);
+  }
+
+  /**
+   * The rough and the precise estimates are calibrated separately, as they deviate from the actual
+   * memory cost differently.
+   */
+  public String getCalibrationName(boolean isRoughEstimate) {
+    return isRoughEstimate ? getClass().getSimpleName() + "-rough" : getClass().getSimpleName();
+  }
+
   public void cleanup() {
     deviceTimeIndexCache.clear();
     fileInfoCache.clear();
@@ -56,7 +56,7 @@ public abstract class AbstractCrossSpaceEstimator extends AbstractCompactionEsti
     } finally {
       CompactionEstimateUtils.releaseReadLock(resources);
     }
-    return cost;
+    return calibrate(resources, cost);
   }
 
   public abstract long roughEstimateCrossCompactionMemory(
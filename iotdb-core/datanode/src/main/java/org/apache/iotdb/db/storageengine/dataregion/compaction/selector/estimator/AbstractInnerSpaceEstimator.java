@@ -55,7 +55,7 @@ public abstract class AbstractInnerSpaceEstimator extends AbstractCompactionEsti
     } finally {
       CompactionEstimateUtils.releaseReadLock(resources);
     }
-    return cost;
+    return calibrate(resources, cost);
   }
 
   public abstract long roughEstimateInnerCompactionMemory(
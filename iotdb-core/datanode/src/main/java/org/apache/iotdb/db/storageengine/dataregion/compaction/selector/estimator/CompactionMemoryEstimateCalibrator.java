@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.commons.file.SystemFileFactory;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Learns the correction factors of the compaction memory estimators from the peak memory actually
+ * held by the finished tasks. The factors are learned separately for each estimator and each shape
+ * of the source files, i.e. the number of the files and their average size, because the error of
+ * the estimators depends on them. The factors only raise the under estimations, they never lower an
+ * estimation. The estimated memory cost is multiplied by the factor only if calibration is enabled
+ * and enough tasks of the same bucket have finished. The factors are persisted in the system
+ * directory so that they survive restarts.
+ */
+public class CompactionMemoryEstimateCalibrator {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final String CALIBRATION_FILE_NAME = "compaction_memory_estimate_calibration";
+  private static final String TMP_SUFFIX = ".tmp";
+
+  // weight of the newest sample in the exponential moving average
+  static final double SMOOTHING_FACTOR = 0.2;
+  // the learned factor keeps the estimation this much above the observed memory
+  static final double SAFETY_MARGIN = 1.2;
+  // the estimation is never reduced, because the tracked peak memory misses some of the memory held
+  // by a task, e.g. the decompressed pages, the buffers of the point readers and the metadata, and
+  // the read point compaction is not tracked at all. So an estimation above the tracked peak may
+  // still be just enough.
+  static final double MIN_CORRECTION_FACTOR = 1;
+  static final double MAX_CORRECTION_FACTOR = 4;
+  static final int MIN_SAMPLE_NUM = 10;
+  private static final long PERSIST_INTERVAL_IN_MS = 60_000L;
+
+  private final Map<String, CorrectionFactor> correctionFactors = new ConcurrentHashMap<>();
+  private final File calibrationFile;
+  private long lastPersistTime = 0;
+
+  private CompactionMemoryEstimateCalibrator() {
+    this(
+        SystemFileFactory.INSTANCE.getFile(
+            config.getSystemDir() + File.separator + CALIBRATION_FILE_NAME));
+  }
+
+  @TestOnly
+  public CompactionMemoryEstimateCalibrator(File calibrationFile) {
+    this.calibrationFile = calibrationFile;
+    load();
+  }
+
+  public static CompactionMemoryEstimateCalibrator getInstance() {
+    return CompactionMemoryEstimateCalibratorHolder.INSTANCE;
+  }
+
+  /**
+   * @return the estimated memory cost multiplied by the learned correction factor
+   */
+  public long calibrate(String estimatorName, List<TsFileResource> resources, long estimatedCost) {
+    if (estimatedCost <= 0 || !config.isEnableCompactionMemoryEstimateCalibration()) {
+      return estimatedCost;
+    }
+    return (long) (estimatedCost * getAppliedFactor(getBucket(estimatorName, resources)));
+  }
+
+  /**
+   * Learn from a finished task.
+   *
+   * @param estimatedCost the memory cost reserved for the task, which has been calibrated
+   * @param actualCost the peak memory actually held by the task
+   */
+  public void record(
+      String estimatorName, List<TsFileResource> resources, long estimatedCost, long actualCost) {
+    if (estimatedCost <= 0 || actualCost <= 0) {
+      return;
+    }
+    String bucket = getBucket(estimatorName, resources);
+    double appliedFactor =
+        config.isEnableCompactionMemoryEstimateCalibration() ? getAppliedFactor(bucket) : 1;
+    // the factor which would make the estimation match the actual cost with the safety margin
+    double targetFactor = appliedFactor * actualCost * SAFETY_MARGIN / estimatedCost;
+    correctionFactors.computeIfAbsent(bucket, k -> new CorrectionFactor()).update(targetFactor);
+    if (config.isEnableCompactionMemoryEstimateCalibration()) {
+      mayPersist();
+    }
+  }
+
+  public double getCorrectionFactor(String estimatorName, List<TsFileResource> resources) {
+    return getAppliedFactor(getBucket(estimatorName, resources));
+  }
+
+  private double getAppliedFactor(String bucket) {
+    CorrectionFactor factor = correctionFactors.get(bucket);
+    return factor == null ? 1 : factor.getAppliedValue();
+  }
+
+  /**
+   * The bucket is named by the estimator, the log2 of the source file num and the log2 of the
+   * average source file size in MB.
+   */
+  static String getBucket(String estimatorName, List<TsFileResource> resources) {
+    int fileNum = resources.size();
+    long totalFileSize = 0;
+    for (TsFileResource resource : resources) {
+      totalFileSize += resource.getTsFileSize();
+    }
+    long averageFileSizeInMB = fileNum == 0 ? 0 : totalFileSize / fileNum / 1024 / 1024;
+    return estimatorName
+        + "-"
+        + (Integer.SIZE - Integer.numberOfLeadingZeros(fileNum))
+        + "-"
+        + (Long.SIZE - Long.numberOfLeadingZeros(averageFileSizeInMB));
+  }
+
+  private synchronized void mayPersist() {
+    long currentTime = System.currentTimeMillis();
+    if (currentTime - lastPersistTime < PERSIST_INTERVAL_IN_MS) {
+      return;
+    }
+    lastPersistTime = currentTime;
+    persist();
+  }
+
+  @TestOnly
+  synchronized void persist() {
+    Properties properties = new Properties();
+    correctionFactors.forEach((bucket, factor) -> properties.setProperty(bucket, factor.encode()));
+    File tmpFile = new File(calibrationFile.getPath() + TMP_SUFFIX);
+    try {
+      Files.createDirectories(calibrationFile.getAbsoluteFile().getParentFile().toPath());
+      try (OutputStream outputStream = new FileOutputStream(tmpFile)) {
+        properties.store(outputStream, "compaction memory estimate correction factors");
+      }
+      Files.move(
+          tmpFile.toPath(),
+          calibrationFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      LOGGER.warn(
+          "[Compaction] Failed to persist memory estimate correction factors to {}",
+          calibrationFile,
+          e);
+    }
+  }
+
+  private void load() {
+    if (!calibrationFile.exists()) {
+      return;
+    }
+    Properties properties = new Properties();
+    try (InputStream inputStream = new FileInputStream(calibrationFile)) {
+      properties.load(inputStream);
+    } catch (IOException e) {
+      LOGGER.warn(
+          "[Compaction] Failed to load memory estimate correction factors from {}",
+          calibrationFile,
+          e);
+      return;
+    }
+    for (String bucket : properties.stringPropertyNames()) {
+      CorrectionFactor factor = CorrectionFactor.decode(properties.getProperty(bucket));
+      if (factor != null) {
+        correctionFactors.put(bucket, factor);
+      }
+    }
+  }
+
+  private static class CorrectionFactor {
+    private double value = 1;
+    private int sampleNum = 0;
+
+    private synchronized void update(double targetFactor) {
+      double factor =
+          sampleNum == 0 ? targetFactor : value + SMOOTHING_FACTOR * (targetFactor - value);
+      value = Math.min(MAX_CORRECTION_FACTOR, Math.max(MIN_CORRECTION_FACTOR, factor));
+      if (sampleNum < Integer.MAX_VALUE) {
+        sampleNum++;
+      }
+    }
+
+    private synchronized double getAppliedValue() {
+      return sampleNum < MIN_SAMPLE_NUM ? 1 : value;
+    }
+
+    private synchronized String encode() {
+      return value + "," + sampleNum;
+    }
+
+    private static CorrectionFactor decode(String encoded) {
+      String[] values = encoded.split(",");
+      if (values.length != 2) {
+        return null;
+      }
+      try {
+        CorrectionFactor factor = new CorrectionFactor();
+        factor.value =
+            Math.min(
+                MAX_CORRECTION_FACTOR,
+                Math.max(MIN_CORRECTION_FACTOR, Double.parseDouble(values[0])));
+        factor.sampleNum = Integer.parseInt(values[1]);
+        return factor;
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+  }
+
+  private static class CompactionMemoryEstimateCalibratorHolder {
+    private static final CompactionMemoryEstimateCalibrator INSTANCE =
+        new CompactionMemoryEstimateCalibrator();
+  }
+}
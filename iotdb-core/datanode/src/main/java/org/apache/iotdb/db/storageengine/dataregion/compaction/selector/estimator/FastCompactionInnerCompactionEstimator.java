@@ -106,9 +106,12 @@ public class FastCompactionInnerCompactionEstimator extends AbstractInnerSpaceEs
     int maxOverlapFileNum = calculatingMaxOverlapFileNumInSubCompactionTask(context, resources);
     // source files (chunk + uncompressed page) * overlap file num
     // target file (chunk + unsealed page writer)
-    return (maxOverlapFileNum + 1) * maxConcurrentSeriesNum * (maxChunkSize + maxPageSize)
-        + fixedMemoryBudget
-        + metadataInfo.metadataMemCost;
+    return calibrate(
+        resources,
+        (maxOverlapFileNum + 1) * maxConcurrentSeriesNum * (maxChunkSize + maxPageSize)
+            + fixedMemoryBudget
+            + metadataInfo.metadataMemCost,
+        true);
   }
 
   @Override
@@ -114,8 +114,11 @@ public class FastCrossSpaceCompactionEstimator extends AbstractCrossSpaceEstimat
     int maxOverlapFileNum = calculatingMaxOverlapFileNumInSubCompactionTask(context, sourceFiles);
     // source files (chunk + uncompressed page) * overlap file num
     // target files (chunk + unsealed page writer)
-    return (maxOverlapFileNum + 1) * maxConcurrentSeriesNum * (maxChunkSize + maxPageSize)
-        + fixedMemoryBudget
-        + metadataInfo.metadataMemCost;
+    return calibrate(
+        sourceFiles,
+        (maxOverlapFileNum + 1) * maxConcurrentSeriesNum * (maxChunkSize + maxPageSize)
+            + fixedMemoryBudget
+            + metadataInfo.metadataMemCost,
+        true);
   }
 }
@@ -60,8 +60,11 @@ public class ReadChunkInnerCompactionEstimator extends AbstractInnerSpaceEstimat
 
     int batchSize = config.getCompactionMaxAlignedSeriesNumInOneBatch();
     int maxConcurrentSeriesNum =
-        Math.min(
-            batchSize <= 0 ? Integer.MAX_VALUE : batchSize, taskInfo.getMaxConcurrentSeriesNum());
+        Math.max(
+            Math.min(
+                batchSize <= 0 ? Integer.MAX_VALUE : batchSize,
+                taskInfo.getMaxConcurrentSeriesNum()),
+            getSubTaskNum());
 
     long maxConcurrentSeriesSizeOfTotalFiles =
         averageChunkSize
@@ -76,7 +79,10 @@ public class ReadChunkInnerCompactionEstimator extends AbstractInnerSpaceEstimat
     long chunkSizeFromSourceFile =
         (averageChunkSize + tsFileConfig.getPageSizeInByte()) * maxConcurrentSeriesNum;
 
-    return targetChunkWriterSize + chunkSizeFromSourceFile + taskInfo.getModificationFileSize();
+    return targetChunkWriterSize
+        + chunkSizeFromSourceFile
+        + getSubTaskChunkBufferSize()
+        + taskInfo.getModificationFileSize();
   }
 
   @Override
@@ -89,13 +95,29 @@ public class ReadChunkInnerCompactionEstimator extends AbstractInnerSpaceEstimat
         CompactionEstimateUtils.collectMetadataInfoFromCachedFileInfo(
             resources, roughInfoMap, false);
 
-    int maxConcurrentSeriesNum = metadataInfo.getMaxConcurrentSeriesNum(false);
+    int maxConcurrentSeriesNum =
+        Math.max(metadataInfo.getMaxConcurrentSeriesNum(false), getSubTaskNum());
     long maxChunkSize = config.getTargetChunkSize();
     long maxPageSize = tsFileConfig.getPageSizeInByte();
     // source files (chunk + uncompressed page)
     // target file (chunk + unsealed page writer)
-    return 2 * maxConcurrentSeriesNum * (maxChunkSize + maxPageSize)
-        + fixedMemoryBudget
-        + metadataInfo.metadataMemCost;
+    return calibrate(
+        resources,
+        2 * maxConcurrentSeriesNum * (maxChunkSize + maxPageSize)
+            + getSubTaskChunkBufferSize()
+            + fixedMemoryBudget
+            + metadataInfo.metadataMemCost,
+        true);
+  }
+
+  /** The nonAligned series are compacted by the sub tasks concurrently. */
+  private int getSubTaskNum() {
+    return Math.max(1, config.getSubCompactionTaskNum());
+  }
+
+  /** Each sub task buffers at most one target chunk waiting to be written to the target file. */
+  private long getSubTaskChunkBufferSize() {
+    int subTaskNum = getSubTaskNum();
+    return subTaskNum > 1 ? subTaskNum * config.getTargetChunkSize() : 0;
   }
 }
@@ -238,15 +238,17 @@ public class RewriteCrossSpaceCompactionSelector implements ICrossSpaceSelector
       long roughEstimatedMemoryCost =
           compactionEstimator.roughEstimateCrossCompactionMemory(
               context, newSelectedSeqResources, newSelectedUnseqResources);
+      boolean isRoughMemoryCost =
+          CompactionEstimateUtils.shouldUseRoughEstimatedResult(roughEstimatedMemoryCost);
       long memoryCost =
-          CompactionEstimateUtils.shouldUseRoughEstimatedResult(roughEstimatedMemoryCost)
+          isRoughMemoryCost
               ? roughEstimatedMemoryCost
               : compactionEstimator.estimateCrossCompactionMemory(
                   newSelectedSeqResources, newSelectedUnseqResources);
       if (!canAddToTaskResource(taskResource, unseqFile, targetSeqFiles, memoryCost)) {
         break;
       }
-      taskResource.putResources(unseqFile, targetSeqFiles, memoryCost);
+      taskResource.putResources(unseqFile, targetSeqFiles, memoryCost, isRoughMemoryCost);
       LOGGER.debug(
           "Adding a new unseqFile {} and seqFiles {} as candidates, new cost {}, total cost {}",
           unseqFile,
@@ -45,8 +45,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.SettleSelectorImpl.DirtyStatus.NOT_SATISFIED;
@@ -208,8 +210,10 @@ public class SettleSelectorImpl implements ISettleSelector {
 
   /**
    * Only when all devices with ttl are deleted may they be selected. On the basic of the previous,
-   * only when the number of deleted devices exceeds the threshold or has expired for too long will
-   * they be selected.
+   * only when the number of deleted devices exceeds the threshold or has expired for too long or
+   * the estimated ratio of data deleted by mods exceeds the threshold will they be selected. The
+   * expired devices are marked in the resource, and if the rewrite of expired data is deferred, the
+   * partially expired files are left to the normal compaction.
    *
    * @return dirty status means the status of current resource.
    */
@@ -221,7 +225,18 @@ public class SettleSelectorImpl implements ISettleSelector {
     if (timeIndex instanceof FileTimeIndex) {
       timeIndex = CompactionUtils.buildDeviceTimeIndex(resource);
     }
+    // the devices deleted by mods, and the expired devices if the rewrite is not deferred
     Set<IDeviceID> deletedDevices = new HashSet<>();
+    int deletedOrExpiredDeviceNum = 0;
+    // the devices of which all data are expired, device -> ttl
+    Map<IDeviceID, Long> expiredDevices = new HashMap<>();
+    // the sum of the deleted data ratio of each device
+    double deletedDataRatioSum = 0;
+    boolean checkDeletedData = config.getDeletedDataRatio() > 0 && !modifications.isEmpty();
+    // the expired data of partially expired files are removed by the normal compaction, and they
+    // are skipped by the readers according to the expired device marks before that
+    boolean deferExpiredDataRewrite = config.isDeferExpiredDataRewrite();
+    boolean hasAliveDeviceWithTTL = false;
     boolean hasExpiredTooLong = false;
     long currentTime = CommonDateTimeUtils.currentTime();
 
@@ -238,16 +253,23 @@ public class SettleSelectorImpl implements ISettleSelector {
       }
       boolean hasSetTTL = ttl != Long.MAX_VALUE;
 
+      long startTime = timeIndex.getStartTime(device).get();
       long endTime = timeIndex.getEndTime(device).get();
-      boolean isDeleted =
-          !timeIndex.isDeviceAlive(device, ttl)
-              || isDeviceDeletedByMods(
-                  modifications, device, timeIndex.getStartTime(device).get(), endTime);
+      boolean isExpired = !timeIndex.isDeviceAlive(device, ttl);
+      boolean isDeletedByMods = isDeviceDeletedByMods(modifications, device, startTime, endTime);
+      boolean isDeleted = isExpired || isDeletedByMods;
+      if (isDeleted) {
+        deletedOrExpiredDeviceNum++;
+      }
+      if (isExpired && hasSetTTL) {
+        expiredDevices.put(device, ttl);
+      }
       if (hasSetTTL) {
         if (!isDeleted) {
           // For devices with TTL set, all data must expire in order to meet the conditions for
           // being selected.
-          return new FileDirtyInfo(DirtyStatus.NOT_SATISFIED);
+          hasAliveDeviceWithTTL = true;
+          continue;
         }
 
         if (currentTime > endTime) {
@@ -263,23 +285,40 @@ public class SettleSelectorImpl implements ISettleSelector {
         } // else hasExpiredTooLong unchanged
       }
 
-      if (isDeleted) {
+      if (isDeletedByMods || (isExpired && !deferExpiredDataRewrite)) {
         deletedDevices.add(device);
+        deletedDataRatioSum += 1;
+      } else if (checkDeletedData && !isExpired) {
+        deletedDataRatioSum +=
+            ModificationUtils.getDeletedTimeRatio(modifications, device, startTime, endTime);
       }
     }
+    resource.setExpiredDevices(expiredDevices);
+    if (hasAliveDeviceWithTTL) {
+      return new FileDirtyInfo(DirtyStatus.NOT_SATISFIED);
+    }
 
-    double deletedDeviceRatio =
-        ((double) deletedDevices.size()) / ((ArrayDeviceTimeIndex) timeIndex).getDevices().size();
-    if (deletedDeviceRatio == 1d) {
-      // the whole file is completely dirty
+    int deviceNum = ((ArrayDeviceTimeIndex) timeIndex).getDevices().size();
+    if (deletedOrExpiredDeviceNum == deviceNum) {
+      // the whole file is completely dirty, it is dropped without rewriting
       return new FileDirtyInfo(DirtyStatus.FULLY_DIRTY);
     }
-    hasExpiredTooLong = config.getMaxExpiredTime() != Long.MAX_VALUE && hasExpiredTooLong;
+    double deletedDeviceRatio = ((double) deletedDevices.size()) / deviceNum;
+    hasExpiredTooLong =
+        !deferExpiredDataRewrite
+            && config.getMaxExpiredTime() != Long.MAX_VALUE
+            && hasExpiredTooLong;
     if (hasExpiredTooLong || deletedDeviceRatio >= config.getExpiredDataRatio()) {
       // evaluate dirty data size in the tsfile
       return new FileDirtyInfo(
           PARTIALLY_DIRTY, (long) (deletedDeviceRatio * resource.getTsFileSize()));
     }
+    double deletedDataRatio = deletedDataRatioSum / deviceNum;
+    if (checkDeletedData && deletedDataRatio >= config.getDeletedDataRatio()) {
+      // most data of the tsfile is deleted by mods, rewrite it to avoid applying the mods in query
+      return new FileDirtyInfo(
+          PARTIALLY_DIRTY, (long) (deletedDataRatio * resource.getTsFileSize()));
+    }
     return new FileDirtyInfo(DirtyStatus.NOT_SATISFIED);
   }
 
@@ -31,6 +31,8 @@ public class CrossCompactionTaskResource {
   private List<TsFileResource> unseqFiles;
 
   private long totalMemoryCost;
+  // whether the total memory cost comes from a rough estimation
+  private boolean isRoughMemoryCost;
   private long totalFileSize;
   private float totalSeqFileSize;
   private float totalUnseqFileSize;
@@ -66,10 +68,13 @@ public class CrossCompactionTaskResource {
   }
 
   public void putResources(
-      TsFileResource unseqFile, List<TsFileResource> seqFiles, long memoryCost) {
+      TsFileResource unseqFile,
+      List<TsFileResource> seqFiles,
+      long memoryCost,
+      boolean isRoughMemoryCost) {
     addUnseqFile(unseqFile);
     addTargetSeqFiles(seqFiles);
-    updateMemoryCost(memoryCost);
+    updateMemoryCost(memoryCost, isRoughMemoryCost);
   }
 
   private void addUnseqFile(TsFileResource file) {
@@ -88,8 +93,11 @@ public class CrossCompactionTaskResource {
     countStatistic(file);
   }
 
-  private void updateMemoryCost(long newMemoryCost) {
-    this.totalMemoryCost = Math.max(totalMemoryCost, newMemoryCost);
+  private void updateMemoryCost(long newMemoryCost, boolean isRoughMemoryCost) {
+    if (newMemoryCost >= totalMemoryCost) {
+      this.totalMemoryCost = newMemoryCost;
+      this.isRoughMemoryCost = isRoughMemoryCost;
+    }
   }
 
   private void countStatistic(TsFileResource file) {
@@ -105,6 +113,10 @@ public class CrossCompactionTaskResource {
     return totalMemoryCost;
   }
 
+  public boolean isRoughMemoryCost() {
+    return isRoughMemoryCost;
+  }
+
   public long getTotalFileSize() {
     return totalFileSize;
   }
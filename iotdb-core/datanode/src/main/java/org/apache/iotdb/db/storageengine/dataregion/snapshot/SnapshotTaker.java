@@ -28,6 +28,7 @@ import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFil
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
+import org.apache.tsfile.common.constant.TsFileConstant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,7 +36,9 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
@@ -164,6 +167,65 @@ public class SnapshotTaker {
     return allSuccess;
   }
 
+  /**
+   * Find the closed TsFiles of the DataRegion that are identical to the given snapshot files. A
+   * TsFile is matched by its sequence type, time partition, name and size, and the consensus layer
+   * compares the content digests of the matched files before reusing them. Other files, like
+   * resources and mods, are never regarded as identical.
+   *
+   * @param snapshotFiles paths of the snapshot files mapped to their sizes
+   * @return the identical TsFiles, keyed by the paths of the snapshot files
+   */
+  public Map<String, File> getIdenticalTsFiles(Map<String, Long> snapshotFiles) {
+    Map<String, TsFileResource> closedTsFiles = new HashMap<>();
+    TsFileManager manager = dataRegion.getTsFileManager();
+    for (boolean sequence : new boolean[] {true, false}) {
+      for (TsFileResource resource : manager.getTsFileList(sequence)) {
+        if (resource.isClosed() && !resource.isDeleted()) {
+          closedTsFiles.put(
+              getTsFileIdentity(
+                  sequence
+                      ? IoTDBConstant.SEQUENCE_FOLDER_NAME
+                      : IoTDBConstant.UNSEQUENCE_FOLDER_NAME,
+                  String.valueOf(resource.getTimePartition()),
+                  resource.getTsFile().getName()),
+              resource);
+        }
+      }
+    }
+
+    Map<String, File> identicalTsFiles = new HashMap<>();
+    for (Map.Entry<String, Long> snapshotFile : snapshotFiles.entrySet()) {
+      String[] splittedPath =
+          snapshotFile.getKey().split(File.separator.equals("\\") ? "\\\\" : File.separator);
+      int length = splittedPath.length;
+      if (length < SnapshotLogger.SEQUENCE_OFFSET
+          || !splittedPath[length - SnapshotLogger.FILE_NAME_OFFSET].endsWith(
+              TsFileConstant.TSFILE_SUFFIX)) {
+        continue;
+      }
+      TsFileResource resource =
+          closedTsFiles.get(
+              getTsFileIdentity(
+                  splittedPath[length - SnapshotLogger.SEQUENCE_OFFSET],
+                  splittedPath[length - SnapshotLogger.TIME_PARTITION_OFFSET],
+                  splittedPath[length - SnapshotLogger.FILE_NAME_OFFSET]));
+      if (resource != null && resource.getTsFile().length() == snapshotFile.getValue()) {
+        identicalTsFiles.put(snapshotFile.getKey(), resource.getTsFile());
+      }
+    }
+    return identicalTsFiles;
+  }
+
+  private static String getTsFileIdentity(
+      String sequenceFolder, String timePartition, String fileName) {
+    return sequenceFolder
+        + SnapshotLogger.SPLIT_CHAR
+        + timePartition
+        + SnapshotLogger.SPLIT_CHAR
+        + fileName;
+  }
+
   private void readLockTheFile() {
     TsFileManager manager = dataRegion.getTsFileManager();
     manager.readLock();
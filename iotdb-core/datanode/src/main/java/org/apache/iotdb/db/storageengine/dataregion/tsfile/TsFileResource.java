@@ -31,6 +31,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.load.PartitionViolationException;
 import org.apache.iotdb.db.pipe.extractor.dataregion.realtime.assigner.PipeTimePartitionProgressIndexKeeper;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCache;
 import org.apache.iotdb.db.schemaengine.schemaregion.utils.ResourceByPathUtils;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.InsertionCompactionCandidateStatus;
@@ -49,6 +50,7 @@ import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeInd
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ITimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.PlainDeviceTimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.TimeIndexLevel;
+import org.apache.iotdb.db.storageengine.dataregion.utils.lastCacheSnapshot.LastCacheSnapshotFile;
 import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
 
 import org.apache.tsfile.file.metadata.IChunkMetadata;
@@ -127,6 +129,13 @@ public class TsFileResource implements PersistentResource {
   /** time index */
   private ITimeIndex timeIndex;
 
+  /**
+   * The devices whose data in this file are all expired, marked by the ttl check so that the
+   * readers skip them even if the time index is degraded. The expired data are removed physically
+   * by the next compaction of this file. device -> the ttl when the device is marked
+   */
+  private volatile Map<IDeviceID, Long> expiredDevices = Collections.emptyMap();
+
   private Future<ModificationFile> exclusiveModFileFuture;
   // this future suggest when the async recovery ends
   private CompletableFuture<String> sharedModFilePathFuture;
@@ -586,6 +595,11 @@ public class TsFileResource implements PersistentResource {
     this.tierLevel.addAndGet(1);
   }
 
+  /** Used for compaction to set the tier of the target files before they are written. */
+  public void setTierLevel(int tierLevel) {
+    this.tierLevel.set(tierLevel);
+  }
+
   public int getTierLevel() {
     return tierLevel.get();
   }
@@ -843,6 +857,7 @@ public class TsFileResource implements PersistentResource {
     if (!removeResourceFile()) {
       return false;
     }
+    LastCacheSnapshotFile.remove(file);
     try {
       removeModFile();
     } catch (IOException e) {
@@ -874,6 +889,12 @@ public class TsFileResource implements PersistentResource {
           getExclusiveModFile().getFile(),
           fsFactory.getFile(targetDir, ModificationFile.getExclusiveMods(file).getName()));
     }
+
+    final File lastCacheSnapshotFile = LastCacheSnapshotFile.getSnapshotFile(file);
+    if (lastCacheSnapshotFile.exists()) {
+      fsFactory.moveFile(
+          lastCacheSnapshotFile, fsFactory.getFile(targetDir, lastCacheSnapshotFile.getName()));
+    }
   }
 
   @Override
@@ -1002,6 +1023,14 @@ public class TsFileResource implements PersistentResource {
       return false;
     }
 
+    if (deviceId != null && isDeviceExpired(deviceId)) {
+      if (debug) {
+        DEBUG_LOGGER.info(
+            "Path: {} file {} is not satisfied because the device is expired!", deviceId, file);
+      }
+      return false;
+    }
+
     if (timeFilter != null) {
       // check above
       long startTime = getStartTime(deviceId).get();
@@ -1048,6 +1077,37 @@ public class TsFileResource implements PersistentResource {
     return !isClosed() || timeIndex.isDeviceAlive(device, ttl);
   }
 
+  /**
+   * Mark the devices whose data in this file are all expired. The previous marks are replaced.
+   *
+   * @param expiredDevices device -> the ttl used to check the device
+   */
+  public void setExpiredDevices(Map<IDeviceID, Long> expiredDevices) {
+    this.expiredDevices =
+        expiredDevices.isEmpty() ? Collections.emptyMap() : new HashMap<>(expiredDevices);
+  }
+
+  public int getExpiredDeviceNum() {
+    return expiredDevices.size();
+  }
+
+  /**
+   * @return true if the device is marked as expired by the ttl check and the ttl is not enlarged
+   *     since then
+   */
+  public boolean isDeviceExpired(IDeviceID device) {
+    Long markedTTL = expiredDevices.get(device);
+    if (markedTTL == null) {
+      return false;
+    }
+    long ttl =
+        device.getTableName().startsWith("root.")
+            ? DataNodeTTLCache.getInstance().getTTLForTree(device)
+            : DataNodeTTLCache.getInstance()
+                .getTTLForTable(getDatabaseName(), device.getTableName());
+    return ttl <= markedTTL;
+  }
+
   public void setProcessor(TsFileProcessor processor) {
     this.processor = processor;
   }
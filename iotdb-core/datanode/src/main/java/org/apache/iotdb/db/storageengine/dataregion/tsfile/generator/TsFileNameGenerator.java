@@ -21,6 +21,7 @@ package org.apache.iotdb.db.storageengine.dataregion.tsfile.generator;
 
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.DiskSpaceInsufficientException;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
@@ -33,6 +34,7 @@ import org.apache.tsfile.fileSystem.fsFactory.FSFactory;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -228,12 +230,34 @@ public class TsFileNameGenerator {
    */
   public static List<TsFileResource> getCrossCompactionTargetFileResources(
       List<TsFileResource> seqResources) throws IOException, DiskSpaceInsufficientException {
+    return getCrossCompactionTargetFileResources(seqResources, Collections.emptyList());
+  }
+
+  /**
+   * Create tmp target files for cross space compaction, one for each seq file. The unseq files are
+   * used to find the newest data of each target file, which decides the tier of it.
+   *
+   * @return tmp target file list, which is xxx.cross
+   */
+  public static List<TsFileResource> getCrossCompactionTargetFileResources(
+      List<TsFileResource> seqResources, List<TsFileResource> unseqResources)
+      throws IOException, DiskSpaceInsufficientException {
+    long unseqMaxEndTime = getMaxEndTime(unseqResources);
     List<TsFileResource> targetFileResources = new ArrayList<>();
-    for (TsFileResource resource : seqResources) {
+    for (int i = 0; i < seqResources.size(); i++) {
+      TsFileResource resource = seqResources.get(i);
       TsFileName tsFileName = getTsFileName(resource.getTsFile().getName());
       tsFileName.setCrossCompactionCnt(tsFileName.getCrossCompactionCnt() + 1);
+      // the unseq data before the next seq file may be compacted into this target file
+      long maxEndTime =
+          Math.max(
+              resource.getFileEndTime(),
+              i == seqResources.size() - 1
+                  ? unseqMaxEndTime
+                  : Math.min(unseqMaxEndTime, seqResources.get(i + 1).getFileStartTime()));
+      int tierLevel = getCompactionTargetTierLevel(resource.getTierLevel(), maxEndTime);
       // set target resource to COMPACTING until the end of this task
-      targetFileResources.add(
+      TsFileResource targetResource =
           new TsFileResource(
               new File(
                   generateNewTsFilePathWithMkdir(
@@ -245,9 +269,11 @@ public class TsFileNameGenerator {
                       tsFileName.version,
                       tsFileName.innerCompactionCnt,
                       tsFileName.crossCompactionCnt,
-                      resource.getTierLevel(),
+                      tierLevel,
                       IoTDBConstant.CROSS_COMPACTION_TMP_FILE_SUFFIX)),
-              TsFileResourceStatus.COMPACTING));
+              TsFileResourceStatus.COMPACTING);
+      targetResource.setTierLevel(tierLevel);
+      targetFileResources.add(targetResource);
     }
     return targetFileResources;
   }
@@ -281,6 +307,7 @@ public class TsFileNameGenerator {
       maxCrossMergeCount = Math.max(tsFileName.crossCompactionCnt, maxCrossMergeCount);
       maxTierLevel = Math.max(resource.getTierLevel(), maxTierLevel);
     }
+    int tierLevel = getCompactionTargetTierLevel(maxTierLevel, getMaxEndTime(tsFileResources));
     // set target resource to COMPACTING until the end of this task
     TsFileResource resource =
         sequence
@@ -295,7 +322,7 @@ public class TsFileNameGenerator {
                         minVersion,
                         (int) maxInnerMergeCount + 1,
                         (int) maxCrossMergeCount,
-                        maxTierLevel,
+                        tierLevel,
                         IoTDBConstant.INNER_COMPACTION_TMP_FILE_SUFFIX)),
                 TsFileResourceStatus.COMPACTING)
             : new TsFileResource(
@@ -309,16 +336,28 @@ public class TsFileNameGenerator {
                         maxVersion,
                         (int) maxInnerMergeCount + 1,
                         (int) maxCrossMergeCount,
-                        maxTierLevel,
+                        tierLevel,
                         IoTDBConstant.INNER_COMPACTION_TMP_FILE_SUFFIX)),
                 TsFileResourceStatus.COMPACTING);
     resource.setSeq(sequence);
+    resource.setTierLevel(tierLevel);
     return resource;
   }
 
   public static List<TsFileResource> getNewInnerCompactionTargetFileResources(
       List<TsFileResource> tsFileResources, boolean sequence)
       throws IOException, DiskSpaceInsufficientException {
+    return getNewInnerCompactionTargetFileResources(tsFileResources, sequence, tsFileResources);
+  }
+
+  /**
+   * Create tmp target files for inner space compaction at the positions of the given files.
+   *
+   * @param sourceFiles all the source files of the task, which decide the tier of the target files
+   */
+  public static List<TsFileResource> getNewInnerCompactionTargetFileResources(
+      List<TsFileResource> tsFileResources, boolean sequence, List<TsFileResource> sourceFiles)
+      throws IOException, DiskSpaceInsufficientException {
     long maxInnerCompactionCount = Long.MIN_VALUE;
     long maxCrossMergeCount = Long.MIN_VALUE;
     int maxTierLevel = 0;
@@ -328,6 +367,10 @@ public class TsFileNameGenerator {
       maxCrossMergeCount = Math.max(tsFileName.crossCompactionCnt, maxCrossMergeCount);
       maxTierLevel = Math.max(resource.getTierLevel(), maxTierLevel);
     }
+    for (TsFileResource resource : sourceFiles) {
+      maxTierLevel = Math.max(resource.getTierLevel(), maxTierLevel);
+    }
+    int tierLevel = getCompactionTargetTierLevel(maxTierLevel, getMaxEndTime(sourceFiles));
     List<TsFileResource> targetResources = new ArrayList<>(tsFileResources.size());
     for (TsFileResource resource : tsFileResources) {
       TsFileName tsFileName = getTsFileName(resource.getTsFile().getName());
@@ -343,10 +386,11 @@ public class TsFileNameGenerator {
                       tsFileName.version,
                       (int) maxInnerCompactionCount + 1,
                       (int) maxCrossMergeCount,
-                      maxTierLevel,
+                      tierLevel,
                       IoTDBConstant.INNER_COMPACTION_TMP_FILE_SUFFIX)),
               TsFileResourceStatus.COMPACTING);
       targetResource.setSeq(sequence);
+      targetResource.setTierLevel(tierLevel);
       targetResources.add(targetResource);
     }
     return targetResources;
@@ -370,31 +414,57 @@ public class TsFileNameGenerator {
       maxCrossMergeCount = Math.max(tsFileName.crossCompactionCnt, maxCrossMergeCount);
     }
     // set target resource to COMPACTING until the end of this task
-    return sequence
-        ? new TsFileResource(
-            new File(
-                tsFileResources.get(0).getTsFile().getParent(),
-                minTime
-                    + FILE_NAME_SEPARATOR
-                    + minVersion
-                    + FILE_NAME_SEPARATOR
-                    + (maxInnerMergeCount + 1)
-                    + FILE_NAME_SEPARATOR
-                    + maxCrossMergeCount
-                    + IoTDBConstant.SETTLE_SUFFIX),
-            TsFileResourceStatus.COMPACTING)
-        : new TsFileResource(
-            new File(
-                tsFileResources.get(0).getTsFile().getParent(),
-                maxTime
-                    + FILE_NAME_SEPARATOR
-                    + maxVersion
-                    + FILE_NAME_SEPARATOR
-                    + (maxInnerMergeCount + 1)
-                    + FILE_NAME_SEPARATOR
-                    + maxCrossMergeCount
-                    + IoTDBConstant.SETTLE_SUFFIX),
-            TsFileResourceStatus.COMPACTING);
+    TsFileResource targetResource =
+        sequence
+            ? new TsFileResource(
+                new File(
+                    tsFileResources.get(0).getTsFile().getParent(),
+                    minTime
+                        + FILE_NAME_SEPARATOR
+                        + minVersion
+                        + FILE_NAME_SEPARATOR
+                        + (maxInnerMergeCount + 1)
+                        + FILE_NAME_SEPARATOR
+                        + maxCrossMergeCount
+                        + IoTDBConstant.SETTLE_SUFFIX),
+                TsFileResourceStatus.COMPACTING)
+            : new TsFileResource(
+                new File(
+                    tsFileResources.get(0).getTsFile().getParent(),
+                    maxTime
+                        + FILE_NAME_SEPARATOR
+                        + maxVersion
+                        + FILE_NAME_SEPARATOR
+                        + (maxInnerMergeCount + 1)
+                        + FILE_NAME_SEPARATOR
+                        + maxCrossMergeCount
+                        + IoTDBConstant.SETTLE_SUFFIX),
+                TsFileResourceStatus.COMPACTING);
+    // the target file is in the same directory as the source files
+    targetResource.setTierLevel(tsFileResources.get(0).getTierLevel());
+    return targetResource;
+  }
+
+  /**
+   * Get the tier of the target files of compaction. The target files are written to the tier which
+   * their newest data belongs to according to the tier ttl if it is colder than the tier of the
+   * source files, so that they need not be migrated soon after the compaction. Tiers on remote
+   * storage are left to the migration, see {@link TierManager#getTierLevelOfDataTime(long)}.
+   */
+  private static int getCompactionTargetTierLevel(int sourceTierLevel, long maxEndTime) {
+    if (!IoTDBDescriptor.getInstance().getConfig().isEnableTierAwareCompaction()
+        || maxEndTime == Long.MIN_VALUE) {
+      return sourceTierLevel;
+    }
+    return Math.max(sourceTierLevel, TierManager.getInstance().getTierLevelOfDataTime(maxEndTime));
+  }
+
+  private static long getMaxEndTime(List<TsFileResource> resources) {
+    long maxEndTime = Long.MIN_VALUE;
+    for (TsFileResource resource : resources) {
+      maxEndTime = Math.max(resource.getFileEndTime(), maxEndTime);
+    }
+    return maxEndTime;
   }
 
   public static class TsFileName {
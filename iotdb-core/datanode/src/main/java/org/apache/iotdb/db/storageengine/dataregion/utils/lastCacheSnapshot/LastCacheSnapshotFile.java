@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.utils.lastCacheSnapshot;
+
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TableDeviceLastCache;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.tsfile.fileSystem.fsFactory.FSFactory;
+import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+import org.apache.tsfile.utils.TsPrimitiveType;
+import org.apache.tsfile.write.UnSupportedDataTypeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The last value snapshot of one sealed TsFile, stored as "xxx.tsfile.last" beside the TsFile and
+ * its resource file. For each device in the file it records the device's end time and the last
+ * {@link TimeValuePair} of each measurement, taken from the timeseries metadata statistics. It is
+ * generated when the TsFile is sealed by flushing or compaction, and is read at startup by {@link
+ * LastCacheSnapshotLoader} to warm the last cache.
+ *
+ * <p>The snapshot does not reflect the modifications of the TsFile, so the loader shall never use
+ * the snapshot of a TsFile with mods.
+ */
+public class LastCacheSnapshotFile {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LastCacheSnapshotFile.class);
+  private static final FSFactory fsFactory = FSFactoryProducer.getFSFactory();
+
+  public static final String FILE_SUFFIX = ".last";
+
+  private static final byte VERSION = 0;
+
+  private LastCacheSnapshotFile() {
+    // Util class
+  }
+
+  public static boolean isEnabled() {
+    return IoTDBDescriptor.getInstance().getConfig().isEnableLastCacheSnapshot()
+        && CommonDescriptor.getInstance().getConfig().isLastCacheEnable();
+  }
+
+  public static File getSnapshotFile(final File tsFile) {
+    return fsFactory.getFile(tsFile.getPath() + FILE_SUFFIX);
+  }
+
+  public static boolean exists(final TsFileResource resource) {
+    return getSnapshotFile(resource.getTsFile()).exists();
+  }
+
+  /**
+   * Generate the snapshot of a sealed TsFile. Any failure is only logged and the partially written
+   * snapshot is removed, since a TsFile without snapshot only makes its devices load lazily.
+   */
+  public static void generate(final TsFileResource resource) {
+    final File snapshotFile = getSnapshotFile(resource.getTsFile());
+    final File tmpFile = fsFactory.getFile(snapshotFile.getPath() + TsFileResource.TEMP_SUFFIX);
+    try (final TsFileSequenceReader reader = new TsFileSequenceReader(resource.getTsFilePath())) {
+      final Map<IDeviceID, List<TimeseriesMetadata>> device2TimeseriesMetadata =
+          reader.getAllTimeseriesMetadata(false);
+      try (final OutputStream outputStream =
+          new BufferedOutputStream(new FileOutputStream(tmpFile))) {
+        ReadWriteIOUtils.write(VERSION, outputStream);
+        ReadWriteIOUtils.write(device2TimeseriesMetadata.size(), outputStream);
+        for (final Map.Entry<IDeviceID, List<TimeseriesMetadata>> entry :
+            device2TimeseriesMetadata.entrySet()) {
+          serializeDevice(resource, entry.getKey(), entry.getValue(), outputStream);
+        }
+      }
+      fsFactory.moveFile(tmpFile, snapshotFile);
+    } catch (final Exception e) {
+      LOGGER.warn(
+          "Failed to generate last cache snapshot for {}, the last cache of its devices will be loaded lazily",
+          resource.getTsFilePath(),
+          e);
+      remove(resource.getTsFile());
+    }
+  }
+
+  private static void serializeDevice(
+      final TsFileResource resource,
+      final IDeviceID deviceID,
+      final List<TimeseriesMetadata> timeseriesMetadataList,
+      final OutputStream outputStream)
+      throws IOException {
+    deviceID.serialize(outputStream);
+    final Optional<Long> endTime = resource.getEndTime(deviceID);
+    ReadWriteIOUtils.write(endTime.orElse(Long.MIN_VALUE), outputStream);
+
+    int measurementCount = 0;
+    for (final TimeseriesMetadata timeseriesMetadata : timeseriesMetadataList) {
+      if (isSerializable(timeseriesMetadata)) {
+        ++measurementCount;
+      }
+    }
+    ReadWriteIOUtils.write(measurementCount, outputStream);
+    for (final TimeseriesMetadata timeseriesMetadata : timeseriesMetadataList) {
+      if (!isSerializable(timeseriesMetadata)) {
+        continue;
+      }
+      final Statistics<?> statistics = timeseriesMetadata.getStatistics();
+      final TSDataType dataType = timeseriesMetadata.getTsDataType();
+      ReadWriteIOUtils.write(timeseriesMetadata.getMeasurementId(), outputStream);
+      ReadWriteIOUtils.write(statistics.getEndTime(), outputStream);
+      ReadWriteIOUtils.write(dataType.serialize(), outputStream);
+      serializeValue(dataType, statistics.getLastValue(), outputStream);
+    }
+  }
+
+  // The time column of aligned device is recorded by the device's end time
+  private static boolean isSerializable(final TimeseriesMetadata timeseriesMetadata) {
+    return !timeseriesMetadata.getMeasurementId().isEmpty()
+        && timeseriesMetadata.getStatistics() != null
+        && timeseriesMetadata.getStatistics().getCount() > 0;
+  }
+
+  /**
+   * Read the snapshot of a TsFile.
+   *
+   * @return {@code null} iff the snapshot does not exist or is broken, else the map from device to
+   *     its last values, where the device's end time is recorded with measurement "" and {@link
+   *     TableDeviceLastCache#EMPTY_PRIMITIVE_TYPE}
+   */
+  public static Map<IDeviceID, Map<String, TimeValuePair>> read(final File tsFile) {
+    final File snapshotFile = getSnapshotFile(tsFile);
+    if (!snapshotFile.exists()) {
+      return null;
+    }
+    try (final InputStream inputStream = fsFactory.getBufferedInputStream(snapshotFile.getPath())) {
+      final byte version = ReadWriteIOUtils.readByte(inputStream);
+      if (version != VERSION) {
+        LOGGER.warn("Unknown last cache snapshot version {} of {}", version, snapshotFile);
+        return null;
+      }
+      final int deviceCount = ReadWriteIOUtils.readInt(inputStream);
+      final Map<IDeviceID, Map<String, TimeValuePair>> result = new HashMap<>(deviceCount);
+      for (int i = 0; i < deviceCount; ++i) {
+        final IDeviceID deviceID =
+            IDeviceID.Deserializer.DEFAULT_DESERIALIZER.deserializeFrom(inputStream);
+        final long endTime = ReadWriteIOUtils.readLong(inputStream);
+        final int measurementCount = ReadWriteIOUtils.readInt(inputStream);
+        final Map<String, TimeValuePair> measurement2LastValue =
+            new HashMap<>(measurementCount + 1);
+        if (endTime != Long.MIN_VALUE) {
+          measurement2LastValue.put(
+              "", new TimeValuePair(endTime, TableDeviceLastCache.EMPTY_PRIMITIVE_TYPE));
+        }
+        for (int j = 0; j < measurementCount; ++j) {
+          final String measurement = ReadWriteIOUtils.readString(inputStream);
+          final long time = ReadWriteIOUtils.readLong(inputStream);
+          final TSDataType dataType =
+              TSDataType.deserialize(ReadWriteIOUtils.readByte(inputStream));
+          measurement2LastValue.put(
+              measurement,
+              new TimeValuePair(
+                  time,
+                  TsPrimitiveType.getByType(dataType, deserializeValue(dataType, inputStream))));
+        }
+        result.put(deviceID, measurement2LastValue);
+      }
+      return result;
+    } catch (final Exception e) {
+      LOGGER.warn("Failed to read last cache snapshot {}, ignore it", snapshotFile, e);
+      return null;
+    }
+  }
+
+  public static void remove(final File tsFile) {
+    try {
+      fsFactory.deleteIfExists(getSnapshotFile(tsFile));
+      fsFactory.deleteIfExists(
+          fsFactory.getFile(getSnapshotFile(tsFile).getPath() + TsFileResource.TEMP_SUFFIX));
+    } catch (final IOException e) {
+      LOGGER.warn("Failed to remove last cache snapshot of {}", tsFile, e);
+    }
+  }
+
+  private static void serializeValue(
+      final TSDataType dataType, final Object value, final OutputStream outputStream)
+      throws IOException {
+    switch (dataType) {
+      case BOOLEAN:
+        ReadWriteIOUtils.write((boolean) value, outputStream);
+        break;
+      case INT32:
+      case DATE:
+        ReadWriteIOUtils.write((int) value, outputStream);
+        break;
+      case INT64:
+      case TIMESTAMP:
+        ReadWriteIOUtils.write((long) value, outputStream);
+        break;
+      case FLOAT:
+        ReadWriteIOUtils.write((float) value, outputStream);
+        break;
+      case DOUBLE:
+        ReadWriteIOUtils.write((double) value, outputStream);
+        break;
+      case TEXT:
+      case BLOB:
+      case STRING:
+        ReadWriteIOUtils.write((Binary) value, outputStream);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  private static Object deserializeValue(final TSDataType dataType, final InputStream inputStream)
+      throws IOException {
+    switch (dataType) {
+      case BOOLEAN:
+        return ReadWriteIOUtils.readBool(inputStream);
+      case INT32:
+      case DATE:
+        return ReadWriteIOUtils.readInt(inputStream);
+      case INT64:
+      case TIMESTAMP:
+        return ReadWriteIOUtils.readLong(inputStream);
+      case FLOAT:
+        return ReadWriteIOUtils.readFloat(inputStream);
+      case DOUBLE:
+        return ReadWriteIOUtils.readDouble(inputStream);
+      case TEXT:
+      case BLOB:
+      case STRING:
+        return ReadWriteIOUtils.readBinary(inputStream);
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+}
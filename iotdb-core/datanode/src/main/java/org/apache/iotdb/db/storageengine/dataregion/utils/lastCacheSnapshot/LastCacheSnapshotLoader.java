@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.utils.lastCacheSnapshot;
+
+import org.apache.iotdb.commons.utils.PathUtils;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TableDeviceSchemaCache;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.read.TimeValuePair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Warm the last cache of one data region at startup from the {@link LastCacheSnapshotFile}s of its
+ * TsFiles. The last value of a measurement is the one with the largest time among all the TsFiles.
+ *
+ * <p>A device is loaded only if every TsFile that may contain it has a usable snapshot. The device
+ * is skipped and left to be loaded lazily by queries if any of these TsFiles:
+ *
+ * <p>1. Is unsealed, or sealed by WAL recovery, loading or other ways without generating snapshot.
+ *
+ * <p>2. Has mods or uses the shared mod file, since the deletions may have removed the recorded
+ * last values.
+ *
+ * <p>3. Records the same last time of a measurement as another TsFile, since we cannot tell which
+ * value overwrites the other without reading the data.
+ */
+public class LastCacheSnapshotLoader {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LastCacheSnapshotLoader.class);
+
+  private final String databaseName;
+  private final Map<IDeviceID, Map<String, TimeValuePair>> device2LastValues = new HashMap<>();
+  private final Set<IDeviceID> skippedDevices = new HashSet<>();
+
+  public LastCacheSnapshotLoader(final String databaseName) {
+    this.databaseName = databaseName;
+  }
+
+  public void load(final List<TsFileResource> resources) {
+    final long startTime = System.currentTimeMillis();
+    for (final TsFileResource resource : resources) {
+      final Map<IDeviceID, Map<String, TimeValuePair>> snapshot =
+          resource.isClosed()
+                  && !resource.isUseSharedModFile()
+                  && !resource.exclusiveModFileExists()
+              ? LastCacheSnapshotFile.read(resource.getTsFile())
+              : null;
+      if (Objects.isNull(snapshot)) {
+        skippedDevices.addAll(resource.getDevices());
+      } else {
+        merge(snapshot);
+      }
+    }
+
+    final boolean isTableModel = PathUtils.isTableModelDatabase(databaseName);
+    int loadedDeviceCount = 0;
+    for (final Map.Entry<IDeviceID, Map<String, TimeValuePair>> entry :
+        device2LastValues.entrySet()) {
+      if (skippedDevices.contains(entry.getKey())) {
+        continue;
+      }
+      putToCache(entry.getKey(), entry.getValue(), isTableModel);
+      ++loadedDeviceCount;
+    }
+    LOGGER.info(
+        "Loaded last cache snapshot of {} devices for {}, {} devices skipped, cost {}ms",
+        loadedDeviceCount,
+        databaseName,
+        skippedDevices.size(),
+        System.currentTimeMillis() - startTime);
+
+    device2LastValues.clear();
+    skippedDevices.clear();
+  }
+
+  void merge(final Map<IDeviceID, Map<String, TimeValuePair>> snapshot) {
+    for (final Map.Entry<IDeviceID, Map<String, TimeValuePair>> deviceEntry : snapshot.entrySet()) {
+      final IDeviceID deviceID = deviceEntry.getKey();
+      if (skippedDevices.contains(deviceID)) {
+        continue;
+      }
+      final Map<String, TimeValuePair> merged =
+          device2LastValues.computeIfAbsent(deviceID, k -> new HashMap<>());
+      for (final Map.Entry<String, TimeValuePair> measurementEntry :
+          deviceEntry.getValue().entrySet()) {
+        final TimeValuePair current = measurementEntry.getValue();
+        final TimeValuePair previous = merged.get(measurementEntry.getKey());
+        if (Objects.isNull(previous) || previous.getTimestamp() < current.getTimestamp()) {
+          merged.put(measurementEntry.getKey(), current);
+        } else if (previous.getTimestamp() == current.getTimestamp()
+            && !measurementEntry.getKey().isEmpty()) {
+          skippedDevices.add(deviceID);
+          device2LastValues.remove(deviceID);
+          break;
+        }
+      }
+    }
+  }
+
+  Map<IDeviceID, Map<String, TimeValuePair>> getDevice2LastValues() {
+    return device2LastValues;
+  }
+
+  Set<IDeviceID> getSkippedDevices() {
+    return skippedDevices;
+  }
+
+  private void putToCache(
+      final IDeviceID deviceID,
+      final Map<String, TimeValuePair> measurement2LastValue,
+      final boolean isTableModel) {
+    // The tree model does not cache the time column
+    if (!isTableModel) {
+      measurement2LastValue.remove("");
+    }
+    final String[] measurements = new String[measurement2LastValue.size()];
+    final TimeValuePair[] timeValuePairs = new TimeValuePair[measurement2LastValue.size()];
+    int index = 0;
+    for (final Map.Entry<String, TimeValuePair> entry : measurement2LastValue.entrySet()) {
+      measurements[index] = entry.getKey();
+      timeValuePairs[index] = entry.getValue();
+      ++index;
+    }
+    TableDeviceSchemaCache.getInstance()
+        .putLastCacheSnapshot(
+            isTableModel ? databaseName : null, deviceID, measurements, timeValuePairs);
+  }
+}
@@ -18,7 +18,9 @@
  */
 package org.apache.iotdb.db.storageengine.rescon.disk;
 
+import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.DiskSpaceInsufficientException;
@@ -74,6 +76,9 @@ public class TierManager {
   /** total space of each tier, Long.MAX_VALUE when one tier contains remote storage */
   private long[] tierDiskTotalSpace;
 
+  /** the last tier before the first tier containing remote storage */
+  private int lastLocalTierLevel;
+
   private TierManager() {
     initFolders();
   }
@@ -113,6 +118,14 @@ public class TierManager {
       }
     }
 
+    lastLocalTierLevel = 0;
+    while (lastLocalTierLevel + 1 < tierDirs.length
+        && Arrays.stream(tierDirs[lastLocalTierLevel + 1])
+            .filter(Objects::nonNull)
+            .allMatch(FSUtils::isLocal)) {
+      lastLocalTierLevel++;
+    }
+
     for (int tierLevel = 0; tierLevel < tierDirs.length; ++tierLevel) {
       List<String> seqDirs =
           Arrays.stream(tierDirs[tierLevel])
@@ -248,6 +261,35 @@ public class TierManager {
     return 0;
   }
 
+  /**
+   * Get the tier level which the data of the given time belongs to. The data older than the tier
+   * ttl of a tier belongs to the following tiers. Tiers on remote storage are never returned, as
+   * files are written locally and then migrated there, so the level is capped at the last local
+   * tier.
+   *
+   * @param time the timestamp of the data, with the time precision of the database
+   */
+  public int getTierLevelOfDataTime(long time) {
+    long[] tierTTLs = CommonDescriptor.getInstance().getConfig().getTierTTLInMs();
+    String timePrecision = CommonDescriptor.getInstance().getConfig().getTimestampPrecision();
+    long currentTime = CommonDateTimeUtils.currentTime();
+    int tierLevel = 0;
+    int maxTierLevel = Math.min(getTiersNum() - 1, lastLocalTierLevel);
+    while (tierLevel < maxTierLevel && tierLevel < tierTTLs.length) {
+      // the negative tier ttl has been converted to Long.MAX_VALUE, which means unlimited
+      if (tierTTLs[tierLevel] == Long.MAX_VALUE) {
+        break;
+      }
+      long tierTTL =
+          CommonDateTimeUtils.convertMilliTimeWithPrecision(tierTTLs[tierLevel], timePrecision);
+      if (tierTTL >= currentTime || time >= currentTime - tierTTL) {
+        break;
+      }
+      tierLevel++;
+    }
+    return tierLevel;
+  }
+
   public long[] getTierDiskTotalSpace() {
     return Arrays.copyOf(tierDiskTotalSpace, tierDiskTotalSpace.length);
   }
@@ -258,6 +258,51 @@ public class ModificationUtils {
     return false;
   }
 
+  /**
+   * Estimate the ratio of the data of the device deleted by mods, assuming that the data is evenly
+   * distributed between the start time and the end time. Only the mods deleting all the series of
+   * the device are counted.
+   *
+   * @return the ratio of the time range [startTime, endTime] covered by the mods
+   */
+  public static double getDeletedTimeRatio(
+      Collection<ModEntry> modifications, IDeviceID device, long startTime, long endTime) {
+    if (modifications == null || modifications.isEmpty() || startTime > endTime) {
+      return 0;
+    }
+    List<TimeRange> deletedRanges = new ArrayList<>();
+    for (ModEntry modification : modifications) {
+      TimeRange timeRange = modification.getTimeRange();
+      if (timeRange.getMax() < startTime
+          || timeRange.getMin() > endTime
+          || !modification.affectsAll(device)) {
+        continue;
+      }
+      deletedRanges.add(
+          new TimeRange(
+              Math.max(timeRange.getMin(), startTime), Math.min(timeRange.getMax(), endTime)));
+    }
+    if (deletedRanges.isEmpty()) {
+      return 0;
+    }
+    deletedRanges.sort(Comparator.comparingLong(TimeRange::getMin));
+    // use double to avoid overflow, e.g. Long.MAX_VALUE - Long.MIN_VALUE
+    double deletedLength = 0;
+    long currentStart = deletedRanges.get(0).getMin();
+    long currentEnd = deletedRanges.get(0).getMax();
+    for (TimeRange range : deletedRanges) {
+      if (range.getMin() <= currentEnd) {
+        currentEnd = Math.max(currentEnd, range.getMax());
+      } else {
+        deletedLength += (double) currentEnd - currentStart + 1;
+        currentStart = range.getMin();
+        currentEnd = range.getMax();
+      }
+    }
+    deletedLength += (double) currentEnd - currentStart + 1;
+    return Math.min(1, deletedLength / ((double) endTime - startTime + 1));
+  }
+
   public static boolean isAllDeletedByMods(
       Collection<ModEntry> modifications, long startTime, long endTime) {
     if (modifications == null || modifications.isEmpty()) {
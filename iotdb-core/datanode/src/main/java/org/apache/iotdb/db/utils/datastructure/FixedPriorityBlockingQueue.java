@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * This is a priority blocking queue with a maximum size. If the queue's size is larger than the max
@@ -114,6 +115,23 @@ public class FixedPriorityBlockingQueue<T> {
     this.pollLastHookList.add(hook);
   }
 
+  /**
+   * Update the ordering keys of all the elements and reorder them. The ordering key of an element
+   * must not change while it is in the queue except in the updater.
+   */
+  public void reorder(Consumer<T> updater) {
+    final ReentrantLock lock = this.lock;
+    lock.lock();
+    try {
+      List<T> elements = new ArrayList<>(queue);
+      queue.clear();
+      elements.forEach(updater);
+      queue.addAll(elements);
+    } finally {
+      lock.unlock();
+    }
+  }
+
   public boolean contains(T element) {
     final ReentrantLock lock = this.lock;
     lock.lock();
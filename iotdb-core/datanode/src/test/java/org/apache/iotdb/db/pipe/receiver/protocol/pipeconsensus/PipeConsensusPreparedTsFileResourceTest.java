@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.receiver.protocol.pipeconsensus;
+
+import org.apache.iotdb.consensus.pipe.thrift.TCommitId;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+public class PipeConsensusPreparedTsFileResourceTest {
+
+  private File dir;
+  private File tsFile;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("pipe-consensus-receiver").toFile();
+    tsFile = new File(dir, "1-1-0-0.tsfile");
+    Files.write(tsFile.toPath(), new byte[] {1, 2, 3});
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(dir);
+  }
+
+  @Test
+  public void testTakePreparedResource() throws IOException {
+    final PipeConsensusPreparedTsFileResource prepared = new PipeConsensusPreparedTsFileResource();
+    final TCommitId commitId = new TCommitId(1, 0, 0);
+    prepared.prepare(commitId, tsFile, TsFileResource::new);
+    Assert.assertTrue(prepared.isPrepared());
+
+    final TsFileResource resource = prepared.take(new TCommitId(1, 0, 0), tsFile);
+    Assert.assertNotNull(resource);
+    Assert.assertEquals(tsFile.getAbsolutePath(), resource.getTsFile().getAbsolutePath());
+    // a resource is consumed only once
+    Assert.assertFalse(prepared.isPrepared());
+    Assert.assertNull(prepared.take(commitId, tsFile));
+  }
+
+  @Test
+  public void testDiscardMismatchedResource() throws IOException {
+    final PipeConsensusPreparedTsFileResource prepared = new PipeConsensusPreparedTsFileResource();
+    final TCommitId commitId = new TCommitId(1, 0, 0);
+
+    // prepared for another event, e.g. a retransmission after the writer was reused
+    prepared.prepare(commitId, tsFile, TsFileResource::new);
+    Assert.assertNull(prepared.take(new TCommitId(2, 0, 0), tsFile));
+    Assert.assertFalse(prepared.isPrepared());
+
+    // prepared from another file
+    prepared.prepare(commitId, tsFile, TsFileResource::new);
+    Assert.assertNull(prepared.take(commitId, new File(dir, "2-2-0-0.tsfile")));
+    Assert.assertFalse(prepared.isPrepared());
+  }
+
+  @Test
+  public void testDiscardStaleResource() throws IOException {
+    final PipeConsensusPreparedTsFileResource prepared = new PipeConsensusPreparedTsFileResource();
+    final TCommitId commitId = new TCommitId(1, 0, 0);
+
+    // the file is rewritten after the resource was prepared
+    prepared.prepare(commitId, tsFile, TsFileResource::new);
+    Files.write(tsFile.toPath(), new byte[] {4}, StandardOpenOption.APPEND);
+    Assert.assertNull(prepared.take(commitId, tsFile));
+
+    // the writer switches to another writing file
+    prepared.prepare(commitId, tsFile, TsFileResource::new);
+    prepared.clear();
+    Assert.assertFalse(prepared.isPrepared());
+    Assert.assertNull(prepared.take(commitId, tsFile));
+  }
+}
@@ -572,6 +572,25 @@ public class AggregationTest {
                     ImmutableSet.of("tag1", "tag2", "tag3", "s1", "time")))));
   }
 
+  @Test
+  public void deviceConstantPredicateTest() {
+    PlanTester planTester = new PlanTester();
+    // The predicate only related to tag can not be pushed into metadata query, it is evaluated once
+    // per device, then only DEVICE_5 is left and the aggregation can be pushed down totally
+    assertPlan(
+        planTester.createPlan(
+            "SELECT count(s1) FROM table1 where (CASE WHEN tag2 = 'B2' THEN 1 ELSE 0 END) = 1"),
+        output(
+            aggregationTableScan(
+                singleGroupingSet(),
+                ImmutableList.of(),
+                Optional.empty(),
+                SINGLE,
+                "testdb.table1",
+                ImmutableList.of("count"),
+                ImmutableSet.of("s1"))));
+  }
+
   @Test
   public void deviceWithNumerousRegionTest() {
     PlanTester planTester = new PlanTester();
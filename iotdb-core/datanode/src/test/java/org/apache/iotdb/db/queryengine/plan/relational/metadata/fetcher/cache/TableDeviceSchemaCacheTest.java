@@ -550,6 +550,53 @@ public class TableDeviceSchemaCacheTest {
         cache.getLastEntry(database1, convertTagValuesToDeviceID(table1, device0), "s2"));
   }
 
+  @Test
+  public void testUpdateWithWriteThrough() {
+    final TableDeviceSchemaCache cache = TableDeviceSchemaCache.getInstance();
+    final IDeviceID deviceID =
+        convertTagValuesToDeviceID(table1, new String[] {"hebei", "p_1", "d_1"});
+
+    final TimeValuePair tv0 = new TimeValuePair(3L, new TsPrimitiveType.TsInt(0));
+    final TimeValuePair tv1 = new TimeValuePair(2L, new TsPrimitiveType.TsInt(1));
+    final TimeValuePair tv2 = new TimeValuePair(4L, new TsPrimitiveType.TsInt(2));
+    final TimeValuePair tv3 = new TimeValuePair(1L, new TsPrimitiveType.TsInt(3));
+
+    // Later data exists, do not put cache
+    cache.updateLastCacheWithWriteThrough(
+        database1, deviceID, new String[] {"s0", "s1"}, new TimeValuePair[] {tv0, tv1}, () -> 5L);
+    Assert.assertNull(cache.getLastEntry(database1, deviceID, "s0"));
+    Assert.assertFalse(
+        cache.getLastRow(database1, deviceID, "", Collections.singletonList("s0")).isPresent());
+
+    // The written row is the latest, put the measurements written at the last time only
+    cache.updateLastCacheWithWriteThrough(
+        database1, deviceID, new String[] {"s0", "s1"}, new TimeValuePair[] {tv0, tv1}, () -> 3L);
+    Assert.assertEquals(tv0, cache.getLastEntry(database1, deviceID, "s0"));
+    Assert.assertNull(cache.getLastEntry(database1, deviceID, "s1"));
+    Assert.assertEquals(
+        OptionalLong.of(3L),
+        cache
+            .getLastRow(database1, deviceID, "", Collections.singletonList("s0"))
+            .map(Pair::getLeft)
+            .orElse(OptionalLong.empty()));
+
+    // Decided by the cached time of the device
+    cache.updateLastCacheWithWriteThrough(
+        database1, deviceID, new String[] {"s1"}, new TimeValuePair[] {tv2}, () -> Long.MAX_VALUE);
+    Assert.assertEquals(tv2, cache.getLastEntry(database1, deviceID, "s1"));
+    Assert.assertEquals(tv0, cache.getLastEntry(database1, deviceID, "s0"));
+
+    // Older data only updates the existing caches
+    cache.updateLastCacheWithWriteThrough(
+        database1,
+        deviceID,
+        new String[] {"s0", "s2"},
+        new TimeValuePair[] {tv3, tv3},
+        () -> Long.MAX_VALUE);
+    Assert.assertEquals(tv0, cache.getLastEntry(database1, deviceID, "s0"));
+    Assert.assertNull(cache.getLastEntry(database1, deviceID, "s2"));
+  }
+
   private void updateLastCache4Query(
       final TableDeviceSchemaCache cache,
       final String database,
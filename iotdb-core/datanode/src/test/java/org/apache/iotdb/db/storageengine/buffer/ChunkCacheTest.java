@@ -21,6 +21,7 @@ package org.apache.iotdb.db.storageengine.buffer;
 
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
@@ -133,6 +134,52 @@ public class ChunkCacheTest {
     }
   }
 
+  @Test
+  public void testCompactionReadNotAdmitted() throws IOException {
+    TsFileResource tsFileResource = seqResources.get(0);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFileResource.getTsFilePath())) {
+      List<Path> paths = reader.getAllPaths();
+      ChunkMetadata firstChunkMetadata = reader.getChunkMetadataList(paths.get(0)).get(0);
+      ChunkCache.ChunkCacheKey key =
+          new ChunkCache.ChunkCacheKey(
+              tsFileResource.getTsFilePath(),
+              tsFileResource.getTsFileID(),
+              firstChunkMetadata.getOffsetOfChunkHeader(),
+              true);
+      QueryContext compactionContext = new QueryContext(1);
+      compactionContext.setCacheAccessSource(CacheAccessSource.COMPACTION);
+
+      // the chunk loaded by compaction is not put into cache
+      Chunk chunk1 =
+          chunkCache.get(
+              key,
+              firstChunkMetadata.getDeleteIntervalList(),
+              firstChunkMetadata.getStatistics(),
+              compactionContext);
+      Assert.assertTrue(chunkCache.isEmpty());
+      Assert.assertEquals(
+          1, compactionContext.getQueryStatistics().getLoadChunkFromDiskCount().get());
+
+      // the chunk loaded by query is put into cache, and hit by compaction later
+      Chunk chunk2 =
+          chunkCache.get(
+              key,
+              firstChunkMetadata.getDeleteIntervalList(),
+              firstChunkMetadata.getStatistics(),
+              new QueryContext(2));
+      Assert.assertFalse(chunkCache.isEmpty());
+      chunkCache.get(
+          key,
+          firstChunkMetadata.getDeleteIntervalList(),
+          firstChunkMetadata.getStatistics(),
+          compactionContext);
+      Assert.assertEquals(
+          1, compactionContext.getQueryStatistics().getLoadChunkFromCacheCount().get());
+      Assert.assertEquals(chunk1.getHeader(), chunk2.getHeader());
+      Assert.assertEquals(chunk1.getData(), chunk2.getData());
+    }
+  }
+
   void prepareSeries() throws MetadataException {
     measurementSchemas = new MeasurementSchema[measurementNum];
     for (int i = 0; i < measurementNum; i++) {
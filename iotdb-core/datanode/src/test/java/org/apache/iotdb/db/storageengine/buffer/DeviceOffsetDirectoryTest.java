@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.filter.factory.TimeFilterApi;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.TSRecord;
+import org.apache.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.schema.Schema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DeviceOffsetDirectoryTest {
+
+  private static final String TS_FILE_PATH =
+      "target" + File.separator + "DeviceOffsetDirectoryTest" + File.separator + "1-0-0-0.tsfile";
+  private static final String TEMPLATE = "template";
+  // more than the max degree of the metadata index node, to build internal device nodes
+  private static final int DEVICE_NUM = 600;
+  private static final int SENSOR_NUM = 3;
+
+  private TsFileResource resource;
+
+  @Before
+  public void setUp() throws Exception {
+    File file = new File(TS_FILE_PATH);
+    FileUtils.forceMkdirParent(file);
+    resource = new TsFileResource(file);
+
+    Schema schema = new Schema();
+    for (int i = 0; i < SENSOR_NUM; i++) {
+      schema.extendTemplate(
+          TEMPLATE, new MeasurementSchema("s" + i, TSDataType.INT64, TSEncoding.PLAIN));
+    }
+    try (TsFileWriter tsFileWriter = new TsFileWriter(file, schema)) {
+      for (int i = 0; i < DEVICE_NUM; i++) {
+        String device = "root.sg.d" + i;
+        tsFileWriter.registerDevice(device, TEMPLATE);
+        for (long time = i; time <= i + 1; time++) {
+          TSRecord tsRecord = new TSRecord(device, time);
+          for (int j = 0; j < SENSOR_NUM; j++) {
+            tsRecord.addTuple(new LongDataPoint("s" + j, time));
+          }
+          tsFileWriter.writeRecord(tsRecord);
+        }
+        IDeviceID deviceID = IDeviceID.Factory.DEFAULT_FACTORY.create(device);
+        resource.updateStartTime(deviceID, i);
+        resource.updateEndTime(deviceID, i + 1);
+      }
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(new File(TS_FILE_PATH).getParentFile());
+  }
+
+  @Test
+  public void testBuildAndGet() throws Exception {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(TS_FILE_PATH)) {
+      DeviceOffsetDirectory directory = DeviceOffsetDirectory.build(reader, resource);
+      Assert.assertEquals(DEVICE_NUM, directory.getDeviceCount());
+
+      for (int i = 0; i < DEVICE_NUM; i++) {
+        IDeviceID deviceID = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d" + i);
+        DeviceOffsetDirectory.DeviceEntry entry = directory.get(deviceID);
+        Assert.assertNotNull(entry);
+        Assert.assertEquals(i, entry.getStartTime());
+        Assert.assertEquals(i + 1, entry.getEndTime());
+
+        List<TimeseriesMetadata> timeseriesMetadataList = new ArrayList<>();
+        reader.readITimeseriesMetadata(
+            timeseriesMetadataList, entry.readMeasurementNode(reader), "s1");
+        TimeseriesMetadata s1 =
+            timeseriesMetadataList.stream()
+                .filter(metadata -> metadata.getMeasurementId().equals("s1"))
+                .findFirst()
+                .orElse(null);
+        Assert.assertNotNull(s1);
+        Assert.assertEquals(2, s1.getStatistics().getCount());
+        Assert.assertEquals(i, s1.getStatistics().getStartTime());
+      }
+
+      IDeviceID absentDevice = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d" + DEVICE_NUM);
+      Assert.assertNull(directory.get(absentDevice));
+      Assert.assertFalse(directory.mayContain(absentDevice, null));
+
+      IDeviceID d0 = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d0");
+      Assert.assertTrue(directory.mayContain(d0, null));
+      Assert.assertTrue(directory.mayContain(d0, TimeFilterApi.ltEq(1)));
+      Assert.assertFalse(directory.mayContain(d0, TimeFilterApi.gt(1)));
+    }
+  }
+}
@@ -30,7 +30,9 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.Cros
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.SettleCompactionTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.TimePartitionAccessTracker;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.comparator.DefaultCompactionTaskComparatorImpl;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.comparator.WorkloadAwareCompactionTaskComparatorImpl;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionPriority;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.CompactionConfigRestorer;
 import org.apache.iotdb.db.storageengine.dataregion.modification.TreeDeletionEntry;
@@ -50,6 +52,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -490,6 +493,99 @@ public class CompactionTaskComparatorTest {
         candidateCompactionTaskQueue.take().getCompactionTaskType(), CompactionTaskType.INNER_SEQ);
   }
 
+  @Test
+  public void testCompareByWorkloadScore() throws InterruptedException {
+    FixedPriorityBlockingQueue<AbstractCompactionTask> candidateCompactionTaskQueue =
+        new FixedPriorityBlockingQueue<>(
+            IoTDBDescriptor.getInstance().getConfig().getCandidateCompactionTaskQueueSize(),
+            new WorkloadAwareCompactionTaskComparatorImpl());
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      resources.add(new FakedTsFileResource(new File(String.format("%d-%d-0-0.tsfile", i, i)), 10));
+    }
+    // the newer time partitions are preferred by default, but the older ones are queried more
+    for (int i = 0; i < 5; i++) {
+      AbstractCompactionTask innerTask =
+          new FakedInnerSpaceCompactionTask("fakeSg", i, tsFileManager, false, resources, 0);
+      innerTask.setWorkloadScore(10 - 2 * i);
+      candidateCompactionTaskQueue.put(innerTask);
+      AbstractCompactionTask crossTask =
+          new FakeCrossSpaceCompactionTask("fakeSg", i, tsFileManager, resources, resources, 0);
+      crossTask.setWorkloadScore(9 - 2 * i);
+      candidateCompactionTaskQueue.put(crossTask);
+    }
+
+    for (int i = 0; i < 5; i++) {
+      AbstractCompactionTask task = candidateCompactionTaskQueue.take();
+      Assert.assertEquals(i, task.getTimePartition());
+      Assert.assertTrue(task instanceof InnerSpaceCompactionTask);
+      task = candidateCompactionTaskQueue.take();
+      Assert.assertEquals(i, task.getTimePartition());
+      Assert.assertTrue(task instanceof CrossSpaceCompactionTask);
+    }
+  }
+
+  @Test
+  public void testCompareScoredAndUnscoredTasksByWorkloadScore() throws InterruptedException {
+    FixedPriorityBlockingQueue<AbstractCompactionTask> candidateCompactionTaskQueue =
+        new FixedPriorityBlockingQueue<>(
+            IoTDBDescriptor.getInstance().getConfig().getCandidateCompactionTaskQueueSize(),
+            new WorkloadAwareCompactionTaskComparatorImpl());
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      resources.add(new FakedTsFileResource(new File(String.format("%d-%d-0-0.tsfile", i, i)), 10));
+    }
+    for (int i = 0; i < 3; i++) {
+      AbstractCompactionTask innerTask =
+          new FakedInnerSpaceCompactionTask("fakeSg", i, tsFileManager, false, resources, 0);
+      innerTask.setWorkloadScore(i);
+      candidateCompactionTaskQueue.put(innerTask);
+      // the settle tasks are not scored, so their score is ignored
+      AbstractCompactionTask settleTask =
+          new SettleCompactionTask(
+              i,
+              tsFileManager,
+              Collections.emptyList(),
+              Collections.singletonList(
+                  new FakedTsFileResource(new File(String.format("%d-%d-1-0.tsfile", i, i)), 1)),
+              true,
+              new FastCompactionPerformer(false),
+              0);
+      settleTask.setWorkloadScore(-i);
+      candidateCompactionTaskQueue.put(settleTask);
+    }
+
+    for (int i = 0; i < 3; i++) {
+      Assert.assertEquals(
+          CompactionTaskType.SETTLE, candidateCompactionTaskQueue.take().getCompactionTaskType());
+    }
+    // the scores are refreshed while the tasks are waiting
+    candidateCompactionTaskQueue.reorder(
+        task -> task.setWorkloadScore(task.getTimePartition() == 0 ? 10 : 0));
+    Assert.assertEquals(0, candidateCompactionTaskQueue.take().getTimePartition());
+    Assert.assertEquals(2, candidateCompactionTaskQueue.take().getTimePartition());
+    Assert.assertEquals(1, candidateCompactionTaskQueue.take().getTimePartition());
+  }
+
+  @Test
+  public void testTimePartitionAccessFrequencyDecay() {
+    TimePartitionAccessTracker tracker = new TimePartitionAccessTracker(true, 1000);
+    tracker.recordAccess("0", Arrays.asList(1L, 2L), 0);
+    tracker.recordAccess("0", Collections.singletonList(1L), 0);
+    Assert.assertEquals(2, tracker.getAccessFrequency("0", 1, 0), 1e-6);
+    Assert.assertEquals(1, tracker.getAccessFrequency("0", 1, 1000), 1e-6);
+    Assert.assertEquals(0.5, tracker.getAccessFrequency("0", 2, 1000), 1e-6);
+    Assert.assertEquals(0, tracker.getAccessFrequency("0", 3, 1000), 1e-6);
+    Assert.assertEquals(0, tracker.getAccessFrequency("1", 1, 1000), 1e-6);
+
+    tracker.removeDataRegion("0");
+    Assert.assertEquals(0, tracker.getAccessFrequency("0", 1, 1000), 1e-6);
+
+    TimePartitionAccessTracker disabledTracker = new TimePartitionAccessTracker(false, 1000);
+    disabledTracker.recordAccess("0", Collections.singletonList(1L), 0);
+    Assert.assertEquals(0, disabledTracker.getAccessFrequency("0", 1, 0), 1e-6);
+  }
+
   private static class FakedInnerSpaceCompactionTask extends InnerSpaceCompactionTask {
 
     public FakedInnerSpaceCompactionTask(
@@ -187,6 +187,63 @@ public class FastCrossCompactionPerformerTest extends AbstractCompactionTest {
     assertEquals(500, count);
   }
 
+  /**
+   * The seq file has d0 ~ d2, while the unseq file only has d0. The chunks and pages without
+   * overlapping unseq data should be copied into the target file without decoding.
+   */
+  @Test
+  public void testCrossSpaceCompactionCopyNonOverlapChunks() throws Exception {
+    registerTimeseriesInMManger(3, 2, false);
+    createFiles(1, 3, 2, 300, 0, 0, 0, 0, false, true);
+    createFiles(1, 1, 2, 20, 100, 10000, 0, 0, false, false);
+
+    targetResources.addAll(
+        CompactionFileGeneratorUtils.getCrossCompactionTargetTsFileResources(seqResources));
+    ICompactionPerformer performer =
+        new FastCompactionPerformer(seqResources, unseqResources, targetResources);
+    FastCompactionTaskSummary summary = new FastCompactionTaskSummary();
+    performer.setSummary(summary);
+    performer.perform();
+    CompactionUtils.moveTargetFile(targetResources, CompactionTaskType.CROSS, COMPACTION_TEST_SG);
+
+    Assert.assertTrue(summary.getDirectlyFlushByteNum() > 0);
+    Assert.assertTrue(summary.getRewriteByteNum() > 0);
+    // only the pages of d0 overlapped with the unseq file are rewritten
+    Assert.assertTrue(summary.getDirectlyFlushByteNum() > summary.getRewriteByteNum());
+
+    for (int i = 0; i < 3; i++) {
+      IFullPath path =
+          new NonAlignedFullPath(
+              IDeviceID.Factory.DEFAULT_FACTORY.create(
+                  COMPACTION_TEST_SG + PATH_SEPARATOR + "d" + i),
+              new MeasurementSchema("s1", TSDataType.INT64));
+      IDataBlockReader tsBlockReader =
+          new SeriesDataBlockReader(
+              path,
+              FragmentInstanceContext.createFragmentInstanceContextForCompaction(
+                  EnvironmentUtils.TEST_QUERY_CONTEXT.getQueryId()),
+              targetResources,
+              new ArrayList<>(),
+              true);
+      int count = 0;
+      while (tsBlockReader.hasNextBatch()) {
+        TsBlock block = tsBlockReader.nextBatch();
+        IBatchDataIterator iterator = block.getTsBlockSingleColumnIterator();
+        while (iterator.hasNext()) {
+          if (i == 0 && iterator.currentTime() >= 100 && iterator.currentTime() < 120) {
+            assertEquals(iterator.currentTime() + 9900, iterator.currentValue());
+          } else {
+            assertEquals(iterator.currentTime(), iterator.currentValue());
+          }
+          count++;
+          iterator.next();
+        }
+      }
+      tsBlockReader.close();
+      assertEquals(300, count);
+    }
+  }
+
   /**
    * Total 4 seq files and 5 unseq files, each file has different nonAligned timeseries.
    *
@@ -22,6 +22,7 @@ import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.path.IFullPath;
 import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.commons.path.NonAlignedFullPath;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.StorageEngineException;
@@ -54,6 +55,7 @@ import org.apache.tsfile.write.chunk.IChunkWriter;
 import org.apache.tsfile.write.chunk.ValueChunkWriter;
 import org.apache.tsfile.write.page.TimePageWriter;
 import org.apache.tsfile.write.page.ValuePageWriter;
+import org.apache.tsfile.write.schema.MeasurementSchema;
 import org.apache.tsfile.write.writer.TsFileIOWriter;
 import org.junit.After;
 import org.junit.Assert;
@@ -426,6 +428,50 @@ public class ReadChunkInnerCompactionTest extends AbstractCompactionTest {
     validateTargetDatas(sourceDatas, tsDataTypes);
   }
 
+  @Test
+  public void testNonAlignedSeriesWithSubTasks() throws Exception {
+    int oldSubTaskNum = IoTDBDescriptor.getInstance().getConfig().getSubCompactionTaskNum();
+    IoTDBDescriptor.getInstance().getConfig().setSubCompactionTaskNum(4);
+    try {
+      registerTimeseriesInMManger(3, 10, false);
+      createFiles(5, 3, 10, 200, 0, 0, 50, 50, false, true);
+      tsFileManager.addAll(seqResources, true);
+
+      List<IFullPath> timeseriesPaths = new ArrayList<>();
+      List<TSDataType> tsDataTypes = new ArrayList<>();
+      for (int d = 0; d < 3; d++) {
+        for (int i = 0; i < 10; i++) {
+          timeseriesPaths.add(
+              new NonAlignedFullPath(
+                  IDeviceID.Factory.DEFAULT_FACTORY.create(
+                      COMPACTION_TEST_SG + PATH_SEPARATOR + "d" + d),
+                  new MeasurementSchema("s" + i, TSDataType.INT64)));
+          tsDataTypes.add(TSDataType.INT64);
+        }
+      }
+      Map<IFullPath, List<TimeValuePair>> sourceDatas =
+          readSourceFiles(timeseriesPaths, tsDataTypes);
+
+      InnerSpaceCompactionTask task =
+          new InnerSpaceCompactionTask(
+              0, tsFileManager, seqResources, true, new ReadChunkCompactionPerformer(), 0);
+      Assert.assertTrue(task.start());
+      Assert.assertEquals(1, tsFileManager.getTsFileList(true).size());
+      validateSeqFiles(true);
+      validateTargetDatas(sourceDatas, tsDataTypes);
+
+      TsFileResource targetResource = tsFileManager.getTsFileList(true).get(0);
+      for (int d = 0; d < 3; d++) {
+        IDeviceID deviceID =
+            IDeviceID.Factory.DEFAULT_FACTORY.create(COMPACTION_TEST_SG + PATH_SEPARATOR + "d" + d);
+        Assert.assertEquals(0, (long) targetResource.getStartTime(deviceID).get());
+        Assert.assertEquals(1199, (long) targetResource.getEndTime(deviceID).get());
+      }
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setSubCompactionTaskNum(oldSubTaskNum);
+    }
+  }
+
   @Test
   public void testReadChunkPerformerWithEmptyTargetFile1() throws IOException {
     TsFileResource seqFile1 = createEmptyFileAndResource(true);
@@ -0,0 +1,613 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.benchmark;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.buffer.BloomFilterCache;
+import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+import org.apache.iotdb.db.storageengine.buffer.TimeSeriesMetadataCache;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.ICompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.FastCompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.ReadChunkCompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.ReadPointCompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.subtask.FastCompactionTaskSummary;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionMemoryTracker;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionIoScheduler;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.TsFileGeneratorUtils;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+import org.apache.iotdb.db.utils.EncodingInferenceUtils;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.read.common.TimeRange;
+import org.apache.tsfile.write.chunk.AlignedChunkWriterImpl;
+import org.apache.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.writer.TsFileIOWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compaction performer benchmark. It generates the seq files and the unseq files of a synthetic
+ * layout described by {@link Config}, then runs each performer in the scenarios it supports and
+ * reports the throughput, the peak memory tracked by {@link CompactionMemoryTracker} and the chunks
+ * copied vs. rewritten. The read point performer does not count the chunks, so they are reported as
+ * N/A for it. All the compaction rate limiters are disabled during the benchmark. The arguments are
+ * given as key=value, e.g.
+ *
+ * <pre>
+ * deviceNum=100 measurementNum=10 overlapRatio=0.2 aligned=true dataTypes=INT64,DOUBLE,TEXT
+ * </pre>
+ *
+ * <p>Seq file i holds the points in [2iP, 2iP + P) of every series, where P is pointNumPerFile.
+ * Unseq file j is shifted so that the last overlapRatio * P points of seq file (j % seqFileNum) are
+ * overlapped, and the other points fall into the gap behind that seq file.
+ */
+public class CompactionBenchmark {
+
+  private static final String DATABASE = "root.benchmark";
+  private static final String DATA_REGION_ID = "0";
+  private static final String TIME_PARTITION = "0";
+  private static final long MB = 1024L * 1024L;
+
+  private final Config config;
+  private File workDir;
+  private final List<TsFileResource> seqResources = new ArrayList<>();
+  private final List<TsFileResource> unseqResources = new ArrayList<>();
+
+  public CompactionBenchmark(Config config) {
+    this.config = config;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.parse(args);
+    CompactionTaskManager.getInstance().start();
+    try {
+      List<Result> results = new CompactionBenchmark(config).run();
+      System.out.println(config);
+      System.out.println(Result.HEADER);
+      for (Result result : results) {
+        System.out.println(result);
+      }
+    } finally {
+      CompactionTaskManager.getInstance().stop();
+    }
+  }
+
+  /** Generate the files, run all the performers and remove the files. */
+  public List<Result> run() throws Exception {
+    File baseDir = new File(config.dir);
+    Files.createDirectories(baseDir.toPath());
+    workDir = Files.createTempDirectory(baseDir.toPath(), "compaction-benchmark").toFile();
+    // the benchmark measures the performers instead of the rate limiters
+    IoTDBConfig iotdbConfig = IoTDBDescriptor.getInstance().getConfig();
+    int perDiskReadThroughputMbPerSec = iotdbConfig.getCompactionPerDiskReadThroughputMbPerSec();
+    int perDiskWriteThroughputMbPerSec = iotdbConfig.getCompactionPerDiskWriteThroughputMbPerSec();
+    long foregroundReadLatencyThresholdInMs =
+        iotdbConfig.getCompactionForegroundReadLatencyThresholdInMs();
+    setRateLimits(0, 0, 0, 0, 0, 0);
+    try {
+      generateFiles(true);
+      generateFiles(false);
+      List<Result> results = new ArrayList<>();
+      for (Scenario scenario : Scenario.values()) {
+        if (scenario.getSourceFiles(this).isEmpty()) {
+          continue;
+        }
+        for (PerformerType performerType : scenario.performerTypes) {
+          results.add(benchmark(scenario, performerType));
+        }
+      }
+      return results;
+    } finally {
+      setRateLimits(
+          iotdbConfig.getCompactionWriteThroughputMbPerSec(),
+          iotdbConfig.getCompactionReadThroughputMbPerSec(),
+          iotdbConfig.getCompactionReadOperationPerSec(),
+          perDiskReadThroughputMbPerSec,
+          perDiskWriteThroughputMbPerSec,
+          foregroundReadLatencyThresholdInMs);
+      FileReaderManager.getInstance().closeAndRemoveAllOpenedReaders();
+      seqResources.clear();
+      unseqResources.clear();
+      FileUtils.deleteDirectory(workDir);
+    }
+  }
+
+  /**
+   * Set the global limiters of the compaction, the limiters of each disk and the foreground read
+   * latency threshold which throttles the compaction IO of a disk, 0 means no limit.
+   */
+  private static void setRateLimits(
+      double writeThroughputMbPerSec,
+      double readThroughputMbPerSec,
+      double readOperationPerSec,
+      int perDiskReadThroughputMbPerSec,
+      int perDiskWriteThroughputMbPerSec,
+      long foregroundReadLatencyThresholdInMs) {
+    CompactionTaskManager.getInstance().setWriteMergeRate(writeThroughputMbPerSec);
+    CompactionTaskManager.getInstance().setCompactionReadThroughputRate(readThroughputMbPerSec);
+    CompactionTaskManager.getInstance().setCompactionReadOperationRate(readOperationPerSec);
+    IoTDBConfig iotdbConfig = IoTDBDescriptor.getInstance().getConfig();
+    // the buckets created later take the per disk rates from the config
+    iotdbConfig.setCompactionPerDiskReadThroughputMbPerSec(perDiskReadThroughputMbPerSec);
+    iotdbConfig.setCompactionPerDiskWriteThroughputMbPerSec(perDiskWriteThroughputMbPerSec);
+    iotdbConfig.setCompactionForegroundReadLatencyThresholdInMs(foregroundReadLatencyThresholdInMs);
+    CompactionIoScheduler.getInstance()
+        .setRates(perDiskReadThroughputMbPerSec, perDiskWriteThroughputMbPerSec);
+  }
+
+  private Result benchmark(Scenario scenario, PerformerType performerType) throws Exception {
+    List<TsFileResource> sourceFiles = scenario.getSourceFiles(this);
+    Result result = new Result(scenario, performerType);
+    for (TsFileResource resource : sourceFiles) {
+      result.sourceFileSize += resource.getTsFileSize();
+    }
+    for (int round = 0; round < config.rounds; round++) {
+      // each round starts with cold caches
+      ChunkCache.getInstance().clear();
+      TimeSeriesMetadataCache.getInstance().clear();
+      BloomFilterCache.getInstance().clear();
+      FileReaderManager.getInstance().closeAndRemoveAllOpenedReaders();
+
+      List<TsFileResource> targetFiles = createTargetFiles(scenario);
+      ICompactionPerformer performer = performerType.supplier.get();
+      FastCompactionTaskSummary summary = new FastCompactionTaskSummary();
+      performer.setTargetFiles(targetFiles);
+      if (scenario == Scenario.CROSS) {
+        performer.setSourceFiles(seqResources, unseqResources);
+      } else {
+        performer.setSourceFiles(sourceFiles);
+      }
+      performer.setSummary(summary);
+
+      CompactionMemoryTracker memoryTracker = new CompactionMemoryTracker();
+      long startTime = System.nanoTime();
+      try (CompactionMemoryTracker.Binding ignored = memoryTracker.bindToCurrentThread()) {
+        performer.perform();
+      }
+      result.timeCostInNanos += System.nanoTime() - startTime;
+      result.peakMemory = Math.max(result.peakMemory, memoryTracker.getPeakMemory());
+      // the read point performer decodes every point without counting the chunks
+      if (performerType != PerformerType.READ_POINT) {
+        result.isChunkCounted = true;
+        result.copiedChunkNum = summary.getDirectlyFlushChunkNum();
+        result.rewrittenChunkNum = summary.getDeserializeChunkCount();
+        result.copiedByteNum = summary.getDirectlyFlushByteNum();
+        result.rewrittenByteNum = summary.getRewriteByteNum();
+      }
+      result.rounds++;
+
+      FileReaderManager.getInstance().closeAndRemoveAllOpenedReaders();
+      for (TsFileResource targetFile : targetFiles) {
+        targetFile.remove();
+      }
+    }
+    return result;
+  }
+
+  private void generateFiles(boolean isSeq) throws IOException {
+    File dir = getTimePartitionDir(isSeq);
+    Files.createDirectories(dir.toPath());
+    int fileNum = isSeq ? config.seqFileNum : config.unseqFileNum;
+    for (int i = 0; i < fileNum; i++) {
+      long version = isSeq ? i + 1 : config.seqFileNum + i + 1L;
+      TsFileResource resource =
+          new TsFileResource(
+              new File(
+                  dir,
+                  version
+                      + IoTDBConstant.FILE_NAME_SEPARATOR
+                      + version
+                      + IoTDBConstant.FILE_NAME_SEPARATOR
+                      + 0
+                      + IoTDBConstant.FILE_NAME_SEPARATOR
+                      + 0
+                      + TsFileConstant.TSFILE_SUFFIX));
+      long pointNum = config.pointNumPerFile;
+      long seqStartTime = 2 * pointNum * (isSeq ? i : i % config.seqFileNum);
+      long overlappedPointNum = Math.round(pointNum * config.overlapRatio);
+      long startTime = isSeq ? seqStartTime : seqStartTime + pointNum - overlappedPointNum;
+      writeFile(resource, new TimeRange(startTime, startTime + pointNum - 1), isSeq);
+      resource.updatePlanIndexes(version);
+      resource.setStatusForTest(TsFileResourceStatus.NORMAL);
+      (isSeq ? seqResources : unseqResources).add(resource);
+    }
+  }
+
+  private void writeFile(TsFileResource resource, TimeRange timeRange, boolean isSeq)
+      throws IOException {
+    try (TsFileIOWriter writer = new TsFileIOWriter(resource.getTsFile())) {
+      for (int d = 0; d < config.deviceNum; d++) {
+        IDeviceID deviceId =
+            IDeviceID.Factory.DEFAULT_FACTORY.create(
+                DATABASE + IoTDBConstant.PATH_SEPARATOR + "d" + d);
+        writer.startChunkGroup(deviceId);
+        List<IMeasurementSchema> schemas = getMeasurementSchemas();
+        if (config.aligned) {
+          for (List<TimeRange> pages : splitChunks(timeRange)) {
+            TsFileGeneratorUtils.writeAlignedChunk(
+                new AlignedChunkWriterImpl(schemas), writer, pages, isSeq);
+          }
+        } else {
+          for (IMeasurementSchema schema : schemas) {
+            for (List<TimeRange> pages : splitChunks(timeRange)) {
+              TsFileGeneratorUtils.writeNonAlignedChunk(
+                  new ChunkWriterImpl(schema), writer, pages, isSeq);
+            }
+          }
+        }
+        writer.endChunkGroup();
+        resource.updateStartTime(deviceId, timeRange.getMin());
+        resource.updateEndTime(deviceId, timeRange.getMax());
+      }
+      writer.endFile();
+    }
+    resource.serialize();
+  }
+
+  private List<IMeasurementSchema> getMeasurementSchemas() {
+    List<IMeasurementSchema> schemas = new ArrayList<>();
+    for (int m = 0; m < config.measurementNum; m++) {
+      TSDataType dataType = config.dataTypes.get(m % config.dataTypes.size());
+      schemas.add(
+          new MeasurementSchema(
+              "s" + m,
+              dataType,
+              EncodingInferenceUtils.getDefaultEncoding(dataType),
+              config.compressionType));
+    }
+    return schemas;
+  }
+
+  /** Split the time range into chunks, and each chunk into pages. */
+  private List<List<TimeRange>> splitChunks(TimeRange timeRange) {
+    List<List<TimeRange>> chunks = new ArrayList<>();
+    for (long chunkStartTime = timeRange.getMin();
+        chunkStartTime <= timeRange.getMax();
+        chunkStartTime += config.pointNumPerChunk) {
+      long chunkEndTime =
+          Math.min(timeRange.getMax(), chunkStartTime + config.pointNumPerChunk - 1);
+      List<TimeRange> pages = new ArrayList<>();
+      for (long pageStartTime = chunkStartTime;
+          pageStartTime <= chunkEndTime;
+          pageStartTime += config.pointNumPerPage) {
+        pages.add(
+            new TimeRange(
+                pageStartTime, Math.min(chunkEndTime, pageStartTime + config.pointNumPerPage - 1)));
+      }
+      chunks.add(pages);
+    }
+    return chunks;
+  }
+
+  private List<TsFileResource> createTargetFiles(Scenario scenario) {
+    List<TsFileResource> targetFiles = new ArrayList<>();
+    if (scenario == Scenario.CROSS) {
+      for (TsFileResource seqResource : seqResources) {
+        targetFiles.add(
+            createTargetFile(seqResource, 0, 1, IoTDBConstant.CROSS_COMPACTION_TMP_FILE_SUFFIX));
+      }
+    } else {
+      TsFileResource firstResource = scenario.getSourceFiles(this).get(0);
+      targetFiles.add(
+          createTargetFile(firstResource, 1, 0, IoTDBConstant.INNER_COMPACTION_TMP_FILE_SUFFIX));
+    }
+    return targetFiles;
+  }
+
+  private TsFileResource createTargetFile(
+      TsFileResource sourceFile, int innerCompactionCnt, int crossCompactionCnt, String suffix) {
+    String sourceFileName = sourceFile.getTsFile().getName();
+    String[] fileNameParts = sourceFileName.split(IoTDBConstant.FILE_NAME_SEPARATOR);
+    File targetFile =
+        new File(
+            sourceFile.getTsFile().getParentFile(),
+            fileNameParts[0]
+                + IoTDBConstant.FILE_NAME_SEPARATOR
+                + fileNameParts[1]
+                + IoTDBConstant.FILE_NAME_SEPARATOR
+                + innerCompactionCnt
+                + IoTDBConstant.FILE_NAME_SEPARATOR
+                + crossCompactionCnt
+                + suffix);
+    TsFileResource targetResource = new TsFileResource(targetFile, TsFileResourceStatus.COMPACTING);
+    targetResource.setSeq(sourceFile.isSeq());
+    return targetResource;
+  }
+
+  private File getTimePartitionDir(boolean isSeq) {
+    return new File(
+        workDir,
+        (isSeq ? IoTDBConstant.SEQUENCE_FOLDER_NAME : IoTDBConstant.UNSEQUENCE_FOLDER_NAME)
+            + File.separator
+            + DATABASE
+            + File.separator
+            + DATA_REGION_ID
+            + File.separator
+            + TIME_PARTITION);
+  }
+
+  public enum Scenario {
+    INNER_SEQ(PerformerType.READ_CHUNK, PerformerType.FAST_INNER),
+    INNER_UNSEQ(PerformerType.FAST_INNER, PerformerType.READ_POINT),
+    CROSS(PerformerType.FAST_CROSS, PerformerType.READ_POINT);
+
+    private final List<PerformerType> performerTypes;
+
+    Scenario(PerformerType... performerTypes) {
+      List<PerformerType> types = new ArrayList<>();
+      Collections.addAll(types, performerTypes);
+      this.performerTypes = types;
+    }
+
+    private List<TsFileResource> getSourceFiles(CompactionBenchmark benchmark) {
+      switch (this) {
+        case INNER_SEQ:
+          return benchmark.seqResources;
+        case INNER_UNSEQ:
+          return benchmark.unseqResources;
+        case CROSS:
+        default:
+          if (benchmark.seqResources.isEmpty() || benchmark.unseqResources.isEmpty()) {
+            return Collections.emptyList();
+          }
+          List<TsFileResource> sourceFiles = new ArrayList<>(benchmark.seqResources);
+          sourceFiles.addAll(benchmark.unseqResources);
+          return sourceFiles;
+      }
+    }
+  }
+
+  public enum PerformerType {
+    READ_CHUNK(ReadChunkCompactionPerformer::new),
+    FAST_INNER(() -> new FastCompactionPerformer(false)),
+    FAST_CROSS(() -> new FastCompactionPerformer(true)),
+    READ_POINT(ReadPointCompactionPerformer::new);
+
+    private final Supplier<ICompactionPerformer> supplier;
+
+    PerformerType(Supplier<ICompactionPerformer> supplier) {
+      this.supplier = supplier;
+    }
+  }
+
+  /** The layout of the generated files and the settings of the benchmark. */
+  public static class Config {
+    private String dir = TestConstant.BASE_OUTPUT_PATH + "compaction-benchmark";
+    private int seqFileNum = 10;
+    private int unseqFileNum = 5;
+    private int deviceNum = 10;
+    private int measurementNum = 10;
+    // the point num of each series in each file
+    private long pointNumPerFile = 10000;
+    private long pointNumPerChunk = 1000;
+    private long pointNumPerPage = 100;
+    // the ratio of the points of an unseq file which overlap the points of a seq file
+    private double overlapRatio = 0.1;
+    private boolean aligned = false;
+    private List<TSDataType> dataTypes = Collections.singletonList(TSDataType.INT64);
+    private CompressionType compressionType = CompressionType.LZ4;
+    private int rounds = 3;
+
+    public static Config parse(String[] args) {
+      Config config = new Config();
+      for (String arg : args) {
+        String[] keyValue = arg.split("=", 2);
+        if (keyValue.length != 2) {
+          throw new IllegalArgumentException("Argument should be key=value: " + arg);
+        }
+        String value = keyValue[1].trim();
+        switch (keyValue[0].trim()) {
+          case "dir":
+            config.dir = value;
+            break;
+          case "seqFileNum":
+            config.seqFileNum = Integer.parseInt(value);
+            break;
+          case "unseqFileNum":
+            config.unseqFileNum = Integer.parseInt(value);
+            break;
+          case "deviceNum":
+            config.deviceNum = Integer.parseInt(value);
+            break;
+          case "measurementNum":
+            config.measurementNum = Integer.parseInt(value);
+            break;
+          case "pointNumPerFile":
+            config.pointNumPerFile = Long.parseLong(value);
+            break;
+          case "pointNumPerChunk":
+            config.pointNumPerChunk = Long.parseLong(value);
+            break;
+          case "pointNumPerPage":
+            config.pointNumPerPage = Long.parseLong(value);
+            break;
+          case "overlapRatio":
+            config.overlapRatio = Double.parseDouble(value);
+            break;
+          case "aligned":
+            config.aligned = Boolean.parseBoolean(value);
+            break;
+          case "dataTypes":
+            List<TSDataType> dataTypes = new ArrayList<>();
+            for (String dataType : value.split(",")) {
+              dataTypes.add(TSDataType.valueOf(dataType.trim().toUpperCase()));
+            }
+            config.dataTypes = dataTypes;
+            break;
+          case "compressionType":
+            config.compressionType = CompressionType.valueOf(value.toUpperCase());
+            break;
+          case "rounds":
+            config.rounds = Integer.parseInt(value);
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown argument: " + keyValue[0]);
+        }
+      }
+      config.check();
+      return config;
+    }
+
+    private void check() {
+      if (seqFileNum < 1 || unseqFileNum < 0 || deviceNum < 1 || measurementNum < 1) {
+        throw new IllegalArgumentException(
+            "seqFileNum, deviceNum and measurementNum should be positive, "
+                + "unseqFileNum should not be negative");
+      }
+      if (pointNumPerFile < 1 || pointNumPerChunk < 1 || pointNumPerPage < 1 || rounds < 1) {
+        throw new IllegalArgumentException(
+            "pointNumPerFile, pointNumPerChunk, pointNumPerPage and rounds should be positive");
+      }
+      if (overlapRatio < 0 || overlapRatio > 1) {
+        throw new IllegalArgumentException("overlapRatio should be in [0, 1]");
+      }
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "seqFileNum=%d, unseqFileNum=%d, deviceNum=%d, measurementNum=%d, pointNumPerFile=%d, "
+              + "pointNumPerChunk=%d, pointNumPerPage=%d, overlapRatio=%s, aligned=%s, "
+              + "dataTypes=%s, compressionType=%s, rounds=%d",
+          seqFileNum,
+          unseqFileNum,
+          deviceNum,
+          measurementNum,
+          pointNumPerFile,
+          pointNumPerChunk,
+          pointNumPerPage,
+          overlapRatio,
+          aligned,
+          dataTypes,
+          compressionType,
+          rounds);
+    }
+  }
+
+  /** The result of one performer in one scenario, averaged over the rounds. */
+  public static class Result {
+    private static final String NOT_AVAILABLE = "N/A";
+    private static final String HEADER =
+        String.format(
+            "%-12s%-12s%12s%12s%12s%14s%14s%14s%14s",
+            "scenario",
+            "performer",
+            "source(MB)",
+            "MB/s",
+            "peak(MB)",
+            "copiedChunk",
+            "rewriteChunk",
+            "copied(MB)",
+            "rewrite(MB)");
+
+    private final Scenario scenario;
+    private final PerformerType performerType;
+    private int rounds = 0;
+    private long sourceFileSize = 0;
+    private long timeCostInNanos = 0;
+    private long peakMemory = 0;
+    private boolean isChunkCounted = false;
+    private int copiedChunkNum = 0;
+    private int rewrittenChunkNum = 0;
+    private long copiedByteNum = 0;
+    private long rewrittenByteNum = 0;
+
+    private Result(Scenario scenario, PerformerType performerType) {
+      this.scenario = scenario;
+      this.performerType = performerType;
+    }
+
+    public Scenario getScenario() {
+      return scenario;
+    }
+
+    public PerformerType getPerformerType() {
+      return performerType;
+    }
+
+    public long getSourceFileSize() {
+      return sourceFileSize;
+    }
+
+    public double getThroughputInMBPerSec() {
+      return timeCostInNanos == 0
+          ? 0
+          : (double) sourceFileSize * rounds / MB / (timeCostInNanos / 1_000_000_000.0);
+    }
+
+    public long getPeakMemory() {
+      return peakMemory;
+    }
+
+    /** Whether the chunks and bytes copied vs. rewritten are counted by the performer. */
+    public boolean isChunkCounted() {
+      return isChunkCounted;
+    }
+
+    public int getCopiedChunkNum() {
+      return copiedChunkNum;
+    }
+
+    public int getRewrittenChunkNum() {
+      return rewrittenChunkNum;
+    }
+
+    public long getCopiedByteNum() {
+      return copiedByteNum;
+    }
+
+    public long getRewrittenByteNum() {
+      return rewrittenByteNum;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%-12s%-12s%12.2f%12.2f%12.2f%14s%14s%14s%14s",
+          scenario,
+          performerType,
+          (double) sourceFileSize / MB,
+          getThroughputInMBPerSec(),
+          (double) peakMemory / MB,
+          isChunkCounted ? String.valueOf(copiedChunkNum) : NOT_AVAILABLE,
+          isChunkCounted ? String.valueOf(rewrittenChunkNum) : NOT_AVAILABLE,
+          isChunkCounted ? String.format("%.2f", (double) copiedByteNum / MB) : NOT_AVAILABLE,
+          isChunkCounted ? String.format("%.2f", (double) rewrittenByteNum / MB) : NOT_AVAILABLE);
+    }
+  }
+}
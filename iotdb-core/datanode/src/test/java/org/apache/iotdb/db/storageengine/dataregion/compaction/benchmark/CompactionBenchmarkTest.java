@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.benchmark;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.benchmark.CompactionBenchmark.Config;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.benchmark.CompactionBenchmark.PerformerType;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.benchmark.CompactionBenchmark.Result;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.benchmark.CompactionBenchmark.Scenario;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+public class CompactionBenchmarkTest {
+
+  private File dir;
+
+  @Before
+  public void setUp() throws IOException, InterruptedException {
+    CompactionTaskManager.getInstance().restart();
+    dir = Files.createTempDirectory("compaction-benchmark-test").toFile();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    CompactionTaskManager.getInstance().stop();
+    FileUtils.deleteDirectory(dir);
+  }
+
+  @Test
+  public void testNonAlignedSeries() throws Exception {
+    checkResults(runBenchmark(false));
+  }
+
+  @Test
+  public void testAlignedSeries() throws Exception {
+    checkResults(runBenchmark(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalArgument() {
+    Config.parse(new String[] {"overlapRatio=2"});
+  }
+
+  private List<Result> runBenchmark(boolean aligned) throws Exception {
+    Config config =
+        Config.parse(
+            new String[] {
+              "dir=" + dir.getPath(),
+              "seqFileNum=3",
+              "unseqFileNum=2",
+              "deviceNum=2",
+              "measurementNum=3",
+              "pointNumPerFile=300",
+              "pointNumPerChunk=100",
+              "pointNumPerPage=20",
+              "overlapRatio=0.5",
+              "aligned=" + aligned,
+              "dataTypes=INT64,DOUBLE,TEXT",
+              "rounds=2"
+            });
+    return new CompactionBenchmark(config).run();
+  }
+
+  private void checkResults(List<Result> results) {
+    // 2 performers in each of the 3 scenarios
+    Assert.assertEquals(6, results.size());
+    for (Result result : results) {
+      Assert.assertTrue(result.getSourceFileSize() > 0);
+      Assert.assertTrue(result.getThroughputInMBPerSec() > 0);
+      // the read point performer does not count the chunks
+      Assert.assertEquals(
+          result.getPerformerType() != PerformerType.READ_POINT, result.isChunkCounted());
+      Assert.assertEquals(!result.isChunkCounted(), result.toString().contains("N/A"));
+      if (result.getScenario() == Scenario.CROSS
+          && result.getPerformerType() == PerformerType.FAST_CROSS) {
+        // the unseq files overlap only a part of the seq chunks
+        Assert.assertTrue(result.getRewrittenChunkNum() > 0);
+      }
+    }
+    // the generated files are removed
+    File[] files = dir.listFiles();
+    Assert.assertNotNull(files);
+    Assert.assertEquals(0, files.length);
+  }
+}
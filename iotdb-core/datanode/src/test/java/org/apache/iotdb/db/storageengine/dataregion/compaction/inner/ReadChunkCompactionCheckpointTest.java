@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.inner;
+
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.AbstractCompactionTest;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.ReadChunkCompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CompactionTaskSummary;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionUtils;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionCheckpoint;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionLogAnalyzer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.CompactionLogger;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.SimpleCompactionLogger;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.TsFileIdentifier;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.CompactionCheckerUtils;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.storageengine.dataregion.utils.TsFileResourceUtils;
+
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ReadChunkCompactionCheckpointTest extends AbstractCompactionTest {
+
+  private long originCheckpointInterval;
+
+  @Before
+  public void setUp()
+      throws IOException, WriteProcessException, MetadataException, InterruptedException {
+    super.setUp();
+    originCheckpointInterval =
+        IoTDBDescriptor.getInstance().getConfig().getCompactionCheckpointIntervalInByte();
+    // record a checkpoint after each device
+    IoTDBDescriptor.getInstance().getConfig().setCompactionCheckpointIntervalInByte(1);
+  }
+
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    super.tearDown();
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setCompactionCheckpointIntervalInByte(originCheckpointInterval);
+  }
+
+  @Test
+  public void testAnalyzeCheckpoint() throws IOException {
+    File logFile =
+        new File(SEQ_DIRS, "checkpoint" + CompactionLogger.INNER_COMPACTION_LOG_NAME_SUFFIX);
+    try (SimpleCompactionLogger logger = new SimpleCompactionLogger(logFile)) {
+      logger.logCheckpoint(new CompactionCheckpoint(0, 100));
+      logger.logCheckpoint(new CompactionCheckpoint(1, 200));
+    }
+    // an incomplete line left by a crash
+    try (FileOutputStream outputStream = new FileOutputStream(logFile, true)) {
+      outputStream.write(
+          (CompactionLogger.STR_CHECKPOINT + TsFileIdentifier.INFO_SEPARATOR + "2").getBytes());
+    }
+    CompactionLogAnalyzer logAnalyzer = new CompactionLogAnalyzer(logFile);
+    logAnalyzer.analyze();
+    CompactionCheckpoint checkpoint = logAnalyzer.getLastCheckpoint();
+    Assert.assertNotNull(checkpoint);
+    Assert.assertEquals(1, checkpoint.getTargetFileIndex());
+    Assert.assertEquals(200, checkpoint.getOffset());
+  }
+
+  @Test
+  public void testResumeFromCheckpoint() throws Exception {
+    createFiles(3, 6, 3, 100, 0, 0, 50, 50, false, true);
+    createFiles(2, 4, 5, 100, 1000, 0, 50, 50, true, true);
+    tsFileManager.addAll(seqResources, true);
+
+    // compact the files with checkpoints recorded in the log
+    File logFile = new File(SEQ_DIRS, "resume" + CompactionLogger.INNER_COMPACTION_LOG_NAME_SUFFIX);
+    TsFileResource targetResource =
+        TsFileNameGenerator.getInnerCompactionTargetFileResource(seqResources, true);
+    try (SimpleCompactionLogger logger = new SimpleCompactionLogger(logFile)) {
+      ReadChunkCompactionPerformer performer = new ReadChunkCompactionPerformer();
+      performer.setSummary(new CompactionTaskSummary());
+      performer.setSourceFiles(seqResources);
+      performer.setTargetFiles(Collections.singletonList(targetResource));
+      performer.setCheckpointLogger(logger);
+      performer.perform();
+    }
+    List<CompactionCheckpoint> checkpoints = new ArrayList<>();
+    for (String line : Files.readAllLines(logFile.toPath())) {
+      checkpoints.add(
+          CompactionCheckpoint.fromLogString(
+              line.substring(CompactionLogger.STR_CHECKPOINT.length() + 1)));
+    }
+    Assert.assertTrue(checkpoints.size() > 2);
+
+    // resume from a checkpoint in the middle, the data after it is rewritten
+    targetResource = TsFileNameGenerator.getInnerCompactionTargetFileResource(seqResources, true);
+    Assert.assertTrue(targetResource.getTsFile().exists());
+    try (SimpleCompactionLogger logger = new SimpleCompactionLogger(logFile)) {
+      ReadChunkCompactionPerformer performer = new ReadChunkCompactionPerformer();
+      performer.setSummary(new CompactionTaskSummary());
+      performer.setSourceFiles(seqResources);
+      performer.setTargetFiles(Collections.singletonList(targetResource));
+      performer.setCheckpointLogger(logger);
+      performer.setResumeCheckpoint(checkpoints.get(checkpoints.size() / 2));
+      performer.perform();
+    }
+    Assert.assertFalse(
+        new File(targetResource.getTsFilePath() + CompactionCheckpoint.CHECKPOINT_FILE_SUFFIX)
+            .exists());
+    CompactionUtils.moveTargetFile(
+        Collections.singletonList(targetResource),
+        CompactionTaskType.INNER_SEQ,
+        COMPACTION_TEST_SG);
+
+    Assert.assertEquals(10, targetResource.getDevices().size());
+    TsFileResourceUtils.validateTsFileDataCorrectness(targetResource);
+    Assert.assertTrue(
+        CompactionCheckerUtils.compareSourceDataAndTargetData(
+            CompactionCheckerUtils.getDataByQuery(
+                getPaths(seqResources), seqResources, unseqResources),
+            CompactionCheckerUtils.getDataByQuery(
+                getPaths(Collections.singletonList(targetResource)),
+                Collections.singletonList(targetResource),
+                Collections.emptyList())));
+  }
+
+  @Test
+  public void testDiscardResumableCompactionOfSelectedFiles() throws Exception {
+    createFiles(3, 2, 3, 100, 0, 0, 50, 50, false, true);
+    tsFileManager.addAll(seqResources, true);
+
+    // the compaction of the first two files is interrupted and kept for resuming
+    List<TsFileResource> interruptedSourceFiles = seqResources.subList(0, 2);
+    TsFileResource interruptedTargetFile =
+        TsFileNameGenerator.getInnerCompactionTargetFileResource(interruptedSourceFiles, true);
+    File resumableLogFile =
+        CompactionLogger.getResumableLogFile(
+            new File(
+                SEQ_DIRS,
+                interruptedTargetFile.getTsFile().getName()
+                    + CompactionLogger.INNER_COMPACTION_LOG_NAME_SUFFIX));
+    try (SimpleCompactionLogger logger = new SimpleCompactionLogger(resumableLogFile)) {
+      logger.logSourceFiles(interruptedSourceFiles);
+      logger.logTargetFile(interruptedTargetFile);
+      logger.logCheckpoint(new CompactionCheckpoint(0, 100));
+    }
+
+    // another task selects the last two files, the interrupted one can never be resumed
+    InnerSpaceCompactionTask task =
+        new InnerSpaceCompactionTask(
+            0,
+            tsFileManager,
+            new ArrayList<>(seqResources.subList(1, 3)),
+            true,
+            new ReadChunkCompactionPerformer(),
+            0);
+    Assert.assertTrue(task.start());
+    Assert.assertFalse(resumableLogFile.exists());
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class DiskIoTokenBucketTest {
+
+  private static final int MB = 1024 * 1024;
+  private static final long LATENCY_THRESHOLD_IN_MS = 50;
+
+  @Test
+  public void testThrottleAndRestoreWithoutLimit() {
+    long windowStartTime = System.currentTimeMillis();
+    DiskIoTokenBucket bucket = new DiskIoTokenBucket("data", windowStartTime);
+    bucket.setMaxRates(0, 0);
+    Assert.assertEquals(0, bucket.getReadRate());
+    Assert.assertEquals(0, bucket.getWriteRate());
+
+    for (int i = 0; i < 10; i++) {
+      bucket.acquireRead(MB, LATENCY_THRESHOLD_IN_MS);
+    }
+    bucket.recordForegroundRead(TimeUnit.MILLISECONDS.toNanos(100));
+    windowStartTime += DiskIoTokenBucket.WINDOW_IN_MS;
+    bucket.adjust(windowStartTime, LATENCY_THRESHOLD_IN_MS);
+    Assert.assertEquals(100, bucket.getLastForegroundReadLatencyInMs(), 0.001);
+    // half of the observed throughput
+    Assert.assertEquals(5 * MB, bucket.getReadRate());
+    // nothing is written, so the write rate is left unlimited
+    Assert.assertEquals(0, bucket.getWriteRate());
+
+    // the latency falls back and the compaction does not use the throttled rate
+    bucket.recordForegroundRead(TimeUnit.MILLISECONDS.toNanos(10));
+    windowStartTime += DiskIoTokenBucket.WINDOW_IN_MS;
+    bucket.adjust(windowStartTime, LATENCY_THRESHOLD_IN_MS);
+    Assert.assertEquals(10, bucket.getLastForegroundReadLatencyInMs(), 0.001);
+    Assert.assertEquals(0, bucket.getReadRate());
+    Assert.assertEquals(0, bucket.getWriteRate());
+  }
+
+  @Test
+  public void testRecoverGraduallyToConfiguredLimit() {
+    long windowStartTime = System.currentTimeMillis();
+    DiskIoTokenBucket bucket = new DiskIoTokenBucket("data", windowStartTime);
+    bucket.setMaxRates(64, 64);
+    Assert.assertEquals(64L * MB, bucket.getReadRate());
+
+    for (int i = 0; i < 4; i++) {
+      bucket.acquireRead(MB, LATENCY_THRESHOLD_IN_MS);
+    }
+    bucket.recordForegroundRead(TimeUnit.MILLISECONDS.toNanos(100));
+    windowStartTime += DiskIoTokenBucket.WINDOW_IN_MS;
+    bucket.adjust(windowStartTime, LATENCY_THRESHOLD_IN_MS);
+    Assert.assertEquals(2L * MB, bucket.getReadRate());
+
+    // the compaction is limited by the throttled rate, so the rate is doubled
+    for (int i = 0; i < 2; i++) {
+      bucket.acquireRead(MB, LATENCY_THRESHOLD_IN_MS);
+    }
+    windowStartTime += DiskIoTokenBucket.WINDOW_IN_MS;
+    bucket.adjust(windowStartTime, LATENCY_THRESHOLD_IN_MS);
+    Assert.assertEquals(4L * MB, bucket.getReadRate());
+
+    // the adaption is disabled
+    windowStartTime += DiskIoTokenBucket.WINDOW_IN_MS;
+    bucket.adjust(windowStartTime, 0);
+    Assert.assertEquals(64L * MB, bucket.getReadRate());
+    Assert.assertEquals(64L * MB, bucket.getWriteRate());
+  }
+
+  @Test
+  public void testIdleDirectionAndStaleWindowAreNotThrottled() {
+    long windowStartTime = System.currentTimeMillis();
+    DiskIoTokenBucket bucket = new DiskIoTokenBucket("data", windowStartTime);
+    bucket.setMaxRates(64, 64);
+
+    // the compaction is idle for a long time while the queries are slow
+    bucket.acquireRead(MB, LATENCY_THRESHOLD_IN_MS);
+    bucket.recordForegroundRead(TimeUnit.MILLISECONDS.toNanos(100));
+    windowStartTime += 10 * DiskIoTokenBucket.WINDOW_IN_MS;
+    bucket.adjust(windowStartTime, LATENCY_THRESHOLD_IN_MS);
+    Assert.assertEquals(64L * MB, bucket.getReadRate());
+    Assert.assertEquals(64L * MB, bucket.getWriteRate());
+
+    // only the read direction is used, the write direction keeps its rate
+    for (int i = 0; i < 2; i++) {
+      bucket.acquireRead(MB, LATENCY_THRESHOLD_IN_MS);
+    }
+    bucket.recordForegroundRead(TimeUnit.MILLISECONDS.toNanos(100));
+    windowStartTime += DiskIoTokenBucket.WINDOW_IN_MS;
+    bucket.adjust(windowStartTime, LATENCY_THRESHOLD_IN_MS);
+    Assert.assertEquals((long) DiskIoTokenBucket.MIN_RATE, bucket.getReadRate());
+    Assert.assertEquals(64L * MB, bucket.getWriteRate());
+    // the idle write direction does not prevent the pause
+    Assert.assertTrue(bucket.isForegroundOverloaded(windowStartTime, LATENCY_THRESHOLD_IN_MS));
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CompactionMemoryEstimateCalibratorTest {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final long MB = 1024 * 1024;
+  private static final String ESTIMATOR = "FastCompactionInnerCompactionEstimator";
+
+  private boolean enableCalibration;
+  private File dir;
+
+  @Before
+  public void setUp() throws IOException {
+    enableCalibration = config.isEnableCompactionMemoryEstimateCalibration();
+    config.setEnableCompactionMemoryEstimateCalibration(true);
+    dir = Files.createTempDirectory("calibration").toFile();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    config.setEnableCompactionMemoryEstimateCalibration(enableCalibration);
+    FileUtils.deleteDirectory(dir);
+  }
+
+  @Test
+  public void testLearnCorrectionFactor() {
+    CompactionMemoryEstimateCalibrator calibrator =
+        new CompactionMemoryEstimateCalibrator(new File(dir, "calibration"));
+    List<TsFileResource> resources = mockResources(4, 16 * MB);
+
+    for (int i = 0; i < CompactionMemoryEstimateCalibrator.MIN_SAMPLE_NUM - 1; i++) {
+      calibrator.record(ESTIMATOR, resources, 100 * MB, 150 * MB);
+      // not enough samples
+      Assert.assertEquals(100 * MB, calibrator.calibrate(ESTIMATOR, resources, 100 * MB));
+    }
+    calibrator.record(ESTIMATOR, resources, 100 * MB, 150 * MB);
+    // one and a half of the estimation with the safety margin
+    Assert.assertEquals(180 * MB, calibrator.calibrate(ESTIMATOR, resources, 100 * MB), MB);
+
+    // the calibrated estimation is used by the next task, and the factor stays stable
+    calibrator.record(ESTIMATOR, resources, 180 * MB, 150 * MB);
+    Assert.assertEquals(1.8, calibrator.getCorrectionFactor(ESTIMATOR, resources), 0.001);
+
+    // other buckets are not affected
+    Assert.assertEquals(
+        100 * MB, calibrator.calibrate(ESTIMATOR, mockResources(16, 16 * MB), 100 * MB));
+    Assert.assertEquals(
+        100 * MB, calibrator.calibrate(ESTIMATOR, mockResources(4, 512 * MB), 100 * MB));
+    Assert.assertEquals(
+        100 * MB, calibrator.calibrate("ReadChunkInnerCompactionEstimator", resources, 100 * MB));
+
+    // disabled
+    config.setEnableCompactionMemoryEstimateCalibration(false);
+    Assert.assertEquals(100 * MB, calibrator.calibrate(ESTIMATOR, resources, 100 * MB));
+  }
+
+  @Test
+  public void testClampCorrectionFactor() {
+    CompactionMemoryEstimateCalibrator calibrator =
+        new CompactionMemoryEstimateCalibrator(new File(dir, "calibration"));
+    List<TsFileResource> underEstimated = mockResources(2, MB);
+    List<TsFileResource> overEstimated = mockResources(8, MB);
+    for (int i = 0; i < CompactionMemoryEstimateCalibrator.MIN_SAMPLE_NUM; i++) {
+      calibrator.record(ESTIMATOR, underEstimated, MB, 100 * MB);
+      calibrator.record(ESTIMATOR, overEstimated, 100 * MB, MB);
+    }
+    Assert.assertEquals(
+        CompactionMemoryEstimateCalibrator.MAX_CORRECTION_FACTOR,
+        calibrator.getCorrectionFactor(ESTIMATOR, underEstimated),
+        0.001);
+    Assert.assertEquals(
+        CompactionMemoryEstimateCalibrator.MIN_CORRECTION_FACTOR,
+        calibrator.getCorrectionFactor(ESTIMATOR, overEstimated),
+        0.001);
+    // an over estimation is never lowered
+    Assert.assertEquals(100 * MB, calibrator.calibrate(ESTIMATOR, overEstimated, 100 * MB));
+  }
+
+  @Test
+  public void testPersistCorrectionFactor() {
+    File file = new File(dir, "calibration");
+    CompactionMemoryEstimateCalibrator calibrator = new CompactionMemoryEstimateCalibrator(file);
+    List<TsFileResource> resources = mockResources(4, 16 * MB);
+    for (int i = 0; i < CompactionMemoryEstimateCalibrator.MIN_SAMPLE_NUM; i++) {
+      calibrator.record(ESTIMATOR, resources, 100 * MB, 150 * MB);
+    }
+    calibrator.persist();
+    Assert.assertTrue(file.exists());
+
+    CompactionMemoryEstimateCalibrator recovered = new CompactionMemoryEstimateCalibrator(file);
+    Assert.assertEquals(1.8, recovered.getCorrectionFactor(ESTIMATOR, resources), 0.001);
+  }
+
+  private List<TsFileResource> mockResources(int fileNum, long fileSize) {
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < fileNum; i++) {
+      TsFileResource resource = Mockito.mock(TsFileResource.class);
+      Mockito.when(resource.getTsFileSize()).thenReturn(fileSize);
+      resources.add(resource);
+    }
+    return resources;
+  }
+}
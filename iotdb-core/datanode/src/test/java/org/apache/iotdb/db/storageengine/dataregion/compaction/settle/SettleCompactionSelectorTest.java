@@ -35,6 +35,7 @@ import org.apache.iotdb.db.storageengine.dataregion.modification.TreeDeletionEnt
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
 import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.utils.TsFileGeneratorUtils;
 import org.junit.After;
 import org.junit.Assert;
@@ -597,6 +598,116 @@ public class SettleCompactionSelectorTest extends AbstractCompactionTest {
     Assert.assertEquals(6, tsFileManager.getTsFileList(true).size());
   }
 
+  // base on the ratio of data deleted by mods
+  @Test
+  public void testSelectFileBaseOnDeletedDataRatioWithHeavySelect()
+      throws IOException, MetadataException, WriteProcessException {
+    float deletedDataRatio = IoTDBDescriptor.getInstance().getConfig().getDeletedDataRatio();
+    IoTDBDescriptor.getInstance().getConfig().setDeletedDataRatio(0.5f);
+    try {
+      createFiles(5, 5, 10, 200, 0, 0, 100, 100, false, true);
+      tsFileManager.addAll(seqResources, true);
+
+      // about 60% data of file 0 and 30% data of file 1 is deleted
+      for (int d = 0; d < 4; d++) {
+        addFileMods(
+            seqResources.get(0),
+            new MeasurementPath(
+                COMPACTION_TEST_SG + IoTDBConstant.PATH_SEPARATOR + "d" + d + ".**"),
+            0,
+            150);
+      }
+      for (int d = 0; d < 2; d++) {
+        addFileMods(
+            seqResources.get(1),
+            new MeasurementPath(
+                COMPACTION_TEST_SG + IoTDBConstant.PATH_SEPARATOR + "d" + d + ".**"),
+            300,
+            450);
+      }
+      for (TsFileResource resource : seqResources) {
+        resource.getModFileForWrite().close();
+      }
+
+      SettleSelectorImpl settleSelector =
+          new SettleSelectorImpl(
+              true, COMPACTION_TEST_SG, "0", 0, tsFileManager, new CompactionScheduleContext());
+      List<SettleCompactionTask> seqTasks = settleSelector.selectSettleTask(seqResources);
+      Assert.assertEquals(1, seqTasks.size());
+      Assert.assertEquals(0, seqTasks.get(0).getFullyDirtyFiles().size());
+      Assert.assertEquals(1, seqTasks.get(0).getPartiallyDirtyFiles().size());
+      Assert.assertEquals(seqResources.get(0), seqTasks.get(0).getPartiallyDirtyFiles().get(0));
+
+      // disabled
+      IoTDBDescriptor.getInstance().getConfig().setDeletedDataRatio(0);
+      Assert.assertTrue(settleSelector.selectSettleTask(seqResources).isEmpty());
+
+      IoTDBDescriptor.getInstance().getConfig().setDeletedDataRatio(0.5f);
+      Assert.assertTrue(seqTasks.get(0).start());
+      Assert.assertEquals(5, tsFileManager.getTsFileList(true).size());
+      Assert.assertFalse(tsFileManager.getTsFileList(true).get(0).anyModFileExists());
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setDeletedDataRatio(deletedDataRatio);
+    }
+  }
+
+  @Test
+  public void testMarkExpiredDevicesWithoutRewrite()
+      throws IOException, MetadataException, WriteProcessException {
+    boolean deferExpiredDataRewrite =
+        IoTDBDescriptor.getInstance().getConfig().isDeferExpiredDataRewrite();
+    IoTDBDescriptor.getInstance().getConfig().setDeferExpiredDataRewrite(true);
+    try {
+      createFiles(5, 5, 10, 200, 0, 0, 100, 100, false, true);
+      tsFileManager.addAll(seqResources, true);
+      // d0 and d1 are expired in all files
+      for (int d = 0; d < 2; d++) {
+        DataNodeTTLCache.getInstance()
+            .setTTLForTree(COMPACTION_TEST_SG + IoTDBConstant.PATH_SEPARATOR + "d" + d, 100);
+      }
+      // the other devices of file 0 are deleted by mods
+      for (int d = 2; d < 5; d++) {
+        addFileMods(
+            seqResources.get(0),
+            new MeasurementPath(
+                COMPACTION_TEST_SG + IoTDBConstant.PATH_SEPARATOR + "d" + d + ".**"),
+            Long.MIN_VALUE,
+            Long.MAX_VALUE);
+      }
+
+      // only the fully dirty file 0 is selected, the others are not rewritten
+      SettleSelectorImpl settleSelector =
+          new SettleSelectorImpl(
+              true, COMPACTION_TEST_SG, "0", 0, tsFileManager, new CompactionScheduleContext());
+      List<SettleCompactionTask> seqTasks = settleSelector.selectSettleTask(seqResources);
+      Assert.assertEquals(1, seqTasks.size());
+      Assert.assertEquals(1, seqTasks.get(0).getFullyDirtyFiles().size());
+      Assert.assertEquals(0, seqTasks.get(0).getPartiallyDirtyFiles().size());
+      Assert.assertEquals(seqResources.get(0), seqTasks.get(0).getFullyDirtyFiles().get(0));
+
+      IDeviceID d0 =
+          IDeviceID.Factory.DEFAULT_FACTORY.create(
+              COMPACTION_TEST_SG + IoTDBConstant.PATH_SEPARATOR + "d0");
+      IDeviceID d2 =
+          IDeviceID.Factory.DEFAULT_FACTORY.create(
+              COMPACTION_TEST_SG + IoTDBConstant.PATH_SEPARATOR + "d2");
+      TsFileResource resource = seqResources.get(1);
+      Assert.assertEquals(2, resource.getExpiredDeviceNum());
+      Assert.assertTrue(resource.isDeviceExpired(d0));
+      Assert.assertFalse(resource.isSatisfied(d0, null, true, false));
+      Assert.assertFalse(resource.isDeviceExpired(d2));
+      Assert.assertTrue(resource.isSatisfied(d2, null, true, false));
+
+      // the mark is ignored after the ttl is enlarged
+      DataNodeTTLCache.getInstance()
+          .setTTLForTree(COMPACTION_TEST_SG + IoTDBConstant.PATH_SEPARATOR + "d0", Long.MAX_VALUE);
+      Assert.assertFalse(resource.isDeviceExpired(d0));
+      Assert.assertTrue(resource.isSatisfied(d0, null, true, false));
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setDeferExpiredDataRewrite(deferExpiredDataRewrite);
+    }
+  }
+
   // endregion
 
   // region aligned test
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.utils;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionMemoryTracker;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class CompactionMemoryTrackerTest {
+
+  @Test
+  public void testReleaseDataHandedOffBySubTask() throws Exception {
+    CompactionMemoryTracker tracker = new CompactionMemoryTracker();
+    ExecutorService subTaskPool = Executors.newSingleThreadExecutor();
+    try (CompactionMemoryTracker.Binding ignored = tracker.bindToCurrentThread()) {
+      for (int i = 0; i < 3; i++) {
+        // the sub task reads a chunk and buffers it for the compaction thread
+        long handedOffMemory =
+            subTaskPool
+                .submit(
+                    CompactionMemoryTracker.wrap(
+                        () -> {
+                          CompactionMemoryTracker.recordRead(100, false);
+                          return CompactionMemoryTracker.handOffReadData();
+                        }))
+                .get();
+        Assert.assertEquals(100, handedOffMemory);
+        // the compaction thread writes the buffered chunk
+        CompactionMemoryTracker.recordChunkWritten(50);
+        CompactionMemoryTracker.releaseHandedOff(handedOffMemory);
+      }
+    } finally {
+      subTaskPool.shutdownNow();
+    }
+    // the data of each chunk is counted once
+    Assert.assertEquals(150, tracker.getPeakMemory());
+  }
+}
@@ -42,7 +42,9 @@ import org.mockito.Mockito;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.apache.tsfile.common.constant.TsFileConstant.PATH_SEPARATOR;
 
@@ -200,6 +202,49 @@ public class IoTDBSnapshotTest {
     }
   }
 
+  @Test
+  public void testGetIdenticalTsFiles() throws IOException, WriteProcessException {
+    String[][] originDataDirs = IoTDBDescriptor.getInstance().getConfig().getTierDataDirs();
+    IoTDBDescriptor.getInstance().getConfig().setTierDataDirs(testDataDirs);
+    TierManager.getInstance().resetFolders();
+    try {
+      List<TsFileResource> resources = writeTsFiles();
+      DataRegion region = new DataRegion(testSgName, "0");
+      region.getTsFileManager().addAll(resources, true);
+      String snapshotDirPath =
+          "snapshotId"
+              + File.separator
+              + "sequence"
+              + File.separator
+              + testSgName
+              + File.separator
+              + "0"
+              + File.separator
+              + "0"
+              + File.separator;
+      File identicalFile = resources.get(0).getTsFile();
+      Map<String, Long> snapshotFiles = new HashMap<>();
+      snapshotFiles.put(snapshotDirPath + identicalFile.getName(), identicalFile.length());
+      // a TsFile with a different size
+      File modifiedFile = resources.get(1).getTsFile();
+      snapshotFiles.put(snapshotDirPath + modifiedFile.getName(), modifiedFile.length() + 1);
+      // resources are always transmitted
+      File resourceFile = new File(identicalFile.getPath() + TsFileResource.RESOURCE_SUFFIX);
+      snapshotFiles.put(snapshotDirPath + resourceFile.getName(), resourceFile.length());
+      // a TsFile that the region does not hold
+      snapshotFiles.put(snapshotDirPath + "1000-1000-0-0.tsfile", identicalFile.length());
+
+      Map<String, File> identicalTsFiles =
+          new SnapshotTaker(region).getIdenticalTsFiles(snapshotFiles);
+      Assert.assertEquals(1, identicalTsFiles.size());
+      Assert.assertEquals(
+          identicalFile, identicalTsFiles.get(snapshotDirPath + identicalFile.getName()));
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setTierDataDirs(originDataDirs);
+      TierManager.getInstance().resetFolders();
+    }
+  }
+
   @Test
   public void testGetSnapshotFile() throws IOException {
     File tsFile =
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.utils.lastCacheSnapshot;
+
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TableDeviceLastCache;
+import org.apache.iotdb.db.storageengine.StorageEngine;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegionTest;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.utils.TsPrimitiveType;
+import org.apache.tsfile.write.record.TSRecord;
+import org.apache.tsfile.write.record.datapoint.DataPoint;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class LastCacheSnapshotTest {
+
+  private static final String DATABASE = "root.vehicle";
+  private static final IDeviceID DEVICE =
+      IDeviceID.Factory.DEFAULT_FACTORY.create("root.vehicle.d0");
+
+  private final String systemDir = TestConstant.OUTPUT_DATA_DIR.concat("info");
+  private boolean originalEnableLastCacheSnapshot;
+  private DataRegion dataRegion;
+
+  @Before
+  public void setUp() throws Exception {
+    originalEnableLastCacheSnapshot =
+        IoTDBDescriptor.getInstance().getConfig().isEnableLastCacheSnapshot();
+    IoTDBDescriptor.getInstance().getConfig().setEnableLastCacheSnapshot(true);
+    EnvironmentUtils.envSetUp();
+    dataRegion = new DataRegionTest.DummyDataRegion(systemDir, DATABASE);
+    StorageEngine.getInstance().setDataRegion(new DataRegionId(0), dataRegion);
+    CompactionTaskManager.getInstance().start();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (dataRegion != null) {
+      dataRegion.syncDeleteDataFiles();
+      StorageEngine.getInstance().deleteDataRegion(new DataRegionId(0));
+    }
+    EnvironmentUtils.cleanDir(TestConstant.OUTPUT_DATA_DIR);
+    CompactionTaskManager.getInstance().stop();
+    EnvironmentUtils.cleanEnv();
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setEnableLastCacheSnapshot(originalEnableLastCacheSnapshot);
+  }
+
+  @Test
+  public void testGenerateAndReadSnapshot() throws Exception {
+    for (int i = 1; i <= 10; i++) {
+      final TSRecord record = new TSRecord("root.vehicle.d0", i);
+      record.addTuple(DataPoint.getDataPoint(TSDataType.INT32, "s0", String.valueOf(i)));
+      if (i <= 5) {
+        record.addTuple(DataPoint.getDataPoint(TSDataType.DOUBLE, "s1", String.valueOf(i * 2)));
+      }
+      dataRegion.insert(DataRegionTest.buildInsertRowNodeByTSRecord(record));
+    }
+    dataRegion.syncCloseAllWorkingTsFileProcessors();
+
+    Assert.assertEquals(1, dataRegion.getSequenceFileList().size());
+    final TsFileResource resource = dataRegion.getSequenceFileList().get(0);
+    Assert.assertTrue(LastCacheSnapshotFile.exists(resource));
+
+    final Map<String, TimeValuePair> lastValues =
+        LastCacheSnapshotFile.read(resource.getTsFile()).get(DEVICE);
+    Assert.assertEquals(10, lastValues.get("").getTimestamp());
+    Assert.assertEquals(10, lastValues.get("s0").getTimestamp());
+    Assert.assertEquals(10, lastValues.get("s0").getValue().getInt());
+    Assert.assertEquals(5, lastValues.get("s1").getTimestamp());
+    Assert.assertEquals(10.0, lastValues.get("s1").getValue().getDouble(), 0);
+
+    resource.remove();
+    Assert.assertFalse(LastCacheSnapshotFile.exists(resource));
+  }
+
+  @Test
+  public void testMergeSnapshots() {
+    final LastCacheSnapshotLoader loader = new LastCacheSnapshotLoader(DATABASE);
+    final IDeviceID anotherDevice = IDeviceID.Factory.DEFAULT_FACTORY.create("root.vehicle.d1");
+
+    loader.merge(buildSnapshot(DEVICE, 10, 1));
+    loader.merge(buildSnapshot(DEVICE, 20, 2));
+    loader.merge(buildSnapshot(DEVICE, 15, 3));
+    Assert.assertEquals(2, loader.getDevice2LastValues().get(DEVICE).get("s0").getValue().getInt());
+
+    // The same last time in different files cannot tell which value is the latest
+    loader.merge(buildSnapshot(anotherDevice, 10, 1));
+    loader.merge(buildSnapshot(anotherDevice, 10, 2));
+    Assert.assertFalse(loader.getDevice2LastValues().containsKey(anotherDevice));
+    Assert.assertTrue(loader.getSkippedDevices().contains(anotherDevice));
+  }
+
+  private static Map<IDeviceID, Map<String, TimeValuePair>> buildSnapshot(
+      final IDeviceID deviceID, final long time, final int value) {
+    final Map<String, TimeValuePair> measurement2LastValue = new HashMap<>();
+    measurement2LastValue.put(
+        "", new TimeValuePair(time, TableDeviceLastCache.EMPTY_PRIMITIVE_TYPE));
+    measurement2LastValue.put("s0", new TimeValuePair(time, new TsPrimitiveType.TsInt(value)));
+    return Collections.singletonMap(deviceID, measurement2LastValue);
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.rescon.disk;
+
+import org.apache.iotdb.commons.conf.CommonConfig;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class TierManagerTest {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final CommonConfig commonConfig = CommonDescriptor.getInstance().getConfig();
+  private static final long TIER_TTL_IN_MS = 60_000L;
+
+  private final String[][] testTierDataDirs =
+      new String[][] {{"target/tier/data0"}, {"target/tier/data1"}};
+
+  private String[][] tierDataDirs;
+  private long[] tierTTLInMs;
+  private boolean enableTierAwareCompaction;
+
+  @Before
+  public void setUp() {
+    tierDataDirs = config.getTierDataDirs();
+    tierTTLInMs = commonConfig.getTierTTLInMs();
+    enableTierAwareCompaction = config.isEnableTierAwareCompaction();
+    config.setTierDataDirs(testTierDataDirs);
+    commonConfig.setTierTTLInMs(new long[] {TIER_TTL_IN_MS, Long.MAX_VALUE});
+    TierManager.getInstance().resetFolders();
+  }
+
+  @After
+  public void tearDown() {
+    config.setTierDataDirs(tierDataDirs);
+    commonConfig.setTierTTLInMs(tierTTLInMs);
+    config.setEnableTierAwareCompaction(enableTierAwareCompaction);
+    TierManager.getInstance().resetFolders();
+    FileUtils.deleteQuietly(new File("target/tier"));
+  }
+
+  @Test
+  public void testGetTierLevelOfDataTime() {
+    long currentTime = System.currentTimeMillis();
+    Assert.assertEquals(0, TierManager.getInstance().getTierLevelOfDataTime(currentTime));
+    Assert.assertEquals(
+        1, TierManager.getInstance().getTierLevelOfDataTime(currentTime - 2 * TIER_TTL_IN_MS));
+    Assert.assertEquals(1, TierManager.getInstance().getTierLevelOfDataTime(0));
+  }
+
+  @Test
+  public void testCompactionTargetInTierOfData() throws Exception {
+    long currentTime = System.currentTimeMillis();
+    TsFileResource expiredSource = createSourceFile(1, currentTime - 2 * TIER_TTL_IN_MS);
+    TsFileResource recentSource = createSourceFile(2, currentTime);
+    Assert.assertEquals(0, expiredSource.getTierLevel());
+
+    // all the data has expired the ttl of tier 0, the target is written to tier 1 directly
+    TsFileResource target =
+        TsFileNameGenerator.getInnerCompactionTargetFileResource(
+            Collections.singletonList(expiredSource), true);
+    Assert.assertEquals(1, target.getTierLevel());
+    Assert.assertTrue(
+        target
+            .getTsFile()
+            .getAbsolutePath()
+            .startsWith(new File(testTierDataDirs[1][0]).getAbsolutePath()));
+
+    // the recent data keeps the target in tier 0
+    target =
+        TsFileNameGenerator.getInnerCompactionTargetFileResource(
+            Arrays.asList(expiredSource, recentSource), true);
+    Assert.assertEquals(0, target.getTierLevel());
+
+    config.setEnableTierAwareCompaction(false);
+    target =
+        TsFileNameGenerator.getInnerCompactionTargetFileResource(
+            Collections.singletonList(expiredSource), true);
+    Assert.assertEquals(0, target.getTierLevel());
+  }
+
+  private TsFileResource createSourceFile(long version, long endTime) throws Exception {
+    File file =
+        new File(
+            testTierDataDirs[0][0]
+                + File.separator
+                + "sequence"
+                + File.separator
+                + "root.testsg"
+                + File.separator
+                + "0"
+                + File.separator
+                + "0"
+                + File.separator
+                + TsFileNameGenerator.generateNewTsFileName(version, version, 0, 0));
+    FileUtils.forceMkdirParent(file);
+    Assert.assertTrue(file.createNewFile());
+    TsFileResource resource = new TsFileResource(file);
+    IDeviceID device = IDeviceID.Factory.DEFAULT_FACTORY.create("root.testsg.d0");
+    resource.updateStartTime(device, endTime - 100);
+    resource.updateEndTime(device, endTime);
+    return resource;
+  }
+}
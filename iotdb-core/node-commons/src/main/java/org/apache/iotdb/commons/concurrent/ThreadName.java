@@ -112,6 +112,8 @@ public enum ThreadName {
   IOT_CONSENSUS_RPC_PROCESSOR("IoTConsensusRPC-Processor"),
   ASYNC_DATANODE_IOT_CONSENSUS_CLIENT_POOL("AsyncDataNodeIoTConsensusServiceClientPool"),
   LOG_DISPATCHER("LogDispatcher"),
+  SYNC_LOG_APPLIER("SyncLogApplier"),
+  IOT_CONSENSUS_SNAPSHOT_TRANSMISSION("IoTConsensusSnapshotTransmission"),
   IOT_CONSENSUS_BACKGROUND_TASK_EXECUTOR("IoTConsensusBackgroundTaskExecutor"),
   // -------------------------- Ratis --------------------------
   // NOTICE: The thread name of ratis cannot be edited here!
@@ -127,6 +129,7 @@ public enum ThreadName {
   LOG_APPENDER("GrpcLogAppender"),
   EVENT_PROCESSOR("EventProcessor"),
   RATIS_BG_DISK_GUARDIAN("RatisBgDiskGuardian"),
+  RATIS_BATCH_APPLIER("RatisBatchApplier"),
   GRPC_DEFAULT_BOSS_ELG("grpc-default-boss-ELG"),
   GRPC_DEFAULT_EXECUTOR("grpc-default-executor"),
   GPRC_DEFAULT_WORKER_ELG("grpc-default-worker-ELG"),
@@ -258,6 +261,8 @@ public enum ThreadName {
               IOT_CONSENSUS_RPC_PROCESSOR,
               ASYNC_DATANODE_IOT_CONSENSUS_CLIENT_POOL,
               LOG_DISPATCHER,
+              SYNC_LOG_APPLIER,
+              IOT_CONSENSUS_SNAPSHOT_TRANSMISSION,
               IOT_CONSENSUS_BACKGROUND_TASK_EXECUTOR));
 
   private static final Set<ThreadName> pipeConsensusThreadNames =
@@ -283,6 +288,7 @@ public enum ThreadName {
               LOG_APPENDER,
               EVENT_PROCESSOR,
               RATIS_BG_DISK_GUARDIAN,
+              RATIS_BATCH_APPLIER,
               GRPC_DEFAULT_BOSS_ELG,
               GPRC_DEFAULT_WORKER_ELG,
               GRPC_DEFAULT_EXECUTOR,
@@ -54,7 +54,9 @@ public enum Metric {
   STAGE("stage"),
   IOT_CONSENSUS("iot_consensus"),
   IOT_SEND_LOG("iot_send_log"),
+  IOT_SEND_LOG_BYTES("iot_send_log_bytes"),
   IOT_RECEIVE_LOG("iot_receive_log"),
+  IOT_APPLY_LOG_RATE("iot_apply_log_rate"),
   PIPE_CONSENSUS("pipe_consensus"),
   PIPE_CONSENSUS_MODE("pipe_consensus_mode"),
   PIPE_SEND_EVENT("pipe_send_event"),
@@ -62,6 +64,8 @@ public enum Metric {
   PIPE_RECEIVE_EVENT("pipe_receive_event"),
   RATIS_CONSENSUS_WRITE("ratis_consensus_write"),
   RATIS_CONSENSUS_READ("ratis_consensus_read"),
+  RATIS_CONSENSUS_APPLY_BATCH_SIZE("ratis_consensus_apply_batch_size"),
+  RATIS_CONSENSUS_ESTIMATED_LEASE("ratis_consensus_estimated_lease"),
   // storage engine related
   POINTS("points"),
   POINTS_IN("points_in"),
@@ -93,11 +97,17 @@ public enum Metric {
   COMPACTION_TASK_COUNT("compaction_task_count"),
   COMPACTION_TASK_MEMORY("compaction_task_memory"),
   COMPACTION_TASK_MEMORY_DISTRIBUTION("compaction_task_memory_distribution"),
+  COMPACTION_TASK_PEAK_MEMORY("compaction_task_peak_memory"),
+  COMPACTION_MEMORY_ESTIMATE_ACCURACY("compaction_memory_estimate_accuracy"),
   COMPACTION_TASK_SELECTION("compaction_task_selection"),
   COMPACTION_TASK_SELECTION_COST("compaction_task_selection_cost"),
   COMPACTION_TASK_SELECTED_FILE("compaction_task_selected_file"),
+  COMPACTION_TASK_WORKLOAD_SCORE("compaction_task_workload_score"),
   COMPACTION_TASK_SELECTED_FILE_SIZE("compaction_task_selected_file_size"),
   COMPACTION_SELECTION_CACHED_TIME_INDEX_SIZE("compaction_selection_cached_time_index_size"),
+  COMPACTION_DISK_IO_SIZE("compaction_disk_io_size"),
+  COMPACTION_DISK_IO_RATE_LIMIT("compaction_disk_io_rate_limit"),
+  COMPACTION_FOREGROUND_READ_LATENCY("compaction_foreground_read_latency"),
   // schema engine related
   MEM("mem"),
   CACHE("cache"),
@@ -120,6 +130,7 @@ public enum Metric {
   DISPATCHER("dispatcher"),
   QUERY_EXECUTION("query_execution"),
   AGGREGATION("aggregation"),
+  AGGREGATION_POINTS("aggregation_points"),
   QUERY_RESOURCE("query_resource"),
   DATA_EXCHANGE_COST("data_exchange_cost"),
   DATA_EXCHANGE_COUNT("data_exchange_count"),
@@ -93,6 +93,11 @@ struct TRatisConfig {
 
   33: required i64 schemaRegionPeriodicSnapshotInterval
   34: required i64 dataRegionPeriodicSnapshotInterval
+
+  35: optional i32 schemaRegionApplyBatchSizeMax
+
+  36: optional bool schemaRegionLeaderLeaseEnabled
+  37: optional double schemaRegionLeaderLeaseTimeoutRatio
 }
 
 struct TCQConfig {
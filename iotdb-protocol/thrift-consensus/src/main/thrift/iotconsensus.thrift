@@ -33,10 +33,17 @@ struct TSyncLogEntriesReq {
   1: required i32 peerId
   2: required common.TConsensusGroupId consensusGroupId
   3: required list<TLogEntry> logEntries
+  # if set, logEntries is empty and the entries are serialized and compressed into
+  # compressedLogEntries with the compression type
+  4: optional i8 compressionType
+  5: optional binary compressedLogEntries
+  6: optional i32 uncompressedSize
 }
 
 struct TSyncLogEntriesRes {
   1: required list<common.TSStatus> statuses
+  # compression types of the log entries that the receiver is able to decompress
+  2: optional list<i8> supportedCompressionTypes
 }
 
 struct TInactivatePeerReq {
@@ -107,6 +114,26 @@ struct TSendSnapshotFragmentRes {
   1: required common.TSStatus status
 }
 
+struct TSnapshotFile {
+  1: required string filePath
+  2: required i64 fileSize
+  // MD5 of the file content, a file without it is never reused but may be reported as a candidate
+  3: optional binary fileDigest
+}
+
+struct TReuseSnapshotFilesReq {
+  1: required common.TConsensusGroupId consensusGroupId
+  2: required string snapshotId
+  3: required list<TSnapshotFile> snapshotFiles
+}
+
+struct TReuseSnapshotFilesRes {
+  1: required common.TSStatus status
+  2: optional list<string> reusedFilePaths
+  // the files without a digest that may be reused, the sender digests only them and asks again
+  3: optional list<string> candidateFilePaths
+}
+
 struct TTriggerSnapshotLoadReq {
   1: required common.TConsensusGroupId consensusGroupId
   2: required string snapshotId
@@ -133,6 +160,7 @@ service IoTConsensusIService {
   TRemoveSyncLogChannelRes removeSyncLogChannel(TRemoveSyncLogChannelReq req)
   TWaitSyncLogCompleteRes waitSyncLogComplete(TWaitSyncLogCompleteReq req)
   TWaitReleaseAllRegionRelatedResourceRes waitReleaseAllRegionRelatedResource(TWaitReleaseAllRegionRelatedResourceReq req)
+  TReuseSnapshotFilesRes reuseSnapshotFiles(TReuseSnapshotFilesReq req)
   TSendSnapshotFragmentRes sendSnapshotFragment(TSendSnapshotFragmentReq req)
   TTriggerSnapshotLoadRes triggerSnapshotLoad(TTriggerSnapshotLoadReq req)
   TCleanupTransferredSnapshotRes cleanupTransferredSnapshot(TCleanupTransferredSnapshotReq req)